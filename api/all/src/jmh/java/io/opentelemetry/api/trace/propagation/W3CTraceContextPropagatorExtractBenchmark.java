@@ -5,9 +5,14 @@
 
 package io.opentelemetry.api.trace.propagation;
 
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.internal.ExtendedTextMapGetter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -72,6 +77,152 @@ public class W3CTraceContextPropagatorExtractBenchmark {
     return result;
   }
 
+  private final TextMapGetter<Map<String, CharSequence>> stringGetter =
+      new TextMapGetter<Map<String, CharSequence>>() {
+        @Override
+        public Iterable<String> keys(Map<String, CharSequence> carrier) {
+          return carrier.keySet();
+        }
+
+        @Override
+        @Nullable
+        public String get(Map<String, CharSequence> carrier, String key) {
+          CharSequence value = carrier.get(key);
+          return value == null ? null : value.toString();
+        }
+      };
+
+  private final TextMapGetter<Map<String, CharSequence>> charSequenceGetter =
+      new ExtendedTextMapGetter<Map<String, CharSequence>>() {
+        @Override
+        public Iterable<String> keys(Map<String, CharSequence> carrier) {
+          return carrier.keySet();
+        }
+
+        @Override
+        @Nullable
+        public String get(Map<String, CharSequence> carrier, String key) {
+          CharSequence value = carrier.get(key);
+          return value == null ? null : value.toString();
+        }
+
+        @Override
+        @Nullable
+        public CharSequence getCharSequence(Map<String, CharSequence> carrier, String key) {
+          return carrier.get(key);
+        }
+      };
+  private static final List<Map<String, CharSequence>> byteCarriers =
+      getByteCarrierForHeader(traceparentsHeaders);
+  private static final List<ByteBuffer> byteBuffers = getByteBuffers(traceparentsHeaders);
+
+  /**
+   * Benchmark for measuring HttpTraceContext extract from header values held as bytes, like in
+   * Netty or Undertow, with a getter converting them to a {@link String}.
+   */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @OperationsPerInvocation(COUNT)
+  @Nullable
+  public Context measureExtract_bytesAsString() {
+    Context result = null;
+    for (int i = 0; i < COUNT; i++) {
+      result =
+          w3cTraceContextPropagator.extract(Context.root(), byteCarriers.get(i), stringGetter);
+    }
+    return result;
+  }
+
+  /**
+   * Benchmark for measuring HttpTraceContext extract from header values held as bytes, like in
+   * Netty or Undertow, with a getter returning a view over the bytes.
+   */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @OperationsPerInvocation(COUNT)
+  @Nullable
+  public Context measureExtract_bytesAsCharSequence() {
+    Context result = null;
+    for (int i = 0; i < COUNT; i++) {
+      result =
+          w3cTraceContextPropagator.extract(
+              Context.root(), byteCarriers.get(i), charSequenceGetter);
+    }
+    return result;
+  }
+
+  /** Benchmark for measuring traceparent decoding straight from header bytes. */
+  @Benchmark
+  @BenchmarkMode({Mode.AverageTime})
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  @OperationsPerInvocation(COUNT)
+  @Nullable
+  public SpanContext measureDecodeTraceParent_byteBuffer() {
+    SpanContext result = null;
+    for (int i = 0; i < COUNT; i++) {
+      result = W3CTraceContextEncoding.decodeTraceParent(byteBuffers.get(i));
+    }
+    return result;
+  }
+
+  private static List<Map<String, CharSequence>> getByteCarrierForHeader(List<String> headers) {
+    List<Map<String, CharSequence>> carriers = new ArrayList<>();
+    for (String header : headers) {
+      Map<String, CharSequence> carrier = new HashMap<>();
+      carrier.put(TRACEPARENT, new AsciiBytes(header.getBytes(StandardCharsets.US_ASCII)));
+      carriers.add(carrier);
+    }
+    return carriers;
+  }
+
+  private static List<ByteBuffer> getByteBuffers(List<String> headers) {
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (String header : headers) {
+      buffers.add(ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII)));
+    }
+    return buffers;
+  }
+
+  /** A minimal stand-in for byte backed header values such as Netty's {@code AsciiString}. */
+  private static final class AsciiBytes implements CharSequence {
+    private final byte[] bytes;
+
+    private AsciiBytes(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public int length() {
+      return bytes.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (bytes[index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new AsciiBytes(Arrays.copyOfRange(bytes, start, end));
+    }
+
+    @Override
+    public String toString() {
+      return new String(bytes, StandardCharsets.US_ASCII);
+    }
+  }
+
   private static List<Map<String, String>> getCarrierForHeader(List<String> headers) {
     List<Map<String, String>> carriers = new ArrayList<>();
     for (String header : headers) {
@@ -5,10 +5,10 @@
 
 package io.opentelemetry.api.trace.propagation;
 
+import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.decodeTraceParent;
 import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.decodeTraceState;
 import static io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding.encodeTraceState;
 
-import io.opentelemetry.api.internal.OtelEncodingUtils;
 import io.opentelemetry.api.internal.TemporaryBuffers;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
@@ -20,12 +20,11 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.context.propagation.internal.ExtendedTextMapGetter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -59,22 +58,8 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
   private static final int TRACE_OPTION_OFFSET =
       SPAN_ID_OFFSET + SPAN_ID_HEX_SIZE + TRACEPARENT_DELIMITER_SIZE;
   private static final int TRACEPARENT_HEADER_SIZE = TRACE_OPTION_OFFSET + TRACE_OPTION_HEX_SIZE;
-  private static final Set<String> VALID_VERSIONS;
-  private static final String VERSION_00 = "00";
   private static final W3CTraceContextPropagator INSTANCE = new W3CTraceContextPropagator();
 
-  static {
-    // A valid version is 1 byte representing an 8-bit unsigned integer, version ff is invalid.
-    VALID_VERSIONS = new HashSet<>();
-    for (int i = 0; i < 255; i++) {
-      String version = Long.toHexString(i);
-      if (version.length() < 2) {
-        version = '0' + version;
-      }
-      VALID_VERSIONS.add(version);
-    }
-  }
-
   private W3CTraceContextPropagator() {
     // singleton
   }
@@ -147,12 +132,16 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
   }
 
   private static <C> SpanContext extractImpl(@Nullable C carrier, TextMapGetter<C> getter) {
-    String traceParent = getter.get(carrier, TRACE_PARENT);
+    // Avoid converting byte based header values to a String when the carrier supports it.
+    CharSequence traceParent =
+        getter instanceof ExtendedTextMapGetter
+            ? ((ExtendedTextMapGetter<C>) getter).getCharSequence(carrier, TRACE_PARENT)
+            : getter.get(carrier, TRACE_PARENT);
     if (traceParent == null) {
       return SpanContext.getInvalid();
     }
 
-    SpanContext contextFromParentHeader = extractContextFromTraceParent(traceParent);
+    SpanContext contextFromParentHeader = decodeTraceParent(traceParent);
     if (!contextFromParentHeader.isValid()) {
       return contextFromParentHeader;
     }
@@ -175,45 +164,6 @@ public final class W3CTraceContextPropagator implements TextMapPropagator {
     }
   }
 
-  private static SpanContext extractContextFromTraceParent(String traceparent) {
-    // TODO(bdrutu): Do we need to verify that version is hex and that
-    // for the version the length is the expected one?
-    boolean isValid =
-        (traceparent.length() == TRACEPARENT_HEADER_SIZE
-                || (traceparent.length() > TRACEPARENT_HEADER_SIZE
-                    && traceparent.charAt(TRACEPARENT_HEADER_SIZE) == TRACEPARENT_DELIMITER))
-            && traceparent.charAt(TRACE_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
-            && traceparent.charAt(SPAN_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
-            && traceparent.charAt(TRACE_OPTION_OFFSET - 1) == TRACEPARENT_DELIMITER;
-    if (!isValid) {
-      logger.fine("Unparseable traceparent header. Returning INVALID span context.");
-      return SpanContext.getInvalid();
-    }
-
-    String version = traceparent.substring(0, 2);
-    if (!VALID_VERSIONS.contains(version)) {
-      return SpanContext.getInvalid();
-    }
-    if (version.equals(VERSION_00) && traceparent.length() > TRACEPARENT_HEADER_SIZE) {
-      return SpanContext.getInvalid();
-    }
-
-    String traceId = traceparent.substring(TRACE_ID_OFFSET, TRACE_ID_OFFSET + TraceId.getLength());
-    String spanId = traceparent.substring(SPAN_ID_OFFSET, SPAN_ID_OFFSET + SpanId.getLength());
-    char firstTraceFlagsChar = traceparent.charAt(TRACE_OPTION_OFFSET);
-    char secondTraceFlagsChar = traceparent.charAt(TRACE_OPTION_OFFSET + 1);
-
-    if (!OtelEncodingUtils.isValidBase16Character(firstTraceFlagsChar)
-        || !OtelEncodingUtils.isValidBase16Character(secondTraceFlagsChar)) {
-      return SpanContext.getInvalid();
-    }
-
-    TraceFlags traceFlags =
-        TraceFlags.fromByte(
-            OtelEncodingUtils.byteFromBase16(firstTraceFlagsChar, secondTraceFlagsChar));
-    return SpanContext.createFromRemoteParent(traceId, spanId, traceFlags, TraceState.getDefault());
-  }
-
   @Override
   public String toString() {
     return "W3CTraceContextPropagator";
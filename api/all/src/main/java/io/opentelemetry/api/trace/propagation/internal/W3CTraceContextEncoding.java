@@ -7,15 +7,24 @@ package io.opentelemetry.api.trace.propagation.internal;
 
 import static io.opentelemetry.api.internal.Utils.checkArgument;
 
+import io.opentelemetry.api.internal.ImmutableSpanContext;
+import io.opentelemetry.api.internal.OtelEncodingUtils;
+import io.opentelemetry.api.internal.TemporaryBuffers;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.api.trace.TraceStateBuilder;
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
 import java.util.regex.Pattern;
 import javax.annotation.concurrent.Immutable;
 
 /**
- * Implementation of the {@code tracestate} header encoding and decoding as defined by the <a
- * href="https://www.w3.org/TR/trace-context-1/#tracestate-header">W3C Trace Context</a>
- * recommendation.
+ * Implementation of the {@code traceparent} header decoding and the {@code tracestate} header
+ * encoding and decoding as defined by the <a href="https://www.w3.org/TR/trace-context-1/">W3C
+ * Trace Context</a> recommendation.
  *
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
@@ -23,8 +32,19 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 public final class W3CTraceContextEncoding {
 
+  private static final Logger logger = Logger.getLogger(W3CTraceContextEncoding.class.getName());
+
   private W3CTraceContextEncoding() {}
 
+  private static final char TRACEPARENT_DELIMITER = '-';
+  private static final int VERSION_SIZE = 2;
+  private static final int TRACE_ID_HEX_SIZE = TraceId.getLength();
+  private static final int SPAN_ID_HEX_SIZE = SpanId.getLength();
+  private static final int TRACE_ID_OFFSET = VERSION_SIZE + 1;
+  private static final int SPAN_ID_OFFSET = TRACE_ID_OFFSET + TRACE_ID_HEX_SIZE + 1;
+  private static final int TRACE_OPTION_OFFSET = SPAN_ID_OFFSET + SPAN_ID_HEX_SIZE + 1;
+  private static final int TRACEPARENT_HEADER_SIZE = TRACE_OPTION_OFFSET + TraceFlags.getLength();
+
   private static final int TRACESTATE_MAX_SIZE = 512;
   private static final int TRACESTATE_MAX_MEMBERS = 32;
   private static final char TRACESTATE_KEY_VALUE_DELIMITER = '=';
@@ -59,6 +79,100 @@ public final class W3CTraceContextEncoding {
     return traceState;
   }
 
+  /**
+   * Decodes a {@code traceparent} header into a remote {@link SpanContext}, or returns {@link
+   * SpanContext#getInvalid()} if it is not valid.
+   *
+   * <p>The header is validated in place, the only allocations are the trace and span id strings
+   * held by the returned {@link SpanContext}. This allows carriers that hold header values in
+   * another form than a {@link String}, such as Netty's {@code AsciiString}, to be decoded without
+   * first converting the whole header to a {@link String}.
+   */
+  public static SpanContext decodeTraceParent(CharSequence traceparent) {
+    int length = traceparent.length();
+    boolean isValid =
+        (length == TRACEPARENT_HEADER_SIZE
+                || (length > TRACEPARENT_HEADER_SIZE
+                    && traceparent.charAt(TRACEPARENT_HEADER_SIZE) == TRACEPARENT_DELIMITER))
+            && traceparent.charAt(TRACE_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
+            && traceparent.charAt(SPAN_ID_OFFSET - 1) == TRACEPARENT_DELIMITER
+            && traceparent.charAt(TRACE_OPTION_OFFSET - 1) == TRACEPARENT_DELIMITER;
+    if (!isValid) {
+      logger.fine("Unparseable traceparent header. Returning INVALID span context.");
+      return SpanContext.getInvalid();
+    }
+
+    // A valid version is 1 byte representing an 8-bit unsigned integer, version ff is invalid.
+    char firstVersionChar = traceparent.charAt(0);
+    char secondVersionChar = traceparent.charAt(1);
+    if (!OtelEncodingUtils.isValidBase16Character(firstVersionChar)
+        || !OtelEncodingUtils.isValidBase16Character(secondVersionChar)
+        || (firstVersionChar == 'f' && secondVersionChar == 'f')) {
+      return SpanContext.getInvalid();
+    }
+    if (firstVersionChar == '0'
+        && secondVersionChar == '0'
+        && length > TRACEPARENT_HEADER_SIZE) {
+      return SpanContext.getInvalid();
+    }
+
+    if (!isValidId(traceparent, TRACE_ID_OFFSET, TRACE_ID_HEX_SIZE)
+        || !isValidId(traceparent, SPAN_ID_OFFSET, SPAN_ID_HEX_SIZE)) {
+      return SpanContext.getInvalid();
+    }
+
+    char firstTraceFlagsChar = traceparent.charAt(TRACE_OPTION_OFFSET);
+    char secondTraceFlagsChar = traceparent.charAt(TRACE_OPTION_OFFSET + 1);
+    if (!OtelEncodingUtils.isValidBase16Character(firstTraceFlagsChar)
+        || !OtelEncodingUtils.isValidBase16Character(secondTraceFlagsChar)) {
+      return SpanContext.getInvalid();
+    }
+    TraceFlags traceFlags =
+        TraceFlags.fromByte(
+            OtelEncodingUtils.byteFromBase16(firstTraceFlagsChar, secondTraceFlagsChar));
+
+    return ImmutableSpanContext.create(
+        hexString(traceparent, TRACE_ID_OFFSET, TRACE_ID_HEX_SIZE),
+        hexString(traceparent, SPAN_ID_OFFSET, SPAN_ID_HEX_SIZE),
+        traceFlags,
+        TraceState.getDefault(),
+        /* remote= */ true,
+        /* skipIdValidation= */ true);
+  }
+
+  /**
+   * Decodes a {@code traceparent} header from its US-ASCII bytes between the {@link
+   * ByteBuffer#position()} and {@link ByteBuffer#limit()} of {@code traceparent}, without changing
+   * them. See {@link #decodeTraceParent(CharSequence)}.
+   */
+  public static SpanContext decodeTraceParent(ByteBuffer traceparent) {
+    return decodeTraceParent(new AsciiByteBufferSequence(traceparent));
+  }
+
+  // Whether the id is lowercase hex and not all zeros.
+  private static boolean isValidId(CharSequence value, int offset, int length) {
+    boolean allZeros = true;
+    for (int i = offset; i < offset + length; i++) {
+      char c = value.charAt(i);
+      if (!OtelEncodingUtils.isValidBase16Character(c)) {
+        return false;
+      }
+      allZeros &= c == '0';
+    }
+    return !allZeros;
+  }
+
+  private static String hexString(CharSequence value, int offset, int length) {
+    if (value instanceof String) {
+      return ((String) value).substring(offset, offset + length);
+    }
+    char[] chars = TemporaryBuffers.chars(length);
+    for (int i = 0; i < length; i++) {
+      chars[i] = value.charAt(offset + i);
+    }
+    return new String(chars, 0, length);
+  }
+
   /** Return the trace state encoded as a string according to the W3C specification. */
   public static String encodeTraceState(TraceState traceState) {
     if (traceState.isEmpty()) {
@@ -74,4 +188,52 @@ public final class W3CTraceContextEncoding {
         });
     return builder.toString();
   }
+
+  // A read-only view of US-ASCII bytes, so they can be decoded without an intermediate String.
+  private static final class AsciiByteBufferSequence implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private AsciiByteBufferSequence(ByteBuffer buffer) {
+      this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    private AsciiByteBufferSequence(ByteBuffer buffer, int offset, int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+      }
+      return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < 0 || end > length || start > end) {
+        throw new IndexOutOfBoundsException(
+            "start: " + start + ", end: " + end + ", length: " + length);
+      }
+      return new AsciiByteBufferSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        chars[i] = charAt(i);
+      }
+      return new String(chars);
+    }
+  }
 }
@@ -14,10 +14,14 @@ import io.opentelemetry.api.trace.SpanId;
 import io.opentelemetry.api.trace.TraceFlags;
 import io.opentelemetry.api.trace.TraceId;
 import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.internal.W3CTraceContextEncoding;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.context.propagation.internal.ExtendedTextMapGetter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -489,6 +493,58 @@ class W3CTraceContextPropagatorTest {
                 TRACE_ID_BASE16, SPAN_ID_BASE16, TraceFlags.getDefault(), TraceState.getDefault()));
   }
 
+  @Test
+  void extract_CharSequenceGetter() {
+    // Values are only available as bytes, like in Netty or Undertow header maps.
+    Map<String, byte[]> carrier = new LinkedHashMap<>();
+    carrier.put(
+        W3CTraceContextPropagator.TRACE_PARENT,
+        TRACEPARENT_HEADER_SAMPLED.getBytes(StandardCharsets.US_ASCII));
+    ExtendedTextMapGetter<Map<String, byte[]>> bytesGetter =
+        new ExtendedTextMapGetter<Map<String, byte[]>>() {
+          @Override
+          public Iterable<String> keys(Map<String, byte[]> carrier) {
+            return carrier.keySet();
+          }
+
+          @Nullable
+          @Override
+          public String get(@Nullable Map<String, byte[]> carrier, String key) {
+            throw new AssertionError("Expected getCharSequence to be used");
+          }
+
+          @Nullable
+          @Override
+          public CharSequence getCharSequence(@Nullable Map<String, byte[]> carrier, String key) {
+            byte[] value = carrier == null ? null : carrier.get(key);
+            return value == null ? null : StandardCharsets.US_ASCII.decode(ByteBuffer.wrap(value));
+          }
+        };
+    assertThat(
+            getSpanContext(
+                w3cTraceContextPropagator.extract(Context.current(), carrier, bytesGetter)))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID_BASE16, SPAN_ID_BASE16, TraceFlags.getSampled(), TraceState.getDefault()));
+  }
+
+  @Test
+  void decodeTraceParent_ByteBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+    buffer.put((byte) 'x');
+    buffer.put(TRACEPARENT_HEADER_NOT_SAMPLED.getBytes(StandardCharsets.US_ASCII));
+    buffer.flip();
+    buffer.position(1);
+    assertThat(W3CTraceContextEncoding.decodeTraceParent(buffer))
+        .isEqualTo(
+            SpanContext.createFromRemoteParent(
+                TRACE_ID_BASE16, SPAN_ID_BASE16, TraceFlags.getDefault(), TraceState.getDefault()));
+    assertThat(buffer.position()).isEqualTo(1);
+
+    buffer.limit(buffer.limit() - 1);
+    assertThat(W3CTraceContextEncoding.decodeTraceParent(buffer).isValid()).isFalse();
+  }
+
   @Test
   void fieldsList() {
     assertThat(w3cTraceContextPropagator.fields())
@@ -9,12 +9,49 @@ plugins {
 description = "OpenTelemetry Context (Incubator)"
 otelJava.moduleName.set("io.opentelemetry.context")
 
+java {
+  sourceSets {
+    create("java21") {
+      java {
+        srcDir("src/main/java21")
+      }
+      // ScopedValueContextStorage implements ContextStorage from the main source set
+      compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+  }
+}
+
+tasks.named<JavaCompile>("compileJava21Java") {
+  options.release.set(21)
+}
+
+tasks.named<Jar>("jar") {
+  manifest {
+    attributes["Multi-Release"] = "true"
+  }
+  from(sourceSets.named("java21").get().output) {
+    into("META-INF/versions/21")
+  }
+}
+
+// Configure tests to include java21 classes when running on Java 21+
+// so that LazyStorage can instantiate ScopedValueContextStorageProvider
+val testJavaVersion = project.findProperty("testJavaVersion") as String?
+val testsRunOnJava21 = (testJavaVersion?.toInt() ?: 21) >= 21
+if (testsRunOnJava21) {
+  sourceSets.named("test") {
+    runtimeClasspath += sourceSets.named("java21").get().output
+  }
+}
+
 dependencies {
   api(project(":common"))
   // MustBeClosed
   compileOnly("com.google.errorprone:error_prone_annotations")
 
   testImplementation("com.google.guava:guava")
+
+  jmhImplementation(files(sourceSets.named("java21").get().output))
 }
 
 testing {
@@ -52,6 +89,20 @@ testing {
     register<JvmTestSuite>("storageWrappersTest") {
     }
 
+    register<JvmTestSuite>("scopedValueStorageTest") {
+      dependencies {
+        implementation(files(sourceSets.named("java21").get().output))
+      }
+
+      targets {
+        all {
+          testTask.configure {
+            jvmArgs("-Dio.opentelemetry.context.contextStorageProvider=scopedvalue")
+          }
+        }
+      }
+    }
+
     register<JvmTestSuite>("strictContextEnabledTest") {
       dependencies {
         implementation(project(":api:all"))
@@ -73,3 +124,14 @@ tasks {
     dependsOn(testing.suites)
   }
 }
+
+afterEvaluate {
+  tasks.named<JavaCompile>("compileScopedValueStorageTestJava") {
+    options.release.set(21)
+  }
+  // ScopedValue is only used when it is a final API, so only run the tests when they run on
+  // Java 25+ (-PtestJavaVersion) rather than against the default storage
+  tasks.named<Test>("scopedValueStorageTest") {
+    isEnabled = isEnabled && (testJavaVersion?.toInt() ?: 0) >= 25
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the default {@link Context}, which switches from {@link ArrayBasedContext} to {@link
+ * HashTrieContext} above {@link ArrayBasedContext#HASH_TRIE_THRESHOLD} entries, with a {@link
+ * HashTrieContext} used from the first entry.
+ */
+@Threads(value = 1)
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class HashTrieContextBenchmark {
+
+  @Param({"1", "4", "16", "32"})
+  private int size;
+
+  @Param({"default", "hashtrie"})
+  private String implementation;
+
+  private Context root;
+  private Context context;
+  private List<ContextKey<String>> keys;
+
+  @Setup
+  public void setup() {
+    root = implementation.equals("hashtrie") ? HashTrieContext.root() : ArrayBasedContext.root();
+    keys = new ArrayList<>();
+    context = root;
+    for (int i = 0; i < size; i++) {
+      ContextKey<String> key = ContextKey.named(Integer.toString(i));
+      context = context.with(key, "value");
+      keys.add(key);
+    }
+  }
+
+  @Benchmark
+  public String readLast() {
+    return context.get(keys.get(size - 1));
+  }
+
+  @Benchmark
+  public void readAll(Blackhole bh) {
+    for (int i = 0; i < size; i++) {
+      bh.consume(context.get(keys.get(i)));
+    }
+  }
+
+  @Benchmark
+  public Context overwriteLast() {
+    return context.with(keys.get(size - 1), "other");
+  }
+
+  @Benchmark
+  public Context writeAll() {
+    Context context = root;
+    for (int i = 0; i < size; i++) {
+      context = context.with(keys.get(i), "value");
+    }
+    return context;
+  }
+}
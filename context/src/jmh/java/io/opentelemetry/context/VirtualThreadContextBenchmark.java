@@ -0,0 +1,101 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for making a context current on many virtual threads, with the default and the {@code
+ * ScopedValue} storage. Requires running on Java 21+, and Java 25+ for {@code ScopedValue} to be
+ * used.
+ */
+@Threads(value = 1)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class VirtualThreadContextBenchmark {
+
+  private static final String STORAGE_PROVIDER_PROPERTY =
+      "-Dio.opentelemetry.context.contextStorageProvider=";
+  private static final int VIRTUAL_THREAD_TASKS = 1_000;
+  private static final ContextKey<String> KEY = ContextKey.named("key");
+
+  private final Context context = Context.root().with(KEY, "value");
+  private final List<Future<?>> futures = new ArrayList<>(VIRTUAL_THREAD_TASKS);
+  private ExecutorService virtualThreads;
+
+  @Setup
+  public void setup() throws Exception {
+    // Looked up reflectively since benchmarks are compiled for Java 8.
+    virtualThreads =
+        (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+  }
+
+  @TearDown
+  public void tearDown() {
+    virtualThreads.shutdownNow();
+  }
+
+  @Benchmark
+  @Fork(value = 3, jvmArgsAppend = STORAGE_PROVIDER_PROPERTY + "default")
+  public void threadLocalStorage(Blackhole bh) throws Exception {
+    runOnVirtualThreads(
+        bh,
+        () -> {
+          try (Scope ignored = context.makeCurrent()) {
+            bh.consume(Context.current().get(KEY));
+          }
+        });
+  }
+
+  @Benchmark
+  @Fork(value = 3, jvmArgsAppend = STORAGE_PROVIDER_PROPERTY + "scopedvalue")
+  public void scopedValueStorage_makeCurrent(Blackhole bh) throws Exception {
+    runOnVirtualThreads(
+        bh,
+        () -> {
+          try (Scope ignored = context.makeCurrent()) {
+            bh.consume(Context.current().get(KEY));
+          }
+        });
+  }
+
+  @Benchmark
+  @Fork(value = 3, jvmArgsAppend = STORAGE_PROVIDER_PROPERTY + "scopedvalue")
+  public void scopedValueStorage_run(Blackhole bh) throws Exception {
+    runOnVirtualThreads(
+        bh,
+        () ->
+            ScopedValueContextStorageProvider.run(
+                context, () -> bh.consume(Context.current().get(KEY))));
+  }
+
+  private void runOnVirtualThreads(Blackhole bh, Runnable task) throws Exception {
+    for (int i = 0; i < VIRTUAL_THREAD_TASKS; i++) {
+      futures.add(virtualThreads.submit(task));
+    }
+    for (Future<?> future : futures) {
+      bh.consume(future.get());
+    }
+    futures.clear();
+  }
+}
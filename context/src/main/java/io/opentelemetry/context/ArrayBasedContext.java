@@ -29,6 +29,10 @@ final class ArrayBasedContext implements Context {
 
   private static final Context ROOT = new ArrayBasedContext(new Object[0]);
 
+  // Number of entries above which with() switches to a HashTrieContext. Below this, a linear scan
+  // of the array is cheaper than hashing and copying the whole array is cheap.
+  static final int HASH_TRIE_THRESHOLD = 16;
+
   // Used by auto-instrumentation agent. Check with auto-instrumentation before making changes to
   // this method.
   //
@@ -78,6 +82,9 @@ final class ArrayBasedContext implements Context {
         return new ArrayBasedContext(newEntries);
       }
     }
+    if (entries.length >= 2 * HASH_TRIE_THRESHOLD) {
+      return HashTrieContext.fromEntries(entries).with(key, value);
+    }
     Object[] newEntries = Arrays.copyOf(entries, entries.length + 2);
     newEntries[newEntries.length - 2] = key;
     newEntries[newEntries.length - 1] = value;
@@ -119,7 +119,7 @@ public interface Context {
    * @since 1.1.0
    */
   static Executor taskWrapping(Executor executor) {
-    return command -> executor.execute(Context.current().wrap(command));
+    return command -> executor.execute(CurrentContextExecutorService.wrapCurrent(command));
   }
 
   /**
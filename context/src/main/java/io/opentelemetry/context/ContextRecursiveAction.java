@@ -0,0 +1,64 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import javax.annotation.Nullable;
+
+/**
+ * A resultless {@link ForkJoinTask}, like {@link RecursiveAction}, which runs {@link #compute()}
+ * with the {@link Context} that was current when the task was created.
+ *
+ * <p>See {@link ContextRecursiveTask} for how the {@link Context} is propagated to forked subtasks.
+ *
+ * @since 1.66.0
+ */
+public abstract class ContextRecursiveAction extends ForkJoinTask<Void> {
+
+  private static final long serialVersionUID = 1L;
+
+  // Contexts are not serializable, a deserialized task runs with the context current when it was
+  // deserialized instead.
+  private transient Context context;
+
+  /** Creates a task which runs with the {@linkplain Context#current() current context}. */
+  protected ContextRecursiveAction() {
+    this(Context.current());
+  }
+
+  /** Creates a task which runs with the given {@link Context}. */
+  protected ContextRecursiveAction(Context context) {
+    this.context = context;
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    context = Context.current();
+  }
+
+  /** The main computation performed by this task, run with the captured {@link Context}. */
+  protected abstract void compute();
+
+  @Override
+  @Nullable
+  public final Void getRawResult() {
+    return null;
+  }
+
+  @Override
+  protected final void setRawResult(@Nullable Void mustBeNull) {}
+
+  @Override
+  protected final boolean exec() {
+    try (Scope ignored = context.makeCurrent()) {
+      compute();
+    }
+    return true;
+  }
+}
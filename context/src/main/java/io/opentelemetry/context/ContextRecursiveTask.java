@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import javax.annotation.Nullable;
+
+/**
+ * A result-bearing {@link ForkJoinTask}, like {@link RecursiveTask}, which runs {@link #compute()}
+ * with the {@link Context} that was current when the task was created.
+ *
+ * <p>Subtasks are usually created from within {@link #compute()} of their parent, so they capture
+ * the parent's {@link Context} and it is propagated to every forked subtask regardless of which
+ * worker thread of the {@link java.util.concurrent.ForkJoinPool} ends up running it. Work stealing
+ * bypasses any executor wrapping, so {@link Context#taskWrapping(java.util.concurrent.Executor)}
+ * alone can't achieve this.
+ *
+ * @since 1.66.0
+ */
+public abstract class ContextRecursiveTask<V> extends ForkJoinTask<V> {
+
+  private static final long serialVersionUID = 1L;
+
+  // Contexts are not serializable, a deserialized task runs with the context current when it was
+  // deserialized instead.
+  private transient Context context;
+  @Nullable private V result;
+
+  /** Creates a task which runs with the {@linkplain Context#current() current context}. */
+  protected ContextRecursiveTask() {
+    this(Context.current());
+  }
+
+  /** Creates a task which runs with the given {@link Context}. */
+  protected ContextRecursiveTask(Context context) {
+    this.context = context;
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    context = Context.current();
+  }
+
+  /** The main computation performed by this task, run with the captured {@link Context}. */
+  protected abstract V compute();
+
+  @Override
+  @Nullable
+  public final V getRawResult() {
+    return result;
+  }
+
+  @Override
+  protected final void setRawResult(@Nullable V value) {
+    result = value;
+  }
+
+  @Override
+  protected final boolean exec() {
+    try (Scope ignored = context.makeCurrent()) {
+      result = compute();
+    }
+    return true;
+  }
+}
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.context;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -20,48 +21,69 @@ class CurrentContextExecutorService extends ForwardingExecutorService {
     super(delegate);
   }
 
+  // The context current on submission is always captured, so that tasks submitted in the root
+  // context also run in the root context.
+  static Runnable wrapCurrent(Runnable task) {
+    return Context.current().wrap(task);
+  }
+
+  static <T> Callable<T> wrapCurrent(Callable<T> task) {
+    return Context.current().wrap(task);
+  }
+
+  // The context is captured once for the whole batch.
+  static <T> Collection<? extends Callable<T>> wrapCurrent(
+      Collection<? extends Callable<T>> tasks) {
+    Context context = Context.current();
+    List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+    for (Callable<T> task : tasks) {
+      wrapped.add(context.wrap(task));
+    }
+    return wrapped;
+  }
+
   @Override
   public <T> Future<T> submit(Callable<T> task) {
-    return delegate().submit(Context.current().wrap(task));
+    return delegate().submit(wrapCurrent(task));
   }
 
   @Override
   public <T> Future<T> submit(Runnable task, T result) {
-    return delegate().submit(Context.current().wrap(task), result);
+    return delegate().submit(wrapCurrent(task), result);
   }
 
   @Override
   public Future<?> submit(Runnable task) {
-    return delegate().submit(Context.current().wrap(task));
+    return delegate().submit(wrapCurrent(task));
   }
 
   @Override
   public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
       throws InterruptedException {
-    return delegate().invokeAll(wrap(Context.current(), tasks));
+    return delegate().invokeAll(wrapCurrent(tasks));
   }
 
   @Override
   public <T> List<Future<T>> invokeAll(
       Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
       throws InterruptedException {
-    return delegate().invokeAll(wrap(Context.current(), tasks), timeout, unit);
+    return delegate().invokeAll(wrapCurrent(tasks), timeout, unit);
   }
 
   @Override
   public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
       throws InterruptedException, ExecutionException {
-    return delegate().invokeAny(wrap(Context.current(), tasks));
+    return delegate().invokeAny(wrapCurrent(tasks));
   }
 
   @Override
   public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
       throws InterruptedException, ExecutionException, TimeoutException {
-    return delegate().invokeAny(wrap(Context.current(), tasks), timeout, unit);
+    return delegate().invokeAny(wrapCurrent(tasks), timeout, unit);
   }
 
   @Override
   public void execute(Runnable command) {
-    delegate().execute(Context.current().wrap(command));
+    delegate().execute(wrapCurrent(command));
   }
 }
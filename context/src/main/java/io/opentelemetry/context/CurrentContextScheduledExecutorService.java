@@ -22,12 +22,12 @@ final class CurrentContextScheduledExecutorService extends CurrentContextExecuto
 
   @Override
   public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-    return delegate.schedule(Context.current().wrap(command), delay, unit);
+    return delegate.schedule(wrapCurrent(command), delay, unit);
   }
 
   @Override
   public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-    return delegate.schedule(Context.current().wrap(callable), delay, unit);
+    return delegate.schedule(wrapCurrent(callable), delay, unit);
   }
 
   @Override
@@ -0,0 +1,270 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Context} backed by a persistent hash array mapped trie, keyed by the identity of the
+ * {@link ContextKey}. {@link #get(ContextKey)} is effectively constant time and {@link
+ * #with(ContextKey, Object)} only copies the nodes on the path to the key, so this scales better
+ * than {@link ArrayBasedContext} when many instrumentations each store their own keys.
+ *
+ * <p>{@link ArrayBasedContext} switches to this implementation once it holds more than {@link
+ * ArrayBasedContext#HASH_TRIE_THRESHOLD} entries, so small contexts keep the cheaper array layout.
+ */
+final class HashTrieContext implements Context {
+
+  // 16-way branching keeps the nodes copied by with() small for the typical 16 to 32 keys.
+  private static final int BITS_PER_LEVEL = 4;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+  // Once all hash bits are consumed, remaining keys have fully colliding hashes.
+  private static final int MAX_SHIFT = 32;
+
+  private static final Node EMPTY_NODE = new Node(0, 0, new Object[0]);
+
+  private static final Context ROOT = new HashTrieContext(EMPTY_NODE);
+
+  static Context root() {
+    return ROOT;
+  }
+
+  /** Returns a new {@link HashTrieContext} with the entries of an {@link ArrayBasedContext}. */
+  static Context fromEntries(Object[] entries) {
+    Node node = EMPTY_NODE;
+    for (int i = 0; i < entries.length; i += 2) {
+      ContextKey<?> key = (ContextKey<?>) entries[i];
+      node = put(node, key, entries[i + 1], hash(key), 0);
+    }
+    return new HashTrieContext(node);
+  }
+
+  private final Node root;
+
+  private HashTrieContext(Node root) {
+    this.root = root;
+  }
+
+  @Override
+  @Nullable
+  public <V> V get(ContextKey<V> key) {
+    @SuppressWarnings("unchecked")
+    V result = (V) get(root, key, hash(key));
+    return result;
+  }
+
+  @Override
+  public <V> Context with(ContextKey<V> key, V value) {
+    Node newRoot = put(root, key, value, hash(key), 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return new HashTrieContext(newRoot);
+  }
+
+  // Keys are still compared by identity, the hash only distributes them. ContextKey.named does not
+  // override hashCode so this is normally the identity hash.
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    // Spread the higher bits since hashes often differ mostly in the low bits.
+    return h ^ (h >>> 16);
+  }
+
+  @Nullable
+  @SuppressWarnings("ReferenceEquality")
+  private static Object get(Node node, ContextKey<?> key, int hash) {
+    int shift = 0;
+    while (shift < MAX_SHIFT) {
+      int bit = bit(hash, shift);
+      if ((node.dataMap & bit) != 0) {
+        int index = 2 * Integer.bitCount(node.dataMap & (bit - 1));
+        return node.content[index] == key ? node.content[index + 1] : null;
+      }
+      if ((node.nodeMap & bit) == 0) {
+        return null;
+      }
+      node = (Node) node.content[node.nodeIndex(bit)];
+      shift += BITS_PER_LEVEL;
+    }
+    // Collision node, plain key value pairs.
+    Object[] content = node.content;
+    for (int i = 0; i < content.length; i += 2) {
+      if (content[i] == key) {
+        return content[i + 1];
+      }
+    }
+    return null;
+  }
+
+  @SuppressWarnings("ReferenceEquality")
+  private static Node put(
+      Node node, ContextKey<?> key, @Nullable Object value, int hash, int shift) {
+    if (shift >= MAX_SHIFT) {
+      return putCollision(node, key, value);
+    }
+
+    int bit = bit(hash, shift);
+    Object[] content = node.content;
+    if ((node.dataMap & bit) != 0) {
+      int index = 2 * Integer.bitCount(node.dataMap & (bit - 1));
+      Object existingKey = content[index];
+      if (existingKey == key) {
+        if (content[index + 1] == value) {
+          return node;
+        }
+        Object[] newContent = content.clone();
+        newContent[index + 1] = value;
+        return new Node(node.dataMap, node.nodeMap, newContent);
+      }
+      // Push both entries down into a new sub node.
+      Node subNode =
+          merge(
+              existingKey,
+              content[index + 1],
+              hash(existingKey),
+              key,
+              value,
+              hash,
+              shift + BITS_PER_LEVEL);
+      int newDataMap = node.dataMap ^ bit;
+      int newNodeMap = node.nodeMap | bit;
+      Object[] newContent = new Object[content.length - 1];
+      // Entries before the removed pair.
+      System.arraycopy(content, 0, newContent, 0, index);
+      int dataEnd = 2 * Integer.bitCount(node.dataMap);
+      // Entries after the removed pair, up to the first node.
+      System.arraycopy(content, index + 2, newContent, index, dataEnd - index - 2);
+      int newDataEnd = dataEnd - 2;
+      int nodeOffset = Integer.bitCount(node.nodeMap & (bit - 1));
+      // Nodes before the inserted node.
+      System.arraycopy(content, dataEnd, newContent, newDataEnd, nodeOffset);
+      newContent[newDataEnd + nodeOffset] = subNode;
+      // Nodes after the inserted node.
+      System.arraycopy(
+          content,
+          dataEnd + nodeOffset,
+          newContent,
+          newDataEnd + nodeOffset + 1,
+          content.length - dataEnd - nodeOffset);
+      return new Node(newDataMap, newNodeMap, newContent);
+    }
+
+    if ((node.nodeMap & bit) != 0) {
+      int index = node.nodeIndex(bit);
+      Node subNode = (Node) content[index];
+      Node newSubNode = put(subNode, key, value, hash, shift + BITS_PER_LEVEL);
+      if (newSubNode == subNode) {
+        return node;
+      }
+      Object[] newContent = content.clone();
+      newContent[index] = newSubNode;
+      return new Node(node.dataMap, node.nodeMap, newContent);
+    }
+
+    int index = 2 * Integer.bitCount(node.dataMap & (bit - 1));
+    Object[] newContent = new Object[content.length + 2];
+    System.arraycopy(content, 0, newContent, 0, index);
+    newContent[index] = key;
+    newContent[index + 1] = value;
+    System.arraycopy(content, index, newContent, index + 2, content.length - index);
+    return new Node(node.dataMap | bit, node.nodeMap, newContent);
+  }
+
+  private static Node merge(
+      Object key1,
+      @Nullable Object value1,
+      int hash1,
+      Object key2,
+      @Nullable Object value2,
+      int hash2,
+      int shift) {
+    if (shift >= MAX_SHIFT) {
+      return new Node(0, 0, new Object[] {key1, value1, key2, value2});
+    }
+    int bit1 = bit(hash1, shift);
+    int bit2 = bit(hash2, shift);
+    if (bit1 == bit2) {
+      Node subNode = merge(key1, value1, hash1, key2, value2, hash2, shift + BITS_PER_LEVEL);
+      return new Node(0, bit1, new Object[] {subNode});
+    }
+    if (bit1 < bit2) {
+      return new Node(bit1 | bit2, 0, new Object[] {key1, value1, key2, value2});
+    }
+    return new Node(bit1 | bit2, 0, new Object[] {key2, value2, key1, value1});
+  }
+
+  @SuppressWarnings("ReferenceEquality")
+  private static Node putCollision(Node node, ContextKey<?> key, @Nullable Object value) {
+    Object[] content = node.content;
+    for (int i = 0; i < content.length; i += 2) {
+      if (content[i] == key) {
+        if (content[i + 1] == value) {
+          return node;
+        }
+        Object[] newContent = content.clone();
+        newContent[i + 1] = value;
+        return new Node(0, 0, newContent);
+      }
+    }
+    Object[] newContent = new Object[content.length + 2];
+    System.arraycopy(content, 0, newContent, 0, content.length);
+    newContent[content.length] = key;
+    newContent[content.length + 1] = value;
+    return new Node(0, 0, newContent);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & LEVEL_MASK);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    appendEntries(root, sb);
+    // get rid of that last pesky comma
+    if (sb.length() > 1) {
+      sb.setLength(sb.length() - 2);
+    }
+    sb.append('}');
+    return sb.toString();
+  }
+
+  private static void appendEntries(Node node, StringBuilder sb) {
+    Object[] content = node.content;
+    // Collision nodes have no bitmaps and only contain key value pairs.
+    int dataEnd =
+        node.dataMap == 0 && node.nodeMap == 0
+            ? content.length
+            : 2 * Integer.bitCount(node.dataMap);
+    for (int i = 0; i < dataEnd; i += 2) {
+      sb.append(content[i]).append('=').append(content[i + 1]).append(", ");
+    }
+    for (int i = dataEnd; i < content.length; i++) {
+      appendEntries((Node) content[i], sb);
+    }
+  }
+
+  /**
+   * A trie node. {@code content} holds the key value pairs selected by {@code dataMap} followed by
+   * the sub nodes selected by {@code nodeMap}. Collision nodes have neither map set and only hold
+   * key value pairs.
+   */
+  private static final class Node {
+    private final int dataMap;
+    private final int nodeMap;
+    private final Object[] content;
+
+    private Node(int dataMap, int nodeMap, Object[] content) {
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.content = content;
+    }
+
+    private int nodeIndex(int bit) {
+      return 2 * Integer.bitCount(dataMap) + Integer.bitCount(nodeMap & (bit - 1));
+    }
+  }
+}
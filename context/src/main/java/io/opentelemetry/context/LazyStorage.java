@@ -67,6 +67,9 @@ final class LazyStorage {
   private static final String CONTEXT_STORAGE_PROVIDER_PROPERTY =
       "io.opentelemetry.context.contextStorageProvider";
   private static final String ENFORCE_DEFAULT_STORAGE_VALUE = "default";
+  private static final String SCOPED_VALUE_STORAGE_VALUE = "scopedvalue";
+  private static final String SCOPED_VALUE_STORAGE_PROVIDER_CLASS =
+      "io.opentelemetry.context.ScopedValueContextStorageProvider";
 
   private static final String ENABLE_STRICT_CONTEXT_PROVIDER_PROPERTY =
       "io.opentelemetry.context.enableStrictContext";
@@ -102,6 +105,10 @@ final class LazyStorage {
     if (ENFORCE_DEFAULT_STORAGE_VALUE.equals(providerClassName)) {
       return ContextStorage.defaultStorage();
     }
+    // Allow user to select the Java 21+ storage, which is only present in the multi-release jar
+    if (SCOPED_VALUE_STORAGE_VALUE.equals(providerClassName)) {
+      return createScopedValueStorage(deferredStorageFailure);
+    }
 
     ComponentLoader componentLoader =
         ComponentLoader.forClassLoader(LazyStorage.class.getClassLoader());
@@ -154,5 +161,24 @@ final class LazyStorage {
     return ContextStorage.defaultStorage();
   }
 
+  private static ContextStorage createScopedValueStorage(
+      AtomicReference<Throwable> deferredStorageFailure) {
+    try {
+      Class<?> providerClass = Class.forName(SCOPED_VALUE_STORAGE_PROVIDER_CLASS);
+      ContextStorageProvider provider =
+          (ContextStorageProvider) providerClass.getConstructor().newInstance();
+      return provider.get();
+    } catch (Throwable t) {
+      deferredStorageFailure.set(
+          new IllegalStateException(
+              CONTEXT_STORAGE_PROVIDER_PROPERTY
+                  + " property set to "
+                  + SCOPED_VALUE_STORAGE_VALUE
+                  + " but it requires Java 21+. Falling back to default ContextStorage.",
+              t));
+      return ContextStorage.defaultStorage();
+    }
+  }
+
   private LazyStorage() {}
 }
@@ -6,6 +6,7 @@
 package io.opentelemetry.context.propagation;
 
 import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.internal.BulkTextMapGetter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -17,7 +18,8 @@ import javax.annotation.Nullable;
 
 final class MultiTextMapPropagator implements TextMapPropagator {
   private final TextMapPropagator[] textMapPropagators;
-  private final Collection<String> allFields;
+  private final List<String> allFields;
+  private final String[] allFieldsArray;
 
   MultiTextMapPropagator(TextMapPropagator... textMapPropagators) {
     this(Arrays.asList(textMapPropagators));
@@ -26,7 +28,9 @@ final class MultiTextMapPropagator implements TextMapPropagator {
   MultiTextMapPropagator(List<TextMapPropagator> textMapPropagators) {
     this.textMapPropagators = new TextMapPropagator[textMapPropagators.size()];
     textMapPropagators.toArray(this.textMapPropagators);
-    this.allFields = Collections.unmodifiableList(getAllFields(this.textMapPropagators));
+    List<String> fields = getAllFields(this.textMapPropagators);
+    this.allFields = Collections.unmodifiableList(fields);
+    this.allFieldsArray = fields.toArray(new String[0]);
   }
 
   @Override
@@ -61,6 +65,13 @@ final class MultiTextMapPropagator implements TextMapPropagator {
     if (getter == null) {
       return context;
     }
+    if (getter instanceof BulkTextMapGetter) {
+      // Read the fields of all propagators in one pass over the carrier, for carriers where each
+      // lookup is expensive, e.g. a case insensitive scan of servlet request headers.
+      @SuppressWarnings("unchecked")
+      BulkTextMapGetter<C> bulkGetter = (BulkTextMapGetter<C>) getter;
+      getter = new PrefetchedTextMapGetter<>(bulkGetter, carrier, allFields, allFieldsArray);
+    }
     for (TextMapPropagator textPropagator : textMapPropagators) {
       context = textPropagator.extract(context, carrier, getter);
     }
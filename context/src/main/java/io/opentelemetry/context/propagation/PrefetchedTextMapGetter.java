@@ -0,0 +1,142 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context.propagation;
+
+import io.opentelemetry.context.propagation.internal.BulkTextMapGetter;
+import io.opentelemetry.context.propagation.internal.ExtendedTextMapGetter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TextMapGetter} serving the fields of a {@link MultiTextMapPropagator} from values read
+ * in a single {@link BulkTextMapGetter#getAll(Object, java.util.Collection, BiConsumer)} pass
+ * over the carrier. Lookups of other keys, or against another carrier, go to the delegate.
+ *
+ * <p>Instances are created per extraction and are not thread safe.
+ */
+final class PrefetchedTextMapGetter<C>
+    implements ExtendedTextMapGetter<C>, BiConsumer<String, CharSequence> {
+
+  private final BulkTextMapGetter<C> delegate;
+  @Nullable private final C carrier;
+  private final String[] fields;
+  // For each field null if absent, the CharSequence if it has a single value, otherwise a List of
+  // all its values.
+  private final Object[] values;
+
+  PrefetchedTextMapGetter(
+      BulkTextMapGetter<C> delegate,
+      @Nullable C carrier,
+      List<String> fieldList,
+      String[] fields) {
+    this.delegate = delegate;
+    this.carrier = carrier;
+    this.fields = fields;
+    this.values = new Object[fields.length];
+    delegate.getAll(carrier, fieldList, this);
+  }
+
+  @Override
+  public void accept(String key, CharSequence value) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return;
+    }
+    Object existing = values[index];
+    if (existing == null) {
+      values[index] = value;
+    } else if (existing instanceof CharSequence) {
+      List<CharSequence> all = new ArrayList<>(2);
+      all.add((CharSequence) existing);
+      all.add(value);
+      values[index] = all;
+    } else {
+      @SuppressWarnings("unchecked")
+      List<CharSequence> all = (List<CharSequence>) existing;
+      all.add(value);
+    }
+  }
+
+  @Override
+  public Iterable<String> keys(C carrier) {
+    return delegate.keys(carrier);
+  }
+
+  @Override
+  @Nullable
+  public String get(@Nullable C carrier, String key) {
+    int index = prefetchedIndex(carrier, key);
+    if (index < 0) {
+      return delegate.get(carrier, key);
+    }
+    CharSequence value = first(values[index]);
+    return value == null ? null : value.toString();
+  }
+
+  @Override
+  @Nullable
+  public CharSequence getCharSequence(@Nullable C carrier, String key) {
+    int index = prefetchedIndex(carrier, key);
+    if (index < 0) {
+      return delegate.getCharSequence(carrier, key);
+    }
+    return first(values[index]);
+  }
+
+  @Override
+  public Iterator<String> getAll(@Nullable C carrier, String key) {
+    int index = prefetchedIndex(carrier, key);
+    if (index < 0) {
+      return delegate.getAll(carrier, key);
+    }
+    Object value = values[index];
+    if (value == null) {
+      return Collections.emptyIterator();
+    }
+    if (value instanceof CharSequence) {
+      return Collections.singleton(value.toString()).iterator();
+    }
+    @SuppressWarnings("unchecked")
+    List<CharSequence> all = (List<CharSequence>) value;
+    List<String> result = new ArrayList<>(all.size());
+    for (CharSequence v : all) {
+      result.add(v.toString());
+    }
+    return result.iterator();
+  }
+
+  @SuppressWarnings("ReferenceEquality")
+  private int prefetchedIndex(@Nullable C carrier, String key) {
+    if (carrier != this.carrier) {
+      return -1;
+    }
+    return indexOf(key);
+  }
+
+  private int indexOf(String key) {
+    // Composite propagators only have a handful of fields, a scan is cheaper than hashing.
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Nullable
+  private static CharSequence first(@Nullable Object value) {
+    if (value == null || value instanceof CharSequence) {
+      return (CharSequence) value;
+    }
+    @SuppressWarnings("unchecked")
+    List<CharSequence> all = (List<CharSequence>) value;
+    return all.get(0);
+  }
+}
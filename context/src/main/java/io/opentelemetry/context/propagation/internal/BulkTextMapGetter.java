@@ -0,0 +1,37 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context.propagation.internal;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * An {@link ExtendedTextMapGetter} which can read the values of several propagation keys in a
+ * single pass over the carrier.
+ *
+ * <p>Composite propagators read all the fields of their propagators up front from getters
+ * implementing this interface, instead of looking up each field once per propagator. Only carriers
+ * where each lookup is a scan, such as servlet requests matching header names case insensitively,
+ * benefit from implementing it.
+ *
+ * <p>This class is internal and experimental. Its APIs are unstable and can change at any time. Its
+ * APIs (or a version of them) may be promoted to the public stable API in the future, but no
+ * guarantees are made.
+ */
+public interface BulkTextMapGetter<C> extends ExtendedTextMapGetter<C> {
+
+  /**
+   * Passes every value of each of the given propagation {@code keys} to {@code consumer}, together
+   * with the requested key. Values of a key are passed in order, absent keys are skipped.
+   *
+   * @param carrier carrier of propagation fields, such as an http request.
+   * @param keys the keys of the fields, as returned by {@code TextMapPropagator#fields()}.
+   * @param consumer receives each requested key with each of its values.
+   */
+  void getAll(
+      @Nullable C carrier, Collection<String> keys, BiConsumer<String, CharSequence> consumer);
+}
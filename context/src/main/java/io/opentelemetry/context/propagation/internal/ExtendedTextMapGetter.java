@@ -6,6 +6,7 @@
 package io.opentelemetry.context.propagation.internal;
 
 import io.opentelemetry.context.propagation.TextMapGetter;
+import javax.annotation.Nullable;
 
 /**
  * Extended {@link TextMapGetter} with experimental APIs.
@@ -16,6 +17,21 @@ import io.opentelemetry.context.propagation.TextMapGetter;
  */
 public interface ExtendedTextMapGetter<C> extends TextMapGetter<C> {
 
-  // keep this class even if it is empty, since experimental methods may be added in the future.
-
+  /**
+   * Returns the first value of the given propagation {@code key} or returns {@code null}, without
+   * requiring it to be converted to a {@link String}.
+   *
+   * <p>Carriers which hold header values as bytes, such as Netty or Undertow header maps, can
+   * override this to return a {@link CharSequence} view over the header bytes (for example Netty's
+   * {@code AsciiString}), which propagators can then parse in place.
+   *
+   * <p>The default method returns {@link #get(Object, String)}.
+   *
+   * @param carrier carrier of propagation fields, such as an http request.
+   * @param key the key of the field.
+   */
+  @Nullable
+  default CharSequence getCharSequence(@Nullable C carrier, String key) {
+    return get(carrier, key);
+  }
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ContextStorage} for Java 25+ which is friendlier to applications running very large
+ * numbers of virtual threads.
+ *
+ * <p>Work started through {@link #run(Context, Runnable)} is bound to a mutable frame using a
+ * {@code java.lang.ScopedValue}. While inside such a frame, {@link #attach(Context)} and {@link
+ * #current()} only read and write a field of the frame, so a virtual thread which only ever runs
+ * bound work never populates its {@code ThreadLocal} map. Threads forked from a frame, for example
+ * by a {@code StructuredTaskScope}, observe the {@link Context} the frame was bound with.
+ *
+ * <p>{@code ScopedValue} is only used when it is a final API of the running JVM (Java 25+) since
+ * this class is not compiled with preview features enabled. {@link
+ * ScopedValueContextStorageProvider} returns the default storage on earlier JVMs. For any work not
+ * started through {@link #run(Context, Runnable)}, this falls back to a {@link ThreadLocal} with
+ * the same semantics as the default storage.
+ */
+final class ScopedValueContextStorage implements ContextStorage {
+
+  private static final Logger logger = Logger.getLogger(ScopedValueContextStorage.class.getName());
+
+  // Visible for testing
+  static final ThreadLocal<Context> THREAD_LOCAL_STORAGE = new ThreadLocal<>();
+
+  // Returned by ScopedValue.orElse when no frame is bound, since orElse does not accept null.
+  private static final Frame NO_FRAME = new Frame(null, null);
+
+  @Nullable private static final Object SCOPED_FRAME;
+  @Nullable private static final MethodHandle WHERE;
+  @Nullable private static final MethodHandle CARRIER_RUN;
+  @Nullable private static final MethodHandle OR_ELSE;
+
+  static {
+    Object scopedFrame = null;
+    MethodHandle where = null;
+    MethodHandle carrierRun = null;
+    MethodHandle orElse = null;
+    if (Runtime.version().feature() >= 25) {
+      try {
+        Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+        Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        scopedFrame =
+            lookup
+                .findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass))
+                .invoke();
+        where =
+            lookup
+                .findStatic(
+                    scopedValueClass,
+                    "where",
+                    MethodType.methodType(carrierClass, scopedValueClass, Object.class))
+                .asType(MethodType.methodType(Object.class, Object.class, Frame.class));
+        carrierRun =
+            lookup
+                .findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+        orElse =
+            lookup
+                .findVirtual(
+                    scopedValueClass, "orElse", MethodType.methodType(Object.class, Object.class))
+                .asType(MethodType.methodType(Frame.class, Object.class, Frame.class));
+      } catch (Throwable t) {
+        logger.log(Level.FINE, "ScopedValue not available, using ThreadLocal only.", t);
+        scopedFrame = null;
+        where = null;
+        carrierRun = null;
+        orElse = null;
+      }
+    }
+    SCOPED_FRAME = scopedFrame;
+    WHERE = where;
+    CARRIER_RUN = carrierRun;
+    OR_ELSE = orElse;
+  }
+
+  static final ScopedValueContextStorage INSTANCE = new ScopedValueContextStorage();
+
+  private ScopedValueContextStorage() {}
+
+  /** Returns whether {@code ScopedValue} bindings are used by this JVM. */
+  static boolean isScopedValueAvailable() {
+    return SCOPED_FRAME != null;
+  }
+
+  /**
+   * Runs {@code runnable} with {@code context} as the current {@link Context}. When {@code
+   * ScopedValue} is available, the context is bound for the dynamic extent of the call without
+   * touching the calling thread's {@code ThreadLocal} map.
+   */
+  void run(Context context, Runnable runnable) {
+    if (SCOPED_FRAME == null || WHERE == null || CARRIER_RUN == null) {
+      try (Scope ignored = attach(context)) {
+        runnable.run();
+      }
+      return;
+    }
+    Frame frame = new Frame(Thread.currentThread(), context);
+    try {
+      Object carrier = (Object) WHERE.invokeExact(SCOPED_FRAME, frame);
+      CARRIER_RUN.invokeExact(carrier, runnable);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      // Runnable.run can't throw checked exceptions, but the compiler doesn't know.
+      throw new IllegalStateException(t);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("ReferenceEquality")
+  public Scope attach(Context toAttach) {
+    if (toAttach == null) {
+      // Null context not allowed so ignore it.
+      return ThreadLocalContextStorage.NoopScope.INSTANCE;
+    }
+
+    Frame frame = ownFrame();
+    if (frame != null) {
+      Context beforeAttach = frame.current;
+      if (toAttach == beforeAttach) {
+        return ThreadLocalContextStorage.NoopScope.INSTANCE;
+      }
+      frame.current = toAttach;
+      return new FrameScope(frame, beforeAttach, toAttach);
+    }
+
+    if (toAttach == current()) {
+      return ThreadLocalContextStorage.NoopScope.INSTANCE;
+    }
+    // Restore the raw thread local value on close so a forked thread falls back to the frame again.
+    Context beforeAttach = THREAD_LOCAL_STORAGE.get();
+    THREAD_LOCAL_STORAGE.set(toAttach);
+    return new ThreadLocalScope(beforeAttach, toAttach);
+  }
+
+  @Override
+  @Nullable
+  public Context current() {
+    Frame frame = boundFrame();
+    if (frame == null) {
+      return THREAD_LOCAL_STORAGE.get();
+    }
+    if (frame.owner == Thread.currentThread()) {
+      return frame.current;
+    }
+    // A thread forked from the frame owner, only consult the thread local if it attached
+    // something itself.
+    Context attached = THREAD_LOCAL_STORAGE.get();
+    return attached != null ? attached : frame.bound;
+  }
+
+  @Nullable
+  private static Frame boundFrame() {
+    if (SCOPED_FRAME == null || OR_ELSE == null) {
+      return null;
+    }
+    Frame frame;
+    try {
+      frame = (Frame) OR_ELSE.invokeExact(SCOPED_FRAME, NO_FRAME);
+    } catch (Throwable t) {
+      return null;
+    }
+    return frame == NO_FRAME ? null : frame;
+  }
+
+  @Nullable
+  private static Frame ownFrame() {
+    Frame frame = boundFrame();
+    return frame != null && frame.owner == Thread.currentThread() ? frame : null;
+  }
+
+  private static final class Frame {
+    @Nullable private final Thread owner;
+    @Nullable private final Context bound;
+    // Only accessed by the owner thread.
+    @Nullable private Context current;
+
+    private Frame(@Nullable Thread owner, @Nullable Context bound) {
+      this.owner = owner;
+      this.bound = bound;
+      this.current = bound;
+    }
+  }
+
+  private static final class FrameScope implements Scope {
+    private final Frame frame;
+    @Nullable private final Context beforeAttach;
+    private final Context toAttach;
+    private boolean closed;
+
+    private FrameScope(Frame frame, @Nullable Context beforeAttach, Context toAttach) {
+      this.frame = frame;
+      this.beforeAttach = beforeAttach;
+      this.toAttach = toAttach;
+    }
+
+    @Override
+    @SuppressWarnings("ReferenceEquality")
+    public void close() {
+      if (!closed && frame.owner == Thread.currentThread() && frame.current == toAttach) {
+        closed = true;
+        frame.current = beforeAttach;
+      } else {
+        logger.log(
+            Level.FINE,
+            " Trying to close scope which does not represent current context. Ignoring the call.");
+      }
+    }
+  }
+
+  private static final class ThreadLocalScope implements Scope {
+    @Nullable private final Context beforeAttach;
+    private final Context toAttach;
+    private boolean closed;
+
+    private ThreadLocalScope(@Nullable Context beforeAttach, Context toAttach) {
+      this.beforeAttach = beforeAttach;
+      this.toAttach = toAttach;
+    }
+
+    @Override
+    @SuppressWarnings("ReferenceEquality")
+    public void close() {
+      if (!closed && THREAD_LOCAL_STORAGE.get() == toAttach) {
+        closed = true;
+        THREAD_LOCAL_STORAGE.set(beforeAttach);
+      } else {
+        logger.log(
+            Level.FINE,
+            " Trying to close scope which does not represent current context. Ignoring the call.");
+      }
+    }
+  }
+}
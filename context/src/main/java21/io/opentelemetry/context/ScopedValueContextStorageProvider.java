@@ -0,0 +1,40 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+/**
+ * A {@link ContextStorageProvider} for applications running large numbers of virtual threads. It is
+ * not registered as a service by default, enable it by setting the {@code
+ * io.opentelemetry.context.contextStorageProvider} system property to {@code scopedvalue}.
+ *
+ * <p>Tasks should be started with {@link #run(Context, Runnable)} to benefit from {@code
+ * java.lang.ScopedValue} bindings. {@code ScopedValue} is only a final API from Java 25, on
+ * earlier JVMs this provider returns the default thread local storage.
+ */
+public final class ScopedValueContextStorageProvider implements ContextStorageProvider {
+
+  /**
+   * Runs {@code runnable} with {@code context} as the current {@link Context}, binding it with a
+   * {@code ScopedValue} instead of a {@link ThreadLocal} when possible. This is a no-op wrapper
+   * around {@link Context#makeCurrent()} if this provider's storage is not in use.
+   */
+  public static void run(Context context, Runnable runnable) {
+    if (LazyStorage.get() instanceof ScopedValueContextStorage) {
+      ScopedValueContextStorage.INSTANCE.run(context, runnable);
+      return;
+    }
+    try (Scope ignored = context.makeCurrent()) {
+      runnable.run();
+    }
+  }
+
+  @Override
+  public ContextStorage get() {
+    return ScopedValueContextStorage.isScopedValueAvailable()
+        ? ScopedValueContextStorage.INSTANCE
+        : ContextStorage.defaultStorage();
+  }
+}
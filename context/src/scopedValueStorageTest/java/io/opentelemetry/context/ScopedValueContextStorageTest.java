@@ -0,0 +1,110 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ScopedValueContextStorageTest {
+
+  private static final ContextKey<String> ANIMAL = ContextKey.named("animal");
+
+  @Test
+  void usesScopedValueStorage() {
+    assertThat(ContextStorage.get()).isSameAs(ScopedValueContextStorage.INSTANCE);
+    // This suite only runs on Java 25+, where ScopedValue is final.
+    assertThat(ScopedValueContextStorage.isScopedValueAvailable()).isTrue();
+  }
+
+  @Test
+  void runDoesNotUseThreadLocal() {
+    Context cat = Context.root().with(ANIMAL, "cat");
+    Context dog = Context.root().with(ANIMAL, "dog");
+    AtomicReference<Context> nested = new AtomicReference<>();
+    AtomicReference<Context> threadLocal = new AtomicReference<>(Context.root());
+    ScopedValueContextStorageProvider.run(
+        cat,
+        () -> {
+          try (Scope ignored = dog.makeCurrent()) {
+            nested.set(Context.current());
+            threadLocal.set(ScopedValueContextStorage.THREAD_LOCAL_STORAGE.get());
+          }
+        });
+    assertThat(nested.get()).isSameAs(dog);
+    assertThat(threadLocal.get()).isNull();
+  }
+
+  @Test
+  void attachAndClose() {
+    Context cat = Context.root().with(ANIMAL, "cat");
+    assertThat(Context.current()).isEqualTo(Context.root());
+    try (Scope ignored = cat.makeCurrent()) {
+      assertThat(Context.current()).isSameAs(cat);
+    }
+    assertThat(Context.current()).isEqualTo(Context.root());
+  }
+
+  @Test
+  void run() {
+    Context cat = Context.root().with(ANIMAL, "cat");
+    Context dog = Context.root().with(ANIMAL, "dog");
+    AtomicReference<Context> inside = new AtomicReference<>();
+    AtomicReference<Context> nested = new AtomicReference<>();
+    AtomicReference<Context> afterNested = new AtomicReference<>();
+    ScopedValueContextStorageProvider.run(
+        cat,
+        () -> {
+          inside.set(Context.current());
+          try (Scope ignored = dog.makeCurrent()) {
+            nested.set(Context.current());
+          }
+          afterNested.set(Context.current());
+        });
+    assertThat(inside.get()).isSameAs(cat);
+    assertThat(nested.get()).isSameAs(dog);
+    assertThat(afterNested.get()).isSameAs(cat);
+    assertThat(Context.current()).isEqualTo(Context.root());
+  }
+
+  @Test
+  void closeOutOfOrderIgnored() {
+    Context cat = Context.root().with(ANIMAL, "cat");
+    Context dog = Context.root().with(ANIMAL, "dog");
+    ScopedValueContextStorageProvider.run(
+        Context.root(),
+        () -> {
+          Scope catScope = cat.makeCurrent();
+          Scope dogScope = dog.makeCurrent();
+          catScope.close();
+          assertThat(Context.current()).isSameAs(dog);
+          dogScope.close();
+          assertThat(Context.current()).isSameAs(cat);
+          catScope.close();
+          assertThat(Context.current()).isSameAs(Context.root());
+        });
+  }
+
+  @Test
+  void virtualThreads() throws Exception {
+    Context cat = Context.root().with(ANIMAL, "cat");
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<String> result =
+          executor.submit(
+              () -> {
+                AtomicReference<String> animal = new AtomicReference<>();
+                ScopedValueContextStorageProvider.run(
+                    cat, () -> animal.set(Context.current().get(ANIMAL)));
+                return animal.get();
+              });
+      assertThat(result.get()).isEqualTo("cat");
+    }
+  }
+}
@@ -20,12 +20,17 @@ import static org.mockito.Mockito.when;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.github.netmikey.logunit.api.LogCapturer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -368,6 +373,144 @@ class ContextTest {
     }
   }
 
+  @Test
+  void taskWrappingRunsRootTasksInRootOnWorkerWithContext() throws Exception {
+    // The worker runs every task with the dog current, as if it leaked from an earlier task.
+    Context dog = Context.root().with(ANIMAL, "dog");
+    Executor worker =
+        task -> {
+          try (Scope ignored = dog.makeCurrent()) {
+            task.run();
+          }
+        };
+    AtomicReference<Context> seen = new AtomicReference<>();
+
+    Context.taskWrapping(worker).execute(() -> seen.set(Context.current()));
+    assertThat(seen).hasValue(Context.root());
+
+    try (Scope ignored = CAT.makeCurrent()) {
+      Context.taskWrapping(worker).execute(() -> seen.set(Context.current()));
+    }
+    assertThat(seen).hasValue(CAT);
+
+    ExecutorService executorService =
+        Executors.newSingleThreadExecutor(
+            task ->
+                new Thread(
+                    () -> {
+                      try (Scope ignored = dog.makeCurrent()) {
+                        task.run();
+                      }
+                    }));
+    try {
+      ExecutorService wrapped = Context.taskWrapping(executorService);
+      assertThat(wrapped.submit(Context::current).get()).isEqualTo(Context.root());
+      assertThat(wrapped.invokeAll(Arrays.asList(Context::current, Context::current)))
+          .allSatisfy(future -> assertThat(future.get()).isEqualTo(Context.root()));
+      try (Scope ignored = CAT.makeCurrent()) {
+        assertThat(wrapped.submit(Context::current).get()).isEqualTo(CAT);
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  void taskWrappingRunsTaskWhenContextAlreadyCurrent() {
+    AtomicReference<Context> seen = new AtomicReference<>();
+    Executor executor = Context.taskWrapping(MoreExecutors.directExecutor());
+
+    executor.execute(() -> seen.set(Context.current()));
+    assertThat(seen).hasValue(Context.root());
+
+    try (Scope ignored = CAT.makeCurrent()) {
+      executor.execute(() -> seen.set(Context.current()));
+      assertThat(seen).hasValue(CAT);
+      assertThat(Context.current()).isSameAs(CAT);
+    }
+  }
+
+  @Test
+  void contextRecursiveTask() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Context context = Context.root().with(ANIMAL, "cat");
+      ContextRecursiveTask<Integer> task =
+          new ContextRecursiveTask<Integer>(context) {
+            @Override
+            protected Integer compute() {
+              return new CountingTask(0, 1000).compute();
+            }
+          };
+      assertThat(pool.invoke(task)).isEqualTo(1000);
+      assertThat(Context.current()).isEqualTo(Context.root());
+
+      AtomicReference<String> value = new AtomicReference<>();
+      try (Scope ignored = CAT.makeCurrent()) {
+        pool.invoke(
+            new ContextRecursiveAction() {
+              @Override
+              protected void compute() {
+                value.set(Context.current().get(ANIMAL));
+              }
+            });
+      }
+      assertThat(value).hasValue("cat");
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void contextRecursiveTaskDeserialized() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Scope ignored = CAT.makeCurrent();
+        ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new CountingTask(0, 100));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertThat(pool.invoke(deserialize(bytes.toByteArray()))).isEqualTo(0);
+      try (Scope ignored = CAT.makeCurrent()) {
+        assertThat(pool.invoke(deserialize(bytes.toByteArray()))).isEqualTo(100);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static CountingTask deserialize(byte[] bytes) throws Exception {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return (CountingTask) in.readObject();
+    }
+  }
+
+  // Counts the subtasks which observe the cat in the current context.
+  private static class CountingTask extends ContextRecursiveTask<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+
+    private CountingTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+      if (to - from <= 10) {
+        return "cat".equals(Context.current().get(ANIMAL)) ? to - from : 0;
+      }
+      int middle = (from + to) / 2;
+      CountingTask left = new CountingTask(from, middle);
+      CountingTask right = new CountingTask(middle, to);
+      left.fork();
+      return right.compute() + left.join();
+    }
+  }
+
   @Test
   void wrapExecutorService() {
     // given
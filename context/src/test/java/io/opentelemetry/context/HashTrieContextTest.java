@@ -0,0 +1,123 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HashTrieContextTest {
+
+  @Test
+  void getAndWith() {
+    List<ContextKey<Integer>> keys = keys(200);
+    Context context = HashTrieContext.root();
+    List<Context> snapshots = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      context = context.with(keys.get(i), i);
+      snapshots.add(context);
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(context.get(keys.get(i))).isEqualTo(i);
+    }
+    assertThat(context.get(ContextKey.named("missing"))).isNull();
+
+    // Earlier contexts are unaffected by later writes.
+    for (int i = 0; i < snapshots.size(); i++) {
+      Context snapshot = snapshots.get(i);
+      assertThat(snapshot.get(keys.get(i))).isEqualTo(i);
+      if (i + 1 < keys.size()) {
+        assertThat(snapshot.get(keys.get(i + 1))).isNull();
+      }
+    }
+  }
+
+  @Test
+  void overwrite() {
+    List<ContextKey<Integer>> keys = keys(50);
+    Context context = HashTrieContext.root();
+    for (int i = 0; i < keys.size(); i++) {
+      context = context.with(keys.get(i), i);
+    }
+    Context overwritten = context.with(keys.get(10), -1);
+    assertThat(overwritten.get(keys.get(10))).isEqualTo(-1);
+    assertThat(context.get(keys.get(10))).isEqualTo(10);
+    assertThat(overwritten.get(keys.get(11))).isEqualTo(11);
+  }
+
+  @Test
+  void withSameValueReturnsSameContext() {
+    ContextKey<String> key = ContextKey.named("animal");
+    String cat = "cat";
+    Context context = HashTrieContext.root().with(key, cat);
+    assertThat(context.with(key, cat)).isSameAs(context);
+  }
+
+  @Test
+  void hashCollisions() {
+    List<ContextKey<Integer>> keys = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      keys.add(new CollidingKey<>("k" + i));
+    }
+    Context context = HashTrieContext.root();
+    for (int i = 0; i < keys.size(); i++) {
+      context = context.with(keys.get(i), i);
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(context.get(keys.get(i))).isEqualTo(i);
+    }
+    assertThat(context.get(new CollidingKey<Integer>("k0"))).isNull();
+    Context overwritten = context.with(keys.get(2), -1);
+    assertThat(overwritten.get(keys.get(2))).isEqualTo(-1);
+    assertThat(context.get(keys.get(2))).isEqualTo(2);
+    assertThat(overwritten.toString()).isEqualTo("{k0=0, k1=1, k2=-1, k3=3, k4=4}");
+  }
+
+  @Test
+  void arrayBasedContextSwitchesAboveThreshold() {
+    List<ContextKey<Integer>> keys = keys(ArrayBasedContext.HASH_TRIE_THRESHOLD + 1);
+    Context context = ArrayBasedContext.root();
+    for (int i = 0; i < ArrayBasedContext.HASH_TRIE_THRESHOLD; i++) {
+      context = context.with(keys.get(i), i);
+    }
+    assertThat(context).isInstanceOf(ArrayBasedContext.class);
+
+    context = context.with(keys.get(ArrayBasedContext.HASH_TRIE_THRESHOLD), -1);
+    assertThat(context).isInstanceOf(HashTrieContext.class);
+    for (int i = 0; i < ArrayBasedContext.HASH_TRIE_THRESHOLD; i++) {
+      assertThat(context.get(keys.get(i))).isEqualTo(i);
+    }
+    assertThat(context.get(keys.get(ArrayBasedContext.HASH_TRIE_THRESHOLD))).isEqualTo(-1);
+  }
+
+  private static List<ContextKey<Integer>> keys(int count) {
+    List<ContextKey<Integer>> keys = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      keys.add(ContextKey.named("k" + i));
+    }
+    return keys;
+  }
+
+  private static final class CollidingKey<T> implements ContextKey<T> {
+    private final String name;
+
+    private CollidingKey(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+}
@@ -95,6 +95,18 @@ class LazyStorageTest {
     }
   }
 
+  @Test
+  @SetSystemProperty(key = CONTEXT_STORAGE_PROVIDER_PROPERTY, value = "scopedvalue")
+  void scoped_value_storage() {
+    ContextStorage storage = LazyStorage.createStorage(DEFERRED_STORAGE_FAILURE);
+    // ScopedValue is only a final API from Java 25.
+    if (Double.parseDouble(System.getProperty("java.specification.version")) >= 25) {
+      assertThat(storage.getClass().getSimpleName()).isEqualTo("ScopedValueContextStorage");
+    } else {
+      assertThat(storage).isEqualTo(ContextStorage.defaultStorage());
+    }
+  }
+
   private static File createContextStorageProvider() throws IOException {
     URL location =
         MockContextStorageProvider.class.getProtectionDomain().getCodeSource().getLocation();
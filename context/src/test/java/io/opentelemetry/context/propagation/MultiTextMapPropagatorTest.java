@@ -13,13 +13,18 @@ import static org.mockito.Mockito.when;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.propagation.internal.BulkTextMapGetter;
+import io.opentelemetry.context.propagation.internal.ExtendedTextMapGetter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -136,6 +141,84 @@ class MultiTextMapPropagatorTest {
     assertThat(result).isSameAs(context);
   }
 
+  @Test
+  void extract_extendedGetter_notPrefetched() {
+    ExtendedTextMapGetter<Map<String, String>> extendedGetter =
+        new ExtendedTextMapGetter<Map<String, String>>() {
+          @Override
+          public Iterable<String> keys(Map<String, String> carrier) {
+            return carrier.keySet();
+          }
+
+          @Nullable
+          @Override
+          public String get(@Nullable Map<String, String> carrier, String key) {
+            return carrier.get(key);
+          }
+        };
+    Map<String, String> carrier = new HashMap<>();
+    Context context = mock(Context.class);
+    when(propagator1.extract(context, carrier, extendedGetter)).thenReturn(context);
+    when(propagator2.extract(context, carrier, extendedGetter)).thenReturn(context);
+
+    TextMapPropagator prop = new MultiTextMapPropagator(propagator1, propagator2);
+    Context result = prop.extract(context, carrier, extendedGetter);
+
+    assertThat(result).isSameAs(context);
+  }
+
+  @Test
+  void extract_bulkGetter_singlePass() {
+    AtomicInteger passes = new AtomicInteger();
+    AtomicInteger lookups = new AtomicInteger();
+    BulkTextMapGetter<Map<String, String>> bulkGetter =
+        new BulkTextMapGetter<Map<String, String>>() {
+          @Override
+          public Iterable<String> keys(Map<String, String> carrier) {
+            return carrier.keySet();
+          }
+
+          @Nullable
+          @Override
+          public String get(@Nullable Map<String, String> carrier, String key) {
+            lookups.incrementAndGet();
+            return carrier.get(key);
+          }
+
+          @Override
+          public void getAll(
+              @Nullable Map<String, String> carrier,
+              Collection<String> keys,
+              BiConsumer<String, CharSequence> consumer) {
+            passes.incrementAndGet();
+            for (Map.Entry<String, String> entry : carrier.entrySet()) {
+              if (keys.contains(entry.getKey())) {
+                consumer.accept(entry.getKey(), entry.getValue());
+              }
+            }
+          }
+        };
+    ContextKey<String> fooKey = ContextKey.named("foo");
+    ContextKey<String> barKey = ContextKey.named("bar");
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put("foo", "1");
+    carrier.put("bar", "2");
+    carrier.put("other", "3");
+
+    TextMapPropagator prop =
+        new MultiTextMapPropagator(
+            new FieldPropagator("foo", fooKey),
+            new FieldPropagator("bar", barKey),
+            new FieldPropagator("baz", KEY));
+    Context result = prop.extract(Context.root(), carrier, bulkGetter);
+
+    assertThat(result.get(fooKey)).isEqualTo("1");
+    assertThat(result.get(barKey)).isEqualTo("2");
+    assertThat(result.get(KEY)).isNull();
+    assertThat(passes).hasValue(1);
+    assertThat(lookups).hasValue(0);
+  }
+
   @Test
   void extract_nullContext() {
     assertThat(
@@ -173,4 +256,34 @@ class MultiTextMapPropagatorTest {
     assertThat(new MultiTextMapPropagator(propagator1, propagator2).toString())
         .isEqualTo("MultiTextMapPropagator{textMapPropagators=[propagator1, propagator2]}");
   }
+
+  private static final class FieldPropagator implements TextMapPropagator {
+    private final String field;
+    private final ContextKey<String> key;
+
+    private FieldPropagator(String field, ContextKey<String> key) {
+      this.field = field;
+      this.key = key;
+    }
+
+    @Override
+    public Collection<String> fields() {
+      return Collections.singletonList(field);
+    }
+
+    @Override
+    public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {}
+
+    @Override
+    public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+      Iterator<String> values = getter.getAll(carrier, field);
+      String value = getter.get(carrier, field);
+      if (value == null) {
+        assertThat(values).isExhausted();
+        return context;
+      }
+      assertThat(values).toIterable().containsExactly(value);
+      return context.with(key, value);
+    }
+  }
 }
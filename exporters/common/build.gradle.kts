@@ -3,6 +3,7 @@ plugins {
   id("otel.publish-conventions")
 
   id("otel.animalsniffer-conventions")
+  id("otel.jmh-conventions")
 }
 
 description = "OpenTelemetry Exporter Common"
@@ -76,6 +77,8 @@ dependencies {
   testImplementation(project(":sdk:common"))
   testImplementation(project(":sdk:testing"))
 
+  jmhImplementation(project(":sdk:common"))
+
   testImplementation("com.google.protobuf:protobuf-java-util")
   testImplementation("com.linecorp.armeria:armeria-junit5")
   testImplementation("com.google.api.grpc:proto-google-common-protos")
@@ -0,0 +1,283 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.marshal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares serializing the same span-like messages in proto JSON with {@link JsonSerializer} to
+ * proto binary with {@link ProtoSerializer}. Every span has its own IDs, so that neither format
+ * benefits from IDs repeating across spans.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializerBenchmark {
+
+  private static final ProtoFieldInfo SPANS = ProtoFieldInfo.create(1, 10, "spans");
+
+  private static final ProtoFieldInfo TRACE_ID = ProtoFieldInfo.create(1, 10, "traceId");
+  private static final ProtoFieldInfo SPAN_ID = ProtoFieldInfo.create(2, 18, "spanId");
+  private static final ProtoFieldInfo PARENT_SPAN_ID =
+      ProtoFieldInfo.create(4, 34, "parentSpanId");
+  private static final ProtoFieldInfo NAME = ProtoFieldInfo.create(5, 42, "name");
+  private static final ProtoFieldInfo KIND = ProtoFieldInfo.create(6, 48, "kind");
+  private static final ProtoFieldInfo START_TIME_UNIX_NANO =
+      ProtoFieldInfo.create(7, 57, "startTimeUnixNano");
+  private static final ProtoFieldInfo END_TIME_UNIX_NANO =
+      ProtoFieldInfo.create(8, 65, "endTimeUnixNano");
+  private static final ProtoFieldInfo ATTRIBUTES = ProtoFieldInfo.create(9, 74, "attributes");
+
+  private static final ProtoFieldInfo KEY = ProtoFieldInfo.create(1, 10, "key");
+  private static final ProtoFieldInfo VALUE = ProtoFieldInfo.create(2, 18, "value");
+
+  private static final ProtoFieldInfo STRING_VALUE = ProtoFieldInfo.create(1, 10, "stringValue");
+  private static final ProtoFieldInfo BOOL_VALUE = ProtoFieldInfo.create(2, 16, "boolValue");
+  private static final ProtoFieldInfo INT_VALUE = ProtoFieldInfo.create(3, 24, "intValue");
+  private static final ProtoFieldInfo DOUBLE_VALUE = ProtoFieldInfo.create(4, 33, "doubleValue");
+  private static final ProtoFieldInfo BYTES_VALUE = ProtoFieldInfo.create(7, 58, "bytesValue");
+
+  private static final ProtoEnumInfo SPAN_KIND_SERVER = ProtoEnumInfo.create(2, "SPAN_KIND_SERVER");
+
+  @Param({"16", "512"})
+  int numSpans;
+
+  private Marshaler request;
+  private final CountingOutputStream output = new CountingOutputStream();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Random random = new Random(0);
+    List<Marshaler> spans = new ArrayList<>(numSpans);
+    for (int i = 0; i < numSpans; i++) {
+      spans.add(new SpanMarshaler(random));
+    }
+    request =
+        new MarshalerWithSize(MarshalerUtil.sizeRepeatedMessage(SPANS, spans)) {
+          @Override
+          protected void writeTo(Serializer output) throws IOException {
+            output.serializeRepeatedMessage(SPANS, spans);
+          }
+        };
+  }
+
+  @Benchmark
+  public int writeBinary() throws IOException {
+    output.reset();
+    request.writeBinaryTo(output);
+    return output.count;
+  }
+
+  @Benchmark
+  public int writeJson() throws IOException {
+    output.reset();
+    request.writeJsonTo(output);
+    return output.count;
+  }
+
+  private static final class SpanMarshaler extends MarshalerWithSize {
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final byte[] name;
+    private final long startTime;
+    private final long endTime;
+    private final List<Marshaler> attributes;
+
+    private SpanMarshaler(Random random) {
+      this(
+          hex(random, 32),
+          hex(random, 16),
+          hex(random, 16),
+          "GET /api/v1/items".getBytes(StandardCharsets.UTF_8),
+          1_700_000_000_000_000_000L + random.nextInt(1_000_000),
+          attributes(random));
+    }
+
+    private SpanMarshaler(
+        String traceId,
+        String spanId,
+        String parentSpanId,
+        byte[] name,
+        long startTime,
+        List<Marshaler> attributes) {
+      super(
+          MarshalerUtil.sizeTraceId(TRACE_ID, traceId)
+              + MarshalerUtil.sizeSpanId(SPAN_ID, spanId)
+              + MarshalerUtil.sizeSpanId(PARENT_SPAN_ID, parentSpanId)
+              + MarshalerUtil.sizeBytes(NAME, name)
+              + MarshalerUtil.sizeEnum(KIND, SPAN_KIND_SERVER)
+              + MarshalerUtil.sizeFixed64(START_TIME_UNIX_NANO, startTime)
+              + MarshalerUtil.sizeFixed64(END_TIME_UNIX_NANO, startTime + 1_234_567)
+              + MarshalerUtil.sizeRepeatedMessage(ATTRIBUTES, attributes));
+      this.traceId = traceId;
+      this.spanId = spanId;
+      this.parentSpanId = parentSpanId;
+      this.name = name;
+      this.startTime = startTime;
+      this.endTime = startTime + 1_234_567;
+      this.attributes = attributes;
+    }
+
+    @Override
+    protected void writeTo(Serializer output) throws IOException {
+      output.serializeTraceId(TRACE_ID, traceId);
+      output.serializeSpanId(SPAN_ID, spanId);
+      output.serializeSpanId(PARENT_SPAN_ID, parentSpanId);
+      output.serializeString(NAME, name);
+      output.serializeEnum(KIND, SPAN_KIND_SERVER);
+      output.serializeFixed64(START_TIME_UNIX_NANO, startTime);
+      output.serializeFixed64(END_TIME_UNIX_NANO, endTime);
+      output.serializeRepeatedMessage(ATTRIBUTES, attributes);
+    }
+
+    private static List<Marshaler> attributes(Random random) {
+      byte[] bytes = new byte[24];
+      random.nextBytes(bytes);
+      List<Marshaler> attributes = new ArrayList<>();
+      attributes.add(
+          new KeyValueMarshaler(
+              "http.request.method",
+              new ValueMarshaler(STRING_VALUE, "GET".getBytes(StandardCharsets.UTF_8))));
+      attributes.add(
+          new KeyValueMarshaler(
+              "http.route",
+              new ValueMarshaler(
+                  STRING_VALUE, "/api/v1/items/{id}".getBytes(StandardCharsets.UTF_8))));
+      attributes.add(
+          new KeyValueMarshaler(
+              "http.response.status_code", ValueMarshaler.ofLong(200 + random.nextInt(300))));
+      attributes.add(
+          new KeyValueMarshaler(
+              "http.server.request.duration", ValueMarshaler.ofDouble(random.nextDouble())));
+      attributes.add(new KeyValueMarshaler("cache.hit", ValueMarshaler.ofBoolean(true)));
+      attributes.add(
+          new KeyValueMarshaler("session.token", new ValueMarshaler(BYTES_VALUE, bytes)));
+      return attributes;
+    }
+  }
+
+  private static final class KeyValueMarshaler extends MarshalerWithSize {
+    private final byte[] key;
+    private final Marshaler value;
+
+    private KeyValueMarshaler(String key, Marshaler value) {
+      this(key.getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    private KeyValueMarshaler(byte[] key, Marshaler value) {
+      super(MarshalerUtil.sizeBytes(KEY, key) + MarshalerUtil.sizeMessage(VALUE, value));
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    protected void writeTo(Serializer output) throws IOException {
+      output.serializeString(KEY, key);
+      output.serializeMessage(VALUE, value);
+    }
+  }
+
+  private static final class ValueMarshaler extends MarshalerWithSize {
+    private final ProtoFieldInfo field;
+    private final byte[] bytes;
+    private final long longValue;
+    private final double doubleValue;
+
+    /** A string, as UTF-8, or bytes value. */
+    private ValueMarshaler(ProtoFieldInfo field, byte[] bytes) {
+      super(MarshalerUtil.sizeBytes(field, bytes));
+      this.field = field;
+      this.bytes = bytes;
+      this.longValue = 0;
+      this.doubleValue = 0;
+    }
+
+    private ValueMarshaler(ProtoFieldInfo field, int size, long longValue, double doubleValue) {
+      super(size);
+      this.field = field;
+      this.bytes = new byte[0];
+      this.longValue = longValue;
+      this.doubleValue = doubleValue;
+    }
+
+    static ValueMarshaler ofLong(long value) {
+      return new ValueMarshaler(INT_VALUE, MarshalerUtil.sizeInt64(INT_VALUE, value), value, 0);
+    }
+
+    static ValueMarshaler ofDouble(double value) {
+      return new ValueMarshaler(
+          DOUBLE_VALUE, MarshalerUtil.sizeDouble(DOUBLE_VALUE, value), 0, value);
+    }
+
+    static ValueMarshaler ofBoolean(boolean value) {
+      return new ValueMarshaler(
+          BOOL_VALUE, MarshalerUtil.sizeBool(BOOL_VALUE, value), value ? 1 : 0, 0);
+    }
+
+    @Override
+    protected void writeTo(Serializer output) throws IOException {
+      if (field == INT_VALUE) {
+        output.writeInt64(field, longValue);
+      } else if (field == DOUBLE_VALUE) {
+        output.writeDouble(field, doubleValue);
+      } else if (field == BOOL_VALUE) {
+        output.writeBool(field, longValue != 0);
+      } else if (field == BYTES_VALUE) {
+        output.writeBytes(field, bytes);
+      } else {
+        output.writeString(field, bytes);
+      }
+    }
+  }
+
+  private static String hex(Random random, int length) {
+    StringBuilder hex = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      hex.append(Character.forDigit(random.nextInt(16), 16));
+    }
+    return hex.toString();
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+    private int count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+
+    void reset() {
+      count = 0;
+    }
+  }
+}
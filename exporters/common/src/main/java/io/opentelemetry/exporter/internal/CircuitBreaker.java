@@ -0,0 +1,151 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal;
+
+import io.opentelemetry.api.internal.GuardedBy;
+import io.opentelemetry.sdk.common.Clock;
+import java.time.Duration;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * Circuit breaker which stops an exporter from sending requests while its endpoint is failing, so
+ * that exports fail fast instead of tying up threads and request bodies in retries.
+ *
+ * <p>The breaker opens after {@code failureThreshold} consecutive failed requests, where a request
+ * taking longer than the latency threshold counts as failed even if it succeeded. Once open, it
+ * rejects requests until the open duration elapses, then lets a single probe request through. The
+ * breaker closes if the probe succeeds in time, and opens again otherwise.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class CircuitBreaker {
+
+  /** The state of a {@link CircuitBreaker}. */
+  public enum State {
+    /** Requests are sent. */
+    CLOSED,
+    /** Requests are rejected. */
+    OPEN,
+    /** A single probe request is in flight, other requests are rejected. */
+    HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long latencyThresholdNanos;
+  private final long openDurationNanos;
+  private final Clock clock;
+
+  @GuardedBy("this")
+  private State state = State.CLOSED;
+
+  @GuardedBy("this")
+  private int consecutiveFailures;
+
+  @GuardedBy("this")
+  private long openedAtNanos;
+
+  @Nullable private volatile Consumer<State> stateListener;
+
+  public CircuitBreaker(int failureThreshold, Duration latencyThreshold, Duration openDuration) {
+    this(failureThreshold, latencyThreshold, openDuration, Clock.getDefault());
+  }
+
+  // Visible for testing
+  CircuitBreaker(
+      int failureThreshold, Duration latencyThreshold, Duration openDuration, Clock clock) {
+    this.failureThreshold = failureThreshold;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.openDurationNanos = openDuration.toNanos();
+    this.clock = clock;
+  }
+
+  /** Sets the listener notified of each state change, typically to record it in metrics. */
+  public void setStateListener(Consumer<State> stateListener) {
+    this.stateListener = stateListener;
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  /**
+   * Returns whether a request may be sent now. Each permitted request must be followed by a call
+   * to {@link #onSuccess(long)} or {@link #onFailure()}.
+   */
+  public boolean tryAcquire() {
+    synchronized (this) {
+      switch (state) {
+        case CLOSED:
+          return true;
+        case HALF_OPEN:
+          return false;
+        case OPEN:
+          if (clock.nanoTime() - openedAtNanos < openDurationNanos) {
+            return false;
+          }
+          state = State.HALF_OPEN;
+          break;
+      }
+    }
+    notifyListener(State.HALF_OPEN);
+    return true;
+  }
+
+  /** Returns the current time, to pass as the start of a request to {@link #onSuccess(long)}. */
+  public long nanoTime() {
+    return clock.nanoTime();
+  }
+
+  /** Records a request started at {@code startNanos} which succeeded. */
+  public void onSuccess(long startNanos) {
+    if (clock.nanoTime() - startNanos > latencyThresholdNanos) {
+      onFailure();
+      return;
+    }
+    synchronized (this) {
+      consecutiveFailures = 0;
+      if (state != State.HALF_OPEN) {
+        return;
+      }
+      state = State.CLOSED;
+    }
+    notifyListener(State.CLOSED);
+  }
+
+  /** Records a request which failed. */
+  public void onFailure() {
+    synchronized (this) {
+      consecutiveFailures++;
+      if (state == State.OPEN
+          || (state == State.CLOSED && consecutiveFailures < failureThreshold)) {
+        return;
+      }
+      state = State.OPEN;
+      openedAtNanos = clock.nanoTime();
+    }
+    notifyListener(State.OPEN);
+  }
+
+  private void notifyListener(State newState) {
+    Consumer<State> stateListener = this.stateListener;
+    if (stateListener != null) {
+      stateListener.accept(newState);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreaker{failureThreshold="
+        + failureThreshold
+        + ", latencyThresholdNanos="
+        + latencyThresholdNanos
+        + ", openDurationNanos="
+        + openDurationNanos
+        + "}";
+  }
+}
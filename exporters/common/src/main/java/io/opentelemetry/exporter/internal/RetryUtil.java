@@ -56,6 +56,24 @@ public final class RetryUtil {
     return RETRYABLE_HTTP_STATUS_CODES;
   }
 
+  /**
+   * Returns whether a gRPC status rejects a request for exceeding the maximum message size of the
+   * server. Servers report this as {@code RESOURCE_EXHAUSTED}, which otherwise indicates retryable
+   * throttling, so the description is matched against the errors of common gRPC implementations.
+   * Resending such a request can never succeed.
+   */
+  public static boolean isGrpcMessageTooLarge(
+      @Nullable String grpcStatusCode, @Nullable String grpcStatusDescription) {
+    if (grpcStatusDescription == null
+        || !String.valueOf(GrpcStatusCode.RESOURCE_EXHAUSTED.getValue()).equals(grpcStatusCode)) {
+      return false;
+    }
+    // grpc-go: "grpc: received message larger than max (5 vs. 4)"
+    // grpc-java: "gRPC message exceeds maximum size 4: 5"
+    return grpcStatusDescription.contains("larger than max")
+        || grpcStatusDescription.contains("exceeds maximum size");
+  }
+
   /**
    * Returns the delay specified by a {@code Retry-After} header, or empty if the value is absent or
    * malformed.
@@ -0,0 +1,236 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal;
+
+import io.opentelemetry.api.internal.GuardedBy;
+import io.opentelemetry.exporter.internal.grpc.ExtendedGrpcSenderConfig;
+import io.opentelemetry.exporter.internal.http.ExtendedHttpSenderConfig;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.GrpcResponse;
+import io.opentelemetry.sdk.common.export.GrpcSender;
+import io.opentelemetry.sdk.common.export.GrpcSenderConfig;
+import io.opentelemetry.sdk.common.export.HttpResponse;
+import io.opentelemetry.sdk.common.export.HttpSender;
+import io.opentelemetry.sdk.common.export.HttpSenderConfig;
+import io.opentelemetry.sdk.common.export.MessageWriter;
+import io.opentelemetry.sdk.common.internal.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Reference-counted transport shared by the senders of several exporters, for instance the span,
+ * metric and log exporters of one SDK, so that they use one executor and one connection pool
+ * rather than one each.
+ *
+ * <p>Exporters {@linkplain #acquire(ExecutorService) acquire} the shared executor and pass it to
+ * their sender in an {@link ExtendedHttpSenderConfig} or {@link ExtendedGrpcSenderConfig} flagging
+ * it as shared. The sender then attaches its client to the executor with {@link
+ * #getOrCreateResource(ExecutorService, Object, Supplier, Consumer)}. Each exporter {@linkplain
+ * #release(ExecutorService) releases} the executor when shut down, and the attached clients are
+ * closed, and the default executor shut down, once the last exporter using them is.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SharedTransport {
+
+  private static final Logger logger = Logger.getLogger(SharedTransport.class.getName());
+
+  private static final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private static final Map<ExecutorService, Entry> entries = new IdentityHashMap<>();
+
+  @GuardedBy("lock")
+  @Nullable
+  private static ExecutorService defaultExecutor;
+
+  private SharedTransport() {}
+
+  /**
+   * Acquires a reference to the transport shared by senders using {@code executorService}, or a
+   * default executor managed by this class if {@code null}, and returns the executor to pass to the
+   * sender. Each call must be followed by a call to {@link #release(ExecutorService)} once the
+   * sender is shut down.
+   */
+  public static ExecutorService acquire(@Nullable ExecutorService executorService) {
+    synchronized (lock) {
+      ExecutorService executor = executorService;
+      if (executor == null) {
+        if (defaultExecutor == null) {
+          defaultExecutor = newExecutor();
+        }
+        executor = defaultExecutor;
+      }
+      entries.computeIfAbsent(executor, unused -> new Entry()).refCount++;
+      return executor;
+    }
+  }
+
+  /**
+   * Returns whether the executor service of {@code senderConfig} has been acquired as a shared
+   * transport, which the sender must attach its client to.
+   */
+  public static boolean isShared(HttpSenderConfig senderConfig) {
+    return senderConfig instanceof ExtendedHttpSenderConfig
+        && ((ExtendedHttpSenderConfig) senderConfig).isSharedTransport();
+  }
+
+  /**
+   * Returns whether the executor service of {@code senderConfig} has been acquired as a shared
+   * transport, which the sender must attach its client to.
+   */
+  public static boolean isShared(GrpcSenderConfig senderConfig) {
+    return senderConfig instanceof ExtendedGrpcSenderConfig
+        && ((ExtendedGrpcSenderConfig) senderConfig).isSharedTransport();
+  }
+
+  /**
+   * Returns the resource registered under {@code key} for the shared {@code executorService},
+   * creating it with {@code factory} if there is none. The resource is closed with {@code closer}
+   * once the last reference to the executor is released.
+   *
+   * @throws IllegalStateException if {@code executorService} has not been acquired
+   */
+  public static <T> T getOrCreateResource(
+      ExecutorService executorService, Object key, Supplier<T> factory, Consumer<T> closer) {
+    synchronized (lock) {
+      Entry entry = entries.get(executorService);
+      if (entry == null) {
+        throw new IllegalStateException("Executor is not a shared transport: " + executorService);
+      }
+      Resource<?> resource = entry.resources.get(key);
+      if (resource == null) {
+        resource = new Resource<>(factory.get(), closer);
+        entry.resources.put(key, resource);
+      }
+      @SuppressWarnings("unchecked")
+      T value = (T) resource.value;
+      return value;
+    }
+  }
+
+  /**
+   * Releases a reference acquired with {@link #acquire(ExecutorService)}. Releasing the last
+   * reference closes the resources attached to the executor, and shuts it down if it is the default
+   * executor.
+   */
+  public static void release(ExecutorService executorService) {
+    List<Resource<?>> resources;
+    boolean shutdownExecutor;
+    synchronized (lock) {
+      Entry entry = entries.get(executorService);
+      if (entry == null || --entry.refCount > 0) {
+        return;
+      }
+      entries.remove(executorService);
+      resources = new ArrayList<>(entry.resources.values());
+      shutdownExecutor = executorService == defaultExecutor;
+      if (shutdownExecutor) {
+        defaultExecutor = null;
+      }
+    }
+    for (Resource<?> resource : resources) {
+      try {
+        resource.close();
+      } catch (RuntimeException e) {
+        logger.log(Level.WARNING, "Failed to close shared transport resource.", e);
+      }
+    }
+    if (shutdownExecutor) {
+      executorService.shutdown();
+    }
+  }
+
+  /** Returns {@code sender}, releasing {@code executorService} once it is shut down. */
+  public static HttpSender releaseOnShutdown(HttpSender sender, ExecutorService executorService) {
+    return new HttpSender() {
+      @Override
+      public void send(
+          MessageWriter messageWriter,
+          Consumer<HttpResponse> onResponse,
+          Consumer<Throwable> onError) {
+        sender.send(messageWriter, onResponse, onError);
+      }
+
+      @Override
+      public CompletableResultCode shutdown() {
+        return sender.shutdown().whenComplete(() -> release(executorService));
+      }
+
+      @Override
+      public String toString() {
+        return sender.toString();
+      }
+    };
+  }
+
+  /** Returns {@code sender}, releasing {@code executorService} once it is shut down. */
+  public static GrpcSender releaseOnShutdown(GrpcSender sender, ExecutorService executorService) {
+    return new GrpcSender() {
+      @Override
+      public void send(
+          MessageWriter messageWriter,
+          Consumer<GrpcResponse> onResponse,
+          Consumer<Throwable> onError) {
+        sender.send(messageWriter, onResponse, onError);
+      }
+
+      @Override
+      public CompletableResultCode shutdown() {
+        return sender.shutdown().whenComplete(() -> release(executorService));
+      }
+
+      @Override
+      public String toString() {
+        return sender.toString();
+      }
+    };
+  }
+
+  // Unbounded like OkHttp's default dispatcher executor, since the senders limit the number of
+  // requests in flight themselves.
+  private static ExecutorService newExecutor() {
+    return new ThreadPoolExecutor(
+        0,
+        Integer.MAX_VALUE,
+        60,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new DaemonThreadFactory("otel-exporter-shared"));
+  }
+
+  private static final class Entry {
+    private int refCount;
+    private final Map<Object, Resource<?>> resources = new LinkedHashMap<>();
+  }
+
+  private static final class Resource<T> {
+    private final T value;
+    private final Consumer<T> closer;
+
+    private Resource(T value, Consumer<T> closer) {
+      this.value = value;
+      this.closer = closer;
+    }
+
+    private void close() {
+      closer.accept(value);
+    }
+  }
+}
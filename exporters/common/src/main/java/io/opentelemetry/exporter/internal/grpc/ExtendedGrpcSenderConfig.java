@@ -5,6 +5,7 @@
 
 package io.opentelemetry.exporter.internal.grpc;
 
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.sdk.common.export.GrpcSenderConfig;
 import javax.annotation.Nullable;
 
@@ -18,4 +19,12 @@ public interface ExtendedGrpcSenderConfig extends GrpcSenderConfig {
 
   @Nullable
   Object getManagedChannel();
+
+  /**
+   * Whether {@link #getExecutorService()} has been acquired as a {@link SharedTransport}, which the
+   * sender attaches its client to.
+   */
+  default boolean isSharedTransport() {
+    return false;
+  }
 }
@@ -0,0 +1,26 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.http;
+
+import io.opentelemetry.exporter.internal.SharedTransport;
+import io.opentelemetry.sdk.common.export.HttpSenderConfig;
+
+/**
+ * Extended {@link HttpSenderConfig} with internal / experimental APIs.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface ExtendedHttpSenderConfig extends HttpSenderConfig {
+
+  /**
+   * Whether {@link #getExecutorService()} has been acquired as a {@link SharedTransport}, which the
+   * sender attaches its client to.
+   */
+  default boolean isSharedTransport() {
+    return false;
+  }
+}
@@ -0,0 +1,10 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+/** Utilities for HTTP exporters. */
+@ParametersAreNonnullByDefault
+package io.opentelemetry.exporter.internal.http;
+
+import javax.annotation.ParametersAreNonnullByDefault;
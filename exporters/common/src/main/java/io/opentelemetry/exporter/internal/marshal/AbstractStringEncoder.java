@@ -28,9 +28,13 @@ abstract class AbstractStringEncoder implements StringEncoder {
     }
     // if the length of the latin1 string and the utf8 output are the same then the string must be
     // composed of only 7bit characters and can be directly copied to the output
-    if (string.length() == utf8Length && isLatin1(string)) {
+    if (isLatin1(string)) {
       byte[] bytes = getStringBytes(string);
-      output.write(bytes, 0, bytes.length);
+      if (string.length() == utf8Length) {
+        output.write(bytes, 0, bytes.length);
+      } else {
+        encodeLatin1(output, bytes);
+      }
     } else {
       fallback.writeUtf8(output, string, utf8Length);
     }
@@ -61,6 +65,33 @@ abstract class AbstractStringEncoder implements StringEncoder {
   // mask that selects only the most significant bit in every byte of the long
   private static final long MOST_SIGNIFICANT_BIT_MASK = 0x8080808080808080L;
 
+  /**
+   * Encodes latin1 bytes which are not all 7bit. Runs of 7bit bytes, found 8 bytes at a time, are
+   * copied to the output in bulk and only the bytes in between are encoded as 2 utf8 bytes.
+   */
+  private void encodeLatin1(CodedOutputStream output, byte[] bytes) throws IOException {
+    int length = bytes.length;
+    int start = 0;
+    int i = 0;
+    while (i < length) {
+      while (i + 8 <= length && (getLong(bytes, i) & MOST_SIGNIFICANT_BIT_MASK) == 0) {
+        i += 8;
+      }
+      while (i < length && bytes[i] >= 0) {
+        i++;
+      }
+      if (i > start) {
+        output.write(bytes, start, i - start);
+      }
+      if (i < length) {
+        int c = bytes[i] & 0xff;
+        output.write((byte) (0xC0 | (c >>> 6)));
+        output.write((byte) (0x80 | (c & 0x3F)));
+        start = ++i;
+      }
+    }
+  }
+
   /** Returns the count of bytes with negative value. */
   private int countNegative(byte[] bytes) {
     int count = 0;
@@ -44,7 +44,9 @@ import static io.opentelemetry.exporter.internal.marshal.WireFormat.MAX_VARINT_S
 import io.opentelemetry.api.internal.ConfigUtil;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * Protobuf wire encoder.
@@ -63,6 +65,7 @@ import java.nio.ByteBuffer;
 // - No support for Java String, only UTF-8 bytes
 // - No support for writing fields with tag, we alway write tags separately
 // - Allow resetting and use a ThreadLocal instance
+// - ByteBuffer encoder writing to heap or direct buffers without Unsafe
 //
 @SuppressWarnings({"UnnecessaryFinal", "UngroupedOverloads", "InlineMeSuggester", "UnusedVariable"})
 public abstract class CodedOutputStream {
@@ -104,6 +107,14 @@ public abstract class CodedOutputStream {
     return cos;
   }
 
+  /**
+   * Create a new {@code CodedOutputStream} writing to the given {@link ByteBuffer}, heap or direct,
+   * from its position onwards. The buffer must have enough space remaining for all that is written.
+   */
+  static CodedOutputStream newInstance(final ByteBuffer output) {
+    return new ByteBufferEncoder(output);
+  }
+
   // Disallow construction outside of this class.
   private CodedOutputStream() {}
 
@@ -193,6 +204,12 @@ public abstract class CodedOutputStream {
 
   abstract void write(byte[] value, int offset, int length) throws IOException;
 
+  /**
+   * Write {@code length} chars of {@code value} starting at {@code offset} as one byte each. The
+   * chars must all be ASCII, so that they are copied in bulk rather than encoded one at a time.
+   */
+  abstract void writeAscii(String value, int offset, int length) throws IOException;
+
   // =================================================================
 
   /** Compute the number of bytes that would be needed to encode a tag. */
@@ -622,6 +639,22 @@ public abstract class CodedOutputStream {
       }
     }
 
+    @Override
+    @SuppressWarnings("deprecation") // getBytes copies the low byte of each char, exact for ASCII
+    void writeAscii(String value, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (position == limit) {
+          doFlush();
+        }
+        int chunk = Math.min(length, limit - position);
+        value.getBytes(offset, offset + chunk, buffer, position);
+        position += chunk;
+        totalBytesWritten += chunk;
+        offset += chunk;
+        length -= chunk;
+      }
+    }
+
     private void flushIfNotAvailable(int requiredSize) throws IOException {
       if (limit - position < requiredSize) {
         doFlush();
@@ -633,4 +666,108 @@ public abstract class CodedOutputStream {
       position = 0;
     }
   }
+
+  /**
+   * A {@link CodedOutputStream} that writes directly to a {@link ByteBuffer}, which may be direct.
+   * There is no intermediate buffer, so writes past the buffer's limit throw {@link
+   * java.nio.BufferOverflowException}.
+   */
+  private static final class ByteBufferEncoder extends CodedOutputStream {
+    private final ByteBuffer buffer;
+    private final boolean bigEndian;
+
+    ByteBufferEncoder(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    @Override
+    void writeByteArrayNoTag(final byte[] value, int offset, int length) {
+      writeUInt32NoTag(length);
+      write(value, offset, length);
+    }
+
+    @Override
+    void writeByteBufferNoTag(final ByteBuffer value) {
+      writeUInt32NoTag(value.capacity());
+      buffer.put((ByteBuffer) value.duplicate().clear());
+    }
+
+    @Override
+    void write(byte value) {
+      buffer.put(value);
+    }
+
+    @Override
+    void write(byte[] value, int offset, int length) {
+      buffer.put(value, offset, length);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // getBytes copies the low byte of each char, exact for ASCII
+    void writeAscii(String value, int offset, int length) {
+      if (buffer.remaining() < length) {
+        throw new BufferOverflowException();
+      }
+      if (buffer.hasArray()) {
+        int position = buffer.position();
+        value.getBytes(offset, offset + length, buffer.array(), buffer.arrayOffset() + position);
+        buffer.position(position + length);
+      } else {
+        for (int i = offset; i < offset + length; i++) {
+          buffer.put((byte) value.charAt(i));
+        }
+      }
+    }
+
+    @Override
+    void writeInt32NoTag(int value) {
+      if (value >= 0) {
+        writeUInt32NoTag(value);
+      } else {
+        // Must sign-extend.
+        writeUInt64NoTag(value);
+      }
+    }
+
+    @Override
+    void writeUInt32NoTag(int value) {
+      while (true) {
+        if ((value & ~0x7F) == 0) {
+          buffer.put((byte) value);
+          return;
+        } else {
+          buffer.put((byte) ((value & 0x7F) | 0x80));
+          value >>>= 7;
+        }
+      }
+    }
+
+    @Override
+    void writeFixed32NoTag(final int value) {
+      // Fixed-width values are little-endian on the wire.
+      buffer.putInt(bigEndian ? Integer.reverseBytes(value) : value);
+    }
+
+    @Override
+    void writeUInt64NoTag(long value) {
+      while (true) {
+        if ((value & ~0x7FL) == 0) {
+          buffer.put((byte) value);
+          return;
+        } else {
+          buffer.put((byte) (((int) value & 0x7F) | 0x80));
+          value >>>= 7;
+        }
+      }
+    }
+
+    @Override
+    void writeFixed64NoTag(final long value) {
+      buffer.putLong(bigEndian ? Long.reverseBytes(value) : value);
+    }
+
+    @Override
+    void flush() {}
+  }
 }
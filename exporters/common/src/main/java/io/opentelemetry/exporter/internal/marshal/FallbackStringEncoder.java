@@ -103,9 +103,11 @@ final class FallbackStringEncoder implements StringEncoder {
     int i = 0;
     // Designed to take advantage of
     // https://wiki.openjdk.java.net/display/HotSpotInternals/RangeCheckElimination
-    for (char c; i < utf16Length && (c = in.charAt(i)) < 0x80; i++) {
-      output.write((byte) c);
+    while (i < utf16Length && in.charAt(i) < 0x80) {
+      i++;
     }
+    // copy the ascii prefix in bulk instead of writing it one byte at a time
+    output.writeAscii(in, 0, i);
     if (i == utf16Length) {
       return;
     }
@@ -113,8 +115,12 @@ final class FallbackStringEncoder implements StringEncoder {
     for (char c; i < utf16Length; i++) {
       c = in.charAt(i);
       if (c < 0x80) {
-        // 1 byte, 7 bits
-        output.write((byte) c);
+        // 1 byte, 7 bits, copy the whole ascii run in bulk
+        int start = i;
+        while (i + 1 < utf16Length && in.charAt(i + 1) < 0x80) {
+          i++;
+        }
+        output.writeAscii(in, start, i + 1 - start);
       } else if (c < 0x800) { // 11 bits, two UTF-8 bytes
         output.write((byte) ((0xF << 6) | (c >>> 6)));
         output.write((byte) (0x80 | (0x3F & c)));
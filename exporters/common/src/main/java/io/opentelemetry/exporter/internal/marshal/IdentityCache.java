@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.marshal;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of values computed from objects compared by identity, such as the serialized
+ * resource of a request, which a {@link MarshalerContext} keeps across marshaling attempts. Obtain
+ * one per context with {@link MarshalerContext#getInstance(MarshalerContext.Key,
+ * java.util.function.Supplier)}.
+ *
+ * <p>An object which is replaced by an equal but different instance is computed again. Once the
+ * cache is full it is cleared, so that replaced objects don't accumulate.
+ *
+ * <p>This class is not thread safe, like {@link MarshalerContext}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class IdentityCache<K, V> {
+
+  private final int maxSize;
+  private final Map<K, V> cache = new IdentityHashMap<>();
+
+  public IdentityCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the value cached for {@code key}, computing it with {@code function} if absent. Pass a
+   * non-capturing function so that cache hits don't allocate.
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+    V value = cache.get(key);
+    if (value == null) {
+      value = function.apply(key);
+      if (cache.size() >= maxSize) {
+        cache.clear();
+      }
+      cache.put(key, value);
+    }
+    return value;
+  }
+
+  /** Returns the number of cached values. */
+  public int size() {
+    return cache.size();
+  }
+}
@@ -7,9 +7,9 @@ package io.opentelemetry.exporter.internal.marshal;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Base64;
 
 /**
  * A minimal JSON encoder that serializes directly to an {@link OutputStream} as UTF-8, buffering
@@ -18,7 +18,7 @@ import java.util.Base64;
  * JsonGenerator} that previously backed {@link JsonSerializer}.
  *
  * <p>The caller is responsible for structural validity (matching braces); this class only inserts
- * separators between members. {@link #writeRaw(String)} writes verbatim without touching separator
+ * separators between members. {@link #writeRaw(byte[])} writes verbatim without touching separator
  * state, which {@link MarshalerUtil#preserializeJsonFields(Marshaler)} relies on.
  *
  * <p>Nesting depth is capped at {@value #MAX_NESTING_DEPTH}. Attempting to nest deeper throws
@@ -26,6 +26,10 @@ import java.util.Base64;
  * structures such as cyclic {@code Value} bodies that could otherwise DoS an exporter. The cap is
  * intentionally conservative (Jackson 3's default is 500). Real OTLP payloads nest only a handful
  * of levels, and it is easier to relax the cap later than to tighten it.
+ *
+ * <p>Field names are written from the bytes precomputed by {@link ProtoFieldInfo}, and numbers,
+ * hex IDs and base64 bytes are formatted straight into the buffer, so that serializing a message
+ * does not allocate. {@link #newInstance(OutputStream)} also reuses the buffer across messages.
  */
 final class JsonBufferedEncoder {
 
@@ -36,10 +40,29 @@ final class JsonBufferedEncoder {
   private static final byte[] HEX = {
     '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
   };
+  private static final byte[] BASE64 =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+          .getBytes(StandardCharsets.US_ASCII);
+  // The length of Long.MIN_VALUE in decimal.
+  private static final int MAX_LONG_LENGTH = 20;
+
+  private static final ThreadLocal<JsonBufferedEncoder> THREAD_LOCAL_ENCODER =
+      new ThreadLocal<>();
+  // Replaces the stream of a reused encoder once closed so that the encoder does not keep it
+  // reachable.
+  private static final OutputStream CLOSED =
+      new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+          throw new IOException("Encoder is closed");
+        }
+      };
 
-  private final OutputStream out;
+  private OutputStream out;
   private final byte[] buffer = new byte[4096];
   private int pos;
+  // Whether this is the encoder of its thread and currently in use, see newInstance().
+  private boolean inUse;
 
   // Whether any member has been written at each nesting depth; depth 0 is the implicit root. The
   // array grows on demand in push(), so it does not cap nesting depth.
@@ -53,6 +76,35 @@ final class JsonBufferedEncoder {
     this.out = out;
   }
 
+  /**
+   * Returns an encoder writing to {@code out}, reusing the encoder of the current thread like
+   * {@link CodedOutputStream#newInstance(OutputStream)} does. The encoder must be {@linkplain
+   * #close() closed} before the thread serializes another message with it. A message serialized
+   * while another one is still being written, which reused encoders do not support, gets a new
+   * encoder instead.
+   */
+  static JsonBufferedEncoder newInstance(OutputStream out) {
+    JsonBufferedEncoder encoder = THREAD_LOCAL_ENCODER.get();
+    if (encoder == null) {
+      encoder = new JsonBufferedEncoder(out);
+      THREAD_LOCAL_ENCODER.set(encoder);
+    } else if (encoder.inUse) {
+      return new JsonBufferedEncoder(out);
+    } else {
+      encoder.reset(out);
+    }
+    encoder.inUse = true;
+    return encoder;
+  }
+
+  private void reset(OutputStream out) {
+    this.out = out;
+    pos = 0;
+    depth = 0;
+    hasMembers[0] = false;
+    afterKey = false;
+  }
+
   void writeStartObject() throws IOException {
     beforeValue();
     writeByte((byte) '{');
@@ -71,6 +123,10 @@ final class JsonBufferedEncoder {
 
   void writeArrayFieldStart(String name) throws IOException {
     writeFieldName(name);
+    writeStartArray();
+  }
+
+  void writeStartArray() throws IOException {
     beforeValue();
     writeByte((byte) '[');
     push();
@@ -91,6 +147,19 @@ final class JsonBufferedEncoder {
     afterKey = true;
   }
 
+  /**
+   * Writes a field name already quoted, followed by a colon and encoded, as returned by {@link
+   * ProtoFieldInfo#getJsonFieldName()}.
+   */
+  void writeFieldName(byte[] quotedName) throws IOException {
+    if (hasMembers[depth]) {
+      writeByte((byte) ',');
+    }
+    hasMembers[depth] = true;
+    writeRawBytes(quotedName);
+    afterKey = true;
+  }
+
   void writeStringField(String name, String value) throws IOException {
     writeFieldName(name);
     writeString(value);
@@ -98,14 +167,12 @@ final class JsonBufferedEncoder {
 
   void writeBooleanField(String name, boolean value) throws IOException {
     writeFieldName(name);
-    beforeValue();
-    writeRawBytes(value ? TRUE : FALSE);
+    writeBoolean(value);
   }
 
   void writeNumberField(String name, int value) throws IOException {
     writeFieldName(name);
-    beforeValue();
-    writeAscii(Integer.toString(value));
+    writeNumber(value);
   }
 
   void writeNumberField(String name, double value) throws IOException {
@@ -115,10 +182,40 @@ final class JsonBufferedEncoder {
 
   void writeBinaryField(String name, byte[] value) throws IOException {
     writeFieldName(name);
+    writeBinary(value);
+  }
+
+  void writeBoolean(boolean value) throws IOException {
     beforeValue();
-    writeByte((byte) '"');
-    writeRawBytes(Base64.getEncoder().encode(value));
-    writeByte((byte) '"');
+    writeRawBytes(value ? TRUE : FALSE);
+  }
+
+  void writeNumber(int value) throws IOException {
+    beforeValue();
+    ensureCapacity(MAX_LONG_LENGTH);
+    writeDecimal(value);
+  }
+
+  void writeNumber(double value) throws IOException {
+    beforeValue();
+    // proto3 JSON encodes the non-finite values as quoted strings; a bare NaN/Infinity is not valid
+    // JSON. This matches io.opentelemetry.api.common.JsonEncoding.
+    if (Double.isNaN(value)) {
+      writeAscii("\"NaN\"");
+    } else if (Double.isInfinite(value)) {
+      writeAscii(value > 0 ? "\"Infinity\"" : "\"-Infinity\"");
+    } else {
+      writeAscii(Double.toString(value));
+    }
+  }
+
+  /** Writes a 64-bit integer as a quoted string, as proto3 JSON encodes them. */
+  void writeQuotedNumber(long value) throws IOException {
+    beforeValue();
+    ensureCapacity(MAX_LONG_LENGTH + 2);
+    buffer[pos++] = (byte) '"';
+    writeDecimal(value);
+    buffer[pos++] = (byte) '"';
   }
 
   void writeString(String value) throws IOException {
@@ -126,6 +223,70 @@ final class JsonBufferedEncoder {
     writeQuoted(value);
   }
 
+  /**
+   * Writes a string of hex digits, such as a trace or span ID, copying its characters without
+   * checking each one for escaping. Strings which are not hex are written by {@link
+   * #writeString(String)}.
+   */
+  void writeHexString(String value) throws IOException {
+    beforeValue();
+    int length = value.length();
+    if (length + 2 > buffer.length) {
+      writeQuoted(value);
+      return;
+    }
+    ensureCapacity(length + 2);
+    int start = pos;
+    buffer[pos++] = (byte) '"';
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (!isHexDigit(c)) {
+        pos = start;
+        writeQuoted(value);
+        return;
+      }
+      buffer[pos++] = (byte) c;
+    }
+    buffer[pos++] = (byte) '"';
+  }
+
+  /** Writes bytes as a base64 string, as proto3 JSON encodes {@code bytes} fields. */
+  void writeBinary(byte[] value) throws IOException {
+    beforeValue();
+    writeByte((byte) '"');
+    int length = value.length;
+    int i = 0;
+    for (; i + 2 < length; i += 3) {
+      writeBase64(value[i], value[i + 1], value[i + 2], 3);
+    }
+    if (i + 1 == length) {
+      writeBase64(value[i], 0, 0, 1);
+    } else if (i + 2 == length) {
+      writeBase64(value[i], value[i + 1], 0, 2);
+    }
+    writeByte((byte) '"');
+  }
+
+  /**
+   * Writes all content of the {@link ByteBuffer} as a base64 string, regardless of its position
+   * and limit, which it does not alter.
+   */
+  void writeBinary(ByteBuffer value) throws IOException {
+    beforeValue();
+    writeByte((byte) '"');
+    int length = value.capacity();
+    int i = 0;
+    for (; i + 2 < length; i += 3) {
+      writeBase64(value.get(i), value.get(i + 1), value.get(i + 2), 3);
+    }
+    if (i + 1 == length) {
+      writeBase64(value.get(i), 0, 0, 1);
+    } else if (i + 2 == length) {
+      writeBase64(value.get(i), value.get(i + 1), 0, 2);
+    }
+    writeByte((byte) '"');
+  }
+
   /**
    * Writes a JSON string value from already UTF-8 encoded bytes, avoiding a decode-then-re-encode
    * round trip. ASCII bytes are escaped as needed; multi-byte UTF-8 sequences pass through
@@ -144,22 +305,9 @@ final class JsonBufferedEncoder {
     writeByte((byte) '"');
   }
 
-  void writeNumber(double value) throws IOException {
-    beforeValue();
-    // proto3 JSON encodes the non-finite values as quoted strings; a bare NaN/Infinity is not valid
-    // JSON. This matches io.opentelemetry.api.common.JsonEncoding.
-    if (Double.isNaN(value)) {
-      writeAscii("\"NaN\"");
-    } else if (Double.isInfinite(value)) {
-      writeAscii(value > 0 ? "\"Infinity\"" : "\"-Infinity\"");
-    } else {
-      writeAscii(Double.toString(value));
-    }
-  }
-
-  /** Writes pre-serialized JSON verbatim, without updating separator state. */
-  void writeRaw(String raw) throws IOException {
-    writeRawBytes(raw.getBytes(StandardCharsets.UTF_8));
+  /** Writes pre-serialized JSON encoded in UTF-8 verbatim, without updating separator state. */
+  void writeRaw(byte[] rawUtf8) throws IOException {
+    writeRawBytes(rawUtf8);
   }
 
   /**
@@ -177,6 +325,11 @@ final class JsonBufferedEncoder {
       // it so re-throwing doesn't trigger an IllegalArgumentException from illegal
       // self-suppression.
       throw new IOException(e);
+    } finally {
+      if (inUse) {
+        inUse = false;
+        out = CLOSED;
+      }
     }
   }
 
@@ -210,6 +363,12 @@ final class JsonBufferedEncoder {
   /** Writes a quoted, escaped JSON string, encoding {@code value} as UTF-8. */
   private void writeQuoted(String value) throws IOException {
     writeByte((byte) '"');
+    writeEscapedUtf8(value);
+    writeByte((byte) '"');
+  }
+
+  /** Encodes {@code value} as UTF-8, escaping ASCII characters for JSON. */
+  private void writeEscapedUtf8(String value) throws IOException {
     int length = value.length();
     for (int i = 0; i < length; i++) {
       char c = value.charAt(i);
@@ -239,7 +398,6 @@ final class JsonBufferedEncoder {
         writeByte((byte) (0x80 | (c & 0x3F)));
       }
     }
-    writeByte((byte) '"');
   }
 
   /** Writes a single ASCII byte (0x00-0x7F), escaping it if required by JSON. */
@@ -295,6 +453,59 @@ final class JsonBufferedEncoder {
     }
   }
 
+  /**
+   * Formats {@code value} in decimal into the buffer, which must have room for {@value
+   * #MAX_LONG_LENGTH} bytes.
+   */
+  private void writeDecimal(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      writeAscii(Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      buffer[pos++] = (byte) '-';
+      value = -value;
+    }
+    int end = pos + decimalLength(value);
+    int i = end;
+    do {
+      buffer[--i] = (byte) ('0' + (value % 10));
+      value /= 10;
+    } while (value != 0);
+    pos = end;
+  }
+
+  private static int decimalLength(long value) {
+    int length = 1;
+    // Long.MAX_VALUE has 19 digits, stop before the power of ten overflows.
+    for (long power = 10; length < 19 && value >= power; power *= 10) {
+      length++;
+    }
+    return length;
+  }
+
+  /** Writes the base64 encoding of the first {@code count} of three bytes, padded with '='. */
+  private void writeBase64(int b0, int b1, int b2, int count) throws IOException {
+    ensureCapacity(4);
+    int bits = (b0 & 0xFF) << 16 | (b1 & 0xFF) << 8 | (b2 & 0xFF);
+    buffer[pos++] = BASE64[bits >>> 18];
+    buffer[pos++] = BASE64[(bits >>> 12) & 0x3F];
+    buffer[pos++] = count > 1 ? BASE64[(bits >>> 6) & 0x3F] : (byte) '=';
+    buffer[pos++] = count > 2 ? BASE64[bits & 0x3F] : (byte) '=';
+  }
+
+  private static boolean isHexDigit(char c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+
+  /** Drains the buffer if it has less than {@code length} bytes free. */
+  private void ensureCapacity(int length) throws IOException {
+    if (buffer.length - pos < length) {
+      out.write(buffer, 0, pos);
+      pos = 0;
+    }
+  }
+
   private void writeRawBytes(byte[] bytes) throws IOException {
     int offset = 0;
     int remaining = bytes.length;
@@ -15,77 +15,89 @@ final class JsonSerializer extends Serializer {
   private final JsonBufferedEncoder encoder;
 
   JsonSerializer(OutputStream output) {
-    this.encoder = new JsonBufferedEncoder(output);
+    this.encoder = JsonBufferedEncoder.newInstance(output);
   }
 
   @Override
   protected void writeTraceId(ProtoFieldInfo field, String traceId) throws IOException {
-    encoder.writeStringField(field.getJsonName(), traceId);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeHexString(traceId);
   }
 
   @Override
   protected void writeSpanId(ProtoFieldInfo field, String spanId) throws IOException {
-    encoder.writeStringField(field.getJsonName(), spanId);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeHexString(spanId);
   }
 
   @Override
   public void writeBool(ProtoFieldInfo field, boolean value) throws IOException {
-    encoder.writeBooleanField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeBoolean(value);
   }
 
   @Override
   protected void writeEnum(ProtoFieldInfo field, ProtoEnumInfo enumValue) throws IOException {
-    encoder.writeNumberField(field.getJsonName(), enumValue.getEnumNumber());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeNumber(enumValue.getEnumNumber());
   }
 
   @Override
   protected void writeUint32(ProtoFieldInfo field, int value) throws IOException {
-    encoder.writeNumberField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeNumber(value);
   }
 
   @Override
   protected void writeSInt32(ProtoFieldInfo field, int value) throws IOException {
-    encoder.writeNumberField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeNumber(value);
   }
 
   @Override
   protected void writeint32(ProtoFieldInfo field, int value) throws IOException {
-    encoder.writeNumberField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeNumber(value);
   }
 
   @Override
   public void writeInt64(ProtoFieldInfo field, long value) throws IOException {
-    encoder.writeStringField(field.getJsonName(), Long.toString(value));
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeQuotedNumber(value);
   }
 
   @Override
   protected void writeFixed64(ProtoFieldInfo field, long value) throws IOException {
-    encoder.writeStringField(field.getJsonName(), Long.toString(value));
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeQuotedNumber(value);
   }
 
   @Override
   protected void writeFixed64Value(long value) throws IOException {
-    encoder.writeString(Long.toString(value));
+    encoder.writeQuotedNumber(value);
   }
 
   @Override
   protected void writeUInt64Value(long value) throws IOException {
-    encoder.writeString(Long.toString(value));
+    encoder.writeQuotedNumber(value);
   }
 
   @Override
   public void writeUInt64(ProtoFieldInfo field, long value) throws IOException {
-    encoder.writeStringField(field.getJsonName(), Long.toString(value));
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeQuotedNumber(value);
   }
 
   @Override
   protected void writeFixed32(ProtoFieldInfo field, int value) throws IOException {
-    encoder.writeNumberField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeNumber(value);
   }
 
   @Override
   public void writeDouble(ProtoFieldInfo field, double value) throws IOException {
-    encoder.writeNumberField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeNumber(value);
   }
 
   @Override
@@ -95,7 +107,7 @@ final class JsonSerializer extends Serializer {
 
   @Override
   public void writeString(ProtoFieldInfo field, byte[] utf8Bytes) throws IOException {
-    encoder.writeFieldName(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
     // Marshalers already encoded the String to UTF-8 bytes (binary serialization needs them for
     // both size computation and writing), so write them directly rather than decoding and
     // re-encoding.
@@ -106,13 +118,14 @@ final class JsonSerializer extends Serializer {
   public void writeString(
       ProtoFieldInfo field, String string, int utf8Length, MarshalerContext context)
       throws IOException {
-    encoder.writeFieldName(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
     encoder.writeString(string);
   }
 
   @Override
   public void writeRepeatedString(ProtoFieldInfo field, byte[][] utf8Bytes) throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
     for (byte[] value : utf8Bytes) {
       // See writeString(ProtoFieldInfo, byte[]): the bytes are already UTF-8, so write directly.
       encoder.writeUtf8String(value);
@@ -122,19 +135,20 @@ final class JsonSerializer extends Serializer {
 
   @Override
   public void writeBytes(ProtoFieldInfo field, byte[] value) throws IOException {
-    encoder.writeBinaryField(field.getJsonName(), value);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeBinary(value);
   }
 
   @Override
   public void writeByteBuffer(ProtoFieldInfo field, ByteBuffer value) throws IOException {
-    byte[] data = new byte[value.capacity()];
-    ((ByteBuffer) value.duplicate().clear()).get(data);
-    encoder.writeBinaryField(field.getJsonName(), data);
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeBinary(value);
   }
 
   @Override
   protected void writeStartMessage(ProtoFieldInfo field, int protoMessageSize) throws IOException {
-    encoder.writeObjectFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartObject();
   }
 
   @Override
@@ -145,7 +159,8 @@ final class JsonSerializer extends Serializer {
   @Override
   protected void writeStartRepeatedPrimitive(
       ProtoFieldInfo field, int protoSizePerElement, int numElements) throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
   }
 
   @Override
@@ -156,7 +171,8 @@ final class JsonSerializer extends Serializer {
   @Override
   protected void writeStartRepeatedVarint(ProtoFieldInfo field, int payloadSize)
       throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
   }
 
   @Override
@@ -167,7 +183,8 @@ final class JsonSerializer extends Serializer {
   @Override
   public void serializeRepeatedMessage(ProtoFieldInfo field, Marshaler[] repeatedMessage)
       throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
     for (Marshaler marshaler : repeatedMessage) {
       writeMessageValue(marshaler);
     }
@@ -177,7 +194,8 @@ final class JsonSerializer extends Serializer {
   @Override
   public void serializeRepeatedMessage(
       ProtoFieldInfo field, List<? extends Marshaler> repeatedMessage) throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
     for (Marshaler marshaler : repeatedMessage) {
       writeMessageValue(marshaler);
     }
@@ -191,7 +209,8 @@ final class JsonSerializer extends Serializer {
       StatelessMarshaler<T> marshaler,
       MarshalerContext context)
       throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
     for (int i = 0; i < messages.size(); i++) {
       T message = messages.get(i);
       encoder.writeStartObject();
@@ -203,7 +222,8 @@ final class JsonSerializer extends Serializer {
 
   @Override
   public void writeStartRepeated(ProtoFieldInfo field) throws IOException {
-    encoder.writeArrayFieldStart(field.getJsonName());
+    encoder.writeFieldName(field.getJsonFieldName());
+    encoder.writeStartArray();
   }
 
   @Override
@@ -230,7 +250,7 @@ final class JsonSerializer extends Serializer {
   }
 
   @Override
-  public void writeSerializedMessage(byte[] protoSerialized, String jsonSerialized)
+  public void writeSerializedMessage(byte[] protoSerialized, byte[] jsonSerialized)
       throws IOException {
     encoder.writeRaw(jsonSerialized);
   }
@@ -8,6 +8,9 @@ package io.opentelemetry.exporter.internal.marshal;
 import io.opentelemetry.sdk.common.export.MessageWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 
 /**
  * Marshaler from an SDK structure to protobuf wire format.
@@ -19,7 +22,42 @@ public abstract class Marshaler {
 
   /** Marshals into the {@link OutputStream} in proto binary format. */
   public final void writeBinaryTo(OutputStream output) throws IOException {
-    try (Serializer serializer = new ProtoSerializer(output)) {
+    writeBinaryTo(output, null);
+  }
+
+  /**
+   * Marshals into the {@link OutputStream} like {@link #writeBinaryTo(OutputStream)}, serializing
+   * the chunks of large repeated message fields concurrently on {@code executor} if it is not null.
+   * The chunks are written to {@code output} in order, as they complete.
+   */
+  public final void writeBinaryTo(OutputStream output, @Nullable Executor executor)
+      throws IOException {
+    try (Serializer serializer = new ProtoSerializer(output, executor)) {
+      writeTo(serializer);
+    }
+  }
+
+  /**
+   * Marshals into the {@link ByteBuffer} in proto binary format, from its position onwards. The
+   * buffer, heap or direct, must have at least {@link #getBinarySerializedSize()} bytes remaining.
+   */
+  public final void writeBinaryTo(ByteBuffer output) throws IOException {
+    writeBinaryTo(output, null);
+  }
+
+  /**
+   * Marshals into the {@link ByteBuffer} like {@link #writeBinaryTo(ByteBuffer)}, serializing the
+   * chunks of large repeated message fields, such as the spans of a scope, concurrently on {@code
+   * executor} if it is not null. Returns once the whole message is written.
+   */
+  public final void writeBinaryTo(ByteBuffer output, @Nullable Executor executor)
+      throws IOException {
+    int size = getBinarySerializedSize();
+    if (output.remaining() < size) {
+      throw new IllegalArgumentException(
+          "Buffer has " + output.remaining() + " bytes remaining, message needs " + size);
+    }
+    try (Serializer serializer = new ProtoSerializer(output, executor)) {
       writeTo(serializer);
     }
   }
@@ -51,10 +89,23 @@ public abstract class Marshaler {
   }
 
   public MessageWriter toBinaryMessageWriter() {
+    return toBinaryMessageWriter(null);
+  }
+
+  /**
+   * Returns a {@link MessageWriter} for the proto binary format which, if {@code executor} is not
+   * null, serializes large repeated message fields concurrently on it.
+   */
+  public MessageWriter toBinaryMessageWriter(@Nullable Executor executor) {
     return new MessageWriter() {
       @Override
       public void writeMessage(OutputStream output) throws IOException {
-        writeBinaryTo(output);
+        writeBinaryTo(output, executor);
+      }
+
+      @Override
+      public void writeMessage(ByteBuffer output) throws IOException {
+        writeBinaryTo(output, executor);
       }
 
       @Override
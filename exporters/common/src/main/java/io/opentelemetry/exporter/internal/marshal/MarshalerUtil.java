@@ -16,6 +16,7 @@ import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -58,8 +59,11 @@ public final class MarshalerUtil {
     return result;
   }
 
-  /** Preserialize into JSON format. */
-  public static String preserializeJsonFields(Marshaler marshaler) {
+  /**
+   * Preserialize into JSON format, returning the UTF-8 encoded fields of the object so that they
+   * can be written verbatim by {@link Serializer#writeSerializedMessage(byte[], byte[])}.
+   */
+  public static byte[] preserializeJsonFields(Marshaler marshaler) {
     ByteArrayOutputStream jsonBos = new ByteArrayOutputStream();
     try {
       marshaler.writeJsonTo(jsonBos);
@@ -71,7 +75,7 @@ public final class MarshalerUtil {
     // Strip the surrounding { } so the cached value can be embedded as the fields of an enclosing
     // object.
     byte[] jsonBytes = jsonBos.toByteArray();
-    return new String(jsonBytes, 1, jsonBytes.length - 2, StandardCharsets.UTF_8);
+    return Arrays.copyOfRange(jsonBytes, 1, jsonBytes.length - 1);
   }
 
   /** Returns the size of a repeated fixed64 field. */
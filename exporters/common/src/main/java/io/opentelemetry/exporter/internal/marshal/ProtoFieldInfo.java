@@ -6,6 +6,7 @@
 package io.opentelemetry.exporter.internal.marshal;
 
 import com.google.auto.value.AutoValue;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Information about a field in a proto definition.
@@ -18,7 +19,11 @@ public abstract class ProtoFieldInfo {
 
   public static ProtoFieldInfo create(int fieldNumber, int tag, String jsonName) {
     return new AutoValue_ProtoFieldInfo(
-        fieldNumber, tag, CodedOutputStream.computeTagSize(fieldNumber), jsonName);
+        fieldNumber,
+        tag,
+        CodedOutputStream.computeTagSize(fieldNumber),
+        jsonName,
+        ('"' + jsonName + "\":").getBytes(StandardCharsets.UTF_8));
   }
 
   public abstract int getFieldNumber();
@@ -28,4 +33,11 @@ public abstract class ProtoFieldInfo {
   public abstract int getTagSize();
 
   public abstract String getJsonName();
+
+  /**
+   * Returns the JSON name quoted and followed by a colon, encoded as UTF-8, for {@link
+   * JsonSerializer} to write before the value of the field without encoding the name again.
+   */
+  @SuppressWarnings("mutable")
+  abstract byte[] getJsonFieldName();
 }
@@ -11,9 +11,18 @@ import io.opentelemetry.api.trace.TraceId;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 
 /** Serializer for the protobuf binary wire format. */
 final class ProtoSerializer extends Serializer implements AutoCloseable {
@@ -25,11 +34,50 @@ final class ProtoSerializer extends Serializer implements AutoCloseable {
   // worth it and is common practice in serialization libraries such as Jackson.
   private static final ThreadLocal<Map<String, byte[]>> THREAD_LOCAL_ID_CACHE = new ThreadLocal<>();
 
+  // Approximate serialized size of the chunks of a repeated message field serialized concurrently.
+  // Smaller chunks would spend more time on scheduling than they save.
+  private static final int CHUNK_SIZE = 256 * 1024;
+  // When serializing to an OutputStream, chunks are serialized to their own arrays, of which at
+  // most this many are pending at a time to bound the memory used.
+  private static final int MAX_PENDING_STREAM_CHUNKS = 16;
+
   private final CodedOutputStream output;
   private final Map<String, byte[]> idCache;
+  // Only set when serializing to a ByteBuffer with an executor.
+  @Nullable private final ByteBuffer buffer;
+  @Nullable private final Executor executor;
+  private final Queue<ChunkTask> pendingChunks = new ArrayDeque<>();
 
   ProtoSerializer(OutputStream output) {
+    this(output, null);
+  }
+
+  /**
+   * Creates a serializer writing to {@code output} which, if {@code executor} is not null, splits
+   * large repeated message fields into chunks serialized concurrently on the executor. Each chunk
+   * is serialized to its own array, which is written to {@code output} in order.
+   */
+  ProtoSerializer(OutputStream output, @Nullable Executor executor) {
+    this.output = CodedOutputStream.newInstance(output);
+    this.buffer = null;
+    this.executor = executor;
+    idCache = getIdCache();
+  }
+
+  ProtoSerializer(ByteBuffer output) {
+    this(output, null);
+  }
+
+  /**
+   * Creates a serializer writing to {@code output} which, if {@code executor} is not null, splits
+   * large repeated message fields into chunks serialized concurrently on the executor. Since the
+   * size of each message is known, each chunk is written straight to its final position in the
+   * buffer.
+   */
+  ProtoSerializer(ByteBuffer output, @Nullable Executor executor) {
     this.output = CodedOutputStream.newInstance(output);
+    this.buffer = executor == null ? null : output;
+    this.executor = executor;
     idCache = getIdCache();
   }
 
@@ -220,6 +268,10 @@ final class ProtoSerializer extends Serializer implements AutoCloseable {
   @Override
   public void serializeRepeatedMessage(ProtoFieldInfo field, Marshaler[] repeatedMessage)
       throws IOException {
+    if (executor != null) {
+      serializeRepeatedMessageConcurrently(field, Arrays.asList(repeatedMessage), executor);
+      return;
+    }
     for (Marshaler message : repeatedMessage) {
       serializeMessage(field, message);
     }
@@ -228,11 +280,71 @@ final class ProtoSerializer extends Serializer implements AutoCloseable {
   @Override
   public void serializeRepeatedMessage(
       ProtoFieldInfo field, List<? extends Marshaler> repeatedMessage) throws IOException {
+    if (executor != null) {
+      serializeRepeatedMessageConcurrently(field, repeatedMessage, executor);
+      return;
+    }
     for (Marshaler message : repeatedMessage) {
       serializeMessage(field, message);
     }
   }
 
+  private void serializeRepeatedMessageConcurrently(
+      ProtoFieldInfo field, List<? extends Marshaler> repeatedMessage, Executor executor)
+      throws IOException {
+    int chunkStart = 0;
+    int chunkSize = 0;
+    int size = repeatedMessage.size();
+    for (int i = 0; i < size - 1; i++) {
+      chunkSize += MarshalerUtil.sizeMessage(field, repeatedMessage.get(i));
+      if (chunkSize >= CHUNK_SIZE) {
+        submitChunk(field, repeatedMessage.subList(chunkStart, i + 1), chunkSize, executor);
+        chunkStart = i + 1;
+        chunkSize = 0;
+      }
+    }
+    if (buffer == null) {
+      // The chunks precede the rest of the field in the stream.
+      while (!pendingChunks.isEmpty()) {
+        writeOldestChunk();
+      }
+    }
+    // This thread serializes the last chunk itself rather than waiting idle.
+    for (int i = chunkStart; i < size; i++) {
+      serializeMessage(field, repeatedMessage.get(i));
+    }
+  }
+
+  private void submitChunk(
+      ProtoFieldInfo field, List<? extends Marshaler> chunk, int chunkSize, Executor executor)
+      throws IOException {
+    ByteBuffer chunkBuffer;
+    if (buffer != null) {
+      // Serialized straight to its final position in the buffer.
+      chunkBuffer = buffer.duplicate();
+      chunkBuffer.limit(buffer.position() + chunkSize);
+      buffer.position(buffer.position() + chunkSize);
+    } else {
+      if (pendingChunks.size() >= MAX_PENDING_STREAM_CHUNKS) {
+        writeOldestChunk();
+      }
+      chunkBuffer = ByteBuffer.allocate(chunkSize);
+    }
+    ChunkTask task = new ChunkTask(field, chunk, chunkBuffer);
+    pendingChunks.add(task);
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Serialized by this thread once it waits for the chunk.
+    }
+  }
+
+  private void writeOldestChunk() throws IOException {
+    ChunkTask task = pendingChunks.remove();
+    task.await();
+    output.writeRawBytes(task.target.array());
+  }
+
   @Override
   public <T> void serializeRepeatedMessageWithContext(
       ProtoFieldInfo field,
@@ -270,7 +382,7 @@ final class ProtoSerializer extends Serializer implements AutoCloseable {
   }
 
   @Override
-  public void writeSerializedMessage(byte[] protoSerialized, String jsonSerialized)
+  public void writeSerializedMessage(byte[] protoSerialized, byte[] jsonSerialized)
       throws IOException {
     output.writeRawBytes(protoSerialized);
   }
@@ -280,6 +392,7 @@ final class ProtoSerializer extends Serializer implements AutoCloseable {
     idCache.clear();
     try {
       output.flush();
+      awaitPendingChunks();
     } catch (IOException e) {
       // If close is called automatically as part of try-with-resources, it's possible that
       // output.flush() will throw the same exception. Re-throwing the same exception in a finally
@@ -289,6 +402,75 @@ final class ProtoSerializer extends Serializer implements AutoCloseable {
     }
   }
 
+  private void awaitPendingChunks() throws IOException {
+    // Wait for all chunks, even if one fails, so none is still writing once the caller regains the
+    // buffer.
+    IOException failure = null;
+    for (ChunkTask task = pendingChunks.poll(); task != null; task = pendingChunks.poll()) {
+      try {
+        task.await();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Serializes a chunk of a repeated message field to {@code target}, on the executor or on the
+   * thread waiting for it if no executor thread started it yet. Waiting can therefore never
+   * deadlock, even if all threads of the executor are busy, for example when a single thread
+   * executor is also the one exporting.
+   */
+  private static final class ChunkTask implements Runnable {
+    private final ProtoFieldInfo field;
+    private final List<? extends Marshaler> chunk;
+    private final ByteBuffer target;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private ChunkTask(ProtoFieldInfo field, List<? extends Marshaler> chunk, ByteBuffer target) {
+      this.field = field;
+      this.chunk = chunk;
+      this.target = target;
+    }
+
+    @Override
+    public void run() {
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        // Nested repeated fields of the chunk are serialized sequentially.
+        try (ProtoSerializer serializer = new ProtoSerializer(target)) {
+          for (Marshaler message : chunk) {
+            serializer.serializeMessage(field, message);
+          }
+        }
+        done.complete(null);
+      } catch (Throwable t) {
+        done.completeExceptionally(t);
+      }
+    }
+
+    private void await() throws IOException {
+      run();
+      try {
+        done.join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        throw new IOException(cause);
+      }
+    }
+  }
+
   private static Map<String, byte[]> getIdCache() {
     Map<String, byte[]> result = THREAD_LOCAL_ID_CACHE.get();
     if (result == null) {
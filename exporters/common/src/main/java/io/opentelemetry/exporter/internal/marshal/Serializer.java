@@ -696,8 +696,11 @@ public abstract class Serializer implements AutoCloseable {
   /** Writes end of a repeated message element. */
   public abstract void writeEndRepeatedElement() throws IOException;
 
-  /** Writes the value for a message field that has been pre-serialized. */
-  public abstract void writeSerializedMessage(byte[] protoSerialized, String jsonSerialized)
+  /**
+   * Writes the value for a message field that has been pre-serialized, as protobuf and as the UTF-8
+   * encoded JSON fields returned by {@link MarshalerUtil#preserializeJsonFields(Marshaler)}.
+   */
+  public abstract void writeSerializedMessage(byte[] protoSerialized, byte[] jsonSerialized)
       throws IOException;
 
   @Override
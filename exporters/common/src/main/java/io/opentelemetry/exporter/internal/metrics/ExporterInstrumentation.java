@@ -8,12 +8,14 @@ package io.opentelemetry.exporter.internal.metrics;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.GrpcStatusCode;
 import io.opentelemetry.sdk.common.internal.SemConvAttributes;
 import io.opentelemetry.sdk.common.internal.Signal;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import java.net.URI;
+import java.util.Locale;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
@@ -77,6 +79,11 @@ public class ExporterInstrumentation {
     return new Recording(implementation.startRecordingExport(itemCount));
   }
 
+  /** Records that the circuit breaker of the exporter changed to {@code state}. */
+  public void recordCircuitBreakerState(CircuitBreaker.State state) {
+    implementation.recordCircuitBreakerStateChange(state.name().toLowerCase(Locale.ROOT));
+  }
+
   /**
    * This class is internal and is hence not for public use. Its APIs are unstable and can change at
    * any time.
@@ -16,6 +16,12 @@ public interface ExporterMetrics {
 
   Recording startRecordingExport(int itemCount);
 
+  /**
+   * Records that the circuit breaker of the exporter changed to {@code state}, one of {@code
+   * open}, {@code half_open} or {@code closed}. Does nothing by default.
+   */
+  default void recordCircuitBreakerStateChange(String state) {}
+
   /**
    * This class is internal and is hence not for public use. Its APIs are unstable and can change at
    * any time.
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.exporter.internal.metrics;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.metrics.DoubleHistogram;
@@ -27,6 +28,8 @@ import javax.annotation.Nullable;
 public class SemConvExporterMetrics implements ExporterMetrics {
 
   private static final Clock CLOCK = Clock.getDefault();
+  private static final AttributeKey<String> CIRCUIT_BREAKER_STATE =
+      AttributeKey.stringKey("otel.exporter.circuit_breaker.state");
 
   private final Supplier<MeterProvider> meterProviderSupplier;
   private final Signal signal;
@@ -36,6 +39,7 @@ public class SemConvExporterMetrics implements ExporterMetrics {
   @Nullable private volatile LongUpDownCounter inflight = null;
   @Nullable private volatile LongCounter exported = null;
   @Nullable private volatile DoubleHistogram duration = null;
+  @Nullable private volatile LongCounter circuitBreakerStateChanges = null;
   @Nullable private volatile Attributes allAttributes = null;
 
   public SemConvExporterMetrics(
@@ -54,6 +58,12 @@ public class SemConvExporterMetrics implements ExporterMetrics {
     return new Recording(itemCount);
   }
 
+  @Override
+  public void recordCircuitBreakerStateChange(String state) {
+    circuitBreakerStateChanges()
+        .add(1, allAttributes().toBuilder().put(CIRCUIT_BREAKER_STATE, state).build());
+  }
+
   private Meter meter() {
     MeterProvider meterProvider = meterProviderSupplier.get();
     if (meterProvider == null) {
@@ -127,6 +137,21 @@ public class SemConvExporterMetrics implements ExporterMetrics {
     return duration;
   }
 
+  private LongCounter circuitBreakerStateChanges() {
+    LongCounter circuitBreakerStateChanges = this.circuitBreakerStateChanges;
+    if (circuitBreakerStateChanges == null || isNoop(circuitBreakerStateChanges)) {
+      circuitBreakerStateChanges =
+          meter()
+              .counterBuilder("otel.sdk.exporter.circuit_breaker.state_changes")
+              .setUnit("{change}")
+              .setDescription(
+                  "The number of times the circuit breaker of the exporter changed to the state")
+              .build();
+      this.circuitBreakerStateChanges = circuitBreakerStateChanges;
+    }
+    return circuitBreakerStateChanges;
+  }
+
   private void incrementInflight(long count) {
     inflight().add(count, allAttributes());
   }
@@ -0,0 +1,95 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private final TestClock clock = TestClock.create();
+  private final List<CircuitBreaker.State> stateChanges = new ArrayList<>();
+  private final CircuitBreaker circuitBreaker =
+      new CircuitBreaker(3, Duration.ofSeconds(1), Duration.ofSeconds(10), clock);
+
+  @BeforeEach
+  void setUp() {
+    circuitBreaker.setStateListener(stateChanges::add);
+  }
+
+  @Test
+  void opensAfterConsecutiveFailures() {
+    fail(2);
+    succeed();
+    fail(2);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+    fail(1);
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(circuitBreaker.tryAcquire()).isFalse();
+    assertThat(stateChanges).containsExactly(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void slowRequestsCountAsFailures() {
+    for (int i = 0; i < 3; i++) {
+      long startNanos = circuitBreaker.nanoTime();
+      clock.advance(Duration.ofSeconds(2));
+      circuitBreaker.onSuccess(startNanos);
+    }
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void probesAfterOpenDuration() {
+    fail(3);
+    clock.advance(Duration.ofSeconds(9));
+    assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(circuitBreaker.tryAcquire()).isTrue();
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    // Only a single probe at a time.
+    assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+    // A failed probe opens the circuit breaker again for the whole open duration.
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    clock.advance(Duration.ofSeconds(5));
+    assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+    clock.advance(Duration.ofSeconds(5));
+    assertThat(circuitBreaker.tryAcquire()).isTrue();
+    succeed();
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+    assertThat(stateChanges)
+        .containsExactly(
+            CircuitBreaker.State.OPEN,
+            CircuitBreaker.State.HALF_OPEN,
+            CircuitBreaker.State.OPEN,
+            CircuitBreaker.State.HALF_OPEN,
+            CircuitBreaker.State.CLOSED);
+  }
+
+  private void fail(int times) {
+    for (int i = 0; i < times; i++) {
+      circuitBreaker.onFailure();
+    }
+  }
+
+  private void succeed() {
+    circuitBreaker.onSuccess(circuitBreaker.nanoTime());
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.opentelemetry.exporter.internal.grpc.ExtendedGrpcSenderConfig;
+import io.opentelemetry.exporter.internal.http.ExtendedHttpSenderConfig;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.GrpcSenderConfig;
+import io.opentelemetry.sdk.common.export.HttpResponse;
+import io.opentelemetry.sdk.common.export.HttpSender;
+import io.opentelemetry.sdk.common.export.HttpSenderConfig;
+import io.opentelemetry.sdk.common.export.MessageWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class SharedTransportTest {
+
+  @Test
+  void defaultExecutor_sharedUntilLastRelease() {
+    ExecutorService executor = SharedTransport.acquire(null);
+    assertThat(SharedTransport.acquire(null)).isSameAs(executor);
+
+    List<String> closed = new ArrayList<>();
+    AtomicInteger created = new AtomicInteger();
+    String first =
+        SharedTransport.getOrCreateResource(
+            executor, "client", () -> "client-" + created.incrementAndGet(), closed::add);
+    String second =
+        SharedTransport.getOrCreateResource(
+            executor, "client", () -> "client-" + created.incrementAndGet(), closed::add);
+    assertThat(first).isEqualTo("client-1");
+    assertThat(second).isSameAs(first);
+
+    SharedTransport.release(executor);
+    assertThat(closed).isEmpty();
+    assertThat(executor.isShutdown()).isFalse();
+
+    SharedTransport.release(executor);
+    assertThat(closed).containsExactly("client-1");
+    assertThat(executor.isShutdown()).isTrue();
+    assertThatThrownBy(
+            () -> SharedTransport.getOrCreateResource(executor, "client", Object::new, o -> {}))
+        .isInstanceOf(IllegalStateException.class);
+
+    // A new default executor is created once the previous one is shut down.
+    ExecutorService next = SharedTransport.acquire(null);
+    assertThat(next).isNotSameAs(executor);
+    SharedTransport.release(next);
+  }
+
+  @Test
+  void providedExecutor_notShutdown() {
+    ExecutorService provided = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(SharedTransport.acquire(provided)).isSameAs(provided);
+      SharedTransport.release(provided);
+
+      assertThatThrownBy(
+              () -> SharedTransport.getOrCreateResource(provided, "key", Object::new, o -> {}))
+          .isInstanceOf(IllegalStateException.class);
+      assertThat(provided.isShutdown()).isFalse();
+    } finally {
+      provided.shutdown();
+    }
+  }
+
+  @Test
+  void getOrCreateResource_notShared() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThatThrownBy(
+              () -> SharedTransport.getOrCreateResource(executor, "key", Object::new, o -> {}))
+          .isInstanceOf(IllegalStateException.class);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void isShared_httpSenderConfig() {
+    assertThat(SharedTransport.isShared(mock(HttpSenderConfig.class))).isFalse();
+    ExtendedHttpSenderConfig config = mock(ExtendedHttpSenderConfig.class);
+    assertThat(SharedTransport.isShared(config)).isFalse();
+    when(config.isSharedTransport()).thenReturn(true);
+    assertThat(SharedTransport.isShared(config)).isTrue();
+  }
+
+  @Test
+  void isShared_grpcSenderConfig() {
+    assertThat(SharedTransport.isShared(mock(GrpcSenderConfig.class))).isFalse();
+    ExtendedGrpcSenderConfig config = mock(ExtendedGrpcSenderConfig.class);
+    assertThat(SharedTransport.isShared(config)).isFalse();
+    when(config.isSharedTransport()).thenReturn(true);
+    assertThat(SharedTransport.isShared(config)).isTrue();
+  }
+
+  @Test
+  void releaseOnShutdown() {
+    ExecutorService executor = SharedTransport.acquire(null);
+    AtomicInteger shutdowns = new AtomicInteger();
+    HttpSender sender =
+        SharedTransport.releaseOnShutdown(
+            new HttpSender() {
+              @Override
+              public void send(
+                  MessageWriter messageWriter,
+                  Consumer<HttpResponse> onResponse,
+                  Consumer<Throwable> onError) {}
+
+              @Override
+              public CompletableResultCode shutdown() {
+                shutdowns.incrementAndGet();
+                return CompletableResultCode.ofSuccess();
+              }
+            },
+            executor);
+
+    assertThat(sender.shutdown().isSuccess()).isTrue();
+    assertThat(shutdowns).hasValue(1);
+    assertThat(executor.isShutdown()).isTrue();
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.marshal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class IdentityCacheTest {
+
+  @Test
+  void computesOncePerInstance() {
+    IdentityCache<String, byte[]> cache = new IdentityCache<>(4);
+    String key = "key";
+
+    byte[] utf8 = cache.computeIfAbsent(key, IdentityCacheTest::toUtf8);
+    assertThat(cache.computeIfAbsent(key, IdentityCacheTest::toUtf8)).isSameAs(utf8);
+
+    // An equal but different instance is computed again.
+    String equalKey = new String(key.toCharArray());
+    assertThat(cache.computeIfAbsent(equalKey, IdentityCacheTest::toUtf8))
+        .isEqualTo(utf8)
+        .isNotSameAs(utf8);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void clearsWhenFull() {
+    IdentityCache<String, byte[]> cache = new IdentityCache<>(2);
+    String first = "first";
+    byte[] firstUtf8 = cache.computeIfAbsent(first, IdentityCacheTest::toUtf8);
+    cache.computeIfAbsent("second", IdentityCacheTest::toUtf8);
+    assertThat(cache.size()).isEqualTo(2);
+
+    cache.computeIfAbsent("third", IdentityCacheTest::toUtf8);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.computeIfAbsent(first, IdentityCacheTest::toUtf8)).isNotSameAs(firstUtf8);
+  }
+
+  private static byte[] toUtf8(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -11,7 +11,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -134,6 +136,71 @@ class JsonBufferedEncoderTest {
     assertThatThrownBy(encoder::close).isInstanceOf(IOException.class).hasCause(boom);
   }
 
+  @Test
+  void binaryMatchesBase64() throws Exception {
+    for (int length = 0; length < 10; length++) {
+      byte[] value = new byte[length];
+      for (int i = 0; i < length; i++) {
+        value[i] = (byte) (i * 97 - 128);
+      }
+      String expected = "\"" + Base64.getEncoder().encodeToString(value) + "\"";
+
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      JsonBufferedEncoder encoder = new JsonBufferedEncoder(bos);
+      encoder.writeBinary(value);
+      encoder.close();
+      assertThat(new String(bos.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+
+      // The whole content of the buffer is written regardless of its position.
+      ByteBuffer buffer = ByteBuffer.allocateDirect(length).put(value);
+      bos = new ByteArrayOutputStream();
+      encoder = new JsonBufferedEncoder(bos);
+      encoder.writeBinary(buffer);
+      encoder.close();
+      assertThat(new String(bos.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+      assertThat(buffer.position()).isEqualTo(length);
+    }
+  }
+
+  @Test
+  void newInstance_reusesEncoderOfThread() throws Exception {
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    JsonBufferedEncoder encoder = JsonBufferedEncoder.newInstance(first);
+    encoder.writeStartObject();
+    encoder.writeStringField("a", "b");
+
+    // Serializing another message before the first is closed must not share the encoder.
+    ByteArrayOutputStream nested = new ByteArrayOutputStream();
+    JsonBufferedEncoder nestedEncoder = JsonBufferedEncoder.newInstance(nested);
+    assertThat(nestedEncoder).isNotSameAs(encoder);
+    nestedEncoder.writeStartObject();
+    nestedEncoder.writeEndObject();
+    nestedEncoder.close();
+
+    encoder.writeEndObject();
+    encoder.close();
+    assertThat(new String(first.toByteArray(), StandardCharsets.UTF_8))
+        .isEqualTo("{\"a\":\"b\"}");
+    assertThat(new String(nested.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{}");
+
+    // A closed encoder is reused, starting from a clean state even if the previous message was
+    // abandoned midway.
+    JsonBufferedEncoder abandoned = JsonBufferedEncoder.newInstance(new ByteArrayOutputStream());
+    assertThat(abandoned).isSameAs(encoder);
+    abandoned.writeStartObject();
+    abandoned.writeFieldName("a");
+    abandoned.close();
+
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    JsonBufferedEncoder reused = JsonBufferedEncoder.newInstance(second);
+    assertThat(reused).isSameAs(encoder);
+    reused.writeStartObject();
+    reused.writeNumberField("n", 1);
+    reused.writeEndObject();
+    reused.close();
+    assertThat(new String(second.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"n\":1}");
+  }
+
   private static void assertString(String input, String expected) throws IOException {
     ByteArrayOutputStream bos = new ByteArrayOutputStream();
     JsonBufferedEncoder encoder = new JsonBufferedEncoder(bos);
@@ -287,6 +354,46 @@ class JsonBufferedEncoderTest {
                   encoder.writeEndObject();
                 },
             "{\"b\":\"AQID\"}"),
+        Arguments.argumentSet(
+            "precomputed field names",
+            (Body)
+                encoder -> {
+                  encoder.writeStartObject();
+                  encoder.writeFieldName(ProtoFieldInfo.create(1, 10, "a").getJsonFieldName());
+                  encoder.writeBoolean(true);
+                  encoder.writeFieldName(ProtoFieldInfo.create(2, 18, "b").getJsonFieldName());
+                  encoder.writeStartArray();
+                  encoder.writeNumber(-12);
+                  encoder.writeEndArray();
+                  encoder.writeEndObject();
+                },
+            "{\"a\":true,\"b\":[-12]}"),
+        Arguments.argumentSet(
+            "64-bit integers are quoted",
+            (Body)
+                encoder -> {
+                  encoder.writeStartArray();
+                  encoder.writeQuotedNumber(0);
+                  encoder.writeQuotedNumber(-7);
+                  encoder.writeQuotedNumber(1_000_000_000_000L);
+                  encoder.writeQuotedNumber(Long.MIN_VALUE);
+                  encoder.writeQuotedNumber(Long.MAX_VALUE);
+                  encoder.writeEndArray();
+                },
+            "[\"0\",\"-7\",\"1000000000000\",\"-9223372036854775808\","
+                + "\"9223372036854775807\"]"),
+        // IDs are expected to be hex, anything else is still escaped.
+        Arguments.argumentSet(
+            "hex strings",
+            (Body)
+                encoder -> {
+                  encoder.writeStartArray();
+                  encoder.writeHexString("0af7651916cd43dd8448eb211c80319c");
+                  encoder.writeHexString("00F067AA0BA902B7");
+                  encoder.writeHexString("a\"b");
+                  encoder.writeEndArray();
+                },
+            "[\"0af7651916cd43dd8448eb211c80319c\",\"00F067AA0BA902B7\",\"a\\\"b\"]"),
         // Mirrors MarshalerUtil#preserializeJsonFields: pre-serialized fields written raw into an
         // otherwise empty object, without disturbing separator state.
         Arguments.argumentSet(
@@ -295,10 +402,21 @@ class JsonBufferedEncoderTest {
                 encoder -> {
                   encoder.writeStartObject();
                   encoder.writeObjectFieldStart("resource");
-                  encoder.writeRaw("\"key\":\"val\"");
+                  encoder.writeRaw("\"key\":\"val\"".getBytes(StandardCharsets.UTF_8));
+                  encoder.writeEndObject();
+                  encoder.writeEndObject();
+                },
+            "{\"resource\":{\"key\":\"val\"}}"),
+        Arguments.argumentSet(
+            "writeRaw embeds UTF-8 bytes verbatim",
+            (Body)
+                encoder -> {
+                  encoder.writeStartObject();
+                  encoder.writeObjectFieldStart("scope");
+                  encoder.writeRaw("\"name\":\"é\\n\"".getBytes(StandardCharsets.UTF_8));
                   encoder.writeEndObject();
                   encoder.writeEndObject();
                 },
-            "{\"resource\":{\"key\":\"val\"}}"));
+            "{\"scope\":{\"name\":\"é\\n\"}}"));
   }
 }
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.exporter.internal.marshal;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -16,12 +17,23 @@ import io.opentelemetry.api.common.Attributes;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class MarshalerTest {
 
@@ -56,6 +68,135 @@ class MarshalerTest {
     assertThatThrownBy(() -> marshaler.writeJsonTo(os)).isInstanceOf(IOException.class);
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"heap", "direct", "direct-little-endian"})
+  void writeBinaryTo_ByteBuffer(String bufferType) throws IOException {
+    Writer writer =
+        output -> {
+          ProtoFieldInfo field = ProtoFieldInfo.create(1, 10, "field");
+          output.serializeInt32(field, -1);
+          output.serializeInt32(field, 300);
+          output.serializeUInt64(field, Long.MAX_VALUE);
+          output.serializeFixed32(field, 0x01020304);
+          output.serializeFixed64(field, 0x0102030405060708L);
+          output.serializeDouble(field, 1.5);
+          output.serializeString(field, "héllo wörld".getBytes(StandardCharsets.UTF_8));
+          output.serializeByteBuffer(field, ByteBuffer.wrap(new byte[] {1, 2, 3}));
+          // Larger than the buffer of the OutputStream encoder.
+          output.serializeBytes(field, new byte[60 * 1024]);
+        };
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    new TestMarshaler(writer, 0).writeBinaryTo(expected);
+    int size = expected.size();
+
+    ByteBuffer buffer =
+        "heap".equals(bufferType)
+            ? ByteBuffer.allocate(size + 2)
+            : ByteBuffer.allocateDirect(size + 2);
+    if ("direct-little-endian".equals(bufferType)) {
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+    buffer.put((byte) 42);
+    new TestMarshaler(writer, size).toBinaryMessageWriter().writeMessage(buffer);
+
+    assertThat(buffer.position()).isEqualTo(size + 1);
+    buffer.flip();
+    assertThat(buffer.get()).isEqualTo((byte) 42);
+    byte[] actual = new byte[size];
+    buffer.get(actual);
+    assertThat(actual).isEqualTo(expected.toByteArray());
+  }
+
+  @Test
+  void writeBinaryTo_ByteBufferWithExecutor() throws IOException {
+    Writer writer = largeRequestWriter();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    new TestMarshaler(writer, 0).writeBinaryTo(expected);
+    int size = expected.size();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+      new TestMarshaler(writer, size).writeBinaryTo(buffer, executor);
+      assertThat(buffer.position()).isEqualTo(size);
+      byte[] actual = new byte[size];
+      ((ByteBuffer) buffer.flip()).get(actual);
+      assertThat(actual).isEqualTo(expected.toByteArray());
+
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new TestMarshaler(writer, size).toBinaryMessageWriter(executor).writeMessage(stream);
+      assertThat(stream.toByteArray()).isEqualTo(expected.toByteArray());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void writeBinaryTo_executorExporting() throws Exception {
+    Writer writer = largeRequestWriter();
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    new TestMarshaler(writer, 0).writeBinaryTo(expected);
+    int size = expected.size();
+
+    // Chunks queued behind the export on its only thread are serialized by the export itself.
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<byte[]> toByteBuffer =
+          executor.submit(
+              () -> {
+                ByteBuffer buffer = ByteBuffer.allocate(size);
+                new TestMarshaler(writer, size).writeBinaryTo(buffer, executor);
+                return buffer.array();
+              });
+      assertThat(toByteBuffer.get(10, TimeUnit.SECONDS)).isEqualTo(expected.toByteArray());
+
+      Future<byte[]> toStream =
+          executor.submit(
+              () -> {
+                ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                new TestMarshaler(writer, size).writeBinaryTo(stream, executor);
+                return stream.toByteArray();
+              });
+      assertThat(toStream.get(10, TimeUnit.SECONDS)).isEqualTo(expected.toByteArray());
+    } finally {
+      executor.shutdown();
+    }
+
+    ByteArrayOutputStream rejected = new ByteArrayOutputStream();
+    new TestMarshaler(writer, size)
+        .writeBinaryTo(
+            rejected,
+            command -> {
+              throw new RejectedExecutionException();
+            });
+    assertThat(rejected.toByteArray()).isEqualTo(expected.toByteArray());
+  }
+
+  // About 4MiB, enough for several chunks serialized concurrently.
+  private static Writer largeRequestWriter() {
+    ProtoFieldInfo field = ProtoFieldInfo.create(1, 10, "field");
+    List<Marshaler> messages = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      byte[] value = new byte[1000 + i % 7];
+      value[0] = (byte) i;
+      int messageSize = MarshalerUtil.sizeBytes(field, value);
+      messages.add(new TestMarshaler(output -> output.serializeBytes(field, value), messageSize));
+    }
+    return output -> {
+      output.serializeInt32(field, 1);
+      output.serializeRepeatedMessage(field, messages);
+      output.serializeRepeatedMessage(field, messages.toArray(new Marshaler[0]));
+      output.serializeInt32(field, 2);
+    };
+  }
+
+  @Test
+  void writeBinaryTo_ByteBufferTooSmall() {
+    Marshaler marshaler = new TestMarshaler(output -> {}, 10);
+    assertThatThrownBy(() -> marshaler.writeBinaryTo(ByteBuffer.allocate(9)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   /**
    * This test ensures that instances where serializer produces runtime exceptions are properly
    * converted back to checked {@link IOException}.
@@ -134,6 +275,26 @@ class MarshalerTest {
     return writer;
   }
 
+  private static class TestMarshaler extends Marshaler {
+    private final Writer writer;
+    private final int size;
+
+    private TestMarshaler(Writer writer, int size) {
+      this.writer = writer;
+      this.size = size;
+    }
+
+    @Override
+    public int getBinarySerializedSize() {
+      return size;
+    }
+
+    @Override
+    protected void writeTo(Serializer output) throws IOException {
+      writer.writeTo(output);
+    }
+  }
+
   @FunctionalInterface
   private interface Writer {
     void writeTo(Serializer output) throws IOException;
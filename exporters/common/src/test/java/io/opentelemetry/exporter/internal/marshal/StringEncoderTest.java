@@ -8,11 +8,15 @@ package io.opentelemetry.exporter.internal.marshal;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnJre;
 import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.junitpioneer.jupiter.SetSystemProperty;
 
 class StringEncoderTest {
@@ -90,6 +94,10 @@ class StringEncoderTest {
     assertThat(stringEncoder.getUtf8Size("\uD83D😀\uDE00")).isEqualTo(6);
     assertThat(testUtf8("\uD83D😀\uDE00", 6, stringEncoder)).isEqualTo("?😀?");
 
+    // ascii runs in between other characters, longer than the output buffer
+    assertMixedUtf8("café, ", stringEncoder);
+    assertMixedUtf8("∆t=42ms 😀 ", stringEncoder);
+
     // the same invalid sequence as encoded by the jdk
     byte[] bytes = "\uD83D😀\uDE00".getBytes(StandardCharsets.UTF_8);
     assertThat(bytes.length).isEqualTo(6);
@@ -110,6 +118,33 @@ class StringEncoderTest {
     }
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"heap", "direct"})
+  void writeAsciiToByteBuffer(String bufferType) throws IOException {
+    String string = "ascii-prefix ∆ ascii-suffix";
+    int utf8Length = fallbackStringEncoder.getUtf8Size(string);
+    ByteBuffer buffer =
+        bufferType.equals("heap")
+            ? ByteBuffer.allocate(utf8Length)
+            : ByteBuffer.allocateDirect(utf8Length);
+    fallbackStringEncoder.writeUtf8(CodedOutputStream.newInstance(buffer), string, utf8Length);
+
+    assertThat(buffer.position()).isEqualTo(utf8Length);
+    buffer.flip();
+    assertThat(StandardCharsets.UTF_8.decode(buffer).toString()).isEqualTo(string);
+  }
+
+  private static void assertMixedUtf8(String part, StringEncoder stringEncoder) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; sb.length() < 20_000; i++) {
+      sb.append("attribute-").append(i).append('=').append(part);
+    }
+    String string = sb.toString();
+    int utf8Length = string.getBytes(StandardCharsets.UTF_8).length;
+    assertThat(stringEncoder.getUtf8Size(string)).isEqualTo(utf8Length);
+    assertThat(testUtf8(string, utf8Length, stringEncoder)).isEqualTo(string);
+  }
+
   static String testUtf8(String string, int utf8Length) {
     return testUtf8(string, utf8Length, StringEncoder.getInstance());
   }
@@ -0,0 +1,10 @@
+subprojects {
+  // Workaround https://github.com/gradle/gradle/issues/847
+  group = "io.opentelemetry.exporter.compressor"
+  val proj = this
+  plugins.withId("java") {
+    configure<BasePluginExtension> {
+      archivesName.set("opentelemetry-exporter-compressor-${proj.name}")
+    }
+  }
+}
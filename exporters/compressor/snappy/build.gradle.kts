@@ -0,0 +1,14 @@
+plugins {
+  id("otel.java-conventions")
+  id("otel.publish-conventions")
+
+  id("otel.animalsniffer-conventions")
+}
+
+description = "OpenTelemetry Snappy Compressor"
+otelJava.moduleName.set("io.opentelemetry.exporter.compressor.snappy.internal")
+otelJava.osgiServiceLoaderProvides.set(listOf("io.opentelemetry.sdk.common.export.Compressor"))
+
+dependencies {
+  implementation(project(":sdk:common"))
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+/**
+ * CRC-32C (Castagnoli) checksum used by the snappy framing format. {@code java.util.zip.CRC32C} is
+ * only available from Java 9, so this is a slicing-by-8 implementation.
+ */
+final class Crc32c {
+
+  private static final int POLYNOMIAL = 0x82f63b78;
+  private static final int MASK_DELTA = 0xa282ead8;
+
+  private static final int[][] TABLES = new int[8][256];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      int crc = i;
+      for (int j = 0; j < 8; j++) {
+        crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+      }
+      TABLES[0][i] = crc;
+    }
+    for (int i = 0; i < 256; i++) {
+      for (int k = 1; k < 8; k++) {
+        int previous = TABLES[k - 1][i];
+        TABLES[k][i] = (previous >>> 8) ^ TABLES[0][previous & 0xff];
+      }
+    }
+  }
+
+  private Crc32c() {}
+
+  static int compute(byte[] bytes, int offset, int length) {
+    int[] t0 = TABLES[0];
+    int[] t1 = TABLES[1];
+    int[] t2 = TABLES[2];
+    int[] t3 = TABLES[3];
+    int[] t4 = TABLES[4];
+    int[] t5 = TABLES[5];
+    int[] t6 = TABLES[6];
+    int[] t7 = TABLES[7];
+
+    int crc = ~0;
+    int i = offset;
+    int end = offset + length;
+    for (; i + 8 <= end; i += 8) {
+      int low = crc ^ load32(bytes, i);
+      int high = load32(bytes, i + 4);
+      crc =
+          t7[low & 0xff]
+              ^ t6[(low >>> 8) & 0xff]
+              ^ t5[(low >>> 16) & 0xff]
+              ^ t4[low >>> 24]
+              ^ t3[high & 0xff]
+              ^ t2[(high >>> 8) & 0xff]
+              ^ t1[(high >>> 16) & 0xff]
+              ^ t0[high >>> 24];
+    }
+    for (; i < end; i++) {
+      crc = t0[(crc ^ bytes[i]) & 0xff] ^ (crc >>> 8);
+    }
+    return ~crc;
+  }
+
+  /** Returns the checksum masked as required by the framing format. */
+  static int mask(int crc) {
+    return ((crc >>> 15) | (crc << 17)) + MASK_DELTA;
+  }
+
+  private static int load32(byte[] bytes, int i) {
+    return (bytes[i] & 0xff)
+        | (bytes[i + 1] & 0xff) << 8
+        | (bytes[i + 2] & 0xff) << 16
+        | (bytes[i + 3] & 0xff) << 24;
+  }
+}
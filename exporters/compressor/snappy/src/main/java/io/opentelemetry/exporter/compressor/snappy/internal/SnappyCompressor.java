@@ -0,0 +1,61 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+import io.opentelemetry.sdk.common.export.Compressor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link Compressor} SPI implementation for the <a
+ * href="https://github.com/google/snappy/blob/main/format_description.txt">snappy block format</a>,
+ * registered as {@code snappy}.
+ *
+ * <p>A snappy block starts with the uncompressed length, so compressed fragments are buffered until
+ * the stream is closed. Use {@link SnappyFramedCompressor} to stream the request instead when the
+ * receiver accepts {@code x-snappy-framed}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SnappyCompressor implements Compressor {
+
+  private final SnappyEncoderPool pool = new SnappyEncoderPool();
+
+  @Override
+  public String getEncoding() {
+    return "snappy";
+  }
+
+  @Override
+  public OutputStream compress(OutputStream outputStream) {
+    return new BlockOutputStream(outputStream, pool);
+  }
+
+  private static final class BlockOutputStream extends SnappyOutputStream {
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    private int uncompressedLength;
+
+    private BlockOutputStream(OutputStream out, SnappyEncoderPool pool) {
+      super(out, pool);
+    }
+
+    @Override
+    void writeFragment(SnappyEncoder encoder, byte[] src, int offset, int length) {
+      int compressedLength = encoder.compress(src, offset, length, 0);
+      compressed.write(encoder.output(), 0, compressedLength);
+      uncompressedLength += length;
+    }
+
+    @Override
+    void finish() throws IOException {
+      byte[] preamble = new byte[5];
+      out.write(preamble, 0, SnappyEncoder.writeVarint(preamble, 0, uncompressedLength));
+      compressed.writeTo(out);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+import java.util.Arrays;
+
+/**
+ * Encoder for the <a
+ * href="https://github.com/google/snappy/blob/main/format_description.txt">snappy block format</a>,
+ * compressing input in fragments of up to {@link #BLOCK_SIZE} bytes like the reference
+ * implementation.
+ *
+ * <p>Holds the input, hash table and output buffers used while compressing, so an instance must
+ * only be used by one stream at a time.
+ */
+final class SnappyEncoder {
+
+  /** Maximum number of bytes compressed at once, copies never reach across fragments. */
+  static final int BLOCK_SIZE = 1 << 16;
+
+  private static final int HASH_TABLE_BITS = 14;
+  // Bytes at the end of a fragment that are always emitted as literals, so reading 4 bytes ahead
+  // while matching never goes past the end.
+  private static final int INPUT_MARGIN = 16 - 1;
+  private static final int MIN_NON_LITERAL_BLOCK_SIZE = 1 + 1 + INPUT_MARGIN;
+
+  // Positions relative to the start of the fragment, which fit in 16 bits.
+  private final short[] table = new short[1 << HASH_TABLE_BITS];
+  private final byte[] input = new byte[BLOCK_SIZE];
+  // Room for a preamble in front of the compressed fragment.
+  private final byte[] output = new byte[5 + maxCompressedLength(BLOCK_SIZE)];
+
+  /** Returns the upper bound of the compressed size of a fragment of {@code length} bytes. */
+  static int maxCompressedLength(int length) {
+    return 32 + length + length / 6;
+  }
+
+  /** Returns a buffer of {@link #BLOCK_SIZE} bytes to accumulate a fragment in. */
+  byte[] input() {
+    return input;
+  }
+
+  /** Returns the buffer that {@link #compress(byte[], int, int, int)} writes to. */
+  byte[] output() {
+    return output;
+  }
+
+  /**
+   * Compresses a fragment of at most {@link #BLOCK_SIZE} bytes into {@link #output()} starting at
+   * {@code outputOffset}, without the uncompressed length preamble, and returns the end offset.
+   */
+  int compress(byte[] src, int start, int length, int outputOffset) {
+    byte[] dst = output;
+    if (length == 0) {
+      return outputOffset;
+    }
+    if (length < MIN_NON_LITERAL_BLOCK_SIZE) {
+      return emitLiteral(dst, outputOffset, src, start, length);
+    }
+    Arrays.fill(table, (short) 0);
+
+    int end = start + length;
+    int limit = end - INPUT_MARGIN;
+    int d = outputOffset;
+    int nextEmit = start;
+    int s = start + 1;
+    int nextHash = hash(load32(src, s));
+
+    outer:
+    while (true) {
+      // Look for a 4 byte match, probing less often the longer nothing matches so incompressible
+      // input is skipped quickly.
+      int skip = 32;
+      int nextS = s;
+      int candidate;
+      do {
+        s = nextS;
+        int step = skip >>> 5;
+        nextS = s + step;
+        skip += step;
+        if (nextS > limit) {
+          break outer;
+        }
+        candidate = start + (table[nextHash] & 0xffff);
+        table[nextHash] = (short) (s - start);
+        nextHash = hash(load32(src, nextS));
+      } while (load32(src, s) != load32(src, candidate));
+
+      d = emitLiteral(dst, d, src, nextEmit, s - nextEmit);
+
+      // Emit copies for as long as the bytes right after a copy match again.
+      do {
+        int base = s;
+        s += 4;
+        int i = candidate + 4;
+        while (s < end && src[i] == src[s]) {
+          i++;
+          s++;
+        }
+        d = emitCopy(dst, d, base - candidate, s - base);
+        nextEmit = s;
+        if (s >= limit) {
+          break outer;
+        }
+        table[hash(load32(src, s - 1))] = (short) (s - 1 - start);
+        int currentHash = hash(load32(src, s));
+        candidate = start + (table[currentHash] & 0xffff);
+        table[currentHash] = (short) (s - start);
+      } while (load32(src, s) == load32(src, candidate));
+
+      s++;
+      nextHash = hash(load32(src, s));
+    }
+
+    if (nextEmit < end) {
+      d = emitLiteral(dst, d, src, nextEmit, end - nextEmit);
+    }
+    return d;
+  }
+
+  /** Writes {@code value} as a little-endian base 128 varint, as used by the length preamble. */
+  static int writeVarint(byte[] dst, int d, int value) {
+    while ((value & ~0x7f) != 0) {
+      dst[d++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    dst[d++] = (byte) value;
+    return d;
+  }
+
+  private static int emitLiteral(byte[] dst, int d, byte[] src, int start, int length) {
+    int n = length - 1;
+    if (n < 60) {
+      dst[d++] = (byte) (n << 2);
+    } else if (n < 1 << 8) {
+      dst[d++] = (byte) (60 << 2);
+      dst[d++] = (byte) n;
+    } else {
+      // Fragments are at most 64KiB so two length bytes are always enough.
+      dst[d++] = (byte) (61 << 2);
+      dst[d++] = (byte) n;
+      dst[d++] = (byte) (n >>> 8);
+    }
+    System.arraycopy(src, start, dst, d, length);
+    return d + length;
+  }
+
+  private static int emitCopy(byte[] dst, int d, int offset, int length) {
+    while (length >= 68) {
+      d = emitCopy2(dst, d, offset, 64);
+      length -= 64;
+    }
+    if (length > 64) {
+      d = emitCopy2(dst, d, offset, 60);
+      length -= 60;
+    }
+    if (length >= 12 || offset >= 2048) {
+      return emitCopy2(dst, d, offset, length);
+    }
+    dst[d++] = (byte) (0x01 | ((offset >>> 8) << 5) | ((length - 4) << 2));
+    dst[d++] = (byte) offset;
+    return d;
+  }
+
+  private static int emitCopy2(byte[] dst, int d, int offset, int length) {
+    dst[d++] = (byte) (0x02 | ((length - 1) << 2));
+    dst[d++] = (byte) offset;
+    dst[d++] = (byte) (offset >>> 8);
+    return d;
+  }
+
+  private static int hash(int value) {
+    return (value * 0x1e35a7bd) >>> (32 - HASH_TABLE_BITS);
+  }
+
+  private static int load32(byte[] src, int i) {
+    return (src[i] & 0xff)
+        | (src[i + 1] & 0xff) << 8
+        | (src[i + 2] & 0xff) << 16
+        | (src[i + 3] & 0xff) << 24;
+  }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+import io.opentelemetry.sdk.common.internal.BoundedObjectPool;
+
+/** Pool of {@link SnappyEncoder}s so their buffers are reused across requests. */
+final class SnappyEncoderPool {
+
+  private final BoundedObjectPool<SnappyEncoder> pool = new BoundedObjectPool<>();
+
+  SnappyEncoder acquire() {
+    SnappyEncoder encoder = pool.poll();
+    return encoder != null ? encoder : new SnappyEncoder();
+  }
+
+  void release(SnappyEncoder encoder) {
+    // Excess encoders are left to garbage collection.
+    pool.offer(encoder);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+import io.opentelemetry.sdk.common.export.Compressor;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link Compressor} SPI implementation for the <a
+ * href="https://github.com/google/snappy/blob/main/framing_format.txt">snappy framing format</a>,
+ * registered as {@code x-snappy-framed}.
+ *
+ * <p>Unlike {@link SnappyCompressor}, compressed chunks are written as soon as 64KiB of input is
+ * available, so the request is never buffered in full.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class SnappyFramedCompressor implements Compressor {
+
+  private static final byte[] STREAM_IDENTIFIER = {
+    (byte) 0xff, 0x06, 0x00, 0x00, 's', 'N', 'a', 'P', 'p', 'Y'
+  };
+  private static final byte CHUNK_COMPRESSED = 0x00;
+  private static final byte CHUNK_UNCOMPRESSED = 0x01;
+
+  private final SnappyEncoderPool pool = new SnappyEncoderPool();
+
+  @Override
+  public String getEncoding() {
+    return "x-snappy-framed";
+  }
+
+  @Override
+  public OutputStream compress(OutputStream outputStream) throws IOException {
+    outputStream.write(STREAM_IDENTIFIER);
+    return new FramedOutputStream(outputStream, pool);
+  }
+
+  private static final class FramedOutputStream extends SnappyOutputStream {
+    private final byte[] header = new byte[8];
+
+    private FramedOutputStream(OutputStream out, SnappyEncoderPool pool) {
+      super(out, pool);
+    }
+
+    @Override
+    void writeFragment(SnappyEncoder encoder, byte[] src, int offset, int length)
+        throws IOException {
+      int checksum = Crc32c.mask(Crc32c.compute(src, offset, length));
+      // Each compressed chunk is a complete snappy block, preamble included.
+      byte[] output = encoder.output();
+      int compressedLength =
+          encoder.compress(src, offset, length, SnappyEncoder.writeVarint(output, 0, length));
+      // Like the reference implementation, store the chunk as is unless compression saves at
+      // least 12.5%.
+      if (compressedLength < length - length / 8) {
+        writeChunk(CHUNK_COMPRESSED, checksum, output, 0, compressedLength);
+      } else {
+        writeChunk(CHUNK_UNCOMPRESSED, checksum, src, offset, length);
+      }
+    }
+
+    @Override
+    void finish() {}
+
+    private void writeChunk(byte type, int checksum, byte[] data, int offset, int length)
+        throws IOException {
+      int chunkLength = length + 4;
+      header[0] = type;
+      header[1] = (byte) chunkLength;
+      header[2] = (byte) (chunkLength >>> 8);
+      header[3] = (byte) (chunkLength >>> 16);
+      header[4] = (byte) checksum;
+      header[5] = (byte) (checksum >>> 8);
+      header[6] = (byte) (checksum >>> 16);
+      header[7] = (byte) (checksum >>> 24);
+      out.write(header);
+      out.write(data, offset, length);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Output stream that splits what is written into fragments of at most {@link
+ * SnappyEncoder#BLOCK_SIZE} bytes, which subclasses compress and frame.
+ */
+abstract class SnappyOutputStream extends OutputStream {
+
+  final OutputStream out;
+  private final SnappyEncoderPool pool;
+  @Nullable private SnappyEncoder encoder;
+  private int inputLength;
+
+  SnappyOutputStream(OutputStream out, SnappyEncoderPool pool) {
+    this.out = out;
+    this.pool = pool;
+    this.encoder = pool.acquire();
+  }
+
+  /** Compresses and writes a fragment of at most {@link SnappyEncoder#BLOCK_SIZE} bytes. */
+  abstract void writeFragment(SnappyEncoder encoder, byte[] src, int offset, int length)
+      throws IOException;
+
+  /** Called once after the last fragment is written, before {@link #out} is closed. */
+  abstract void finish() throws IOException;
+
+  @Override
+  public void write(int b) throws IOException {
+    SnappyEncoder current = current();
+    current.input()[inputLength++] = (byte) b;
+    if (inputLength == SnappyEncoder.BLOCK_SIZE) {
+      writeInput(current);
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    SnappyEncoder current = current();
+    while (len > 0) {
+      if (inputLength == 0 && len >= SnappyEncoder.BLOCK_SIZE) {
+        // Compress straight from the caller's array, skipping the copy into the input buffer.
+        writeFragment(current, b, off, SnappyEncoder.BLOCK_SIZE);
+        off += SnappyEncoder.BLOCK_SIZE;
+        len -= SnappyEncoder.BLOCK_SIZE;
+        continue;
+      }
+      int length = Math.min(len, SnappyEncoder.BLOCK_SIZE - inputLength);
+      System.arraycopy(b, off, current.input(), inputLength, length);
+      inputLength += length;
+      off += length;
+      len -= length;
+      if (inputLength == SnappyEncoder.BLOCK_SIZE) {
+        writeInput(current);
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeInput(current());
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    SnappyEncoder current = encoder;
+    if (current == null) {
+      return;
+    }
+    encoder = null;
+    try {
+      writeInput(current);
+      finish();
+    } finally {
+      pool.release(current);
+      out.close();
+    }
+  }
+
+  private void writeInput(SnappyEncoder current) throws IOException {
+    if (inputLength > 0) {
+      writeFragment(current, current.input(), 0, inputLength);
+      inputLength = 0;
+    }
+  }
+
+  private SnappyEncoder current() throws IOException {
+    SnappyEncoder current = encoder;
+    if (current == null) {
+      throw new IOException("Stream closed");
+    }
+    return current;
+  }
+}
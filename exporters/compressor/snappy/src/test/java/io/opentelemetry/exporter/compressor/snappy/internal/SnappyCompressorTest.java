@@ -0,0 +1,238 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.compressor.snappy.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.sdk.common.export.Compressor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.ServiceLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SnappyCompressorTest {
+
+  private static final int[] SIZES = {0, 1, 16, 17, 100, 65535, 65536, 65537, 300_000};
+
+  @Test
+  void serviceLoader() {
+    List<String> encodings = new ArrayList<>();
+    for (Compressor compressor : ServiceLoader.load(Compressor.class)) {
+      encodings.add(compressor.getEncoding());
+    }
+    assertThat(encodings).contains("snappy", "x-snappy-framed");
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 4, 256})
+  void block_roundTrip(int alphabet) throws IOException {
+    SnappyCompressor compressor = new SnappyCompressor();
+    for (int size : SIZES) {
+      byte[] input = input(size, alphabet);
+      byte[] compressed = compress(compressor, input);
+      assertThat(decodeBlock(compressed)).isEqualTo(input);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 4, 256})
+  void framed_roundTrip(int alphabet) throws IOException {
+    SnappyFramedCompressor compressor = new SnappyFramedCompressor();
+    for (int size : SIZES) {
+      byte[] input = input(size, alphabet);
+      byte[] compressed = compress(compressor, input);
+      assertThat(decodeFramed(compressed)).isEqualTo(input);
+    }
+  }
+
+  @Test
+  void compressesRepetitiveInput() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; text.length() < 100_000; i++) {
+      text.append("{\"name\":\"GET /api/endpoint\",\"id\":").append(i % 100).append('}');
+    }
+    byte[] input = text.toString().getBytes(StandardCharsets.UTF_8);
+    assertThat(compress(new SnappyCompressor(), input).length).isLessThan(input.length / 2);
+    assertThat(compress(new SnappyFramedCompressor(), input).length).isLessThan(input.length / 2);
+  }
+
+  @Test
+  void singleByteWrites() throws IOException {
+    byte[] input = input(70_000, 4);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream out = new SnappyCompressor().compress(compressed)) {
+      for (byte b : input) {
+        out.write(b);
+      }
+    }
+    assertThat(decodeBlock(compressed.toByteArray())).isEqualTo(input);
+  }
+
+  @Test
+  void writeAfterClose() throws IOException {
+    OutputStream out = new SnappyFramedCompressor().compress(new ByteArrayOutputStream());
+    out.close();
+    // Closing again is a no-op.
+    out.close();
+    assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void matchesReferenceImplementation() throws IOException {
+    // Produced by the reference C++ implementation (snappy 1.1.10, through snappy-java).
+    byte[] input =
+        ("{\"name\":\"GET /api/users\",\"kind\":2}"
+                + "{\"name\":\"GET /api/users\",\"kind\":3}"
+                + "{\"name\":\"GET /api/orders\",\"kind\":2}")
+            .getBytes(StandardCharsets.US_ASCII);
+    byte[] block =
+        hex(
+            "67887b226e616d65223a22474554202f6170692f7573657273222c226b696e64223a327d"
+                + "7b7a220000334a2200406f7264657273222c226b696e64223a327d");
+    byte[] framed =
+        hex(
+            "ff060000734e61507059004300000c7231526788"
+                + "7b226e616d65223a22474554202f6170692f7573657273222c226b696e64223a327d"
+                + "7b7a220000334a2200406f7264657273222c226b696e64223a327d");
+
+    assertThat(compress(new SnappyCompressor(), input)).isEqualTo(block);
+    assertThat(compress(new SnappyFramedCompressor(), input)).isEqualTo(framed);
+    assertThat(decodeBlock(block)).isEqualTo(input);
+    assertThat(decodeFramed(framed)).isEqualTo(input);
+  }
+
+  @Test
+  void crc32c() {
+    byte[] input = "123456789".getBytes(StandardCharsets.US_ASCII);
+    assertThat(Crc32c.compute(input, 0, input.length)).isEqualTo(0xe3069283);
+    byte[] zeros = new byte[32];
+    assertThat(Crc32c.compute(zeros, 0, zeros.length)).isEqualTo(0x8a9136aa);
+  }
+
+  /** Mostly runs of bytes from an alphabet of the given size, or random bytes if it is 0. */
+  private static byte[] input(int size, int alphabet) {
+    Random random = new Random(size);
+    byte[] input = new byte[size];
+    for (int i = 0; i < size; i++) {
+      input[i] = (byte) (alphabet == 0 ? random.nextInt() : 'a' + random.nextInt(alphabet));
+    }
+    return input;
+  }
+
+  private static byte[] compress(Compressor compressor, byte[] input) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream out = compressor.compress(compressed)) {
+      out.write(input);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] hex(String hex) {
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+    }
+    return bytes;
+  }
+
+  private static byte[] decodeFramed(byte[] framed) {
+    assertThat(framed).startsWith(0xff, 0x06, 0x00, 0x00, 's', 'N', 'a', 'P', 'p', 'Y');
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    int pos = 10;
+    while (pos < framed.length) {
+      int type = framed[pos] & 0xff;
+      int length =
+          (framed[pos + 1] & 0xff) | (framed[pos + 2] & 0xff) << 8 | (framed[pos + 3] & 0xff) << 16;
+      int checksum = readIntLe(framed, pos + 4);
+      byte[] data = new byte[length - 4];
+      System.arraycopy(framed, pos + 8, data, 0, data.length);
+      byte[] chunk;
+      if (type == 0x00) {
+        chunk = decodeBlock(data);
+      } else {
+        assertThat(type).isEqualTo(0x01);
+        chunk = data;
+      }
+      assertThat(chunk.length).isLessThanOrEqualTo(65536);
+      assertThat(checksum).isEqualTo(Crc32c.mask(Crc32c.compute(chunk, 0, chunk.length)));
+      result.write(chunk, 0, chunk.length);
+      pos += 4 + length;
+    }
+    return result.toByteArray();
+  }
+
+  /** Straightforward decoder written from the format description. */
+  private static byte[] decodeBlock(byte[] block) {
+    int pos = 0;
+    int length = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = block[pos++] & 0xff;
+      length |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+    }
+    byte[] result = new byte[length];
+    int out = 0;
+    while (pos < block.length) {
+      int tag = block[pos++] & 0xff;
+      int offset;
+      int copyLength;
+      switch (tag & 0x03) {
+        case 0:
+          int literalLength = tag >>> 2;
+          if (literalLength >= 60) {
+            int bytes = literalLength - 59;
+            literalLength = 0;
+            for (int i = 0; i < bytes; i++) {
+              literalLength |= (block[pos++] & 0xff) << (8 * i);
+            }
+          }
+          literalLength++;
+          System.arraycopy(block, pos, result, out, literalLength);
+          pos += literalLength;
+          out += literalLength;
+          continue;
+        case 1:
+          copyLength = ((tag >>> 2) & 0x07) + 4;
+          offset = ((tag >>> 5) << 8) | (block[pos++] & 0xff);
+          break;
+        case 2:
+          copyLength = (tag >>> 2) + 1;
+          offset = (block[pos] & 0xff) | (block[pos + 1] & 0xff) << 8;
+          pos += 2;
+          break;
+        default:
+          copyLength = (tag >>> 2) + 1;
+          offset = readIntLe(block, pos);
+          pos += 4;
+          break;
+      }
+      assertThat(offset).isBetween(1, out);
+      for (int i = 0; i < copyLength; i++) {
+        result[out] = result[out - offset];
+        out++;
+      }
+    }
+    assertThat(out).isEqualTo(length);
+    return result;
+  }
+
+  private static int readIntLe(byte[] bytes, int pos) {
+    return (bytes[pos] & 0xff)
+        | (bytes[pos + 1] & 0xff) << 8
+        | (bytes[pos + 2] & 0xff) << 16
+        | (bytes[pos + 3] & 0xff) << 24;
+  }
+}
@@ -8,6 +8,7 @@ package io.opentelemetry.exporter.logging.otlp.internal.logs;
 import static java.util.Objects.requireNonNull;
 
 import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingLogRecordExporter;
+import io.opentelemetry.exporter.logging.otlp.internal.writer.FileJsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.JsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.LoggerJsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.StreamJsonWriter;
@@ -78,6 +79,18 @@ public final class OtlpStdoutLogRecordExporterBuilder {
     return this;
   }
 
+  /**
+   * Sets the exporter to append OTLP JSON lines to the file of the specified writer, from its
+   * background thread.
+   *
+   * <p>The writer will be closed when {@link OtlpStdoutLogRecordExporter#shutdown()} is called.
+   */
+  public OtlpStdoutLogRecordExporterBuilder setOutput(FileJsonWriter fileJsonWriter) {
+    requireNonNull(fileJsonWriter, "fileJsonWriter");
+    this.jsonWriter = fileJsonWriter;
+    return this;
+  }
+
   /**
    * Constructs a new instance of the exporter based on the builder's values.
    *
@@ -121,10 +121,9 @@ public final class OtlpStdoutMetricExporter implements MetricExporter {
   public CompletableResultCode shutdown() {
     if (!isShutdown.compareAndSet(false, true)) {
       logger.log(Level.INFO, "Calling shutdown() multiple times.");
-    } else {
-      jsonWriter.close();
+      return CompletableResultCode.ofSuccess();
     }
-    return CompletableResultCode.ofSuccess();
+    return jsonWriter.close();
   }
 
   @Override
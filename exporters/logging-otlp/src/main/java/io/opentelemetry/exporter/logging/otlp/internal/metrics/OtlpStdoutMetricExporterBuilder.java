@@ -8,6 +8,7 @@ package io.opentelemetry.exporter.logging.otlp.internal.metrics;
 import static java.util.Objects.requireNonNull;
 
 import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingMetricExporter;
+import io.opentelemetry.exporter.logging.otlp.internal.writer.FileJsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.JsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.LoggerJsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.StreamJsonWriter;
@@ -91,6 +92,18 @@ public final class OtlpStdoutMetricExporterBuilder {
     return this;
   }
 
+  /**
+   * Sets the exporter to append OTLP JSON lines to the file of the specified writer, from its
+   * background thread.
+   *
+   * <p>The writer will be closed when {@link OtlpStdoutMetricExporter#shutdown()} is called.
+   */
+  public OtlpStdoutMetricExporterBuilder setOutput(FileJsonWriter fileJsonWriter) {
+    requireNonNull(fileJsonWriter, "fileJsonWriter");
+    this.jsonWriter = fileJsonWriter;
+    return this;
+  }
+
   /**
    * Set the {@link AggregationTemporalitySelector} used for {@link
    * MetricExporter#getAggregationTemporality(InstrumentType)}.
@@ -92,10 +92,9 @@ public final class OtlpStdoutSpanExporter implements SpanExporter {
   public CompletableResultCode shutdown() {
     if (!isShutdown.compareAndSet(false, true)) {
       logger.log(Level.INFO, "Calling shutdown() multiple times.");
-    } else {
-      jsonWriter.close();
+      return CompletableResultCode.ofSuccess();
     }
-    return CompletableResultCode.ofSuccess();
+    return jsonWriter.close();
   }
 
   @Override
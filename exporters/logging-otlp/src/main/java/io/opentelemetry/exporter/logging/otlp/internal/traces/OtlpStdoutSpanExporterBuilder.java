@@ -8,6 +8,7 @@ package io.opentelemetry.exporter.logging.otlp.internal.traces;
 import static java.util.Objects.requireNonNull;
 
 import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.exporter.logging.otlp.internal.writer.FileJsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.JsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.LoggerJsonWriter;
 import io.opentelemetry.exporter.logging.otlp.internal.writer.StreamJsonWriter;
@@ -78,6 +79,18 @@ public final class OtlpStdoutSpanExporterBuilder {
     return this;
   }
 
+  /**
+   * Sets the exporter to append OTLP JSON lines to the file of the specified writer, from its
+   * background thread.
+   *
+   * <p>The writer will be closed when {@link OtlpStdoutSpanExporter#shutdown()} is called.
+   */
+  public OtlpStdoutSpanExporterBuilder setOutput(FileJsonWriter fileJsonWriter) {
+    requireNonNull(fileJsonWriter, "fileJsonWriter");
+    this.jsonWriter = fileJsonWriter;
+    return this;
+  }
+
   /**
    * Constructs a new instance of the exporter based on the builder's values.
    *
@@ -0,0 +1,474 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.logging.otlp.internal.writer;
+
+import io.opentelemetry.api.internal.GuardedBy;
+import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.internal.DaemonThreadFactory;
+import io.opentelemetry.sdk.common.internal.ThrottlingLogger;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Writes OTLP JSON lines to a file from a background thread, rotating the file when it reaches a
+ * maximum size or age.
+ *
+ * <p>{@link #write(Marshaler)} serializes the request into a pooled buffer on the calling thread,
+ * since the marshaler may be reused once it returns, and hands the buffer to the writer thread.
+ * It never waits for the disk: when the writer thread falls behind by more than the maximum number
+ * of queued requests, requests are dropped. The writer thread appends the queued buffers to the
+ * file with a single gathering write and only forces them to disk on {@link #flush()}, on rotation
+ * and on {@link #close()}.
+ *
+ * <p>Rotated files are renamed to the file name followed by the time of the rotation in
+ * milliseconds since the epoch, and optionally compressed with gzip on another background thread.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class FileJsonWriter implements JsonWriter {
+
+  private static final Logger internalLogger = Logger.getLogger(FileJsonWriter.class.getName());
+
+  private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+  // Buffers which grew beyond this size for a large request are not pooled.
+  private static final int MAX_POOLED_BUFFER_SIZE = 4 * 1024 * 1024;
+  private static final int MAX_BATCH_SIZE = 64;
+
+  private final ThrottlingLogger logger = new ThrottlingLogger(internalLogger);
+  private final Path file;
+  private final long maxFileSizeBytes;
+  private final long maxFileAgeNanos;
+  private final boolean compressRotatedFiles;
+  private final int maxQueueSize;
+  private final Clock clock;
+
+  private final BlockingQueue<Buffer> bufferPool;
+  // Holds the buffers to write and the Flush requests, in order.
+  private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+  private final AtomicInteger queuedBuffers = new AtomicInteger();
+  // Guards adding to the queue, so that nothing is added after the close request.
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  private final Thread writerThread;
+  @Nullable private final ExecutorService compressionExecutor;
+
+  // Only accessed by the writer thread.
+  @Nullable private FileChannel channel;
+  private long fileSize;
+  private long fileOpenedNanos;
+  private boolean failedSinceFlush;
+
+  /** Returns a new {@link FileJsonWriterBuilder} writing to {@code file}. */
+  public static FileJsonWriterBuilder builder(Path file) {
+    return new FileJsonWriterBuilder(file);
+  }
+
+  FileJsonWriter(
+      Path file,
+      long maxFileSizeBytes,
+      long maxFileAgeNanos,
+      boolean compressRotatedFiles,
+      int maxQueueSize,
+      Clock clock) {
+    this.file = file;
+    this.maxFileSizeBytes = maxFileSizeBytes;
+    this.maxFileAgeNanos = maxFileAgeNanos;
+    this.compressRotatedFiles = compressRotatedFiles;
+    this.maxQueueSize = maxQueueSize;
+    this.clock = clock;
+    this.bufferPool = new ArrayBlockingQueue<>(maxQueueSize);
+    try {
+      // Open the file right away so that a file which can't be written fails the build.
+      openFile();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to open " + file, e);
+    }
+    this.compressionExecutor =
+        compressRotatedFiles
+            ? Executors.newSingleThreadExecutor(
+                new DaemonThreadFactory("otel-otlp-file-compressor"))
+            : null;
+    this.writerThread = new DaemonThreadFactory("otel-otlp-file-writer").newThread(this::run);
+    writerThread.start();
+  }
+
+  @Override
+  public CompletableResultCode write(Marshaler exportRequest) {
+    if (isClosed()) {
+      return CompletableResultCode.ofFailure();
+    }
+    if (queuedBuffers.incrementAndGet() > maxQueueSize) {
+      queuedBuffers.decrementAndGet();
+      logger.log(
+          Level.WARNING,
+          "Dropping OTLP JSON request, writing to " + file + " is falling behind.");
+      return CompletableResultCode.ofFailure();
+    }
+    Buffer buffer = bufferPool.poll();
+    if (buffer == null) {
+      buffer = new Buffer();
+    }
+    try {
+      exportRequest.writeJsonTo(buffer);
+      buffer.write('\n');
+    } catch (IOException | RuntimeException e) {
+      release(buffer);
+      logger.log(Level.WARNING, "Unable to write OTLP JSON to " + file, e);
+      return CompletableResultCode.ofFailure();
+    }
+    synchronized (lock) {
+      // Closed while serializing, the writer thread may already have stopped.
+      if (closed) {
+        release(buffer);
+        return CompletableResultCode.ofFailure();
+      }
+      queue.add(buffer);
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  /**
+   * Returns a result which completes once the requests written before have been written to the
+   * file and forced to the disk, failing if any of them could not be.
+   */
+  @Override
+  public CompletableResultCode flush() {
+    Flush flush = new Flush(/* close= */ false);
+    synchronized (lock) {
+      if (closed) {
+        return CompletableResultCode.ofSuccess();
+      }
+      queue.add(flush);
+    }
+    return flush.result;
+  }
+
+  /**
+   * Returns a result which completes once the queued requests have been written, the file has been
+   * forced to the disk and closed, and the rotated files have been compressed.
+   */
+  @Override
+  public CompletableResultCode close() {
+    Flush close = new Flush(/* close= */ true);
+    synchronized (lock) {
+      if (closed) {
+        return CompletableResultCode.ofSuccess();
+      }
+      closed = true;
+      queue.add(close);
+    }
+    return close.result;
+  }
+
+  private boolean isClosed() {
+    synchronized (lock) {
+      return closed;
+    }
+  }
+
+  private void run() {
+    List<Object> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    List<Buffer> pending = new ArrayList<>(MAX_BATCH_SIZE);
+    while (true) {
+      Object first;
+      try {
+        first = poll();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        closeFile();
+        return;
+      }
+      if (first == null) {
+        rotateIfExpired();
+        continue;
+      }
+      batch.add(first);
+      queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+      for (Object item : batch) {
+        if (item instanceof Buffer) {
+          Buffer buffer = (Buffer) item;
+          if (shouldRotate(pendingSize(pending), buffer.size())) {
+            writePending(pending);
+            rotate();
+          }
+          pending.add(buffer);
+          continue;
+        }
+        writePending(pending);
+        Flush flush = (Flush) item;
+        if (flush.close) {
+          boolean success = force() && !failedSinceFlush;
+          closeFile();
+          ExecutorService compressionExecutor = this.compressionExecutor;
+          if (compressionExecutor != null) {
+            // Runs after the compressions of the files rotated before.
+            compressionExecutor.execute(() -> complete(flush.result, success));
+            compressionExecutor.shutdown();
+          } else {
+            complete(flush.result, success);
+          }
+          return;
+        }
+        complete(flush.result, force() && !failedSinceFlush);
+        failedSinceFlush = false;
+      }
+      writePending(pending);
+      batch.clear();
+    }
+  }
+
+  /** Waits for the next item, or until the file should be rotated because of its age. */
+  @Nullable
+  private Object poll() throws InterruptedException {
+    if (maxFileAgeNanos == 0 || fileSize == 0) {
+      return queue.take();
+    }
+    long remainingNanos = fileOpenedNanos + maxFileAgeNanos - clock.nanoTime();
+    return queue.poll(Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns whether the file should be rotated before appending a request of {@code nextSize}
+   * bytes. A file is never rotated while empty, even for a request larger than the maximum size.
+   */
+  private boolean shouldRotate(long pendingSize, long nextSize) {
+    long size = fileSize + pendingSize;
+    if (size == 0) {
+      return false;
+    }
+    return (maxFileSizeBytes > 0 && size + nextSize > maxFileSizeBytes) || isExpired();
+  }
+
+  private boolean isExpired() {
+    return maxFileAgeNanos > 0 && clock.nanoTime() - fileOpenedNanos >= maxFileAgeNanos;
+  }
+
+  private void rotateIfExpired() {
+    if (fileSize > 0 && isExpired()) {
+      rotate();
+    }
+  }
+
+  private static long pendingSize(List<Buffer> pending) {
+    long size = 0;
+    for (Buffer buffer : pending) {
+      size += buffer.size();
+    }
+    return size;
+  }
+
+  private void writePending(List<Buffer> pending) {
+    if (pending.isEmpty()) {
+      return;
+    }
+    ByteBuffer[] buffers = new ByteBuffer[pending.size()];
+    long size = 0;
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = pending.get(i).asByteBuffer();
+      size += buffers[i].remaining();
+    }
+    try {
+      FileChannel channel = openFile();
+      long written = 0;
+      while (written < size) {
+        written += channel.write(buffers);
+      }
+      fileSize += size;
+    } catch (IOException e) {
+      failedSinceFlush = true;
+      logger.log(Level.WARNING, "Unable to write OTLP JSON to " + file, e);
+      // Reopen the file for the next requests.
+      closeFile();
+    } finally {
+      for (Buffer buffer : pending) {
+        release(buffer);
+      }
+      pending.clear();
+    }
+  }
+
+  private FileChannel openFile() throws IOException {
+    FileChannel channel = this.channel;
+    if (channel == null) {
+      channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.APPEND);
+      this.channel = channel;
+      fileSize = channel.size();
+      fileOpenedNanos = clock.nanoTime();
+    }
+    return channel;
+  }
+
+  private boolean force() {
+    FileChannel channel = this.channel;
+    if (channel == null) {
+      return true;
+    }
+    try {
+      channel.force(false);
+      return true;
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Unable to flush " + file, e);
+      return false;
+    }
+  }
+
+  private void closeFile() {
+    FileChannel channel = this.channel;
+    if (channel == null) {
+      return;
+    }
+    this.channel = null;
+    fileSize = 0;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Unable to close " + file, e);
+    }
+  }
+
+  private void rotate() {
+    if (!force()) {
+      failedSinceFlush = true;
+    }
+    closeFile();
+    Path rotated = rotatedFile();
+    try {
+      Files.move(file, rotated);
+    } catch (IOException e) {
+      // Keep appending to the current file.
+      logger.log(Level.WARNING, "Unable to rotate " + file, e);
+      return;
+    }
+    ExecutorService compressionExecutor = this.compressionExecutor;
+    if (compressionExecutor != null) {
+      compressionExecutor.execute(() -> compress(rotated));
+    }
+  }
+
+  private Path rotatedFile() {
+    String name = file.getFileName() + "." + TimeUnit.NANOSECONDS.toMillis(clock.now());
+    Path rotated = file.resolveSibling(name);
+    for (int i = 1; Files.exists(rotated) || Files.exists(compressedFile(rotated)); i++) {
+      rotated = file.resolveSibling(name + "-" + i);
+    }
+    return rotated;
+  }
+
+  private static Path compressedFile(Path file) {
+    return file.resolveSibling(file.getFileName() + ".gz");
+  }
+
+  /**
+   * Compresses a rotated file. The uncompressed file is only deleted once it is compressed, so
+   * that a compression interrupted by the application stopping leaves it intact.
+   */
+  private void compress(Path rotated) {
+    Path compressed = compressedFile(rotated);
+    try {
+      try (InputStream in = Files.newInputStream(rotated);
+          OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+        byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+      }
+      Files.delete(rotated);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Unable to compress " + rotated, e);
+    }
+  }
+
+  private void release(Buffer buffer) {
+    queuedBuffers.decrementAndGet();
+    if (buffer.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+      buffer.reset();
+      bufferPool.offer(buffer);
+    }
+  }
+
+  private static void complete(CompletableResultCode result, boolean success) {
+    if (success) {
+      result.succeed();
+    } else {
+      result.fail();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FileJsonWriter{"
+        + "file="
+        + file
+        + ", maxFileSizeBytes="
+        + maxFileSizeBytes
+        + ", maxFileAge="
+        + TimeUnit.NANOSECONDS.toMillis(maxFileAgeNanos)
+        + "ms"
+        + ", compressRotatedFiles="
+        + compressRotatedFiles
+        + ", maxQueueSize="
+        + maxQueueSize
+        + '}';
+  }
+
+  /** A serialized request, reused for later requests once written. */
+  private static final class Buffer extends ByteArrayOutputStream {
+    private Buffer() {
+      super(INITIAL_BUFFER_SIZE);
+    }
+
+    private ByteBuffer asByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    private int capacity() {
+      return buf.length;
+    }
+  }
+
+  /** A request to force the written requests to the disk, and to close the file if requested. */
+  private static final class Flush {
+    private final boolean close;
+    private final CompletableResultCode result = new CompletableResultCode();
+
+    private Flush(boolean close) {
+      this.close = close;
+    }
+  }
+}
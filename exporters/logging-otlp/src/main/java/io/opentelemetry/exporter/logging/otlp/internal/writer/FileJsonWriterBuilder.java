@@ -0,0 +1,90 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.logging.otlp.internal.writer;
+
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.sdk.common.Clock;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Builder for {@link FileJsonWriter}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class FileJsonWriterBuilder {
+
+  private static final long DEFAULT_MAX_FILE_SIZE_BYTES = 100L * 1024 * 1024;
+  private static final int DEFAULT_MAX_QUEUE_SIZE = 256;
+
+  private final Path file;
+  private long maxFileSizeBytes = DEFAULT_MAX_FILE_SIZE_BYTES;
+  private long maxFileAgeNanos;
+  private boolean compressRotatedFiles;
+  private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  private Clock clock = Clock.getDefault();
+
+  FileJsonWriterBuilder(Path file) {
+    this.file = requireNonNull(file, "file");
+  }
+
+  /**
+   * Sets the size in bytes at which the file is rotated. If unset, defaults to 100 MiB. {@code 0}
+   * disables rotation by size.
+   */
+  public FileJsonWriterBuilder setMaxFileSize(long maxFileSizeBytes) {
+    checkArgument(maxFileSizeBytes >= 0, "maxFileSizeBytes must be non-negative");
+    this.maxFileSizeBytes = maxFileSizeBytes;
+    return this;
+  }
+
+  /**
+   * Sets the age at which a non-empty file is rotated. If unset, files are not rotated by age.
+   * {@link Duration#ZERO} disables rotation by age.
+   */
+  public FileJsonWriterBuilder setMaxFileAge(Duration maxFileAge) {
+    requireNonNull(maxFileAge, "maxFileAge");
+    checkArgument(!maxFileAge.isNegative(), "maxFileAge must be non-negative");
+    this.maxFileAgeNanos = maxFileAge.toNanos();
+    return this;
+  }
+
+  /** Sets whether rotated files are compressed with gzip. If unset, defaults to {@code false}. */
+  public FileJsonWriterBuilder setCompressRotatedFiles(boolean compressRotatedFiles) {
+    this.compressRotatedFiles = compressRotatedFiles;
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of requests waiting to be written to the file, beyond which requests
+   * are dropped. If unset, defaults to 256.
+   */
+  public FileJsonWriterBuilder setMaxQueueSize(int maxQueueSize) {
+    checkArgument(maxQueueSize > 0, "maxQueueSize must be positive");
+    this.maxQueueSize = maxQueueSize;
+    return this;
+  }
+
+  /** Sets the {@link Clock} used for rotation. Only for testing. */
+  FileJsonWriterBuilder setClock(Clock clock) {
+    this.clock = requireNonNull(clock, "clock");
+    return this;
+  }
+
+  /**
+   * Opens the file for appending and starts the writer thread.
+   *
+   * @throws UncheckedIOException if the file can't be opened
+   */
+  public FileJsonWriter build() {
+    return new FileJsonWriter(
+        file, maxFileSizeBytes, maxFileAgeNanos, compressRotatedFiles, maxQueueSize, clock);
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.logging.otlp.internal.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.netmikey.logunit.api.LogCapturer;
+import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.marshal.MarshalerUtil;
+import io.opentelemetry.exporter.internal.marshal.MarshalerWithSize;
+import io.opentelemetry.exporter.internal.marshal.ProtoFieldInfo;
+import io.opentelemetry.exporter.internal.marshal.Serializer;
+import io.opentelemetry.internal.testing.slf4j.SuppressLogger;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressLogger(FileJsonWriter.class)
+class FileJsonWriterTest {
+
+  private static final ProtoFieldInfo BODY = ProtoFieldInfo.create(1, 10, "body");
+
+  @RegisterExtension
+  static final LogCapturer logs = LogCapturer.create().captureForType(FileJsonWriter.class);
+
+  @TempDir Path tempDir;
+
+  @Test
+  void writesLines() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    FileJsonWriter writer = FileJsonWriter.builder(file).build();
+
+    assertThat(writer.write(line("a")).isSuccess()).isTrue();
+    assertThat(writer.write(line("b")).isSuccess()).isTrue();
+    assertThat(writer.flush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(Files.readAllLines(file)).containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}");
+
+    assertThat(writer.write(line("c")).isSuccess()).isTrue();
+    assertThat(writer.close().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(Files.readAllLines(file))
+        .containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}", "{\"body\":\"c\"}");
+    assertThat(writer.write(line("d")).isSuccess()).isFalse();
+  }
+
+  @Test
+  void appendsToExistingFile() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    Files.write(file, "{\"body\":\"a\"}\n".getBytes(StandardCharsets.UTF_8));
+    FileJsonWriter writer = FileJsonWriter.builder(file).build();
+
+    writer.write(line("b"));
+    assertThat(writer.close().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+
+    assertThat(Files.readAllLines(file)).containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}");
+  }
+
+  @Test
+  void rotatesBySize() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    // Each line is 13 bytes, so a file holds two of them.
+    FileJsonWriter writer = FileJsonWriter.builder(file).setMaxFileSize(30).build();
+
+    for (String value : new String[] {"a", "b", "c", "d", "e"}) {
+      writer.write(line(value));
+    }
+    assertThat(writer.close().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+
+    assertThat(Files.readAllLines(file)).containsExactly("{\"body\":\"e\"}");
+    List<Path> rotated = rotatedFiles(file);
+    assertThat(rotated).hasSize(2);
+    assertThat(Files.readAllLines(rotated.get(0)))
+        .containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}");
+    assertThat(Files.readAllLines(rotated.get(1)))
+        .containsExactly("{\"body\":\"c\"}", "{\"body\":\"d\"}");
+  }
+
+  @Test
+  void rotatesByAge() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    TestClock clock = TestClock.create();
+    FileJsonWriter writer =
+        FileJsonWriter.builder(file).setMaxFileAge(Duration.ofMinutes(1)).setClock(clock).build();
+
+    writer.write(line("a"));
+    writer.flush().join(10, TimeUnit.SECONDS);
+    clock.advance(Duration.ofSeconds(30));
+    writer.write(line("b"));
+    writer.flush().join(10, TimeUnit.SECONDS);
+    assertThat(rotatedFiles(file)).isEmpty();
+
+    clock.advance(Duration.ofSeconds(30));
+    writer.write(line("c"));
+    assertThat(writer.close().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+
+    assertThat(Files.readAllLines(file)).containsExactly("{\"body\":\"c\"}");
+    List<Path> rotated = rotatedFiles(file);
+    assertThat(rotated).hasSize(1);
+    assertThat(rotated.get(0).getFileName().toString())
+        .isEqualTo("otlp.jsonl." + TimeUnit.NANOSECONDS.toMillis(clock.now()));
+    assertThat(Files.readAllLines(rotated.get(0)))
+        .containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}");
+  }
+
+  @Test
+  void compressesRotatedFiles() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    FileJsonWriter writer =
+        FileJsonWriter.builder(file).setMaxFileSize(30).setCompressRotatedFiles(true).build();
+
+    for (String value : new String[] {"a", "b", "c"}) {
+      writer.write(line(value));
+    }
+    // Completes once the rotated file is compressed.
+    assertThat(writer.close().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+
+    List<Path> rotated = rotatedFiles(file);
+    assertThat(rotated).hasSize(1);
+    assertThat(rotated.get(0).getFileName().toString()).endsWith(".gz");
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(rotated.get(0))),
+                StandardCharsets.UTF_8))) {
+      assertThat(reader.lines()).containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}");
+    }
+  }
+
+  @Test
+  void dropsWhenQueueFull() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    BlockingClock clock = new BlockingClock();
+    FileJsonWriter writer =
+        FileJsonWriter.builder(file)
+            .setMaxQueueSize(1)
+            .setMaxFileAge(Duration.ofMinutes(1))
+            .setClock(clock)
+            .build();
+    writer.write(line("a"));
+    writer.flush().join(10, TimeUnit.SECONDS);
+
+    // The writer thread blocks checking the age of the file before appending "b".
+    clock.block();
+    assertThat(writer.write(line("b")).isSuccess()).isTrue();
+    assertThat(writer.write(line("c")).isSuccess()).isFalse();
+    logs.assertContains("Dropping OTLP JSON request");
+
+    clock.unblock();
+    assertThat(writer.close().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(Files.readAllLines(file)).containsExactly("{\"body\":\"a\"}", "{\"body\":\"b\"}");
+  }
+
+  @Test
+  void closedWhileSerializing() throws IOException {
+    Path file = tempDir.resolve("otlp.jsonl");
+    FileJsonWriter writer = FileJsonWriter.builder(file).build();
+    AtomicReference<CompletableResultCode> closeResult = new AtomicReference<>();
+    byte[] utf8 = "a".getBytes(StandardCharsets.UTF_8);
+    Marshaler closing =
+        new MarshalerWithSize(MarshalerUtil.sizeBytes(BODY, utf8)) {
+          @Override
+          protected void writeTo(Serializer output) throws IOException {
+            closeResult.set(writer.close());
+            output.serializeString(BODY, utf8);
+          }
+        };
+
+    // The request is not written once the writer is closed, so it must not succeed.
+    assertThat(writer.write(closing).isSuccess()).isFalse();
+    assertThat(closeResult.get().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+    assertThat(Files.readAllLines(file)).isEmpty();
+  }
+
+  @Test
+  void errorOpening() {
+    Path file = tempDir.resolve("missing").resolve("otlp.jsonl");
+
+    assertThatThrownBy(() -> FileJsonWriter.builder(file).build())
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("Unable to open");
+  }
+
+  @Test
+  void invalidConfig() {
+    FileJsonWriterBuilder builder = FileJsonWriter.builder(tempDir.resolve("otlp.jsonl"));
+
+    assertThatThrownBy(() -> builder.setMaxFileSize(-1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxFileSizeBytes must be non-negative");
+    assertThatThrownBy(() -> builder.setMaxFileAge(Duration.ofSeconds(-1)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxFileAge must be non-negative");
+    assertThatThrownBy(() -> builder.setMaxQueueSize(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxQueueSize must be positive");
+  }
+
+  private static Marshaler line(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    return new MarshalerWithSize(MarshalerUtil.sizeBytes(BODY, utf8)) {
+      @Override
+      protected void writeTo(Serializer output) throws IOException {
+        output.serializeString(BODY, utf8);
+      }
+    };
+  }
+
+  private static List<Path> rotatedFiles(Path file) throws IOException {
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      return files
+          .filter(path -> !path.equals(file))
+          .sorted()
+          .collect(Collectors.toCollection(ArrayList::new));
+    }
+  }
+
+  /** A {@link Clock} whose {@link #nanoTime()} blocks while {@link #block()} is in effect. */
+  private static final class BlockingClock implements Clock {
+    private volatile CountDownLatch latch = new CountDownLatch(0);
+
+    void block() {
+      latch = new CountDownLatch(1);
+    }
+
+    void unblock() {
+      latch.countDown();
+    }
+
+    @Override
+    public long now() {
+      return System.currentTimeMillis() * 1_000_000;
+    }
+
+    @Override
+    public long nanoTime() {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return System.nanoTime();
+    }
+  }
+}
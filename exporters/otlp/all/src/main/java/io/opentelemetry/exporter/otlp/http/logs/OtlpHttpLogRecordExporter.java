@@ -32,7 +32,9 @@ public final class OtlpHttpLogRecordExporter implements LogRecordExporter {
       HttpExporterBuilder builder, HttpExporter delegate, MemoryMode memoryMode) {
     this.builder = builder;
     this.delegate = delegate;
-    this.marshaler = new LogReusableDataMarshaler(memoryMode, delegate::export);
+    this.marshaler =
+        new LogReusableDataMarshaler(
+            memoryMode, delegate::export, builder.createRequestSizeLimiter());
   }
 
   /**
@@ -12,6 +12,7 @@ import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.common.ComponentLoader;
 import io.opentelemetry.exporter.otlp.internal.HttpExporterBuilder;
+import io.opentelemetry.exporter.otlp.internal.OtlpExporterBuilderUtil;
 import io.opentelemetry.exporter.otlp.internal.OtlpUserAgent;
 import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.Compressor;
@@ -19,8 +20,10 @@ import io.opentelemetry.sdk.common.export.MemoryMode;
 import io.opentelemetry.sdk.common.export.ProxyOptions;
 import io.opentelemetry.sdk.common.export.RetryPolicy;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -274,6 +277,103 @@ public final class OtlpHttpLogRecordExporterBuilder {
     return this;
   }
 
+  /**
+   * Set a directory in which requests that still fail after all retries, for example while the
+   * endpoint is unreachable, are kept to be sent again once the endpoint recovers. The queue is
+   * bounded by {@code maxSizeBytes}, dropping the oldest requests once it is full. Requests still
+   * queued when the exporter is shutdown are sent by the next exporter using the same directory.
+   *
+   * <p>The directory must not be used by other exporters. {@link #build()} throws {@link
+   * IllegalStateException} while another exporter, including one built by this builder, uses it.
+   * If the queue can't be read or written, a warning is logged and the exporter works as if this
+   * was not set.
+   *
+   * <p>This method is experimental so not public. You may reflectively call it using {@link
+   * OtlpExporterBuilderUtil#setPersistentQueue(Object, Path, long)}.
+   */
+  OtlpHttpLogRecordExporterBuilder setPersistentQueue(Path directory, long maxSizeBytes) {
+    requireNonNull(directory, "directory");
+    checkArgument(maxSizeBytes > 0, "maxSizeBytes must be positive");
+    delegate.setPersistentQueue(directory, maxSizeBytes);
+    return this;
+  }
+
+  /**
+   * Enables a circuit breaker protecting a degraded endpoint. After {@code failureThreshold}
+   * consecutive requests failed, or took longer than {@code latencyThreshold}, exports fail fast
+   * without sending a request, or are kept in the persistent queue if one is set. After {@code
+   * openDuration}, a single probe request is sent, which closes the circuit breaker again if it
+   * succeeds in time. This keeps the threads and memory held by retries bounded during outages.
+   * If unset, requests are always sent.
+   *
+   * <p>This method is experimental so not public. You may reflectively call it using {@link
+   * OtlpExporterBuilderUtil#setCircuitBreaker(Object, int, Duration, Duration)}.
+   */
+  OtlpHttpLogRecordExporterBuilder setCircuitBreaker(
+      int failureThreshold, Duration latencyThreshold, Duration openDuration) {
+    checkArgument(failureThreshold > 0, "failureThreshold must be positive");
+    requireNonNull(latencyThreshold, "latencyThreshold");
+    requireNonNull(openDuration, "openDuration");
+    checkArgument(
+        !latencyThreshold.isNegative() && !latencyThreshold.isZero(),
+        "latencyThreshold must be positive");
+    checkArgument(!openDuration.isNegative(), "openDuration must be non-negative");
+    delegate.setCircuitBreaker(failureThreshold, latencyThreshold, openDuration);
+    return this;
+  }
+
+  /**
+   * Sets whether this exporter shares its connections and request threads with the other OTLP
+   * exporters built with a shared transport, for example the span, metric and log exporters of an
+   * SDK sending to the same collector, instead of opening its own. Exporters also set with the same
+   * {@link #setExecutorService(ExecutorService)} share that executor, others share a default one.
+   * The shared transport is closed when the last exporter using it is shut down. Disabled by
+   * default.
+   *
+   * <p>This method is experimental so not public. You may reflectively call it using {@link
+   * OtlpExporterBuilderUtil#setSharedTransport(Object, boolean)}.
+   */
+  OtlpHttpLogRecordExporterBuilder setSharedTransport(boolean sharedTransport) {
+    delegate.setSharedTransport(sharedTransport);
+    return this;
+  }
+
+  /**
+   * Set the {@link Executor} used to serialize large export requests. The log records of each scope
+   * of requests larger than a few hundred kilobytes are then serialized in concurrent chunks, which
+   * shortens the export of very large batches. JSON requests are always serialized on the calling
+   * thread. If unset, requests are serialized on the calling thread.
+   *
+   * <p>Chunks the {@code executor} has not started yet are serialized by the exporting thread
+   * while it waits for them, so the executor may be busy, or even be the one exporting.
+   *
+   * <p>NOTE: The lifecycle of the {@code executor} is not managed by this exporter.
+   *
+   * <p>This method is experimental so not public. You may reflectively call it using {@link
+   * OtlpExporterBuilderUtil#setMarshalingExecutor(Object, Executor)}.
+   */
+  OtlpHttpLogRecordExporterBuilder setMarshalingExecutor(Executor executor) {
+    requireNonNull(executor, "executor");
+    delegate.setMarshalingExecutor(executor);
+    return this;
+  }
+
+  /**
+   * Sets the maximum serialized size in bytes of a single export request. Batches which would
+   * exceed it are split into several requests, which keeps requests within the size accepted by
+   * the receiver. While requests take longer than half the timeout, the limit is temporarily
+   * lowered so a struggling endpoint receives smaller requests. A single log record larger than the
+   * limit is still sent on its own. If unset, batches are always sent in a single request.
+   *
+   * <p>This method is experimental so not public. You may reflectively call it using {@link
+   * OtlpExporterBuilderUtil#setMaxRequestSize(Object, int)}.
+   */
+  OtlpHttpLogRecordExporterBuilder setMaxRequestSize(int maxRequestSizeBytes) {
+    checkArgument(maxRequestSizeBytes > 0, "maxRequestSizeBytes must be positive");
+    delegate.setMaxRequestSize(maxRequestSizeBytes);
+    return this;
+  }
+
   /**
    * Constructs a new instance of the exporter based on the builder's values.
    *
@@ -47,7 +47,9 @@ public final class OtlpHttpMetricExporter implements MetricExporter {
     this.delegate = delegate;
     this.aggregationTemporalitySelector = aggregationTemporalitySelector;
     this.defaultAggregationSelector = defaultAggregationSelector;
-    this.marshaler = new MetricReusableDataMarshaler(memoryMode, delegate::export);
+    this.marshaler =
+        new MetricReusableDataMarshaler(
+            memoryMode, delegate::export, builder.createRequestSizeLimiter());
   }
 
   /**
@@ -31,7 +31,9 @@ public final class OtlpHttpSpanExporter implements SpanExporter {
   OtlpHttpSpanExporter(HttpExporterBuilder builder, HttpExporter delegate, MemoryMode memoryMode) {
     this.builder = builder;
     this.delegate = delegate;
-    this.marshaler = new SpanReusableDataMarshaler(memoryMode, delegate::export);
+    this.marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode, delegate::export, builder.createRequestSizeLimiter());
   }
 
   /**
@@ -6,7 +6,9 @@
 package io.opentelemetry.exporter.otlp.internal;
 
 import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.exporter.internal.FailedExportException;
+import io.opentelemetry.exporter.internal.RetryUtil;
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
 import io.opentelemetry.exporter.internal.metrics.ExporterInstrumentation;
 import io.opentelemetry.sdk.common.CompletableResultCode;
@@ -14,13 +16,17 @@ import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.GrpcResponse;
 import io.opentelemetry.sdk.common.export.GrpcSender;
 import io.opentelemetry.sdk.common.export.GrpcStatusCode;
+import io.opentelemetry.sdk.common.export.MessageWriter;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import io.opentelemetry.sdk.common.internal.ThrottlingLogger;
+import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * Generic gRPC exporter.
@@ -32,6 +38,7 @@ import java.util.logging.Logger;
 public final class GrpcExporter {
 
   private static final Logger internalLogger = Logger.getLogger(GrpcExporter.class.getName());
+  private static final String CIRCUIT_BREAKER_OPEN = "circuit_breaker_open";
 
   private final ThrottlingLogger logger = new ThrottlingLogger(internalLogger);
 
@@ -42,6 +49,9 @@ public final class GrpcExporter {
   private final String type;
   private final GrpcSender grpcSender;
   private final ExporterInstrumentation exporterMetrics;
+  @Nullable private final PersistentExportQueue persistentQueue;
+  @Nullable private final Executor marshalingExecutor;
+  @Nullable private final CircuitBreaker circuitBreaker;
 
   public GrpcExporter(
       GrpcSender grpcSender,
@@ -49,11 +59,40 @@ public final class GrpcExporter {
       StandardComponentId componentId,
       Supplier<MeterProvider> meterProviderSupplier,
       URI endpoint) {
+    this(
+        grpcSender,
+        internalTelemetryVersion,
+        componentId,
+        meterProviderSupplier,
+        endpoint,
+        null,
+        null,
+        null);
+  }
+
+  GrpcExporter(
+      GrpcSender grpcSender,
+      InternalTelemetryVersion internalTelemetryVersion,
+      StandardComponentId componentId,
+      Supplier<MeterProvider> meterProviderSupplier,
+      URI endpoint,
+      @Nullable PersistentExportQueue persistentQueue,
+      @Nullable Executor marshalingExecutor,
+      @Nullable CircuitBreaker circuitBreaker) {
     this.type = componentId.getStandardType().signal().logFriendlyName();
     this.grpcSender = grpcSender;
     this.exporterMetrics =
         new ExporterInstrumentation(
             internalTelemetryVersion, meterProviderSupplier, componentId, endpoint);
+    this.persistentQueue = persistentQueue;
+    this.marshalingExecutor = marshalingExecutor;
+    this.circuitBreaker = circuitBreaker;
+    if (circuitBreaker != null) {
+      circuitBreaker.setStateListener(this::onCircuitBreakerStateChange);
+    }
+    if (persistentQueue != null) {
+      persistentQueue.start(this::replay);
+    }
   }
 
   public CompletableResultCode export(Marshaler exportRequest, int numItems) {
@@ -66,14 +105,151 @@ public final class GrpcExporter {
 
     CompletableResultCode result = new CompletableResultCode();
 
+    MessageWriter messageWriter = exportRequest.toBinaryMessageWriter(marshalingExecutor);
+    if (!tryAcquireCircuit()) {
+      return rejectOpenCircuit(metricRecording, messageWriter, numItems);
+    }
+    long startNanos = circuitStartNanos();
     grpcSender.send(
-        exportRequest.toBinaryMessageWriter(),
-        grpcResponse -> onResponse(result, metricRecording, grpcResponse),
-        throwable -> onError(result, metricRecording, throwable));
+        messageWriter,
+        grpcResponse -> {
+          recordCircuitResult(startNanos, isRetryable(grpcResponse));
+          if (isRetryable(grpcResponse) && enqueue(messageWriter, numItems)) {
+            metricRecording.setGrpcStatusCode(grpcResponse.getStatusCode());
+            metricRecording.finishFailed(String.valueOf(grpcResponse.getStatusCode().getValue()));
+            result.succeed();
+            return;
+          }
+          onResponse(result, metricRecording, grpcResponse);
+        },
+        throwable -> {
+          recordCircuitResult(startNanos, true);
+          if (enqueue(messageWriter, numItems)) {
+            metricRecording.finishFailed(throwable);
+            result.succeed();
+            return;
+          }
+          onError(result, metricRecording, throwable);
+        });
 
     return result;
   }
 
+  private static boolean isRetryable(GrpcResponse grpcResponse) {
+    String statusCode = String.valueOf(grpcResponse.getStatusCode().getValue());
+    return RetryUtil.retryableGrpcStatusCodes().contains(statusCode)
+        && !RetryUtil.isGrpcMessageTooLarge(statusCode, grpcResponse.getStatusDescription());
+  }
+
+  private boolean tryAcquireCircuit() {
+    return circuitBreaker == null || circuitBreaker.tryAcquire();
+  }
+
+  private long circuitStartNanos() {
+    return circuitBreaker == null ? 0 : circuitBreaker.nanoTime();
+  }
+
+  private void recordCircuitResult(long startNanos, boolean failed) {
+    if (circuitBreaker == null) {
+      return;
+    }
+    if (failed) {
+      circuitBreaker.onFailure();
+    } else {
+      circuitBreaker.onSuccess(startNanos);
+    }
+  }
+
+  private void onCircuitBreakerStateChange(CircuitBreaker.State state) {
+    exporterMetrics.recordCircuitBreakerState(state);
+    if (state == CircuitBreaker.State.OPEN) {
+      logger.log(
+          Level.WARNING,
+          "Circuit breaker opened after repeated failures to export "
+              + type
+              + "s. Exports fail fast until a probe request succeeds.");
+    } else if (state == CircuitBreaker.State.CLOSED) {
+      logger.log(Level.INFO, "Circuit breaker closed, exporting " + type + "s again.");
+    }
+  }
+
+  private CompletableResultCode rejectOpenCircuit(
+      ExporterInstrumentation.Recording metricRecording,
+      MessageWriter messageWriter,
+      int numItems) {
+    metricRecording.finishFailed(CIRCUIT_BREAKER_OPEN);
+    if (persistentQueue == null) {
+      logCircuitOpen();
+      return CompletableResultCode.ofFailure();
+    }
+    // The caller is the thread calling export, such as the BatchSpanProcessor worker, which must
+    // not wait for the request to be serialized and written to disk.
+    CompletableResultCode queued = persistentQueue.offerAsync(messageWriter, numItems);
+    return queued.whenComplete(
+        () -> {
+          if (queued.isSuccess()) {
+            logQueued();
+          } else {
+            logCircuitOpen();
+          }
+        });
+  }
+
+  private void logCircuitOpen() {
+    logger.log(
+        Level.WARNING,
+        "Failed to export " + type + "s. The circuit breaker is open, the request was not sent.");
+  }
+
+  // Called from the sender's callback while the message writer is still valid, before the export
+  // result completes.
+  private boolean enqueue(MessageWriter messageWriter, int numItems) {
+    if (persistentQueue == null || !persistentQueue.offer(messageWriter, numItems)) {
+      return false;
+    }
+    logQueued();
+    return true;
+  }
+
+  private void logQueued() {
+    logger.log(
+        Level.WARNING,
+        "Failed to export "
+            + type
+            + "s, queued the request in the persistent export queue to retry later.");
+  }
+
+  private CompletableResultCode replay(byte[] request, int numItems) {
+    // Leave the request queued while the circuit breaker is open.
+    if (!tryAcquireCircuit()) {
+      return CompletableResultCode.ofFailure();
+    }
+    ExporterInstrumentation.Recording metricRecording =
+        exporterMetrics.startRecordingExport(numItems);
+    CompletableResultCode replayResult = new CompletableResultCode();
+    long startNanos = circuitStartNanos();
+    grpcSender.send(
+        PersistentExportQueue.messageWriter(request),
+        grpcResponse -> {
+          recordCircuitResult(startNanos, isRetryable(grpcResponse));
+          if (isRetryable(grpcResponse)) {
+            metricRecording.setGrpcStatusCode(grpcResponse.getStatusCode());
+            metricRecording.finishFailed(String.valueOf(grpcResponse.getStatusCode().getValue()));
+            replayResult.fail();
+            return;
+          }
+          // Done with the request either way, rejected requests would never succeed.
+          onResponse(new CompletableResultCode(), metricRecording, grpcResponse);
+          replayResult.succeed();
+        },
+        throwable -> {
+          recordCircuitResult(startNanos, true);
+          metricRecording.finishFailed(throwable);
+          replayResult.fail();
+        });
+    return replayResult;
+  }
+
   private void onResponse(
       CompletableResultCode result,
       ExporterInstrumentation.Recording metricRecording,
@@ -84,6 +260,7 @@ public final class GrpcExporter {
 
     if (statusCode == GrpcStatusCode.OK) {
       metricRecording.finishSuccessful();
+      logPartialSuccess(grpcResponse.getResponseMessage());
       result.succeed();
       return;
     }
@@ -120,6 +297,19 @@ public final class GrpcExporter {
     result.failExceptionally(FailedExportException.grpcFailedWithResponse(grpcResponse));
   }
 
+  private void logPartialSuccess(byte[] responseMessage) {
+    String partialSuccess;
+    try {
+      partialSuccess = GrpcExporterUtil.getPartialSuccessMessage(responseMessage, type);
+    } catch (IOException e) {
+      // The request succeeded, an unexpected response is not worth a warning.
+      return;
+    }
+    if (partialSuccess != null) {
+      logger.log(Level.WARNING, partialSuccess);
+    }
+  }
+
   private void onError(
       CompletableResultCode result,
       ExporterInstrumentation.Recording metricRecording,
@@ -138,6 +328,9 @@ public final class GrpcExporter {
       logger.log(Level.INFO, "Calling shutdown() multiple times.");
       return CompletableResultCode.ofSuccess();
     }
+    if (persistentQueue != null) {
+      persistentQueue.close();
+    }
     return grpcSender.shutdown();
   }
 }
@@ -11,8 +11,11 @@ import io.grpc.ManagedChannel;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.common.ComponentLoader;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.exporter.internal.EndpointUtil;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.exporter.internal.TlsConfigHelper;
+import io.opentelemetry.exporter.internal.otlp.RequestSizeLimiter;
 import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.Compressor;
 import io.opentelemetry.sdk.common.export.GrpcSender;
@@ -21,6 +24,7 @@ import io.opentelemetry.sdk.common.export.RetryPolicy;
 import io.opentelemetry.sdk.common.internal.ComponentId;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -68,6 +73,14 @@ public class GrpcExporterBuilder {
   private ComponentLoader componentLoader =
       ComponentLoader.forClassLoader(GrpcExporterBuilder.class.getClassLoader());
   @Nullable private ExecutorService executorService;
+  @Nullable private Path persistentQueueDirectory;
+  private long persistentQueueMaxSizeBytes;
+  private int maxRequestSize;
+  @Nullable private Executor marshalingExecutor;
+  private int circuitBreakerFailureThreshold;
+  private Duration circuitBreakerLatencyThreshold = Duration.ZERO;
+  private Duration circuitBreakerOpenDuration = Duration.ZERO;
+  private boolean sharedTransport;
 
   // Use Object type since gRPC may not be on the classpath.
   @Nullable private Object grpcChannel;
@@ -170,6 +183,71 @@ public class GrpcExporterBuilder {
     return this;
   }
 
+  /**
+   * Keeps requests which still fail after all retries in {@code directory}, up to {@code
+   * maxSizeBytes}, and sends them again once the endpoint recovers. {@link #build()} throws {@link
+   * IllegalStateException} while another exporter uses the directory.
+   */
+  public GrpcExporterBuilder setPersistentQueue(Path directory, long maxSizeBytes) {
+    this.persistentQueueDirectory = directory;
+    this.persistentQueueMaxSizeBytes = maxSizeBytes;
+    return this;
+  }
+
+  /**
+   * Splits batches into several requests of at most {@code maxRequestSizeBytes} serialized bytes.
+   * Zero disables splitting.
+   */
+  public GrpcExporterBuilder setMaxRequestSize(int maxRequestSizeBytes) {
+    this.maxRequestSize = maxRequestSizeBytes;
+    return this;
+  }
+
+  /**
+   * Serializes large requests on {@code executor}, splitting the items of each scope into chunks
+   * encoded concurrently.
+   */
+  public GrpcExporterBuilder setMarshalingExecutor(Executor executor) {
+    this.marshalingExecutor = executor;
+    return this;
+  }
+
+  /**
+   * Opens a circuit breaker, failing exports fast, after {@code failureThreshold} consecutive
+   * requests failed or took longer than {@code latencyThreshold}, and probes the endpoint again
+   * after {@code openDuration}.
+   */
+  public GrpcExporterBuilder setCircuitBreaker(
+      int failureThreshold, Duration latencyThreshold, Duration openDuration) {
+    this.circuitBreakerFailureThreshold = failureThreshold;
+    this.circuitBreakerLatencyThreshold = latencyThreshold;
+    this.circuitBreakerOpenDuration = openDuration;
+    return this;
+  }
+
+  /**
+   * Shares the executor and connection pool of the sender with the other exporters built with a
+   * shared transport, and with the same executor service if one is set. The transport is shut down
+   * with the last exporter using it.
+   */
+  public GrpcExporterBuilder setSharedTransport(boolean sharedTransport) {
+    this.sharedTransport = sharedTransport;
+    return this;
+  }
+
+  /**
+   * Returns a new {@link RequestSizeLimiter} for an exporter built from this builder, or {@code
+   * null} if requests are not limited. The limit is lowered while requests take longer than half
+   * the timeout.
+   */
+  @Nullable
+  public RequestSizeLimiter createRequestSizeLimiter() {
+    if (maxRequestSize <= 0) {
+      return null;
+    }
+    return new RequestSizeLimiter(maxRequestSize, timeout.toNanos() / 2);
+  }
+
   @SuppressWarnings("BuilderReturnThis")
   public GrpcExporterBuilder copy() {
     GrpcExporterBuilder copy =
@@ -189,6 +267,14 @@ public class GrpcExporterBuilder {
     copy.internalTelemetryVersion = internalTelemetryVersion;
     copy.grpcChannel = grpcChannel;
     copy.componentLoader = componentLoader;
+    copy.persistentQueueDirectory = persistentQueueDirectory;
+    copy.persistentQueueMaxSizeBytes = persistentQueueMaxSizeBytes;
+    copy.maxRequestSize = maxRequestSize;
+    copy.marshalingExecutor = marshalingExecutor;
+    copy.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    copy.circuitBreakerLatencyThreshold = circuitBreakerLatencyThreshold;
+    copy.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    copy.sharedTransport = sharedTransport;
     return copy;
   }
 
@@ -214,33 +300,70 @@ public class GrpcExporterBuilder {
           return result;
         };
 
-    boolean isPlainHttp = "http".equals(endpoint.getScheme());
-    GrpcSenderProvider grpcSenderProvider = resolveGrpcSenderProvider(componentLoader);
-    GrpcSender grpcSender =
-        grpcSenderProvider.createSender(
-            ImmutableGrpcSenderConfig.create(
-                endpoint,
-                fullMethodName,
-                compressor,
-                timeout,
-                connectTimeout,
-                headerSupplier,
-                retryPolicy,
-                isPlainHttp ? null : tlsConfigHelper.getSslContext(),
-                isPlainHttp ? null : tlsConfigHelper.getTrustManager(),
-                executorService,
-                grpcChannel,
-                // 4mb to align with spec guidance - even though we don't do anything with the
-                // response today, we will so better to have future-looking memory profile
-                4 * 1024L * 1024L));
-    LOGGER.log(Level.FINE, "Using GrpcSender: " + grpcSender.getClass().getName());
-
-    return new GrpcExporter(
-        grpcSender,
-        internalTelemetryVersion,
-        ComponentId.generateLazy(exporterType),
-        meterProviderSupplier,
-        endpoint);
+    // Opened first, so that nothing is left to close if the directory is in use.
+    PersistentExportQueue persistentQueue =
+        persistentQueueDirectory == null
+            ? null
+            : PersistentExportQueue.tryOpen(persistentQueueDirectory, persistentQueueMaxSizeBytes);
+
+    // Released if building fails below, so that the directory is not left locked and the shared
+    // transport not referenced by an exporter which does not exist.
+    ExecutorService senderExecutorService = null;
+    GrpcSender grpcSender = null;
+    try {
+      boolean isPlainHttp = "http".equals(endpoint.getScheme());
+      GrpcSenderProvider grpcSenderProvider = resolveGrpcSenderProvider(componentLoader);
+      // Acquired before creating the sender, which attaches its client to the shared executor.
+      senderExecutorService =
+          sharedTransport ? SharedTransport.acquire(executorService) : executorService;
+      grpcSender =
+          grpcSenderProvider.createSender(
+              ImmutableGrpcSenderConfig.create(
+                  endpoint,
+                  fullMethodName,
+                  compressor,
+                  timeout,
+                  connectTimeout,
+                  headerSupplier,
+                  retryPolicy,
+                  isPlainHttp ? null : tlsConfigHelper.getSslContext(),
+                  isPlainHttp ? null : tlsConfigHelper.getTrustManager(),
+                  senderExecutorService,
+                  sharedTransport,
+                  grpcChannel,
+                  // 4mb to align with spec guidance - even though we don't do anything with the
+                  // response today, we will so better to have future-looking memory profile
+                  4 * 1024L * 1024L));
+      LOGGER.log(Level.FINE, "Using GrpcSender: " + grpcSender.getClass().getName());
+      if (sharedTransport && senderExecutorService != null) {
+        grpcSender = SharedTransport.releaseOnShutdown(grpcSender, senderExecutorService);
+      }
+
+      return new GrpcExporter(
+          grpcSender,
+          internalTelemetryVersion,
+          ComponentId.generateLazy(exporterType),
+          meterProviderSupplier,
+          endpoint,
+          persistentQueue,
+          marshalingExecutor,
+          circuitBreakerFailureThreshold > 0
+              ? new CircuitBreaker(
+                  circuitBreakerFailureThreshold,
+                  circuitBreakerLatencyThreshold,
+                  circuitBreakerOpenDuration)
+              : null);
+    } catch (RuntimeException e) {
+      if (grpcSender != null) {
+        grpcSender.shutdown();
+      } else if (sharedTransport && senderExecutorService != null) {
+        SharedTransport.release(senderExecutorService);
+      }
+      if (persistentQueue != null) {
+        persistentQueue.close();
+      }
+      throw e;
+    }
   }
 
   public String toString(boolean includePrefixAndSuffix) {
@@ -272,6 +395,24 @@ public class GrpcExporterBuilder {
     if (executorService != null) {
       joiner.add("executorService=" + executorService);
     }
+    if (persistentQueueDirectory != null) {
+      joiner.add("persistentQueueDirectory=" + persistentQueueDirectory);
+      joiner.add("persistentQueueMaxSizeBytes=" + persistentQueueMaxSizeBytes);
+    }
+    if (maxRequestSize > 0) {
+      joiner.add("maxRequestSize=" + maxRequestSize);
+    }
+    if (marshalingExecutor != null) {
+      joiner.add("marshalingExecutor=" + marshalingExecutor);
+    }
+    if (circuitBreakerFailureThreshold > 0) {
+      joiner.add("circuitBreakerFailureThreshold=" + circuitBreakerFailureThreshold);
+      joiner.add("circuitBreakerLatencyThresholdNanos=" + circuitBreakerLatencyThreshold.toNanos());
+      joiner.add("circuitBreakerOpenDurationNanos=" + circuitBreakerOpenDuration.toNanos());
+    }
+    if (sharedTransport) {
+      joiner.add("sharedTransport=true");
+    }
     joiner.add("exporterType=" + exporterType.toString());
     joiner.add("internalTelemetrySchemaVersion=" + internalTelemetryVersion);
     // Note: omit tlsConfigHelper because we can't log the configuration in any readable way
@@ -84,4 +84,65 @@ public final class GrpcExporterUtil {
     // Serialized Status proto had no message, proto always defaults to empty string when not found.
     return "";
   }
+
+  /**
+   * Parses the partial success of a serialized OTLP export response, such as an {@code
+   * ExportTraceServiceResponse}, returning a description of the items the server rejected, or
+   * null if it accepted all of them. Rejected items must not be resubmitted.
+   */
+  @Nullable
+  public static String getPartialSuccessMessage(byte[] serializedResponse, String type)
+      throws IOException {
+    CodedInputStream input = CodedInputStream.newInstance(serializedResponse);
+    while (true) {
+      int tag = input.readTag();
+      switch (tag) {
+        case 0:
+          return null;
+        case 10:
+          return parsePartialSuccess(input.readByteArray(), type);
+        default:
+          input.skipField(tag);
+          break;
+      }
+    }
+  }
+
+  @Nullable
+  private static String parsePartialSuccess(byte[] serializedPartialSuccess, String type)
+      throws IOException {
+    CodedInputStream input = CodedInputStream.newInstance(serializedPartialSuccess);
+    long rejected = 0;
+    String errorMessage = "";
+    boolean done = false;
+    while (!done) {
+      int tag = input.readTag();
+      switch (tag) {
+        case 0:
+          done = true;
+          break;
+        case 8:
+          rejected = input.readInt64();
+          break;
+        case 18:
+          errorMessage = input.readStringRequireUtf8();
+          break;
+        default:
+          input.skipField(tag);
+          break;
+      }
+    }
+    if (rejected == 0 && errorMessage.isEmpty()) {
+      return null;
+    }
+    if (rejected == 0) {
+      return "Exported " + type + "s with a warning from the server: " + errorMessage;
+    }
+    return "Failed to export "
+        + rejected
+        + " "
+        + type
+        + "s. Server rejected them with a partial success. Error message: "
+        + errorMessage;
+  }
 }
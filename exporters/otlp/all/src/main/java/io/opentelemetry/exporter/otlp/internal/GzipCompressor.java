@@ -5,20 +5,55 @@
 
 package io.opentelemetry.exporter.otlp.internal;
 
+import static io.opentelemetry.api.internal.Utils.checkArgument;
+
 import io.opentelemetry.sdk.common.export.Compressor;
+import io.opentelemetry.sdk.common.internal.BoundedObjectPool;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.annotation.Nullable;
 
 /**
  * Gzip {@link Compressor}.
  *
+ * <p>Unlike {@link java.util.zip.GZIPOutputStream}, which allocates a native {@link Deflater} per
+ * stream that is only released by garbage collection, the {@link Deflater}s and their buffers are
+ * pooled and reused across requests.
+ *
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
  */
 public final class GzipCompressor implements Compressor {
 
-  public GzipCompressor() {}
+  private static final int BUFFER_SIZE = 8192;
+
+  // Same header as java.util.zip.GZIPOutputStream: magic, CM=deflate, no flags, no mtime, no XFL,
+  // OS unknown.
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+  private final int level;
+  private final BoundedObjectPool<DeflaterState> pool = new BoundedObjectPool<>();
+
+  /** Creates a compressor with the {@link Deflater#DEFAULT_COMPRESSION default} level. */
+  public GzipCompressor() {
+    this(Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Creates a compressor with the given level, from {@link Deflater#BEST_SPEED} to {@link
+   * Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}. Lower levels trade
+   * compression ratio for less CPU.
+   */
+  public GzipCompressor(int level) {
+    checkArgument(
+        level == Deflater.DEFAULT_COMPRESSION
+            || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+        "level must be -1 or between 0 and 9");
+    this.level = level;
+  }
 
   @Override
   public String getEncoding() {
@@ -27,6 +62,124 @@ public final class GzipCompressor implements Compressor {
 
   @Override
   public OutputStream compress(OutputStream outputStream) throws IOException {
-    return new GZIPOutputStream(outputStream);
+    outputStream.write(HEADER);
+    DeflaterState state = pool.poll();
+    if (state == null) {
+      state = new DeflaterState(level);
+    }
+    return new GzipOutputStream(outputStream, state);
+  }
+
+  private void release(DeflaterState state) {
+    state.reset();
+    if (!pool.offer(state)) {
+      // Released right away rather than by garbage collection.
+      state.deflater.end();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "GzipCompressor{level=" + level + "}";
+  }
+
+  /** A {@link Deflater} with the buffers and checksum used by one stream at a time. */
+  private static final class DeflaterState {
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] singleByte = new byte[1];
+
+    private DeflaterState(int level) {
+      // nowrap, the gzip header and trailer are written by GzipOutputStream.
+      deflater = new Deflater(level, true);
+    }
+
+    private void reset() {
+      deflater.reset();
+      crc.reset();
+    }
+  }
+
+  private final class GzipOutputStream extends FilterOutputStream {
+    @Nullable private DeflaterState state;
+    private int uncompressedSize;
+
+    private GzipOutputStream(OutputStream out, DeflaterState state) {
+      super(out);
+      this.state = state;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      DeflaterState current = current();
+      current.singleByte[0] = (byte) b;
+      write(current.singleByte, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      DeflaterState current = current();
+      if (len == 0) {
+        return;
+      }
+      current.crc.update(b, off, len);
+      uncompressedSize += len;
+      Deflater deflater = current.deflater;
+      deflater.setInput(b, off, len);
+      // Drain fully, the deflater keeps a reference to b until it needs more input.
+      while (!deflater.needsInput()) {
+        deflate(current);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      DeflaterState current = state;
+      if (current == null) {
+        return;
+      }
+      state = null;
+      try {
+        Deflater deflater = current.deflater;
+        deflater.finish();
+        while (!deflater.finished()) {
+          deflate(current);
+        }
+        writeTrailer(current);
+      } finally {
+        release(current);
+        out.close();
+      }
+    }
+
+    private void deflate(DeflaterState current) throws IOException {
+      int length = current.deflater.deflate(current.buffer, 0, current.buffer.length);
+      if (length > 0) {
+        out.write(current.buffer, 0, length);
+      }
+    }
+
+    private void writeTrailer(DeflaterState current) throws IOException {
+      byte[] trailer = current.buffer;
+      writeIntLe(trailer, 0, (int) current.crc.getValue());
+      writeIntLe(trailer, 4, uncompressedSize);
+      out.write(trailer, 0, 8);
+    }
+
+    private DeflaterState current() throws IOException {
+      DeflaterState current = state;
+      if (current == null) {
+        throw new IOException("Stream closed");
+      }
+      return current;
+    }
+  }
+
+  private static void writeIntLe(byte[] buffer, int offset, int value) {
+    buffer[offset] = (byte) value;
+    buffer[offset + 1] = (byte) (value >> 8);
+    buffer[offset + 2] = (byte) (value >> 16);
+    buffer[offset + 3] = (byte) (value >> 24);
   }
 }
@@ -6,7 +6,9 @@
 package io.opentelemetry.exporter.otlp.internal;
 
 import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.exporter.internal.FailedExportException;
+import io.opentelemetry.exporter.internal.RetryUtil;
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
 import io.opentelemetry.exporter.internal.metrics.ExporterInstrumentation;
 import io.opentelemetry.sdk.common.CompletableResultCode;
@@ -19,6 +21,7 @@ import io.opentelemetry.sdk.common.internal.ThrottlingLogger;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -35,6 +38,7 @@ import javax.annotation.Nullable;
 public final class HttpExporter {
   // Limit logged response body text to avoid flooding warnings with large payloads.
   private static final int MAX_RESPONSE_BODY_LOG_LENGTH = 1024;
+  private static final String CIRCUIT_BREAKER_OPEN = "circuit_breaker_open";
 
   private static final Logger internalLogger = Logger.getLogger(HttpExporter.class.getName());
 
@@ -45,6 +49,9 @@ public final class HttpExporter {
   private final HttpSender httpSender;
   private final ExporterInstrumentation exporterMetrics;
   private final boolean exportAsJson;
+  @Nullable private final PersistentExportQueue persistentQueue;
+  @Nullable private final Executor marshalingExecutor;
+  @Nullable private final CircuitBreaker circuitBreaker;
 
   public HttpExporter(
       StandardComponentId componentId,
@@ -53,12 +60,43 @@ public final class HttpExporter {
       InternalTelemetryVersion internalTelemetryVersion,
       URI endpoint,
       boolean exportAsJson) {
+    this(
+        componentId,
+        httpSender,
+        meterProviderSupplier,
+        internalTelemetryVersion,
+        endpoint,
+        exportAsJson,
+        null,
+        null,
+        null);
+  }
+
+  HttpExporter(
+      StandardComponentId componentId,
+      HttpSender httpSender,
+      Supplier<MeterProvider> meterProviderSupplier,
+      InternalTelemetryVersion internalTelemetryVersion,
+      URI endpoint,
+      boolean exportAsJson,
+      @Nullable PersistentExportQueue persistentQueue,
+      @Nullable Executor marshalingExecutor,
+      @Nullable CircuitBreaker circuitBreaker) {
     this.type = componentId.getStandardType().signal().logFriendlyName();
     this.httpSender = httpSender;
     this.exporterMetrics =
         new ExporterInstrumentation(
             internalTelemetryVersion, meterProviderSupplier, componentId, endpoint);
     this.exportAsJson = exportAsJson;
+    this.persistentQueue = persistentQueue;
+    this.marshalingExecutor = marshalingExecutor;
+    this.circuitBreaker = circuitBreaker;
+    if (circuitBreaker != null) {
+      circuitBreaker.setStateListener(this::onCircuitBreakerStateChange);
+    }
+    if (persistentQueue != null) {
+      persistentQueue.start(this::replay);
+    }
   }
 
   public CompletableResultCode export(Marshaler exportRequest, int numItems) {
@@ -71,16 +109,157 @@ public final class HttpExporter {
 
     CompletableResultCode result = new CompletableResultCode();
     MessageWriter messageWriter =
-        exportAsJson ? exportRequest.toJsonMessageWriter() : exportRequest.toBinaryMessageWriter();
+        exportAsJson
+            ? exportRequest.toJsonMessageWriter()
+            : exportRequest.toBinaryMessageWriter(marshalingExecutor);
 
+    if (!tryAcquireCircuit()) {
+      return rejectOpenCircuit(metricRecording, messageWriter, numItems);
+    }
+    long startNanos = circuitStartNanos();
     httpSender.send(
         messageWriter,
-        httpResponse -> onResponse(result, metricRecording, httpResponse),
-        throwable -> onError(result, metricRecording, throwable));
+        httpResponse -> {
+          recordCircuitResult(startNanos, isCircuitFailure(httpResponse));
+          if (isRetryable(httpResponse) && enqueue(messageWriter, numItems)) {
+            metricRecording.setHttpStatusCode(httpResponse.getStatusCode());
+            metricRecording.finishFailed(String.valueOf(httpResponse.getStatusCode()));
+            result.succeed();
+            return;
+          }
+          onResponse(result, metricRecording, httpResponse);
+        },
+        throwable -> {
+          recordCircuitResult(startNanos, true);
+          if (enqueue(messageWriter, numItems)) {
+            metricRecording.finishFailed(throwable);
+            result.succeed();
+            return;
+          }
+          onError(result, metricRecording, throwable);
+        });
 
     return result;
   }
 
+  private static boolean isRetryable(HttpResponse httpResponse) {
+    return RetryUtil.retryableHttpResponseCodes().contains(httpResponse.getStatusCode());
+  }
+
+  // Server errors and throttling indicate a degraded endpoint, unlike rejected requests.
+  private static boolean isCircuitFailure(HttpResponse httpResponse) {
+    return httpResponse.getStatusCode() >= 500 || isRetryable(httpResponse);
+  }
+
+  private boolean tryAcquireCircuit() {
+    return circuitBreaker == null || circuitBreaker.tryAcquire();
+  }
+
+  private long circuitStartNanos() {
+    return circuitBreaker == null ? 0 : circuitBreaker.nanoTime();
+  }
+
+  private void recordCircuitResult(long startNanos, boolean failed) {
+    if (circuitBreaker == null) {
+      return;
+    }
+    if (failed) {
+      circuitBreaker.onFailure();
+    } else {
+      circuitBreaker.onSuccess(startNanos);
+    }
+  }
+
+  private void onCircuitBreakerStateChange(CircuitBreaker.State state) {
+    exporterMetrics.recordCircuitBreakerState(state);
+    if (state == CircuitBreaker.State.OPEN) {
+      logger.log(
+          Level.WARNING,
+          "Circuit breaker opened after repeated failures to export "
+              + type
+              + "s. Exports fail fast until a probe request succeeds.");
+    } else if (state == CircuitBreaker.State.CLOSED) {
+      logger.log(Level.INFO, "Circuit breaker closed, exporting " + type + "s again.");
+    }
+  }
+
+  private CompletableResultCode rejectOpenCircuit(
+      ExporterInstrumentation.Recording metricRecording,
+      MessageWriter messageWriter,
+      int numItems) {
+    metricRecording.finishFailed(CIRCUIT_BREAKER_OPEN);
+    if (persistentQueue == null) {
+      logCircuitOpen();
+      return CompletableResultCode.ofFailure();
+    }
+    // The caller is the thread calling export, such as the BatchSpanProcessor worker, which must
+    // not wait for the request to be serialized and written to disk.
+    CompletableResultCode queued = persistentQueue.offerAsync(messageWriter, numItems);
+    return queued.whenComplete(
+        () -> {
+          if (queued.isSuccess()) {
+            logQueued();
+          } else {
+            logCircuitOpen();
+          }
+        });
+  }
+
+  private void logCircuitOpen() {
+    logger.log(
+        Level.WARNING,
+        "Failed to export " + type + "s. The circuit breaker is open, the request was not sent.");
+  }
+
+  // Called from the sender's callback while the message writer is still valid, before the export
+  // result completes.
+  private boolean enqueue(MessageWriter messageWriter, int numItems) {
+    if (persistentQueue == null || !persistentQueue.offer(messageWriter, numItems)) {
+      return false;
+    }
+    logQueued();
+    return true;
+  }
+
+  private void logQueued() {
+    logger.log(
+        Level.WARNING,
+        "Failed to export "
+            + type
+            + "s, queued the request in the persistent export queue to retry later.");
+  }
+
+  private CompletableResultCode replay(byte[] request, int numItems) {
+    // Leave the request queued while the circuit breaker is open.
+    if (!tryAcquireCircuit()) {
+      return CompletableResultCode.ofFailure();
+    }
+    ExporterInstrumentation.Recording metricRecording =
+        exporterMetrics.startRecordingExport(numItems);
+    CompletableResultCode replayResult = new CompletableResultCode();
+    long startNanos = circuitStartNanos();
+    httpSender.send(
+        PersistentExportQueue.messageWriter(request),
+        httpResponse -> {
+          recordCircuitResult(startNanos, isCircuitFailure(httpResponse));
+          if (isRetryable(httpResponse)) {
+            metricRecording.setHttpStatusCode(httpResponse.getStatusCode());
+            metricRecording.finishFailed(String.valueOf(httpResponse.getStatusCode()));
+            replayResult.fail();
+            return;
+          }
+          // Done with the request either way, rejected requests would never succeed.
+          onResponse(new CompletableResultCode(), metricRecording, httpResponse);
+          replayResult.succeed();
+        },
+        throwable -> {
+          recordCircuitResult(startNanos, true);
+          metricRecording.finishFailed(throwable);
+          replayResult.fail();
+        });
+    return replayResult;
+  }
+
   private void onResponse(
       CompletableResultCode result,
       ExporterInstrumentation.Recording metricRecording,
@@ -91,6 +270,7 @@ public final class HttpExporter {
 
     if (statusCode >= 200 && statusCode < 300) {
       metricRecording.finishSuccessful();
+      logPartialSuccess(httpResponse.getResponseBody());
       result.succeed();
       return;
     }
@@ -113,6 +293,23 @@ public final class HttpExporter {
     result.failExceptionally(FailedExportException.httpFailedWithResponse(httpResponse));
   }
 
+  private void logPartialSuccess(@Nullable byte[] responseBody) {
+    // Partial success is only parsed from protobuf responses.
+    if (exportAsJson || responseBody == null) {
+      return;
+    }
+    String partialSuccess;
+    try {
+      partialSuccess = GrpcExporterUtil.getPartialSuccessMessage(responseBody, type);
+    } catch (IOException e) {
+      // The request succeeded, an unexpected response is not worth a warning.
+      return;
+    }
+    if (partialSuccess != null) {
+      logger.log(Level.WARNING, partialSuccess);
+    }
+  }
+
   private void onError(
       CompletableResultCode result,
       ExporterInstrumentation.Recording metricRecording,
@@ -128,6 +325,9 @@ public final class HttpExporter {
       logger.log(Level.INFO, "Calling shutdown() multiple times.");
       return CompletableResultCode.ofSuccess();
     }
+    if (persistentQueue != null) {
+      persistentQueue.close();
+    }
     return httpSender.shutdown();
   }
 
@@ -8,9 +8,12 @@ package io.opentelemetry.exporter.otlp.internal;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.common.ComponentLoader;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.exporter.internal.EndpointUtil;
 import io.opentelemetry.exporter.internal.SenderUtil;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.exporter.internal.TlsConfigHelper;
+import io.opentelemetry.exporter.internal.otlp.RequestSizeLimiter;
 import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.Compressor;
 import io.opentelemetry.sdk.common.export.HttpSender;
@@ -20,6 +23,7 @@ import io.opentelemetry.sdk.common.export.RetryPolicy;
 import io.opentelemetry.sdk.common.internal.ComponentId;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import java.net.URI;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -28,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -69,6 +74,14 @@ public final class HttpExporterBuilder {
   private ComponentLoader componentLoader =
       ComponentLoader.forClassLoader(HttpExporterBuilder.class.getClassLoader());
   @Nullable private ExecutorService executorService;
+  @Nullable private Path persistentQueueDirectory;
+  private long persistentQueueMaxSizeBytes;
+  private int maxRequestSize;
+  @Nullable private Executor marshalingExecutor;
+  private int circuitBreakerFailureThreshold;
+  private Duration circuitBreakerLatencyThreshold = Duration.ZERO;
+  private Duration circuitBreakerOpenDuration = Duration.ZERO;
+  private boolean sharedTransport;
 
   public HttpExporterBuilder(
       StandardComponentId.ExporterType exporterType, String defaultEndpoint) {
@@ -167,6 +180,71 @@ public final class HttpExporterBuilder {
     return this;
   }
 
+  /**
+   * Keeps requests which still fail after all retries in {@code directory}, up to {@code
+   * maxSizeBytes}, and sends them again once the endpoint recovers. {@link #build()} throws {@link
+   * IllegalStateException} while another exporter uses the directory.
+   */
+  public HttpExporterBuilder setPersistentQueue(Path directory, long maxSizeBytes) {
+    this.persistentQueueDirectory = directory;
+    this.persistentQueueMaxSizeBytes = maxSizeBytes;
+    return this;
+  }
+
+  /**
+   * Splits batches into several requests of at most {@code maxRequestSizeBytes} serialized bytes.
+   * Zero disables splitting.
+   */
+  public HttpExporterBuilder setMaxRequestSize(int maxRequestSizeBytes) {
+    this.maxRequestSize = maxRequestSizeBytes;
+    return this;
+  }
+
+  /**
+   * Serializes large requests on {@code executor}, splitting the items of each scope into chunks
+   * encoded concurrently.
+   */
+  public HttpExporterBuilder setMarshalingExecutor(Executor executor) {
+    this.marshalingExecutor = executor;
+    return this;
+  }
+
+  /**
+   * Opens a circuit breaker, failing exports fast, after {@code failureThreshold} consecutive
+   * requests failed or took longer than {@code latencyThreshold}, and probes the endpoint again
+   * after {@code openDuration}.
+   */
+  public HttpExporterBuilder setCircuitBreaker(
+      int failureThreshold, Duration latencyThreshold, Duration openDuration) {
+    this.circuitBreakerFailureThreshold = failureThreshold;
+    this.circuitBreakerLatencyThreshold = latencyThreshold;
+    this.circuitBreakerOpenDuration = openDuration;
+    return this;
+  }
+
+  /**
+   * Shares the executor and connection pool of the sender with the other exporters built with a
+   * shared transport, and with the same executor service if one is set. The transport is shut down
+   * with the last exporter using it.
+   */
+  public HttpExporterBuilder setSharedTransport(boolean sharedTransport) {
+    this.sharedTransport = sharedTransport;
+    return this;
+  }
+
+  /**
+   * Returns a new {@link RequestSizeLimiter} for an exporter built from this builder, or {@code
+   * null} if requests are not limited. The limit is lowered while requests take longer than half
+   * the timeout.
+   */
+  @Nullable
+  public RequestSizeLimiter createRequestSizeLimiter() {
+    if (maxRequestSize <= 0) {
+      return null;
+    }
+    return new RequestSizeLimiter(maxRequestSize, timeout.toNanos() / 2);
+  }
+
   public HttpExporterBuilder exportAsJson() {
     this.exportAsJson = true;
     exporterType = mapToJsonTypeIfPossible(exporterType);
@@ -204,6 +282,14 @@ public final class HttpExporterBuilder {
     copy.internalTelemetryVersion = internalTelemetryVersion;
     copy.proxyOptions = proxyOptions;
     copy.componentLoader = componentLoader;
+    copy.persistentQueueDirectory = persistentQueueDirectory;
+    copy.persistentQueueMaxSizeBytes = persistentQueueMaxSizeBytes;
+    copy.maxRequestSize = maxRequestSize;
+    copy.marshalingExecutor = marshalingExecutor;
+    copy.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    copy.circuitBreakerLatencyThreshold = circuitBreakerLatencyThreshold;
+    copy.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    copy.sharedTransport = sharedTransport;
     return copy;
   }
 
@@ -229,34 +315,71 @@ public final class HttpExporterBuilder {
           return result;
         };
 
-    boolean isPlainHttp = endpoint.getScheme().equals("http");
-    HttpSenderProvider httpSenderProvider = SenderUtil.resolveHttpSenderProvider(componentLoader);
-    HttpSender httpSender =
-        httpSenderProvider.createSender(
-            ImmutableHttpSenderConfig.create(
-                endpoint,
-                exportAsJson ? "application/json" : "application/x-protobuf",
-                compressor,
-                timeout,
-                connectTimeout,
-                headerSupplier,
-                proxyOptions,
-                retryPolicy,
-                isPlainHttp ? null : tlsConfigHelper.getSslContext(),
-                isPlainHttp ? null : tlsConfigHelper.getTrustManager(),
-                executorService,
-                // 4mb to align with spec guidance - even though we don't do anything with the
-                // response today, we will so better to have future-looking memory profile
-                4 * 1024L * 1024L));
-    LOGGER.log(Level.FINE, "Using HttpSender: " + httpSender.getClass().getName());
-
-    return new HttpExporter(
-        ComponentId.generateLazy(exporterType),
-        httpSender,
-        meterProviderSupplier,
-        internalTelemetryVersion,
-        endpoint,
-        exportAsJson);
+    // Opened first, so that nothing is left to close if the directory is in use.
+    PersistentExportQueue persistentQueue =
+        persistentQueueDirectory == null
+            ? null
+            : PersistentExportQueue.tryOpen(persistentQueueDirectory, persistentQueueMaxSizeBytes);
+
+    // Released if building fails below, so that the directory is not left locked and the shared
+    // transport not referenced by an exporter which does not exist.
+    ExecutorService senderExecutorService = null;
+    HttpSender httpSender = null;
+    try {
+      boolean isPlainHttp = endpoint.getScheme().equals("http");
+      HttpSenderProvider httpSenderProvider = SenderUtil.resolveHttpSenderProvider(componentLoader);
+      // Acquired before creating the sender, which attaches its client to the shared executor.
+      senderExecutorService =
+          sharedTransport ? SharedTransport.acquire(executorService) : executorService;
+      httpSender =
+          httpSenderProvider.createSender(
+              ImmutableHttpSenderConfig.create(
+                  endpoint,
+                  exportAsJson ? "application/json" : "application/x-protobuf",
+                  compressor,
+                  timeout,
+                  connectTimeout,
+                  headerSupplier,
+                  proxyOptions,
+                  retryPolicy,
+                  isPlainHttp ? null : tlsConfigHelper.getSslContext(),
+                  isPlainHttp ? null : tlsConfigHelper.getTrustManager(),
+                  senderExecutorService,
+                  sharedTransport,
+                  // 4mb to align with spec guidance - even though we don't do anything with the
+                  // response today, we will so better to have future-looking memory profile
+                  4 * 1024L * 1024L));
+      LOGGER.log(Level.FINE, "Using HttpSender: " + httpSender.getClass().getName());
+      if (sharedTransport && senderExecutorService != null) {
+        httpSender = SharedTransport.releaseOnShutdown(httpSender, senderExecutorService);
+      }
+
+      return new HttpExporter(
+          ComponentId.generateLazy(exporterType),
+          httpSender,
+          meterProviderSupplier,
+          internalTelemetryVersion,
+          endpoint,
+          exportAsJson,
+          persistentQueue,
+          marshalingExecutor,
+          circuitBreakerFailureThreshold > 0
+              ? new CircuitBreaker(
+                  circuitBreakerFailureThreshold,
+                  circuitBreakerLatencyThreshold,
+                  circuitBreakerOpenDuration)
+              : null);
+    } catch (RuntimeException e) {
+      if (httpSender != null) {
+        httpSender.shutdown();
+      } else if (sharedTransport && senderExecutorService != null) {
+        SharedTransport.release(senderExecutorService);
+      }
+      if (persistentQueue != null) {
+        persistentQueue.close();
+      }
+      throw e;
+    }
   }
 
   public String toString(boolean includePrefixAndSuffix) {
@@ -286,6 +409,24 @@ public final class HttpExporterBuilder {
     if (executorService != null) {
       joiner.add("executorService=" + executorService);
     }
+    if (persistentQueueDirectory != null) {
+      joiner.add("persistentQueueDirectory=" + persistentQueueDirectory);
+      joiner.add("persistentQueueMaxSizeBytes=" + persistentQueueMaxSizeBytes);
+    }
+    if (maxRequestSize > 0) {
+      joiner.add("maxRequestSize=" + maxRequestSize);
+    }
+    if (marshalingExecutor != null) {
+      joiner.add("marshalingExecutor=" + marshalingExecutor);
+    }
+    if (circuitBreakerFailureThreshold > 0) {
+      joiner.add("circuitBreakerFailureThreshold=" + circuitBreakerFailureThreshold);
+      joiner.add("circuitBreakerLatencyThresholdNanos=" + circuitBreakerLatencyThreshold.toNanos());
+      joiner.add("circuitBreakerOpenDurationNanos=" + circuitBreakerOpenDuration.toNanos());
+    }
+    if (sharedTransport) {
+      joiner.add("sharedTransport=true");
+    }
     joiner.add("exporterType=" + exporterType);
     joiner.add("internalTelemetrySchemaVersion=" + internalTelemetryVersion);
     // Note: omit tlsConfigHelper because we can't log the configuration in any readable way
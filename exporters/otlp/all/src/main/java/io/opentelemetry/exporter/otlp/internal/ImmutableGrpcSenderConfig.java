@@ -38,6 +38,7 @@ public abstract class ImmutableGrpcSenderConfig implements ExtendedGrpcSenderCon
       @Nullable SSLContext sslContext,
       @Nullable X509TrustManager trustManager,
       @Nullable ExecutorService executorService,
+      boolean sharedTransport,
       @Nullable Object managedChannel,
       long maxResponseBodySize) {
     return new AutoValue_ImmutableGrpcSenderConfig(
@@ -52,9 +53,13 @@ public abstract class ImmutableGrpcSenderConfig implements ExtendedGrpcSenderCon
         trustManager,
         executorService,
         managedChannel,
-        maxResponseBodySize);
+        maxResponseBodySize,
+        sharedTransport);
   }
 
   @Override
   public abstract long getMaxResponseBodySize();
+
+  @Override
+  public abstract boolean isSharedTransport();
 }
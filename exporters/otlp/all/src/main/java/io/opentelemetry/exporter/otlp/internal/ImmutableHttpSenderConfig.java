@@ -6,8 +6,8 @@
 package io.opentelemetry.exporter.otlp.internal;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.exporter.internal.http.ExtendedHttpSenderConfig;
 import io.opentelemetry.sdk.common.export.Compressor;
-import io.opentelemetry.sdk.common.export.HttpSenderConfig;
 import io.opentelemetry.sdk.common.export.ProxyOptions;
 import io.opentelemetry.sdk.common.export.RetryPolicy;
 import java.net.URI;
@@ -21,10 +21,10 @@ import javax.net.ssl.SSLContext;
 import javax.net.ssl.X509TrustManager;
 
 @AutoValue
-abstract class ImmutableHttpSenderConfig implements HttpSenderConfig {
+abstract class ImmutableHttpSenderConfig implements ExtendedHttpSenderConfig {
 
   @SuppressWarnings("TooManyParameters")
-  static HttpSenderConfig create(
+  static ExtendedHttpSenderConfig create(
       URI endpoint,
       String contentType,
       @Nullable Compressor compressor,
@@ -36,6 +36,7 @@ abstract class ImmutableHttpSenderConfig implements HttpSenderConfig {
       @Nullable SSLContext sslContext,
       @Nullable X509TrustManager trustManager,
       @Nullable ExecutorService executorService,
+      boolean sharedTransport,
       long maxResponseBodySize) {
     return new AutoValue_ImmutableHttpSenderConfig(
         endpoint,
@@ -49,9 +50,13 @@ abstract class ImmutableHttpSenderConfig implements HttpSenderConfig {
         sslContext,
         trustManager,
         executorService,
-        maxResponseBodySize);
+        maxResponseBodySize,
+        sharedTransport);
   }
 
   @Override
   public abstract long getMaxResponseBodySize();
+
+  @Override
+  public abstract boolean isSharedTransport();
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * A collection of methods that allow use of experimental features of the OTLP exporter builders
+ * prior to availability in public APIs. Each method accepts any of the {@code OtlpHttp*Builder}
+ * and {@code OtlpGrpc*Builder} classes and returns the same builder.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class OtlpExporterBuilderUtil {
+
+  private OtlpExporterBuilderUtil() {}
+
+  /**
+   * Reflectively set a directory in which requests that still fail after all retries are kept to
+   * be sent again once the endpoint recovers, bounded by {@code maxSizeBytes}.
+   */
+  public static <T> T setPersistentQueue(T builder, Path directory, long maxSizeBytes) {
+    invoke(
+        builder,
+        "setPersistentQueue",
+        new Class<?>[] {Path.class, long.class},
+        directory,
+        maxSizeBytes);
+    return builder;
+  }
+
+  /**
+   * Reflectively set the maximum serialized size in bytes of a single export request, above which
+   * batches are split into several requests.
+   */
+  public static <T> T setMaxRequestSize(T builder, int maxRequestSizeBytes) {
+    invoke(builder, "setMaxRequestSize", new Class<?>[] {int.class}, maxRequestSizeBytes);
+    return builder;
+  }
+
+  /** Reflectively set the {@link Executor} used to serialize large export requests. */
+  public static <T> T setMarshalingExecutor(T builder, Executor executor) {
+    invoke(builder, "setMarshalingExecutor", new Class<?>[] {Executor.class}, executor);
+    return builder;
+  }
+
+  /**
+   * Reflectively enable a circuit breaker, which opens after {@code failureThreshold} consecutive
+   * requests failed or took longer than {@code latencyThreshold}, for {@code openDuration}.
+   */
+  public static <T> T setCircuitBreaker(
+      T builder, int failureThreshold, Duration latencyThreshold, Duration openDuration) {
+    invoke(
+        builder,
+        "setCircuitBreaker",
+        new Class<?>[] {int.class, Duration.class, Duration.class},
+        failureThreshold,
+        latencyThreshold,
+        openDuration);
+    return builder;
+  }
+
+  /**
+   * Reflectively set whether the exporter shares its connections and request threads with the
+   * other OTLP exporters built with a shared transport.
+   */
+  public static <T> T setSharedTransport(T builder, boolean sharedTransport) {
+    invoke(builder, "setSharedTransport", new Class<?>[] {boolean.class}, sharedTransport);
+    return builder;
+  }
+
+  private static void invoke(
+      Object builder, String methodName, Class<?>[] parameterTypes, Object... args) {
+    try {
+      Method method = builder.getClass().getDeclaredMethod(methodName, parameterTypes);
+      method.setAccessible(true);
+      method.invoke(builder, args);
+    } catch (InvocationTargetException e) {
+      // Surface argument validation errors of the builder as is.
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(
+          "Error calling " + methodName + " on " + builder.getClass().getName(), e);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalStateException(
+          "Error calling " + methodName + " on " + builder.getClass().getName(), e);
+    }
+  }
+}
@@ -0,0 +1,652 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.MessageWriter;
+import io.opentelemetry.sdk.common.internal.DaemonThreadFactory;
+import io.opentelemetry.sdk.common.internal.ThrottlingLogger;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A size bounded queue of marshaled export requests kept in memory mapped segment files, used by
+ * {@link HttpExporter} and {@link GrpcExporter} to keep requests which failed after all retries
+ * and send them again once the endpoint recovers.
+ *
+ * <p>Requests are appended to the newest segment, which is a plain memory copy. When the queue
+ * would exceed its maximum size, the oldest segment is deleted along with any requests it still
+ * holds. A single daemon thread replays the oldest pending request, backing off exponentially
+ * while the endpoint keeps failing. Replayed requests are marked in place, so requests which were
+ * not yet replayed when the application stops are replayed by the next exporter using the same
+ * directory.
+ *
+ * <p>Each record is laid out as {@code [int length][byte state][int itemCount][payload]}. The
+ * length is written last, so a zero length marks the end of the written records of a segment.
+ */
+final class PersistentExportQueue {
+
+  private static final Logger internalLogger =
+      Logger.getLogger(PersistentExportQueue.class.getName());
+
+  static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final long INITIAL_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private static final String SEGMENT_SUFFIX = ".segment";
+  private static final String LOCK_FILE = "queue.lock";
+  private static final int HEADER_SIZE = 9;
+  private static final byte STATE_PENDING = 0;
+  private static final byte STATE_DONE = 1;
+
+  private final ThrottlingLogger logger = new ThrottlingLogger(internalLogger);
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final int segmentSize;
+  private final FileChannel lockChannel;
+  private final FileLock lock;
+  private final ScheduledExecutorService replayExecutor;
+
+  private final Object lockObject = new Object();
+
+  @GuardedBy("lockObject")
+  private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+
+  @GuardedBy("lockObject")
+  private long sizeBytes;
+
+  @GuardedBy("lockObject")
+  private long nextSegmentId;
+
+  @GuardedBy("lockObject")
+  private boolean replayScheduled;
+
+  @GuardedBy("lockObject")
+  private long backoffNanos = INITIAL_BACKOFF_NANOS;
+
+  @GuardedBy("lockObject")
+  private boolean closed;
+
+  @GuardedBy("lockObject")
+  @Nullable
+  private BiFunction<byte[], Integer, CompletableResultCode> replaySender;
+
+  /**
+   * Opens the queue stored in {@code directory}, creating it if needed. The directory can only be
+   * used by one exporter at a time.
+   *
+   * @throws IOException if the directory can't be created or a segment can't be read.
+   * @throws IllegalStateException if the directory is used by another exporter, in this or another
+   *     process.
+   */
+  static PersistentExportQueue open(Path directory, long maxSizeBytes, int segmentSize)
+      throws IOException {
+    Files.createDirectories(directory);
+    FileChannel lockChannel =
+        FileChannel.open(
+            directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock lock;
+    try {
+      lock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // Locked by another exporter in this JVM.
+      lock = null;
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      throw e;
+    }
+    if (lock == null) {
+      lockChannel.close();
+      throw new IllegalStateException(
+          "Persistent export queue directory is in use by another exporter, which must be shut"
+              + " down before building an exporter with the same directory: "
+              + directory);
+    }
+    PersistentExportQueue queue =
+        new PersistentExportQueue(directory, maxSizeBytes, segmentSize, lockChannel, lock);
+    try {
+      queue.loadSegments();
+    } catch (IOException | RuntimeException e) {
+      queue.close();
+      throw e;
+    }
+    return queue;
+  }
+
+  /**
+   * Opens the queue stored in {@code directory} like {@link #open(Path, long, int)}, logging and
+   * returning {@code null} if it can't be read or written so that the exporter runs without it.
+   *
+   * @throws IllegalStateException if the directory is used by another exporter. Unlike a disk
+   *     failure this is a configuration error, which would otherwise go unnoticed.
+   */
+  @Nullable
+  static PersistentExportQueue tryOpen(Path directory, long maxSizeBytes) {
+    try {
+      return open(directory, maxSizeBytes, DEFAULT_SEGMENT_SIZE);
+    } catch (IllegalStateException e) {
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      internalLogger.log(
+          Level.WARNING,
+          "Failed to open persistent export queue in "
+              + directory
+              + ", failed requests will not be retried later.",
+          e);
+      return null;
+    }
+  }
+
+  private PersistentExportQueue(
+      Path directory, long maxSizeBytes, int segmentSize, FileChannel lockChannel, FileLock lock) {
+    this.directory = directory;
+    this.maxSizeBytes = maxSizeBytes;
+    this.segmentSize = (int) Math.min(segmentSize, maxSizeBytes);
+    this.lockChannel = lockChannel;
+    this.lock = lock;
+    this.replayExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new DaemonThreadFactory("otel-exporter-persistent-queue"));
+  }
+
+  /**
+   * Starts replaying queued requests with {@code replaySender}, which is called with the request
+   * bytes and the number of items in the request. The returned result must succeed when the
+   * request is done with, whether it was delivered or rejected permanently, and fail when it should
+   * be replayed again later.
+   */
+  void start(BiFunction<byte[], Integer, CompletableResultCode> replaySender) {
+    synchronized (lockObject) {
+      this.replaySender = replaySender;
+      if (hasPending()) {
+        scheduleReplay(0);
+      }
+    }
+  }
+
+  /**
+   * Appends the message written by {@code messageWriter} to the queue, returning whether it was
+   * queued. This is called from the sender's callback thread, never from the thread calling export.
+   */
+  boolean offer(MessageWriter messageWriter, int itemCount) {
+    byte[] bytes;
+    try {
+      int contentLength = messageWriter.getContentLength();
+      if (contentLength >= 0) {
+        bytes = new byte[contentLength];
+        messageWriter.writeMessage(ByteBuffer.wrap(bytes));
+      } else {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        messageWriter.writeMessage(out);
+        bytes = out.toByteArray();
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.log(Level.WARNING, "Failed to serialize request for the persistent queue.", e);
+      return false;
+    }
+    return offer(bytes, itemCount);
+  }
+
+  /**
+   * Appends the message written by {@code messageWriter} to the queue like {@link
+   * #offer(MessageWriter, int)}, but on the replay thread, for callers which must not block on
+   * serializing the request and writing it to the segment. The result succeeds once the request is
+   * queued, and fails if it was not. The message writer must stay valid until then.
+   */
+  CompletableResultCode offerAsync(MessageWriter messageWriter, int itemCount) {
+    CompletableResultCode result = new CompletableResultCode();
+    try {
+      replayExecutor.execute(
+          () -> {
+            if (offer(messageWriter, itemCount)) {
+              result.succeed();
+            } else {
+              result.fail();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // Closed
+      result.fail();
+    }
+    return result;
+  }
+
+  boolean offer(byte[] request, int itemCount) {
+    synchronized (lockObject) {
+      if (closed) {
+        return false;
+      }
+      if (request.length == 0) {
+        // Nothing to replay.
+        return true;
+      }
+      int recordSize = HEADER_SIZE + request.length;
+      if (recordSize > maxSizeBytes) {
+        logger.log(
+            Level.WARNING,
+            "Dropping request of "
+                + request.length
+                + " bytes which is larger than the persistent queue size.");
+        return false;
+      }
+      Segment segment = segments.peekLast();
+      try {
+        if (segment == null || segment.remaining() < recordSize) {
+          segment = newSegment(Math.max(segmentSize, recordSize));
+        }
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Failed to create persistent queue segment.", e);
+        return false;
+      }
+      segment.append(request, itemCount);
+      if (!replayScheduled && replaySender != null) {
+        // The endpoint just failed, so don't retry right away.
+        scheduleReplay(jitter(backoffNanos));
+      }
+      return true;
+    }
+  }
+
+  /** Returns the total number of bytes of the segment files. */
+  long sizeBytes() {
+    synchronized (lockObject) {
+      return sizeBytes;
+    }
+  }
+
+  /** Returns the number of requests which were not replayed yet. */
+  int pendingCount() {
+    synchronized (lockObject) {
+      int count = 0;
+      for (Segment segment : segments) {
+        count += segment.pendingCount;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Stops replaying and closes the segment files. Requests which were not replayed yet stay on
+   * disk.
+   */
+  void close() {
+    synchronized (lockObject) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      replayExecutor.shutdownNow();
+      for (Segment segment : segments) {
+        segment.close(/* delete= */ false);
+      }
+      segments.clear();
+    }
+    try {
+      lock.release();
+    } catch (IOException e) {
+      // Released when the channel is closed anyway.
+    }
+    try {
+      lockChannel.close();
+    } catch (IOException e) {
+      logger.log(Level.FINE, "Failed to close persistent queue lock file.", e);
+    }
+  }
+
+  @GuardedBy("lockObject")
+  private void scheduleReplay(long delayNanos) {
+    replayScheduled = true;
+    replayExecutor.schedule(this::replayNext, delayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void replayNext() {
+    Record record;
+    BiFunction<byte[], Integer, CompletableResultCode> sender;
+    synchronized (lockObject) {
+      record = closed ? null : peek();
+      sender = replaySender;
+      if (record == null || sender == null) {
+        replayScheduled = false;
+        return;
+      }
+    }
+    CompletableResultCode result;
+    try {
+      result = sender.apply(record.data, record.itemCount);
+    } catch (RuntimeException e) {
+      logger.log(Level.WARNING, "Failed to replay request from the persistent queue.", e);
+      result = CompletableResultCode.ofFailure();
+    }
+    CompletableResultCode finalResult = result;
+    result.whenComplete(() -> onReplayed(record, finalResult.isSuccess()));
+  }
+
+  private void onReplayed(Record record, boolean success) {
+    synchronized (lockObject) {
+      if (closed) {
+        return;
+      }
+      if (success) {
+        complete(record);
+        backoffNanos = INITIAL_BACKOFF_NANOS;
+        if (hasPending()) {
+          scheduleReplay(0);
+        } else {
+          replayScheduled = false;
+        }
+        return;
+      }
+      long delayNanos = jitter(backoffNanos);
+      backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+      scheduleReplay(delayNanos);
+    }
+  }
+
+  private static long jitter(long nanos) {
+    return (long) (ThreadLocalRandom.current().nextDouble(0.8d, 1.2d) * nanos);
+  }
+
+  @GuardedBy("lockObject")
+  private boolean hasPending() {
+    for (Segment segment : segments) {
+      if (segment.pendingCount > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @GuardedBy("lockObject")
+  @Nullable
+  private Record peek() {
+    for (Segment segment : segments) {
+      if (segment.pendingCount > 0) {
+        return segment.readPending();
+      }
+    }
+    return null;
+  }
+
+  @GuardedBy("lockObject")
+  private void complete(Record record) {
+    Segment segment = record.segment;
+    if (segment.closed) {
+      // Evicted while being replayed.
+      return;
+    }
+    segment.markDone(record.position);
+    if (segment.pendingCount == 0 && segment != segments.peekLast()) {
+      segments.remove(segment);
+      deleteSegment(segment);
+    }
+  }
+
+  @GuardedBy("lockObject")
+  private Segment newSegment(int capacity) throws IOException {
+    // Evict the oldest segments to make room, including unreplayed requests.
+    while (!segments.isEmpty() && sizeBytes + capacity > maxSizeBytes) {
+      Segment oldest = segments.removeFirst();
+      if (oldest.pendingCount > 0) {
+        logger.log(
+            Level.WARNING,
+            "Persistent export queue is full, dropping "
+                + oldest.pendingCount
+                + " queued requests.");
+      }
+      deleteSegment(oldest);
+    }
+    Segment segment = Segment.create(segmentPath(nextSegmentId++), capacity);
+    segments.addLast(segment);
+    sizeBytes += capacity;
+    return segment;
+  }
+
+  @GuardedBy("lockObject")
+  private void deleteSegment(Segment segment) {
+    segment.close(/* delete= */ true);
+    sizeBytes -= segment.capacity;
+    try {
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      logger.log(Level.WARNING, "Failed to delete persistent queue segment " + segment.path, e);
+    }
+  }
+
+  private Path segmentPath(long id) {
+    return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+  }
+
+  private void loadSegments() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        paths.add(path);
+      }
+    }
+    // Zero padded ids sort in creation order.
+    Collections.sort(paths);
+    synchronized (lockObject) {
+      for (Path path : paths) {
+        String name = path.getFileName().toString();
+        long id;
+        try {
+          id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+          continue;
+        }
+        nextSegmentId = Math.max(nextSegmentId, id + 1);
+        Segment segment = Segment.load(path);
+        if (segment.pendingCount == 0) {
+          segment.close(/* delete= */ true);
+          Files.deleteIfExists(path);
+          continue;
+        }
+        segments.addLast(segment);
+        sizeBytes += segment.capacity;
+      }
+    }
+  }
+
+  private static final class Record {
+    private final Segment segment;
+    private final int position;
+    private final int itemCount;
+    private final byte[] data;
+
+    private Record(Segment segment, int position, int itemCount, byte[] data) {
+      this.segment = segment;
+      this.position = position;
+      this.itemCount = itemCount;
+      this.data = data;
+    }
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    // Position after the last written record.
+    private int writePosition;
+    // Position of the oldest record which may still be pending.
+    private int readPosition;
+    private int pendingCount;
+    private boolean closed;
+
+    private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+      this.capacity = buffer.capacity();
+    }
+
+    static Segment create(Path path, int capacity) throws IOException {
+      FileChannel channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.CREATE_NEW,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      try {
+        return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    static Segment load(Path path) throws IOException {
+      FileChannel channel =
+          FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      Segment segment;
+      try {
+        segment =
+            new Segment(
+                path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+      boolean foundPending = false;
+      int position = 0;
+      while (true) {
+        int length = segment.lengthAt(position);
+        if (length <= 0) {
+          break;
+        }
+        if (segment.buffer.get(position + 4) == STATE_PENDING) {
+          if (!foundPending) {
+            segment.readPosition = position;
+            foundPending = true;
+          }
+          segment.pendingCount++;
+        }
+        position += HEADER_SIZE + length;
+      }
+      if (!foundPending) {
+        segment.readPosition = position;
+      }
+      // Only append to segments created by this queue.
+      segment.writePosition = segment.capacity;
+      return segment;
+    }
+
+    int remaining() {
+      return capacity - writePosition;
+    }
+
+    void append(byte[] request, int itemCount) {
+      int position = writePosition;
+      buffer.put(position + 4, STATE_PENDING);
+      buffer.putInt(position + 5, itemCount);
+      ByteBuffer payload = buffer.duplicate();
+      payload.position(position + HEADER_SIZE);
+      payload.put(request);
+      // Written last, so a partially written record is never read.
+      buffer.putInt(position, request.length);
+      writePosition = position + HEADER_SIZE + request.length;
+      pendingCount++;
+    }
+
+    Record readPending() {
+      int position = readPosition;
+      while (buffer.get(position + 4) != STATE_PENDING) {
+        position += HEADER_SIZE + lengthAt(position);
+      }
+      readPosition = position;
+      int length = lengthAt(position);
+      byte[] data = new byte[length];
+      ByteBuffer payload = buffer.duplicate();
+      payload.position(position + HEADER_SIZE);
+      payload.get(data);
+      return new Record(this, position, buffer.getInt(position + 5), data);
+    }
+
+    void markDone(int position) {
+      if (buffer.get(position + 4) == STATE_DONE) {
+        return;
+      }
+      buffer.put(position + 4, STATE_DONE);
+      pendingCount--;
+    }
+
+    // Returns the length of the record at position, or 0 if there is none.
+    private int lengthAt(int position) {
+      if (position + HEADER_SIZE > capacity) {
+        return 0;
+      }
+      int length = buffer.getInt(position);
+      if (length < 0 || position + HEADER_SIZE + length > capacity) {
+        return 0;
+      }
+      return length;
+    }
+
+    /**
+     * Closes the file, first flushing the records written to it to disk unless it is about to be
+     * deleted. Segments are deleted while holding the queue's lock, where flushing would only slow
+     * down the exports.
+     */
+    void close(boolean delete) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (!delete) {
+        buffer.force();
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Nothing to do, the mapping stays valid until it is garbage collected.
+      }
+    }
+  }
+
+  /** A {@link MessageWriter} for a request read back from the queue. */
+  static MessageWriter messageWriter(byte[] request) {
+    return new MessageWriter() {
+      @Override
+      public void writeMessage(OutputStream output) throws IOException {
+        output.write(request);
+      }
+
+      @Override
+      public void writeMessage(ByteBuffer output) {
+        output.put(request);
+      }
+
+      @Override
+      public int getContentLength() {
+        return request.length;
+      }
+    };
+  }
+}
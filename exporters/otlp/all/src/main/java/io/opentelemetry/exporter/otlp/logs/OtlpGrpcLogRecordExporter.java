@@ -53,7 +53,9 @@ public final class OtlpGrpcLogRecordExporter implements LogRecordExporter {
       GrpcExporterBuilder builder, GrpcExporter delegate, MemoryMode memoryMode) {
     this.builder = builder;
     this.delegate = delegate;
-    this.marshaler = new LogReusableDataMarshaler(memoryMode, delegate::export);
+    this.marshaler =
+        new LogReusableDataMarshaler(
+            memoryMode, delegate::export, builder.createRequestSizeLimiter());
   }
 
   /**
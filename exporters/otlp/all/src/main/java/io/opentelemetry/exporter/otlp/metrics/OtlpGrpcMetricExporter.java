@@ -68,7 +68,9 @@ public final class OtlpGrpcMetricExporter implements MetricExporter {
     this.delegate = delegate;
     this.aggregationTemporalitySelector = aggregationTemporalitySelector;
     this.defaultAggregationSelector = defaultAggregationSelector;
-    this.marshaler = new MetricReusableDataMarshaler(memoryMode, delegate::export);
+    this.marshaler =
+        new MetricReusableDataMarshaler(
+            memoryMode, delegate::export, builder.createRequestSizeLimiter());
   }
 
   /**
@@ -48,7 +48,9 @@ public final class OtlpGrpcSpanExporter implements SpanExporter {
   OtlpGrpcSpanExporter(GrpcExporterBuilder builder, GrpcExporter delegate, MemoryMode memoryMode) {
     this.builder = builder;
     this.delegate = delegate;
-    this.marshaler = new SpanReusableDataMarshaler(memoryMode, delegate::export);
+    this.marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode, delegate::export, builder.createRequestSizeLimiter());
   }
 
   /**
@@ -14,9 +14,12 @@ import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class GrpcExporterBuilderTest {
 
@@ -94,4 +97,41 @@ class GrpcExporterBuilderTest {
     builder.setCompression("none");
     assertThat(builder).extracting("compressor").isNull();
   }
+
+  @Test
+  void persistentQueueDirectoryInUse(@TempDir Path directory) {
+    builder.setPersistentQueue(directory, 1024 * 1024);
+    GrpcExporter exporter = builder.build();
+    try {
+      // A copy with the same directory must not silently run without the queue.
+      assertThatThrownBy(() -> builder.copy().build())
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("in use by another exporter");
+    } finally {
+      exporter.shutdown().join(10, TimeUnit.SECONDS);
+    }
+
+    // Usable again once the exporter is shut down.
+    builder.copy().build().shutdown().join(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void persistentQueueClosedWhenBuildFails(@TempDir Path directory) {
+    builder.setPersistentQueue(directory, 1024 * 1024);
+    // No sender provider can be found.
+    builder.setComponentLoader(
+        ComponentLoader.forClassLoader(new URLClassLoader(new URL[0], null)));
+    assertThatThrownBy(() -> builder.build())
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("No GrpcSenderProvider found");
+
+    // The directory is not left locked.
+    builder
+        .copy()
+        .setComponentLoader(
+            ComponentLoader.forClassLoader(GrpcExporterBuilder.class.getClassLoader()))
+        .build()
+        .shutdown()
+        .join(10, TimeUnit.SECONDS);
+  }
 }
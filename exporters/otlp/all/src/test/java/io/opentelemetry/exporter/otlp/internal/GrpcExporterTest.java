@@ -7,32 +7,54 @@ package io.opentelemetry.exporter.otlp.internal;
 
 import static io.opentelemetry.sdk.common.export.GrpcStatusCode.UNAVAILABLE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.marshal.MarshalerUtil;
+import io.opentelemetry.exporter.internal.marshal.MarshalerWithSize;
+import io.opentelemetry.exporter.internal.marshal.ProtoFieldInfo;
+import io.opentelemetry.exporter.internal.marshal.Serializer;
 import io.opentelemetry.internal.testing.slf4j.SuppressLogger;
 import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.GrpcResponse;
 import io.opentelemetry.sdk.common.export.GrpcSender;
 import io.opentelemetry.sdk.common.export.GrpcStatusCode;
+import io.opentelemetry.sdk.common.export.MessageWriter;
 import io.opentelemetry.sdk.common.internal.ComponentId;
 import io.opentelemetry.sdk.common.internal.SemConvAttributes;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions;
 import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.Mockito;
 
 class GrpcExporterTest {
 
+  private static final ProtoFieldInfo FIELD = ProtoFieldInfo.create(1, 10, "field");
+
   @ParameterizedTest
   @EnumSource
   @SuppressLogger(GrpcExporter.class)
@@ -206,6 +228,121 @@ class GrpcExporterTest {
     }
   }
 
+  @Test
+  @SuppressLogger(GrpcExporter.class)
+  @SuppressLogger(PersistentExportQueue.class)
+  void export_retryableFailureIsQueuedAndReplayed(@TempDir Path directory) throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    GrpcSender mockSender = Mockito.mock(GrpcSender.class);
+    AtomicReference<GrpcStatusCode> statusCode = new AtomicReference<>(UNAVAILABLE);
+    List<byte[]> sent = new CopyOnWriteArrayList<>();
+    doAnswer(
+            invoc -> {
+              MessageWriter messageWriter = invoc.getArgument(0);
+              ByteArrayOutputStream out = new ByteArrayOutputStream();
+              messageWriter.writeMessage(out);
+              sent.add(out.toByteArray());
+              Consumer<GrpcResponse> onResponse = invoc.getArgument(1);
+              onResponse.accept(grpcResponse(statusCode.get()));
+              return null;
+            })
+        .when(mockSender)
+        .send(any(), any(), any());
+    GrpcExporter exporter =
+        new GrpcExporter(
+            mockSender,
+            InternalTelemetryVersion.LATEST,
+            ComponentId.generateLazy(StandardComponentId.ExporterType.OTLP_GRPC_SPAN_EXPORTER),
+            MeterProvider::noop,
+            URI.create("http://testing:1234"),
+            queue,
+            null,
+            null);
+    try {
+      // Queued instead of failing, to be replayed once the endpoint recovers.
+      assertThat(exporter.export(marshaler("request"), 3).join(10, TimeUnit.SECONDS).isSuccess())
+          .isTrue();
+      assertThat(queue.pendingCount()).isEqualTo(1);
+
+      statusCode.set(GrpcStatusCode.OK);
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(() -> assertThat(queue.pendingCount()).isZero());
+      assertThat(sent).hasSize(2);
+      assertThat(sent.get(1)).isEqualTo(sent.get(0));
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  @SuppressLogger(GrpcExporter.class)
+  void export_openCircuitBreakerShedsExports() {
+    InMemoryMetricReader inMemoryMetrics = InMemoryMetricReader.create();
+    try (SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(inMemoryMetrics).build()) {
+      GrpcSender mockSender = Mockito.mock(GrpcSender.class);
+      doAnswer(
+              invoc -> {
+                Consumer<GrpcResponse> onResponse = invoc.getArgument(1);
+                onResponse.accept(grpcResponse(UNAVAILABLE));
+                return null;
+              })
+          .when(mockSender)
+          .send(any(), any(), any());
+      GrpcExporter exporter =
+          new GrpcExporter(
+              mockSender,
+              InternalTelemetryVersion.LATEST,
+              ComponentId.generateLazy(StandardComponentId.ExporterType.OTLP_GRPC_SPAN_EXPORTER),
+              () -> meterProvider,
+              URI.create("http://testing:1234"),
+              null,
+              null,
+              new CircuitBreaker(1, Duration.ofSeconds(10), Duration.ofMinutes(1)));
+
+      // Opens the circuit breaker.
+      assertThat(exporter.export(marshaler("first"), 1).join(10, TimeUnit.SECONDS).isSuccess())
+          .isFalse();
+      assertThat(exporter.export(marshaler("second"), 2).join(10, TimeUnit.SECONDS).isSuccess())
+          .isFalse();
+      verify(mockSender, times(1)).send(any(), any(), any());
+
+      assertThat(inMemoryMetrics.collectAllMetrics())
+          .anySatisfy(
+              metric ->
+                  OpenTelemetryAssertions.assertThat(metric)
+                      .hasName("otel.sdk.exporter.span.exported")
+                      .hasLongSumSatisfying(
+                          sum ->
+                              sum.hasPointsSatisfying(
+                                  point ->
+                                      point
+                                          .hasAttributesSatisfying(
+                                              OpenTelemetryAssertions.equalTo(
+                                                  SemConvAttributes.ERROR_TYPE,
+                                                  String.valueOf(UNAVAILABLE.getValue())))
+                                          .hasValue(1),
+                                  point ->
+                                      point
+                                          .hasAttributesSatisfying(
+                                              OpenTelemetryAssertions.equalTo(
+                                                  SemConvAttributes.ERROR_TYPE,
+                                                  "circuit_breaker_open"))
+                                          .hasValue(2))));
+    }
+  }
+
+  private static Marshaler marshaler(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    return new MarshalerWithSize(MarshalerUtil.sizeBytes(FIELD, utf8)) {
+      @Override
+      protected void writeTo(Serializer output) throws IOException {
+        output.serializeString(FIELD, utf8);
+      }
+    };
+  }
+
   private static GrpcResponse grpcResponse(GrpcStatusCode statusCode) {
     return new GrpcResponse() {
       @Override
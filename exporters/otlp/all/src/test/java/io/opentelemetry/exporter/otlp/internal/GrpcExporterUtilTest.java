@@ -11,6 +11,10 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
 import com.google.rpc.Status;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsPartialSuccess;
+import io.opentelemetry.proto.collector.logs.v1.ExportLogsServiceResponse;
+import io.opentelemetry.proto.collector.trace.v1.ExportTracePartialSuccess;
+import io.opentelemetry.proto.collector.trace.v1.ExportTraceServiceResponse;
 import java.io.IOException;
 import org.junit.jupiter.api.Test;
 
@@ -48,4 +52,46 @@ class GrpcExporterUtilTest {
     assertThatThrownBy(() -> GrpcExporterUtil.getStatusMessage(new byte[] {0, 1, 3, 0}))
         .isInstanceOf(IOException.class);
   }
+
+  @Test
+  void parsePartialSuccess() throws Exception {
+    assertThat(
+            GrpcExporterUtil.getPartialSuccessMessage(
+                ExportTraceServiceResponse.getDefaultInstance().toByteArray(), "span"))
+        .isNull();
+    assertThat(GrpcExporterUtil.getPartialSuccessMessage(new byte[0], "span")).isNull();
+    assertThat(
+            GrpcExporterUtil.getPartialSuccessMessage(
+                ExportTraceServiceResponse.newBuilder()
+                    .setPartialSuccess(ExportTracePartialSuccess.getDefaultInstance())
+                    .build()
+                    .toByteArray(),
+                "span"))
+        .isNull();
+    assertThat(
+            GrpcExporterUtil.getPartialSuccessMessage(
+                ExportTraceServiceResponse.newBuilder()
+                    .setPartialSuccess(
+                        ExportTracePartialSuccess.newBuilder()
+                            .setRejectedSpans(3)
+                            .setErrorMessage("spans too old")
+                            .build())
+                    .build()
+                    .toByteArray(),
+                "span"))
+        .isEqualTo(
+            "Failed to export 3 spans. Server rejected them with a partial success. "
+                + "Error message: spans too old");
+    assertThat(
+            GrpcExporterUtil.getPartialSuccessMessage(
+                ExportLogsServiceResponse.newBuilder()
+                    .setPartialSuccess(
+                        ExportLogsPartialSuccess.newBuilder().setErrorMessage("deprecated").build())
+                    .build()
+                    .toByteArray(),
+                "log"))
+        .isEqualTo("Exported logs with a warning from the server: deprecated");
+    assertThatThrownBy(() -> GrpcExporterUtil.getPartialSuccessMessage(new byte[] {10, 5}, "span"))
+        .isInstanceOf(IOException.class);
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GzipCompressorTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {-1, 0, 1, 6, 9})
+  void roundTrip(int level) throws IOException {
+    GzipCompressor compressor = new GzipCompressor(level);
+    Random random = new Random(0);
+    // Compress several times to exercise pooled deflaters.
+    for (int size : new int[] {0, 1, 100, 8192, 100_000, 1024 * 1024}) {
+      byte[] input = new byte[size];
+      for (int i = 0; i < size; i++) {
+        input[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : i % 17);
+      }
+      assertThat(decompress(compress(compressor, input))).isEqualTo(input);
+    }
+  }
+
+  @Test
+  void writeSingleBytes() throws IOException {
+    GzipCompressor compressor = new GzipCompressor();
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream out = compressor.compress(compressed)) {
+      out.write('a');
+      out.write('b');
+      out.write('c');
+    }
+    assertThat(decompress(compressed.toByteArray())).isEqualTo(new byte[] {'a', 'b', 'c'});
+  }
+
+  @Test
+  void writeAfterClose() throws IOException {
+    OutputStream out = new GzipCompressor().compress(new ByteArrayOutputStream());
+    out.close();
+    // Closing again is a no-op.
+    out.close();
+    assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void bestSpeedIsLarger() throws IOException {
+    byte[] input = new byte[100_000];
+    Random random = new Random(0);
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (byte) ('a' + random.nextInt(8));
+    }
+    int bestSpeed = compress(new GzipCompressor(Deflater.BEST_SPEED), input).length;
+    int bestCompression = compress(new GzipCompressor(Deflater.BEST_COMPRESSION), input).length;
+    assertThat(bestSpeed).isGreaterThanOrEqualTo(bestCompression);
+  }
+
+  @Test
+  void invalidLevel() {
+    assertThatThrownBy(() -> new GzipCompressor(10))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("level must be -1 or between 0 and 9");
+    assertThatThrownBy(() -> new GzipCompressor(-2)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static byte[] compress(GzipCompressor compressor, byte[] input) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (OutputStream out = compressor.compress(compressed)) {
+      out.write(input);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] decompress(byte[] compressed) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        result.write(buffer, 0, read);
+      }
+    }
+    return result.toByteArray();
+  }
+}
@@ -6,36 +6,56 @@
 package io.opentelemetry.exporter.otlp.internal;
 
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import io.github.netmikey.logunit.api.LogCapturer;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.exporter.internal.CircuitBreaker;
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.marshal.MarshalerUtil;
+import io.opentelemetry.exporter.internal.marshal.MarshalerWithSize;
+import io.opentelemetry.exporter.internal.marshal.ProtoFieldInfo;
+import io.opentelemetry.exporter.internal.marshal.Serializer;
 import io.opentelemetry.internal.testing.slf4j.SuppressLogger;
 import io.opentelemetry.sdk.common.InternalTelemetryVersion;
 import io.opentelemetry.sdk.common.export.HttpResponse;
 import io.opentelemetry.sdk.common.export.HttpSender;
+import io.opentelemetry.sdk.common.export.MessageWriter;
 import io.opentelemetry.sdk.common.internal.ComponentId;
 import io.opentelemetry.sdk.common.internal.SemConvAttributes;
 import io.opentelemetry.sdk.common.internal.StandardComponentId;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.Mockito;
 
 class HttpExporterTest {
 
+  private static final ProtoFieldInfo FIELD = ProtoFieldInfo.create(1, 10, "field");
+
   @RegisterExtension LogCapturer logs = LogCapturer.create().captureForType(HttpExporter.class);
 
   @ParameterizedTest
@@ -298,6 +318,209 @@ class HttpExporterTest {
     logs.assertDoesNotContain("Response body:");
   }
 
+  @Test
+  @SuppressLogger(HttpExporter.class)
+  @SuppressLogger(PersistentExportQueue.class)
+  void export_retryableFailureIsQueuedAndReplayed(@TempDir Path directory) throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    HttpSender mockSender = Mockito.mock(HttpSender.class);
+    AtomicInteger statusCode = new AtomicInteger(503);
+    List<byte[]> sent = new CopyOnWriteArrayList<>();
+    doAnswer(
+            invoc -> {
+              MessageWriter messageWriter = invoc.getArgument(0);
+              ByteArrayOutputStream out = new ByteArrayOutputStream();
+              messageWriter.writeMessage(out);
+              sent.add(out.toByteArray());
+              Consumer<HttpResponse> onResponse = invoc.getArgument(1);
+              onResponse.accept(new FakeHttpResponse(statusCode.get(), "Status"));
+              return null;
+            })
+        .when(mockSender)
+        .send(any(), any(), any());
+    HttpExporter exporter =
+        new HttpExporter(
+            ComponentId.generateLazy(StandardComponentId.ExporterType.OTLP_HTTP_SPAN_EXPORTER),
+            mockSender,
+            MeterProvider::noop,
+            InternalTelemetryVersion.LATEST,
+            URI.create("http://testing:1234"),
+            false,
+            queue,
+            null,
+            null);
+    try {
+      // Queued instead of failing, to be replayed once the endpoint recovers.
+      assertThat(exporter.export(marshaler("request"), 3).join(10, TimeUnit.SECONDS).isSuccess())
+          .isTrue();
+      assertThat(queue.pendingCount()).isEqualTo(1);
+      logs.assertContains("queued the request in the persistent export queue");
+
+      statusCode.set(200);
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(() -> assertThat(queue.pendingCount()).isZero());
+      assertThat(sent).hasSize(2);
+      assertThat(sent.get(1)).isEqualTo(sent.get(0));
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  @SuppressLogger(HttpExporter.class)
+  @SuppressLogger(PersistentExportQueue.class)
+  void export_nonRetryableFailureIsNotQueued(@TempDir Path directory) throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    HttpSender mockSender = Mockito.mock(HttpSender.class);
+    doAnswer(
+            invoc -> {
+              Consumer<HttpResponse> onResponse = invoc.getArgument(1);
+              onResponse.accept(new FakeHttpResponse(400, "Bad Request"));
+              return null;
+            })
+        .when(mockSender)
+        .send(any(), any(), any());
+    HttpExporter exporter =
+        new HttpExporter(
+            ComponentId.generateLazy(StandardComponentId.ExporterType.OTLP_HTTP_SPAN_EXPORTER),
+            mockSender,
+            MeterProvider::noop,
+            InternalTelemetryVersion.LATEST,
+            URI.create("http://testing:1234"),
+            false,
+            queue,
+            null,
+            null);
+    try {
+      assertThat(exporter.export(marshaler("request"), 3).join(10, TimeUnit.SECONDS).isSuccess())
+          .isFalse();
+      assertThat(queue.pendingCount()).isZero();
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  @Test
+  @SuppressLogger(HttpExporter.class)
+  void export_openCircuitBreakerShedsExports() {
+    InMemoryMetricReader inMemoryMetrics = InMemoryMetricReader.create();
+    try (SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(inMemoryMetrics).build()) {
+      HttpSender mockSender = Mockito.mock(HttpSender.class);
+      doAnswer(
+              invoc -> {
+                Consumer<HttpResponse> onResponse = invoc.getArgument(1);
+                onResponse.accept(new FakeHttpResponse(503, "Service Unavailable"));
+                return null;
+              })
+          .when(mockSender)
+          .send(any(), any(), any());
+      HttpExporter exporter =
+          new HttpExporter(
+              ComponentId.generateLazy(StandardComponentId.ExporterType.OTLP_HTTP_SPAN_EXPORTER),
+              mockSender,
+              () -> meterProvider,
+              InternalTelemetryVersion.LATEST,
+              URI.create("http://testing:1234"),
+              false,
+              null,
+              null,
+              new CircuitBreaker(1, Duration.ofSeconds(10), Duration.ofMinutes(1)));
+
+      // Opens the circuit breaker.
+      assertThat(exporter.export(marshaler("first"), 1).join(10, TimeUnit.SECONDS).isSuccess())
+          .isFalse();
+      logs.assertContains("Circuit breaker opened");
+
+      assertThat(exporter.export(marshaler("second"), 2).join(10, TimeUnit.SECONDS).isSuccess())
+          .isFalse();
+      verify(mockSender, times(1)).send(any(), any(), any());
+      logs.assertContains("The circuit breaker is open, the request was not sent.");
+
+      assertThat(inMemoryMetrics.collectAllMetrics())
+          .anySatisfy(
+              metric ->
+                  assertThat(metric)
+                      .hasName("otel.sdk.exporter.span.exported")
+                      .hasLongSumSatisfying(
+                          sum ->
+                              sum.hasPointsSatisfying(
+                                  point ->
+                                      point
+                                          .hasAttributesSatisfying(
+                                              equalTo(SemConvAttributes.ERROR_TYPE, "503"))
+                                          .hasValue(1),
+                                  point ->
+                                      point
+                                          .hasAttributesSatisfying(
+                                              equalTo(
+                                                  SemConvAttributes.ERROR_TYPE,
+                                                  "circuit_breaker_open"))
+                                          .hasValue(2))));
+    }
+  }
+
+  @Test
+  @SuppressLogger(HttpExporter.class)
+  @SuppressLogger(PersistentExportQueue.class)
+  void export_openCircuitBreakerQueuesShedExports(@TempDir Path directory) throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    HttpSender mockSender = Mockito.mock(HttpSender.class);
+    doAnswer(
+            invoc -> {
+              Consumer<HttpResponse> onResponse = invoc.getArgument(1);
+              onResponse.accept(new FakeHttpResponse(503, "Service Unavailable"));
+              return null;
+            })
+        .when(mockSender)
+        .send(any(), any(), any());
+    HttpExporter exporter =
+        new HttpExporter(
+            ComponentId.generateLazy(StandardComponentId.ExporterType.OTLP_HTTP_SPAN_EXPORTER),
+            mockSender,
+            MeterProvider::noop,
+            InternalTelemetryVersion.LATEST,
+            URI.create("http://testing:1234"),
+            false,
+            queue,
+            null,
+            new CircuitBreaker(1, Duration.ofSeconds(10), Duration.ofMinutes(1)));
+    try {
+      // Queued after failing, which opens the circuit breaker.
+      assertThat(exporter.export(marshaler("first"), 1).join(10, TimeUnit.SECONDS).isSuccess())
+          .isTrue();
+      // Queued without being sent, and not replayed while the circuit breaker is open. It is
+      // written to the queue by the queue's thread rather than the one calling export.
+      AtomicReference<Thread> serializingThread = new AtomicReference<>();
+      byte[] utf8 = "second".getBytes(StandardCharsets.UTF_8);
+      Marshaler second =
+          new MarshalerWithSize(MarshalerUtil.sizeBytes(FIELD, utf8)) {
+            @Override
+            protected void writeTo(Serializer output) throws IOException {
+              serializingThread.set(Thread.currentThread());
+              output.serializeString(FIELD, utf8);
+            }
+          };
+      assertThat(exporter.export(second, 1).join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+      assertThat(queue.pendingCount()).isEqualTo(2);
+      assertThat(serializingThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+      verify(mockSender, times(1)).send(any(), any(), any());
+    } finally {
+      exporter.shutdown();
+    }
+  }
+
+  private static Marshaler marshaler(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    return new MarshalerWithSize(MarshalerUtil.sizeBytes(FIELD, utf8)) {
+      @Override
+      protected void writeTo(Serializer output) throws IOException {
+        output.serializeString(FIELD, utf8);
+      }
+    };
+  }
+
   private static class FakeHttpResponse implements HttpResponse {
 
     final int statusCode;
@@ -0,0 +1,100 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.exporter.otlp.http.logs.OtlpHttpLogRecordExporter;
+import io.opentelemetry.exporter.otlp.http.metrics.OtlpHttpMetricExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.exporter.otlp.logs.OtlpGrpcLogRecordExporter;
+import io.opentelemetry.exporter.otlp.metrics.OtlpGrpcMetricExporter;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class OtlpExporterBuilderUtilTest {
+
+  private static Stream<Object> builders() {
+    return Stream.of(
+        OtlpHttpSpanExporter.builder(),
+        OtlpHttpMetricExporter.builder(),
+        OtlpHttpLogRecordExporter.builder(),
+        OtlpGrpcSpanExporter.builder(),
+        OtlpGrpcMetricExporter.builder(),
+        OtlpGrpcLogRecordExporter.builder());
+  }
+
+  @ParameterizedTest
+  @MethodSource("builders")
+  void setPersistentQueue(Object builder) {
+    assertThat(OtlpExporterBuilderUtil.setPersistentQueue(builder, Paths.get("queue"), 1024))
+        .isSameAs(builder);
+    assertThatThrownBy(
+            () -> OtlpExporterBuilderUtil.setPersistentQueue(builder, Paths.get("queue"), 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxSizeBytes must be positive");
+  }
+
+  @ParameterizedTest
+  @MethodSource("builders")
+  void setMaxRequestSize(Object builder) {
+    assertThat(OtlpExporterBuilderUtil.setMaxRequestSize(builder, 1024)).isSameAs(builder);
+    assertThatThrownBy(() -> OtlpExporterBuilderUtil.setMaxRequestSize(builder, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxRequestSizeBytes must be positive");
+  }
+
+  @ParameterizedTest
+  @MethodSource("builders")
+  void setMarshalingExecutor(Object builder) {
+    assertThat(OtlpExporterBuilderUtil.setMarshalingExecutor(builder, Runnable::run))
+        .isSameAs(builder);
+    assertThatThrownBy(() -> OtlpExporterBuilderUtil.setMarshalingExecutor(builder, null))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("executor");
+  }
+
+  @ParameterizedTest
+  @MethodSource("builders")
+  void setCircuitBreaker(Object builder) {
+    assertThat(
+            OtlpExporterBuilderUtil.setCircuitBreaker(
+                builder, 5, Duration.ofSeconds(5), Duration.ofSeconds(30)))
+        .isSameAs(builder);
+    assertThatThrownBy(
+            () ->
+                OtlpExporterBuilderUtil.setCircuitBreaker(
+                    builder, 0, Duration.ofSeconds(5), Duration.ofSeconds(30)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("failureThreshold must be positive");
+    assertThatThrownBy(
+            () ->
+                OtlpExporterBuilderUtil.setCircuitBreaker(
+                    builder, 5, Duration.ZERO, Duration.ofSeconds(30)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("latencyThreshold must be positive");
+  }
+
+  @ParameterizedTest
+  @MethodSource("builders")
+  void setSharedTransport(Object builder) {
+    assertThat(OtlpExporterBuilderUtil.setSharedTransport(builder, true)).isSameAs(builder);
+  }
+
+  @Test
+  void unsupportedBuilder() {
+    assertThatThrownBy(
+            () -> OtlpExporterBuilderUtil.setPersistentQueue(new Object(), Paths.get("queue"), 1))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Error calling setPersistentQueue on java.lang.Object");
+  }
+}
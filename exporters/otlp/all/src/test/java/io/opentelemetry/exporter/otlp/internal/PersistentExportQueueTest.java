@@ -0,0 +1,196 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.otlp.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import io.opentelemetry.internal.testing.slf4j.SuppressLogger;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@SuppressLogger(PersistentExportQueue.class)
+class PersistentExportQueueTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void replaysInOrder() throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    try {
+      List<String> replayed = new CopyOnWriteArrayList<>();
+      queue.start(
+          (request, itemCount) -> {
+            replayed.add(new String(request, StandardCharsets.UTF_8) + ":" + itemCount);
+            return CompletableResultCode.ofSuccess();
+          });
+
+      assertThat(queue.offer(bytes("one"), 1)).isTrue();
+      assertThat(queue.offer(bytes("two"), 2)).isTrue();
+
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(
+              () -> {
+                assertThat(replayed).containsExactly("one:1", "two:2");
+                assertThat(queue.pendingCount()).isZero();
+              });
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  void retriesFailedReplay() throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    try {
+      AtomicInteger attempts = new AtomicInteger();
+      List<String> replayed = new CopyOnWriteArrayList<>();
+      queue.start(
+          (request, itemCount) -> {
+            // The endpoint is still down for the first replay.
+            if (attempts.incrementAndGet() == 1) {
+              return CompletableResultCode.ofFailure();
+            }
+            replayed.add(new String(request, StandardCharsets.UTF_8));
+            return CompletableResultCode.ofSuccess();
+          });
+
+      queue.offer(bytes("request"), 1);
+
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(
+              () -> {
+                assertThat(replayed).containsExactly("request");
+                assertThat(queue.pendingCount()).isZero();
+              });
+      // Replayed again after backing off, and not replayed once it succeeded.
+      assertThat(attempts).hasValue(2);
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  void survivesRestart() throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    queue.offer(bytes("one"), 1);
+    queue.offer(bytes("two"), 1);
+    queue.close();
+
+    PersistentExportQueue reopened = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    try {
+      assertThat(reopened.pendingCount()).isEqualTo(2);
+      List<String> replayed = new CopyOnWriteArrayList<>();
+      reopened.start(
+          (request, itemCount) -> {
+            replayed.add(new String(request, StandardCharsets.UTF_8));
+            return CompletableResultCode.ofSuccess();
+          });
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(
+              () -> {
+                assertThat(replayed).containsExactly("one", "two");
+                assertThat(reopened.pendingCount()).isZero();
+              });
+    } finally {
+      reopened.close();
+    }
+
+    // Replayed requests are not replayed again.
+    PersistentExportQueue drained = PersistentExportQueue.open(directory, 1024 * 1024, 1024);
+    try {
+      assertThat(drained.pendingCount()).isZero();
+    } finally {
+      drained.close();
+    }
+  }
+
+  @Test
+  void evictsOldestSegment() throws IOException {
+    // Room for two segments of two records each.
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 64, 32);
+    try {
+      for (int i = 0; i < 6; i++) {
+        assertThat(queue.offer(bytes("req" + i), 1)).isTrue();
+      }
+      assertThat(queue.sizeBytes()).isEqualTo(64);
+      assertThat(queue.pendingCount()).isEqualTo(4);
+
+      List<String> replayed = new CopyOnWriteArrayList<>();
+      queue.start(
+          (request, itemCount) -> {
+            replayed.add(new String(request, StandardCharsets.UTF_8));
+            return CompletableResultCode.ofSuccess();
+          });
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(
+              () -> assertThat(replayed).containsExactly("req2", "req3", "req4", "req5"));
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  void rejectsOversizedRequest() throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 64, 32);
+    try {
+      assertThat(queue.offer(new byte[100], 1)).isFalse();
+      assertThat(queue.pendingCount()).isZero();
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  void directoryInUse() throws IOException {
+    PersistentExportQueue queue = PersistentExportQueue.open(directory, 1024, 1024);
+    try {
+      assertThatThrownBy(() -> PersistentExportQueue.open(directory, 1024, 1024))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("in use by another exporter");
+      assertThatThrownBy(() -> PersistentExportQueue.tryOpen(directory, 1024))
+          .isInstanceOf(IllegalStateException.class);
+    } finally {
+      queue.close();
+    }
+
+    // Usable again once the first queue is closed.
+    PersistentExportQueue reopened = PersistentExportQueue.tryOpen(directory, 1024);
+    try {
+      assertThat(reopened).isNotNull();
+    } finally {
+      if (reopened != null) {
+        reopened.close();
+      }
+    }
+  }
+
+  @Test
+  void tryOpenUnwritableDirectory() throws IOException {
+    // A file where the directory should be, which can't be created.
+    Path file = Files.createFile(directory.resolve("file"));
+
+    assertThat(PersistentExportQueue.tryOpen(file.resolve("queue"), 1024)).isNull();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
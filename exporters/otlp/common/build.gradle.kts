@@ -35,6 +35,8 @@ dependencies {
   testImplementation("io.opentelemetry.proto:opentelemetry-proto")
 
   jmhImplementation(project(":api:incubator"))
+  jmhImplementation(project(":exporters:compressor:snappy"))
+  jmhImplementation(project(":exporters:otlp:all"))
   jmhImplementation(project(":sdk:testing"))
   jmhImplementation("io.opentelemetry.proto:opentelemetry-proto")
   jmhImplementation("io.grpc:grpc-netty")
@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.otlp;
+
+import io.opentelemetry.exporter.compressor.snappy.internal.SnappyCompressor;
+import io.opentelemetry.exporter.compressor.snappy.internal.SnappyFramedCompressor;
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import io.opentelemetry.exporter.otlp.internal.GzipCompressor;
+import io.opentelemetry.sdk.common.export.Compressor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares the throughput of the compressors on serialized trace requests. */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressorBenchmark {
+
+  private static final TestOutputStream OUTPUT = new TestOutputStream();
+
+  @Param({"gzip", "gzip_best_speed", "snappy", "x-snappy-framed"})
+  String compression;
+
+  private Compressor compressor;
+  private byte[] request;
+
+  @Setup(Level.Trial)
+  public void setup(RequestMarshalState state) throws IOException {
+    switch (compression) {
+      case "gzip":
+        compressor = new GzipCompressor();
+        break;
+      case "gzip_best_speed":
+        compressor = new GzipCompressor(Deflater.BEST_SPEED);
+        break;
+      case "snappy":
+        compressor = new SnappyCompressor();
+        break;
+      case "x-snappy-framed":
+        compressor = new SnappyFramedCompressor();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown compression: " + compression);
+    }
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    TraceRequestMarshaler.create(state.spanDataList).writeBinaryTo(bos);
+    request = bos.toByteArray();
+  }
+
+  @Benchmark
+  public int compress() throws IOException {
+    OUTPUT.reset();
+    try (OutputStream out = compressor.compress(OUTPUT)) {
+      out.write(request);
+    }
+    return OUTPUT.getCount();
+  }
+}
@@ -15,6 +15,7 @@ import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.LongUpDownCounter;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.exporter.internal.otlp.metrics.ResourceMetricsMarshaler;
+import io.opentelemetry.exporter.otlp.internal.GzipCompressor;
 import io.opentelemetry.proto.collector.metrics.v1.ExportMetricsServiceRequest;
 import io.opentelemetry.proto.metrics.v1.ResourceMetrics;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
@@ -30,6 +31,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -43,11 +46,15 @@ import org.openjdk.jmh.annotations.Warmup;
 @Warmup(iterations = 5, time = 1)
 @Measurement(iterations = 10, time = 1)
 @Fork(1)
+// Run with -prof gc to compare allocation per operation between the gzip implementations.
 public class GrpcGzipBenchmark {
 
   private static final ExportMetricsServiceRequest METRICS_REQUEST;
   private static final Codec GZIP_CODEC = new Codec.Gzip();
   private static final Codec IDENTITY_CODEC = Codec.Identity.NONE;
+  private static final GzipCompressor POOLED_GZIP = new GzipCompressor();
+  private static final GzipCompressor POOLED_GZIP_BEST_SPEED =
+      new GzipCompressor(Deflater.BEST_SPEED);
 
   static {
     InMemoryMetricReader metricReader = InMemoryMetricReader.create();
@@ -157,4 +164,31 @@ public class GrpcGzipBenchmark {
     gzos.close();
     return baos;
   }
+
+  @Benchmark
+  public TestOutputStream jdkGzipOutputStream() throws IOException {
+    TestOutputStream baos = new TestOutputStream();
+    OutputStream gzos = new GZIPOutputStream(baos);
+    METRICS_REQUEST.writeTo(gzos);
+    gzos.close();
+    return baos;
+  }
+
+  @Benchmark
+  public TestOutputStream pooledGzipCompressor() throws IOException {
+    TestOutputStream baos = new TestOutputStream();
+    OutputStream gzos = POOLED_GZIP.compress(baos);
+    METRICS_REQUEST.writeTo(gzos);
+    gzos.close();
+    return baos;
+  }
+
+  @Benchmark
+  public TestOutputStream pooledGzipCompressorBestSpeed() throws IOException {
+    TestOutputStream baos = new TestOutputStream();
+    OutputStream gzos = POOLED_GZIP_BEST_SPEED.compress(baos);
+    METRICS_REQUEST.writeTo(gzos);
+    gzos.close();
+    return baos;
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.otlp;
+
+import io.opentelemetry.sdk.trace.data.SpanData;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+public class LargeRequestMarshalState {
+
+  @Param({"5000", "50000"})
+  int numSpans;
+
+  // 0 serializes on the benchmark thread.
+  @Param({"0", "2", "4", "8"})
+  int marshalingThreads;
+
+  List<SpanData> spanDataList;
+  @Nullable ExecutorService executor;
+  ByteBuffer output;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    spanDataList = new ArrayList<>(numSpans);
+    for (int i = 0; i < numSpans; i++) {
+      spanDataList.add(RequestMarshalState.createSpanData());
+    }
+    executor = marshalingThreads == 0 ? null : Executors.newFixedThreadPool(marshalingThreads);
+    // Large enough for any of the requests, each span takes a few hundred bytes.
+    output = ByteBuffer.allocateDirect(numSpans * 1024);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+}
@@ -54,6 +54,15 @@ public class RequestMarshalBenchmarks {
     return OUTPUT.getCount();
   }
 
+  @Benchmark
+  @Threads(1)
+  public int marshalStatefulBinaryLarge(LargeRequestMarshalState state) throws IOException {
+    TraceRequestMarshaler requestMarshaler = TraceRequestMarshaler.create(state.spanDataList);
+    state.output.clear();
+    requestMarshaler.writeBinaryTo(state.output, state.executor);
+    return state.output.position();
+  }
+
   @Benchmark
   @Threads(1)
   public int createStatelessMarshaler(RequestMarshalState state) {
@@ -76,7 +76,7 @@ public class RequestMarshalState {
     }
   }
 
-  private static SpanData createSpanData() {
+  static SpanData createSpanData() {
     return TestSpanData.builder()
         .setResource(RESOURCE)
         .setInstrumentationScopeInfo(INSTRUMENTATION_SCOPE_INFO)
@@ -85,6 +85,24 @@ public class StringMarshalBenchmark {
     return marshalStateful(state.unicodeString);
   }
 
+  @Benchmark
+  @Threads(1)
+  public int marshalLongAsciiStringStateful(StringMarshalState state) throws IOException {
+    return marshalStateful(state.longAsciiString);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int marshalMixedLatin1StringStateful(StringMarshalState state) throws IOException {
+    return marshalStateful(state.mixedLatin1String);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int marshalMixedUnicodeStringStateful(StringMarshalState state) throws IOException {
+    return marshalStateful(state.mixedUnicodeString);
+  }
+
   private static int marshalStateful(String string) throws IOException {
     OUTPUT.reset();
     Marshaler marshaler = StringAnyValueMarshaler.create(string);
@@ -110,6 +128,24 @@ public class StringMarshalBenchmark {
     return marshalStateless(marshaler, state.unicodeString);
   }
 
+  @Benchmark
+  @Threads(1)
+  public int marshalLongAsciiStringStateless(StringMarshalState state) throws IOException {
+    return marshalStateless(marshaler, state.longAsciiString);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int marshalMixedLatin1StringStateless(StringMarshalState state) throws IOException {
+    return marshalStateless(marshaler, state.mixedLatin1String);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public int marshalMixedUnicodeStringStateless(StringMarshalState state) throws IOException {
+    return marshalStateless(marshaler, state.mixedUnicodeString);
+  }
+
   private static int marshalStateless(TestMarshaler marshaler, String string) throws IOException {
     OUTPUT.reset();
     try {
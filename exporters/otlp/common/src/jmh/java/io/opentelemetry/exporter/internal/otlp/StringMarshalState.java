@@ -16,15 +16,25 @@ public class StringMarshalState {
   @Param("512")
   int stringSize;
 
+  @Param("16384")
+  int longStringSize;
+
   String asciiString;
   String latin1String;
   String unicodeString;
+  String longAsciiString;
+  // mostly ascii, like typical attribute values, with a non ascii character every 16 characters
+  String mixedLatin1String;
+  String mixedUnicodeString;
 
   @Setup
   public void setup() {
     asciiString = makeString('a', stringSize);
     latin1String = makeString('ä', stringSize);
     unicodeString = makeString('∆', stringSize);
+    longAsciiString = makeString('a', longStringSize);
+    mixedLatin1String = makeMixedString('ä', stringSize);
+    mixedUnicodeString = makeMixedString('∆', stringSize);
   }
 
   private static String makeString(char c, int size) {
@@ -34,4 +44,12 @@ public class StringMarshalState {
     }
     return sb.toString();
   }
+
+  private static String makeMixedString(char c, int size) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      sb.append(i % 16 == 15 ? c : 'a');
+    }
+    return sb.toString();
+  }
 }
@@ -9,6 +9,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributeType;
 import io.opentelemetry.api.common.Value;
 import io.opentelemetry.api.internal.InternalAttributeKeyImpl;
+import io.opentelemetry.exporter.internal.marshal.IdentityCache;
 import io.opentelemetry.exporter.internal.marshal.MarshalerContext;
 import io.opentelemetry.exporter.internal.marshal.MarshalerUtil;
 import io.opentelemetry.exporter.internal.marshal.Serializer;
@@ -30,6 +31,8 @@ public final class AttributeKeyValueStatelessMarshaler
   public static final AttributeKeyValueStatelessMarshaler INSTANCE =
       new AttributeKeyValueStatelessMarshaler();
   private static final byte[] EMPTY_BYTES = new byte[0];
+  private static final MarshalerContext.Key KEY_UTF8_CACHE_KEY = MarshalerContext.key();
+  private static final int MAX_CACHED_KEYS = 1024;
 
   private AttributeKeyValueStatelessMarshaler() {}
 
@@ -39,11 +42,8 @@ public final class AttributeKeyValueStatelessMarshaler
       throws IOException {
     if (attributeKey.getKey().isEmpty()) {
       output.serializeString(KeyValue.KEY, EMPTY_BYTES);
-    } else if (attributeKey instanceof InternalAttributeKeyImpl) {
-      byte[] keyUtf8 = ((InternalAttributeKeyImpl<?>) attributeKey).getKeyUtf8();
-      output.serializeString(KeyValue.KEY, keyUtf8);
     } else {
-      output.serializeStringWithContext(KeyValue.KEY, attributeKey.getKey(), context);
+      output.serializeString(KeyValue.KEY, keyUtf8(attributeKey, context));
     }
     output.serializeMessageWithContext(
         KeyValue.VALUE, attributeKey, value, ValueStatelessMarshaler.INSTANCE, context);
@@ -54,14 +54,7 @@ public final class AttributeKeyValueStatelessMarshaler
       AttributeKey<?> attributeKey, Object value, MarshalerContext context) {
     int size = 0;
     if (!attributeKey.getKey().isEmpty()) {
-      if (attributeKey instanceof InternalAttributeKeyImpl) {
-        byte[] keyUtf8 = ((InternalAttributeKeyImpl<?>) attributeKey).getKeyUtf8();
-        size += MarshalerUtil.sizeBytes(KeyValue.KEY, keyUtf8);
-      } else {
-        size +=
-            StatelessMarshalerUtil.sizeStringWithContext(
-                KeyValue.KEY, attributeKey.getKey(), context);
-      }
+      size += MarshalerUtil.sizeBytes(KeyValue.KEY, keyUtf8(attributeKey, context));
     }
     size +=
         StatelessMarshalerUtil.sizeMessageWithContext(
@@ -70,6 +63,21 @@ public final class AttributeKeyValueStatelessMarshaler
     return size;
   }
 
+  /**
+   * Returns the UTF-8 encoding of the key. Keys created by the API cache it themselves, others are
+   * cached in the context so that the keys repeating across spans are only encoded once. The cache
+   * is keyed on the {@link AttributeKey} instance, since {@link AttributeKey#getKey()} may return a
+   * new string on every call.
+   */
+  private static byte[] keyUtf8(AttributeKey<?> attributeKey, MarshalerContext context) {
+    if (attributeKey instanceof InternalAttributeKeyImpl) {
+      return ((InternalAttributeKeyImpl<?>) attributeKey).getKeyUtf8();
+    }
+    IdentityCache<AttributeKey<?>, byte[]> cache =
+        context.getInstance(KEY_UTF8_CACHE_KEY, () -> new IdentityCache<>(MAX_CACHED_KEYS));
+    return cache.computeIfAbsent(attributeKey, key -> MarshalerUtil.toBytes(key.getKey()));
+  }
+
   private static class ValueStatelessMarshaler
       implements StatelessMarshaler2<AttributeKey<?>, Object> {
     static final ValueStatelessMarshaler INSTANCE = new ValueStatelessMarshaler();
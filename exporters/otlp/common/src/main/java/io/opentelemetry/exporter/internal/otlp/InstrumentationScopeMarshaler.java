@@ -6,6 +6,8 @@
 package io.opentelemetry.exporter.internal.otlp;
 
 import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
+import io.opentelemetry.exporter.internal.marshal.IdentityCache;
+import io.opentelemetry.exporter.internal.marshal.MarshalerContext;
 import io.opentelemetry.exporter.internal.marshal.MarshalerUtil;
 import io.opentelemetry.exporter.internal.marshal.MarshalerWithSize;
 import io.opentelemetry.exporter.internal.marshal.Serializer;
@@ -25,9 +27,10 @@ public final class InstrumentationScopeMarshaler extends MarshalerWithSize {
 
   private static final WeakConcurrentMap<InstrumentationScopeInfo, InstrumentationScopeMarshaler>
       SCOPE_MARSHALER_CACHE = new WeakConcurrentMap.WithInlinedExpunction<>();
+  private static final MarshalerContext.Key CONTEXT_CACHE_KEY = MarshalerContext.key();
 
   private final byte[] serializedBinary;
-  private final String serializedJson;
+  private final byte[] serializedJson;
 
   /** Returns a Marshaler for InstrumentationScopeInfo. */
   public static InstrumentationScopeMarshaler create(InstrumentationScopeInfo scopeInfo) {
@@ -53,7 +56,7 @@ public final class InstrumentationScopeMarshaler extends MarshalerWithSize {
             "Serialization error, this is likely a bug in OpenTelemetry.", e);
       }
 
-      String json = MarshalerUtil.preserializeJsonFields(realMarshaler);
+      byte[] json = MarshalerUtil.preserializeJsonFields(realMarshaler);
 
       cached = new InstrumentationScopeMarshaler(binaryBos.toByteArray(), json);
       SCOPE_MARSHALER_CACHE.put(scopeInfo, cached);
@@ -61,7 +64,20 @@ public final class InstrumentationScopeMarshaler extends MarshalerWithSize {
     return cached;
   }
 
-  private InstrumentationScopeMarshaler(byte[] binary, String json) {
+  /**
+   * Returns a Marshaler for InstrumentationScopeInfo. The last one is also kept in the context, so
+   * that marshalers reusing their context don't look up the shared cache for the same scope on
+   * every request. Only the last one is kept so that the context does not keep other scopes
+   * reachable.
+   */
+  public static InstrumentationScopeMarshaler create(
+      InstrumentationScopeInfo scopeInfo, MarshalerContext context) {
+    IdentityCache<InstrumentationScopeInfo, InstrumentationScopeMarshaler> cache =
+        context.getInstance(CONTEXT_CACHE_KEY, () -> new IdentityCache<>(1));
+    return cache.computeIfAbsent(scopeInfo, InstrumentationScopeMarshaler::create);
+  }
+
+  private InstrumentationScopeMarshaler(byte[] binary, byte[] json) {
     super(binary.length);
     serializedBinary = binary;
     serializedJson = json;
@@ -0,0 +1,96 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.otlp;
+
+import io.opentelemetry.exporter.internal.FailedExportException;
+import io.opentelemetry.exporter.internal.RetryUtil;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.GrpcResponse;
+import io.opentelemetry.sdk.common.export.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Splits batches which the server rejects as too large, with HTTP status 413 or a gRPC message size
+ * error, into halves exported separately. Other failures are final for the batch, and rejections
+ * reported as partial success cannot be resubmitted since the server does not identify the
+ * rejected items.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class RequestBisector {
+
+  private static final int HTTP_PAYLOAD_TOO_LARGE = 413;
+
+  private RequestBisector() {}
+
+  /**
+   * Sends {@code items} with {@code send} and, if the request is rejected as too large, exports
+   * each half of {@code items} with {@code export}, which may bisect them again. A single item is
+   * never split.
+   */
+  public static <T> CompletableResultCode sendOrBisect(
+      Collection<T> items,
+      Supplier<CompletableResultCode> send,
+      Function<Collection<T>, CompletableResultCode> export) {
+    if (items.size() < 2) {
+      return send.get();
+    }
+    // The response may arrive after the caller stopped waiting for it and reused the collection,
+    // such as a BatchSpanProcessor clearing its batch once the export timed out.
+    List<T> list = new ArrayList<>(items);
+    CompletableResultCode sendResult = send.get();
+    CompletableResultCode result = new CompletableResultCode();
+    sendResult.whenComplete(
+        () -> {
+          if (!isTooLarge(sendResult)) {
+            complete(result, sendResult);
+            return;
+          }
+          int half = list.size() / 2;
+          CompletableResultCode halvesResult =
+              CompletableResultCode.ofAll(
+                  Arrays.asList(
+                      export.apply(list.subList(0, half)),
+                      export.apply(list.subList(half, list.size()))));
+          halvesResult.whenComplete(() -> complete(result, halvesResult));
+        });
+    return result;
+  }
+
+  // Visible for testing
+  static boolean isTooLarge(CompletableResultCode result) {
+    if (result.isSuccess()) {
+      return false;
+    }
+    Throwable failure = result.getFailureThrowable();
+    if (failure instanceof FailedExportException.HttpExportException) {
+      HttpResponse response = ((FailedExportException.HttpExportException) failure).getResponse();
+      return response != null && response.getStatusCode() == HTTP_PAYLOAD_TOO_LARGE;
+    }
+    if (failure instanceof FailedExportException.GrpcExportException) {
+      GrpcResponse response = ((FailedExportException.GrpcExportException) failure).getResponse();
+      return response != null
+          && RetryUtil.isGrpcMessageTooLarge(
+              String.valueOf(response.getStatusCode().getValue()),
+              response.getStatusDescription());
+    }
+    return false;
+  }
+
+  private static void complete(CompletableResultCode result, CompletableResultCode from) {
+    if (from.isSuccess()) {
+      result.succeed();
+    } else {
+      result.failExceptionally(from.getFailureThrowable());
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.otlp;
+
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Caps the serialized size of export requests, splitting batches which exceed the limit into
+ * several requests.
+ *
+ * <p>The limit adapts to the observed export latency. Each request taking longer than the latency
+ * target halves the limit, down to 1/16 of the maximum, and each request succeeding in time raises
+ * it again by 1/8 of the maximum, so a struggling endpoint receives smaller requests.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class RequestSizeLimiter {
+
+  private static final int MIN_LIMIT_DIVISOR = 16;
+  private static final int INCREASE_DIVISOR = 8;
+
+  private final int maxRequestSize;
+  private final int minRequestSize;
+  private final long latencyTargetNanos;
+  private final Clock clock;
+  private final AtomicInteger limit;
+
+  /**
+   * Creates a limiter for requests of at most {@code maxRequestSizeBytes}, lowering the limit while
+   * requests take longer than {@code latencyTargetNanos}.
+   */
+  public RequestSizeLimiter(int maxRequestSizeBytes, long latencyTargetNanos) {
+    this(maxRequestSizeBytes, latencyTargetNanos, Clock.getDefault());
+  }
+
+  // Visible for testing
+  RequestSizeLimiter(int maxRequestSizeBytes, long latencyTargetNanos, Clock clock) {
+    this.maxRequestSize = maxRequestSizeBytes;
+    this.minRequestSize = Math.max(1, maxRequestSizeBytes / MIN_LIMIT_DIVISOR);
+    this.latencyTargetNanos = latencyTargetNanos;
+    this.clock = clock;
+    this.limit = new AtomicInteger(maxRequestSizeBytes);
+  }
+
+  /** Returns the current limit of the serialized size of a request. */
+  public int getLimit() {
+    return limit.get();
+  }
+
+  /**
+   * Returns whether a request of {@code itemCount} items serializing to {@code serializedSize}
+   * bytes should be split. A single item is never split, even if it exceeds the limit.
+   */
+  public boolean exceedsLimit(int serializedSize, int itemCount) {
+    return itemCount > 1 && serializedSize > limit.get();
+  }
+
+  /**
+   * Splits {@code items} into as many contiguous parts as needed for each to fit the limit,
+   * assuming items are of similar size, and exports each part with {@code export}. Parts may be
+   * checked against the limit again by {@code export} since items can differ in size.
+   *
+   * <p>Parts are exported one after the other, so that splitting a batch does not multiply the
+   * number of concurrent requests to the endpoint. The result fails if any part fails.
+   */
+  public <T> CompletableResultCode split(
+      Collection<T> items,
+      int serializedSize,
+      Function<Collection<T>, CompletableResultCode> export) {
+    List<T> list = new ArrayList<>(items);
+    int size = list.size();
+    long currentLimit = limit.get();
+    long partsForLimit = (serializedSize + currentLimit - 1) / currentLimit;
+    int parts = (int) Math.min(size, Math.max(2, partsForLimit));
+    SequentialExport<T> sequentialExport = new SequentialExport<>(list, parts, export);
+    sequentialExport.exportNext();
+    return sequentialExport.result;
+  }
+
+  /** Sends a request with {@code send} and adjusts the limit to its latency once it completes. */
+  public CompletableResultCode track(Supplier<CompletableResultCode> send) {
+    long startNanos = clock.nanoTime();
+    CompletableResultCode result = send.get();
+    return result.whenComplete(() -> onComplete(clock.nanoTime() - startNanos, result.isSuccess()));
+  }
+
+  private void onComplete(long latencyNanos, boolean success) {
+    if (latencyNanos > latencyTargetNanos) {
+      limit.updateAndGet(current -> Math.max(minRequestSize, current / 2));
+    } else if (success) {
+      int increase = Math.max(1, maxRequestSize / INCREASE_DIVISOR);
+      limit.updateAndGet(current -> (int) Math.min(maxRequestSize, (long) current + increase));
+    }
+  }
+
+  /** Exports the parts of a split batch, starting each once the previous one completed. */
+  private static final class SequentialExport<T> {
+    private final List<T> items;
+    private final int parts;
+    private final Function<Collection<T>, CompletableResultCode> export;
+    private final CompletableResultCode result = new CompletableResultCode();
+    // Only accessed by the thread exporting the next part, once the previous part completed.
+    private int nextPart;
+    @Nullable private Throwable failure;
+    private boolean failed;
+
+    private SequentialExport(
+        List<T> items, int parts, Function<Collection<T>, CompletableResultCode> export) {
+      this.items = items;
+      this.parts = parts;
+      this.export = export;
+    }
+
+    private void exportNext() {
+      // Parts completing synchronously are exported in this loop rather than recursively.
+      while (nextPart < parts) {
+        int from = (int) ((long) items.size() * nextPart / parts);
+        int to = (int) ((long) items.size() * (nextPart + 1) / parts);
+        nextPart++;
+        CompletableResultCode partResult = export.apply(items.subList(from, to));
+        if (!partResult.isDone()) {
+          partResult.whenComplete(
+              () -> {
+                onPartComplete(partResult);
+                exportNext();
+              });
+          return;
+        }
+        onPartComplete(partResult);
+      }
+      if (failed) {
+        result.failExceptionally(failure);
+      } else {
+        result.succeed();
+      }
+    }
+
+    private void onPartComplete(CompletableResultCode partResult) {
+      if (!partResult.isSuccess()) {
+        failed = true;
+        if (failure == null) {
+          failure = partResult.getFailureThrowable();
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RequestSizeLimiter{maxRequestSize="
+        + maxRequestSize
+        + ", latencyTargetNanos="
+        + latencyTargetNanos
+        + ", limit="
+        + limit.get()
+        + "}";
+  }
+}
@@ -6,6 +6,8 @@
 package io.opentelemetry.exporter.internal.otlp;
 
 import io.opentelemetry.context.internal.shaded.WeakConcurrentMap;
+import io.opentelemetry.exporter.internal.marshal.IdentityCache;
+import io.opentelemetry.exporter.internal.marshal.MarshalerContext;
 import io.opentelemetry.exporter.internal.marshal.MarshalerUtil;
 import io.opentelemetry.exporter.internal.marshal.MarshalerWithSize;
 import io.opentelemetry.exporter.internal.marshal.Serializer;
@@ -24,9 +26,10 @@ public final class ResourceMarshaler extends MarshalerWithSize {
 
   private static final WeakConcurrentMap<io.opentelemetry.sdk.resources.Resource, ResourceMarshaler>
       RESOURCE_MARSHALER_CACHE = new WeakConcurrentMap.WithInlinedExpunction<>();
+  private static final MarshalerContext.Key CONTEXT_CACHE_KEY = MarshalerContext.key();
 
   private final byte[] serializedBinary;
-  private final String serializedJson;
+  private final byte[] serializedJson;
 
   /** Returns a Marshaler for Resource. */
   public static ResourceMarshaler create(io.opentelemetry.sdk.resources.Resource resource) {
@@ -49,7 +52,7 @@ public final class ResourceMarshaler extends MarshalerWithSize {
             "Serialization error, this is likely a bug in OpenTelemetry.", e);
       }
 
-      String json = MarshalerUtil.preserializeJsonFields(realMarshaler);
+      byte[] json = MarshalerUtil.preserializeJsonFields(realMarshaler);
 
       cached = new ResourceMarshaler(binaryBos.toByteArray(), json);
       RESOURCE_MARSHALER_CACHE.put(resource, cached);
@@ -57,7 +60,19 @@ public final class ResourceMarshaler extends MarshalerWithSize {
     return cached;
   }
 
-  private ResourceMarshaler(byte[] binary, String json) {
+  /**
+   * Returns a Marshaler for Resource. The last one is also kept in the context, so that marshalers
+   * reusing their context don't look up the shared cache for the same resource on every request.
+   * Only the last one is kept so that the context does not keep other resources reachable.
+   */
+  public static ResourceMarshaler create(
+      io.opentelemetry.sdk.resources.Resource resource, MarshalerContext context) {
+    IdentityCache<io.opentelemetry.sdk.resources.Resource, ResourceMarshaler> cache =
+        context.getInstance(CONTEXT_CACHE_KEY, () -> new IdentityCache<>(1));
+    return cache.computeIfAbsent(resource, ResourceMarshaler::create);
+  }
+
+  private ResourceMarshaler(byte[] binary, byte[] json) {
     super(binary.length);
     serializedBinary = binary;
     serializedJson = json;
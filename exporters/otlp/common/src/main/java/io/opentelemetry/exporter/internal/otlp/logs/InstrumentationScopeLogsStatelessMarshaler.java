@@ -46,7 +46,7 @@ final class InstrumentationScopeLogsStatelessMarshaler
       List<LogRecordData> logs,
       MarshalerContext context) {
     InstrumentationScopeMarshaler instrumentationScopeMarshaler =
-        InstrumentationScopeMarshaler.create(instrumentationScope);
+        InstrumentationScopeMarshaler.create(instrumentationScope, context);
     context.addData(instrumentationScopeMarshaler);
 
     int size = 0;
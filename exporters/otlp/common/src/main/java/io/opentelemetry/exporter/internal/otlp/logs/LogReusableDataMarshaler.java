@@ -6,6 +6,8 @@
 package io.opentelemetry.exporter.internal.otlp.logs;
 
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.otlp.RequestBisector;
+import io.opentelemetry.exporter.internal.otlp.RequestSizeLimiter;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.export.MemoryMode;
 import io.opentelemetry.sdk.logs.data.LogRecordData;
@@ -13,6 +15,7 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.BiFunction;
+import javax.annotation.Nullable;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -25,11 +28,24 @@ public class LogReusableDataMarshaler {
 
   private final MemoryMode memoryMode;
   private final BiFunction<Marshaler, Integer, CompletableResultCode> doExport;
+  @Nullable private final RequestSizeLimiter requestSizeLimiter;
 
   public LogReusableDataMarshaler(
       MemoryMode memoryMode, BiFunction<Marshaler, Integer, CompletableResultCode> doExport) {
+    this(memoryMode, doExport, null);
+  }
+
+  /**
+   * Creates a marshaler which splits batches exceeding the limit of {@code requestSizeLimiter}, if
+   * not null, into several requests.
+   */
+  public LogReusableDataMarshaler(
+      MemoryMode memoryMode,
+      BiFunction<Marshaler, Integer, CompletableResultCode> doExport,
+      @Nullable RequestSizeLimiter requestSizeLimiter) {
     this.memoryMode = memoryMode;
     this.doExport = doExport;
+    this.requestSizeLimiter = requestSizeLimiter;
   }
 
   public MemoryMode getMemoryMode() {
@@ -38,22 +54,49 @@ public class LogReusableDataMarshaler {
 
   public CompletableResultCode export(Collection<LogRecordData> logs) {
     if (memoryMode == MemoryMode.REUSABLE_DATA) {
-      LowAllocationLogsRequestMarshaler marshaler = marshalerPool.poll();
-      if (marshaler == null) {
-        marshaler = new LowAllocationLogsRequestMarshaler();
+      LowAllocationLogsRequestMarshaler exportMarshaler = pooledMarshaler(logs);
+      int size = exportMarshaler.getBinarySerializedSize();
+      if (requestSizeLimiter != null && requestSizeLimiter.exceedsLimit(size, logs.size())) {
+        release(exportMarshaler);
+        return requestSizeLimiter.split(logs, size, this::export);
       }
-      LowAllocationLogsRequestMarshaler exportMarshaler = marshaler;
-      exportMarshaler.initialize(logs);
-      return doExport
-          .apply(exportMarshaler, logs.size())
-          .whenComplete(
-              () -> {
-                exportMarshaler.reset();
-                marshalerPool.add(exportMarshaler);
-              });
+      return sendOrBisect(exportMarshaler, logs).whenComplete(() -> release(exportMarshaler));
     }
     // MemoryMode == MemoryMode.IMMUTABLE_DATA
-    LogsRequestMarshaler request = LogsRequestMarshaler.create(logs);
-    return doExport.apply(request, logs.size());
+    if (requestSizeLimiter != null && logs.size() > 1) {
+      // Measured with a pooled marshaler, so that the request is only built once it fits the limit.
+      LowAllocationLogsRequestMarshaler sizeMarshaler = pooledMarshaler(logs);
+      int size = sizeMarshaler.getBinarySerializedSize();
+      release(sizeMarshaler);
+      if (requestSizeLimiter.exceedsLimit(size, logs.size())) {
+        return requestSizeLimiter.split(logs, size, this::export);
+      }
+    }
+    return sendOrBisect(LogsRequestMarshaler.create(logs), logs);
+  }
+
+  private LowAllocationLogsRequestMarshaler pooledMarshaler(Collection<LogRecordData> logs) {
+    LowAllocationLogsRequestMarshaler marshaler = marshalerPool.poll();
+    if (marshaler == null) {
+      marshaler = new LowAllocationLogsRequestMarshaler();
+    }
+    marshaler.initialize(logs);
+    return marshaler;
+  }
+
+  private void release(LowAllocationLogsRequestMarshaler marshaler) {
+    marshaler.reset();
+    marshalerPool.add(marshaler);
+  }
+
+  private CompletableResultCode sendOrBisect(Marshaler request, Collection<LogRecordData> logs) {
+    return RequestBisector.sendOrBisect(logs, () -> send(request, logs.size()), this::export);
+  }
+
+  private CompletableResultCode send(Marshaler request, int numItems) {
+    if (requestSizeLimiter == null) {
+      return doExport.apply(request, numItems);
+    }
+    return requestSizeLimiter.track(() -> doExport.apply(request, numItems));
   }
 }
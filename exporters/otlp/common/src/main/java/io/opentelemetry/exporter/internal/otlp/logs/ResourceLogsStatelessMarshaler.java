@@ -59,7 +59,7 @@ public final class ResourceLogsStatelessMarshaler
 
     int size = 0;
 
-    ResourceMarshaler resourceMarshaler = ResourceMarshaler.create(resource);
+    ResourceMarshaler resourceMarshaler = ResourceMarshaler.create(resource, context);
     context.addData(resourceMarshaler);
     size += MarshalerUtil.sizeMessage(ResourceLogs.RESOURCE, resourceMarshaler);
 
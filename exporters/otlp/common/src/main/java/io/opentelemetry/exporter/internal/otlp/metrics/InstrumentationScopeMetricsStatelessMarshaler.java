@@ -48,7 +48,7 @@ final class InstrumentationScopeMetricsStatelessMarshaler
       List<MetricData> metrics,
       MarshalerContext context) {
     InstrumentationScopeMarshaler instrumentationScopeMarshaler =
-        InstrumentationScopeMarshaler.create(instrumentationScope);
+        InstrumentationScopeMarshaler.create(instrumentationScope, context);
     context.addData(instrumentationScopeMarshaler);
 
     int size = 0;
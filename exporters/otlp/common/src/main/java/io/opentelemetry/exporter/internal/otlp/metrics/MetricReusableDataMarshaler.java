@@ -6,6 +6,8 @@
 package io.opentelemetry.exporter.internal.otlp.metrics;
 
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.otlp.RequestBisector;
+import io.opentelemetry.exporter.internal.otlp.RequestSizeLimiter;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.export.MemoryMode;
 import io.opentelemetry.sdk.metrics.data.MetricData;
@@ -13,6 +15,7 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.BiFunction;
+import javax.annotation.Nullable;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -25,11 +28,24 @@ public class MetricReusableDataMarshaler {
 
   private final MemoryMode memoryMode;
   private final BiFunction<Marshaler, Integer, CompletableResultCode> doExport;
+  @Nullable private final RequestSizeLimiter requestSizeLimiter;
 
   public MetricReusableDataMarshaler(
       MemoryMode memoryMode, BiFunction<Marshaler, Integer, CompletableResultCode> doExport) {
+    this(memoryMode, doExport, null);
+  }
+
+  /**
+   * Creates a marshaler which splits batches exceeding the limit of {@code requestSizeLimiter}, if
+   * not null, into several requests.
+   */
+  public MetricReusableDataMarshaler(
+      MemoryMode memoryMode,
+      BiFunction<Marshaler, Integer, CompletableResultCode> doExport,
+      @Nullable RequestSizeLimiter requestSizeLimiter) {
     this.memoryMode = memoryMode;
     this.doExport = doExport;
+    this.requestSizeLimiter = requestSizeLimiter;
   }
 
   public MemoryMode getMemoryMode() {
@@ -38,22 +54,49 @@ public class MetricReusableDataMarshaler {
 
   public CompletableResultCode export(Collection<MetricData> metrics) {
     if (memoryMode == MemoryMode.REUSABLE_DATA) {
-      LowAllocationMetricsRequestMarshaler marshaler = marshalerPool.poll();
-      if (marshaler == null) {
-        marshaler = new LowAllocationMetricsRequestMarshaler();
+      LowAllocationMetricsRequestMarshaler exportMarshaler = pooledMarshaler(metrics);
+      int size = exportMarshaler.getBinarySerializedSize();
+      if (requestSizeLimiter != null && requestSizeLimiter.exceedsLimit(size, metrics.size())) {
+        release(exportMarshaler);
+        return requestSizeLimiter.split(metrics, size, this::export);
       }
-      LowAllocationMetricsRequestMarshaler exportMarshaler = marshaler;
-      exportMarshaler.initialize(metrics);
-      return doExport
-          .apply(exportMarshaler, metrics.size())
-          .whenComplete(
-              () -> {
-                exportMarshaler.reset();
-                marshalerPool.add(exportMarshaler);
-              });
+      return sendOrBisect(exportMarshaler, metrics).whenComplete(() -> release(exportMarshaler));
     }
     // MemoryMode == MemoryMode.IMMUTABLE_DATA
-    MetricsRequestMarshaler request = MetricsRequestMarshaler.create(metrics);
-    return doExport.apply(request, metrics.size());
+    if (requestSizeLimiter != null && metrics.size() > 1) {
+      // Measured with a pooled marshaler, so that the request is only built once it fits the limit.
+      LowAllocationMetricsRequestMarshaler sizeMarshaler = pooledMarshaler(metrics);
+      int size = sizeMarshaler.getBinarySerializedSize();
+      release(sizeMarshaler);
+      if (requestSizeLimiter.exceedsLimit(size, metrics.size())) {
+        return requestSizeLimiter.split(metrics, size, this::export);
+      }
+    }
+    return sendOrBisect(MetricsRequestMarshaler.create(metrics), metrics);
+  }
+
+  private LowAllocationMetricsRequestMarshaler pooledMarshaler(Collection<MetricData> metrics) {
+    LowAllocationMetricsRequestMarshaler marshaler = marshalerPool.poll();
+    if (marshaler == null) {
+      marshaler = new LowAllocationMetricsRequestMarshaler();
+    }
+    marshaler.initialize(metrics);
+    return marshaler;
+  }
+
+  private void release(LowAllocationMetricsRequestMarshaler marshaler) {
+    marshaler.reset();
+    marshalerPool.add(marshaler);
+  }
+
+  private CompletableResultCode sendOrBisect(Marshaler request, Collection<MetricData> metrics) {
+    return RequestBisector.sendOrBisect(metrics, () -> send(request, metrics.size()), this::export);
+  }
+
+  private CompletableResultCode send(Marshaler request, int numItems) {
+    if (requestSizeLimiter == null) {
+      return doExport.apply(request, numItems);
+    }
+    return requestSizeLimiter.track(() -> doExport.apply(request, numItems));
   }
 }
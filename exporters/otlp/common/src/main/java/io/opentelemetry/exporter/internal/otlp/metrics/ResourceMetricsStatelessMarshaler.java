@@ -62,7 +62,7 @@ public final class ResourceMetricsStatelessMarshaler
 
     int size = 0;
 
-    ResourceMarshaler resourceMarshaler = ResourceMarshaler.create(resource);
+    ResourceMarshaler resourceMarshaler = ResourceMarshaler.create(resource, context);
     context.addData(resourceMarshaler);
     size += MarshalerUtil.sizeMessage(ResourceMetrics.RESOURCE, resourceMarshaler);
 
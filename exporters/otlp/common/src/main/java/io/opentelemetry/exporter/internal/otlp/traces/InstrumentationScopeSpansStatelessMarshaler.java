@@ -48,7 +48,7 @@ final class InstrumentationScopeSpansStatelessMarshaler
       List<SpanData> spans,
       MarshalerContext context) {
     InstrumentationScopeMarshaler instrumentationScopeMarshaler =
-        InstrumentationScopeMarshaler.create(instrumentationScope);
+        InstrumentationScopeMarshaler.create(instrumentationScope, context);
     context.addData(instrumentationScopeMarshaler);
 
     int size = 0;
@@ -61,7 +61,7 @@ public final class ResourceSpansStatelessMarshaler
 
     int size = 0;
 
-    ResourceMarshaler resourceMarshaler = ResourceMarshaler.create(resource);
+    ResourceMarshaler resourceMarshaler = ResourceMarshaler.create(resource, context);
     context.addData(resourceMarshaler);
     size += MarshalerUtil.sizeMessage(ResourceSpans.RESOURCE, resourceMarshaler);
 
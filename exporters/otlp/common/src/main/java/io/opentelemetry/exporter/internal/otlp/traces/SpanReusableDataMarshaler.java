@@ -6,6 +6,8 @@
 package io.opentelemetry.exporter.internal.otlp.traces;
 
 import io.opentelemetry.exporter.internal.marshal.Marshaler;
+import io.opentelemetry.exporter.internal.otlp.RequestBisector;
+import io.opentelemetry.exporter.internal.otlp.RequestSizeLimiter;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.export.MemoryMode;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -13,6 +15,7 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.BiFunction;
+import javax.annotation.Nullable;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -25,11 +28,24 @@ public class SpanReusableDataMarshaler {
 
   private final MemoryMode memoryMode;
   private final BiFunction<Marshaler, Integer, CompletableResultCode> doExport;
+  @Nullable private final RequestSizeLimiter requestSizeLimiter;
 
   public SpanReusableDataMarshaler(
       MemoryMode memoryMode, BiFunction<Marshaler, Integer, CompletableResultCode> doExport) {
+    this(memoryMode, doExport, null);
+  }
+
+  /**
+   * Creates a marshaler which splits batches exceeding the limit of {@code requestSizeLimiter}, if
+   * not null, into several requests.
+   */
+  public SpanReusableDataMarshaler(
+      MemoryMode memoryMode,
+      BiFunction<Marshaler, Integer, CompletableResultCode> doExport,
+      @Nullable RequestSizeLimiter requestSizeLimiter) {
     this.memoryMode = memoryMode;
     this.doExport = doExport;
+    this.requestSizeLimiter = requestSizeLimiter;
   }
 
   public MemoryMode getMemoryMode() {
@@ -38,22 +54,49 @@ public class SpanReusableDataMarshaler {
 
   public CompletableResultCode export(Collection<SpanData> spans) {
     if (memoryMode == MemoryMode.REUSABLE_DATA) {
-      LowAllocationTraceRequestMarshaler marshaler = marshalerPool.poll();
-      if (marshaler == null) {
-        marshaler = new LowAllocationTraceRequestMarshaler();
+      LowAllocationTraceRequestMarshaler exportMarshaler = pooledMarshaler(spans);
+      int size = exportMarshaler.getBinarySerializedSize();
+      if (requestSizeLimiter != null && requestSizeLimiter.exceedsLimit(size, spans.size())) {
+        release(exportMarshaler);
+        return requestSizeLimiter.split(spans, size, this::export);
       }
-      LowAllocationTraceRequestMarshaler exportMarshaler = marshaler;
-      exportMarshaler.initialize(spans);
-      return doExport
-          .apply(exportMarshaler, spans.size())
-          .whenComplete(
-              () -> {
-                exportMarshaler.reset();
-                marshalerPool.add(exportMarshaler);
-              });
+      return sendOrBisect(exportMarshaler, spans).whenComplete(() -> release(exportMarshaler));
     }
     // MemoryMode == MemoryMode.IMMUTABLE_DATA
-    TraceRequestMarshaler request = TraceRequestMarshaler.create(spans);
-    return doExport.apply(request, spans.size());
+    if (requestSizeLimiter != null && spans.size() > 1) {
+      // Measured with a pooled marshaler, so that the request is only built once it fits the limit.
+      LowAllocationTraceRequestMarshaler sizeMarshaler = pooledMarshaler(spans);
+      int size = sizeMarshaler.getBinarySerializedSize();
+      release(sizeMarshaler);
+      if (requestSizeLimiter.exceedsLimit(size, spans.size())) {
+        return requestSizeLimiter.split(spans, size, this::export);
+      }
+    }
+    return sendOrBisect(TraceRequestMarshaler.create(spans), spans);
+  }
+
+  private LowAllocationTraceRequestMarshaler pooledMarshaler(Collection<SpanData> spans) {
+    LowAllocationTraceRequestMarshaler marshaler = marshalerPool.poll();
+    if (marshaler == null) {
+      marshaler = new LowAllocationTraceRequestMarshaler();
+    }
+    marshaler.initialize(spans);
+    return marshaler;
+  }
+
+  private void release(LowAllocationTraceRequestMarshaler marshaler) {
+    marshaler.reset();
+    marshalerPool.add(marshaler);
+  }
+
+  private CompletableResultCode sendOrBisect(Marshaler request, Collection<SpanData> spans) {
+    return RequestBisector.sendOrBisect(spans, () -> send(request, spans.size()), this::export);
+  }
+
+  private CompletableResultCode send(Marshaler request, int numItems) {
+    if (requestSizeLimiter == null) {
+      return doExport.apply(request, numItems);
+    }
+    return requestSizeLimiter.track(() -> doExport.apply(request, numItems));
   }
 }
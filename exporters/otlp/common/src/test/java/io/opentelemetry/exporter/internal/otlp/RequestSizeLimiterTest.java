@@ -0,0 +1,116 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.otlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RequestSizeLimiterTest {
+
+  private final TestClock clock = TestClock.create();
+  private final RequestSizeLimiter limiter =
+      new RequestSizeLimiter(1600, Duration.ofSeconds(1).toNanos(), clock);
+
+  @Test
+  void exceedsLimit() {
+    assertThat(limiter.exceedsLimit(1600, 10)).isFalse();
+    assertThat(limiter.exceedsLimit(1601, 10)).isTrue();
+    // A single item is sent as is.
+    assertThat(limiter.exceedsLimit(10_000, 1)).isFalse();
+  }
+
+  @Test
+  void split() {
+    List<Collection<Integer>> parts = new ArrayList<>();
+    CompletableResultCode result =
+        limiter.split(
+            Arrays.asList(1, 2, 3, 4, 5, 6, 7),
+            4000,
+            part -> {
+              parts.add(new ArrayList<>(part));
+              return CompletableResultCode.ofSuccess();
+            });
+
+    assertThat(result.isSuccess()).isTrue();
+    assertThat(parts)
+        .containsExactly(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5, 6, 7));
+  }
+
+  @Test
+  void split_failedPart() {
+    CompletableResultCode result =
+        limiter.split(
+            Arrays.asList(1, 2),
+            4000,
+            part ->
+                part.contains(2)
+                    ? CompletableResultCode.ofFailure()
+                    : CompletableResultCode.ofSuccess());
+
+    assertThat(result.isDone()).isTrue();
+    assertThat(result.isSuccess()).isFalse();
+  }
+
+  @Test
+  void split_exportsPartsSequentially() {
+    List<CompletableResultCode> pending = new ArrayList<>();
+    CompletableResultCode result =
+        limiter.split(
+            Arrays.asList(1, 2, 3, 4, 5, 6, 7),
+            4000,
+            part -> {
+              CompletableResultCode partResult = new CompletableResultCode();
+              pending.add(partResult);
+              return partResult;
+            });
+
+    assertThat(pending).hasSize(1);
+    pending.get(0).fail();
+    assertThat(pending).hasSize(2);
+    pending.get(1).succeed();
+    assertThat(pending).hasSize(3);
+    assertThat(result.isDone()).isFalse();
+    pending.get(2).succeed();
+    assertThat(result.isDone()).isTrue();
+    assertThat(result.isSuccess()).isFalse();
+  }
+
+  @Test
+  void adaptsToLatency() {
+    // Slow requests halve the limit, down to 1/16 of the maximum.
+    for (int i = 0; i < 5; i++) {
+      limiter.track(() -> slowRequest(Duration.ofSeconds(2)));
+    }
+    assertThat(limiter.getLimit()).isEqualTo(100);
+
+    // Requests completing in time raise it again by 1/8 of the maximum.
+    limiter.track(() -> slowRequest(Duration.ofMillis(500)));
+    assertThat(limiter.getLimit()).isEqualTo(300);
+    for (int i = 0; i < 10; i++) {
+      limiter.track(CompletableResultCode::ofSuccess);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(1600);
+
+    // Failures completing in time leave the limit unchanged.
+    limiter.track(() -> slowRequest(Duration.ofSeconds(2)));
+    limiter.track(CompletableResultCode::ofFailure);
+    assertThat(limiter.getLimit()).isEqualTo(800);
+  }
+
+  private CompletableResultCode slowRequest(Duration latency) {
+    CompletableResultCode result = new CompletableResultCode();
+    clock.advance(latency);
+    return result.succeed();
+  }
+}
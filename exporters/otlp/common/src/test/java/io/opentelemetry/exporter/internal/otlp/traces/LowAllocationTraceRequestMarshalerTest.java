@@ -8,6 +8,7 @@ package io.opentelemetry.exporter.internal.otlp.traces;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributeType;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.KeyValue;
 import io.opentelemetry.api.common.Value;
@@ -85,9 +86,22 @@ class LowAllocationTraceRequestMarshalerTest {
   }
 
   private static SpanData createSpanData() {
+    return createSpanData(
+        RESOURCE,
+        INSTRUMENTATION_SCOPE_INFO,
+        Attributes.builder()
+            .put(KEY_BOOL, true)
+            .put(KEY_STRING, "string")
+            .put(KEY_INT, 100L)
+            .put(KEY_DOUBLE, 100.3)
+            .build());
+  }
+
+  private static SpanData createSpanData(
+      Resource resource, InstrumentationScopeInfo instrumentationScopeInfo, Attributes attributes) {
     return TestSpanData.builder()
-        .setResource(RESOURCE)
-        .setInstrumentationScopeInfo(INSTRUMENTATION_SCOPE_INFO)
+        .setResource(resource)
+        .setInstrumentationScopeInfo(instrumentationScopeInfo)
         .setHasEnded(true)
         .setSpanContext(SPAN_CONTEXT)
         .setParentSpanContext(SpanContext.getInvalid())
@@ -95,13 +109,7 @@ class LowAllocationTraceRequestMarshalerTest {
         .setKind(SpanKind.SERVER)
         .setStartEpochNanos(12345)
         .setEndEpochNanos(12349)
-        .setAttributes(
-            Attributes.builder()
-                .put(KEY_BOOL, true)
-                .put(KEY_STRING, "string")
-                .put(KEY_INT, 100L)
-                .put(KEY_DOUBLE, 100.3)
-                .build())
+        .setAttributes(attributes)
         .setTotalAttributeCount(2)
         .setEvents(
             Arrays.asList(
@@ -167,4 +175,45 @@ class LowAllocationTraceRequestMarshalerTest {
 
     assertThat(lowAllocationResult).isEqualTo(result);
   }
+
+  @Test
+  void validateOutputReusingMarshaler() throws Exception {
+    // A key implemented outside of the API, whose encoding the marshaler's context caches.
+    AttributeKey<String> customKey =
+        new AttributeKey<String>() {
+          @Override
+          public String getKey() {
+            return "custom_key";
+          }
+
+          @Override
+          public AttributeType getType() {
+            return AttributeType.STRING;
+          }
+        };
+    Resource otherResource = Resource.create(Attributes.of(customKey, "resource"));
+    InstrumentationScopeInfo otherScope = InstrumentationScopeInfo.create("other");
+    List<SpanData> otherSpanDataList =
+        Arrays.asList(
+            createSpanData(otherResource, otherScope, Attributes.of(customKey, "first")),
+            createSpanData(RESOURCE, otherScope, Attributes.of(customKey, "second")),
+            createSpanData(otherResource, INSTRUMENTATION_SCOPE_INFO, Attributes.empty()));
+
+    LowAllocationTraceRequestMarshaler lowAllocationMarshaler =
+        new LowAllocationTraceRequestMarshaler();
+    for (List<SpanData> spans : Arrays.asList(spanDataList, otherSpanDataList, spanDataList)) {
+      TraceRequestMarshaler requestMarshaler = TraceRequestMarshaler.create(spans);
+      ByteArrayOutputStream expected =
+          new ByteArrayOutputStream(requestMarshaler.getBinarySerializedSize());
+      requestMarshaler.writeBinaryTo(expected);
+
+      lowAllocationMarshaler.initialize(spans);
+      ByteArrayOutputStream actual =
+          new ByteArrayOutputStream(lowAllocationMarshaler.getBinarySerializedSize());
+      lowAllocationMarshaler.writeBinaryTo(actual);
+      lowAllocationMarshaler.reset();
+
+      assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+  }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.internal.otlp.traces;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.exporter.internal.FailedExportException;
+import io.opentelemetry.exporter.internal.otlp.RequestSizeLimiter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.export.HttpResponse;
+import io.opentelemetry.sdk.common.export.MemoryMode;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class SpanReusableDataMarshalerTest {
+
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.create(
+          "7b2e170db4df2d593ddb4ddf2ddf2d59",
+          "170d3ddb4d23e81f",
+          TraceFlags.getSampled(),
+          TraceState.getDefault());
+
+  @ParameterizedTest
+  @EnumSource(MemoryMode.class)
+  void export_withinLimit(MemoryMode memoryMode) {
+    List<Integer> requestItems = new ArrayList<>();
+    SpanReusableDataMarshaler marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode,
+            (request, numItems) -> {
+              requestItems.add(numItems);
+              return CompletableResultCode.ofSuccess();
+            },
+            new RequestSizeLimiter(1024 * 1024, Long.MAX_VALUE));
+
+    assertThat(marshaler.export(spans(100)).isSuccess()).isTrue();
+    assertThat(requestItems).containsExactly(100);
+  }
+
+  @ParameterizedTest
+  @EnumSource(MemoryMode.class)
+  void export_splitsLargeBatch(MemoryMode memoryMode) {
+    int maxRequestSize = 2000;
+    List<Integer> requestItems = new ArrayList<>();
+    List<Integer> requestSizes = new ArrayList<>();
+    SpanReusableDataMarshaler marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode,
+            (request, numItems) -> {
+              requestItems.add(numItems);
+              requestSizes.add(request.getBinarySerializedSize());
+              return CompletableResultCode.ofSuccess();
+            },
+            new RequestSizeLimiter(maxRequestSize, Long.MAX_VALUE));
+
+    assertThat(marshaler.export(spans(100)).isSuccess()).isTrue();
+    assertThat(requestItems.size()).isGreaterThan(1);
+    assertThat(requestItems.stream().mapToInt(Integer::intValue).sum()).isEqualTo(100);
+    assertThat(requestSizes)
+        .allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(maxRequestSize));
+  }
+
+  @ParameterizedTest
+  @EnumSource(MemoryMode.class)
+  void export_bisectsPayloadTooLarge(MemoryMode memoryMode) {
+    List<Integer> requestItems = new ArrayList<>();
+    SpanReusableDataMarshaler marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode,
+            (request, numItems) -> {
+              requestItems.add(numItems);
+              return numItems > 25 ? payloadTooLarge() : CompletableResultCode.ofSuccess();
+            });
+
+    assertThat(marshaler.export(spans(100)).isSuccess()).isTrue();
+    assertThat(requestItems).containsExactly(100, 50, 25, 25, 50, 25, 25);
+  }
+
+  @ParameterizedTest
+  @EnumSource(MemoryMode.class)
+  void export_bisectsAfterBatchCleared(MemoryMode memoryMode) {
+    List<Integer> requestItems = new ArrayList<>();
+    CompletableResultCode firstRequest = new CompletableResultCode();
+    SpanReusableDataMarshaler marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode,
+            (request, numItems) -> {
+              requestItems.add(numItems);
+              return requestItems.size() == 1 ? firstRequest : CompletableResultCode.ofSuccess();
+            });
+
+    List<SpanData> batch = spans(100);
+    CompletableResultCode result = marshaler.export(batch);
+    // Like a BatchSpanProcessor reusing its batch once the export timed out.
+    batch.clear();
+    firstRequest.failExceptionally(payloadTooLarge().getFailureThrowable());
+
+    assertThat(result.isSuccess()).isTrue();
+    assertThat(requestItems).containsExactly(100, 50, 50);
+  }
+
+  @ParameterizedTest
+  @EnumSource(MemoryMode.class)
+  void export_singleSpanPayloadTooLarge(MemoryMode memoryMode) {
+    List<Integer> requestItems = new ArrayList<>();
+    SpanReusableDataMarshaler marshaler =
+        new SpanReusableDataMarshaler(
+            memoryMode,
+            (request, numItems) -> {
+              requestItems.add(numItems);
+              return numItems > 1 ? payloadTooLarge() : CompletableResultCode.ofFailure();
+            });
+
+    assertThat(marshaler.export(spans(2)).isSuccess()).isFalse();
+    assertThat(requestItems).containsExactly(2, 1, 1);
+  }
+
+  private static CompletableResultCode payloadTooLarge() {
+    HttpResponse response =
+        new HttpResponse() {
+          @Override
+          public int getStatusCode() {
+            return 413;
+          }
+
+          @Override
+          public String getStatusMessage() {
+            return "Payload Too Large";
+          }
+
+          @Override
+          public byte[] getResponseBody() {
+            return new byte[0];
+          }
+        };
+    return new CompletableResultCode()
+        .failExceptionally(FailedExportException.httpFailedWithResponse(response));
+  }
+
+  private static List<SpanData> spans(int count) {
+    List<SpanData> spans = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      spans.add(
+          TestSpanData.builder()
+              .setHasEnded(true)
+              .setSpanContext(SPAN_CONTEXT)
+              .setName("span" + i)
+              .setKind(SpanKind.INTERNAL)
+              .setStartEpochNanos(12345)
+              .setEndEpochNanos(12349)
+              .setAttributes(Attributes.of(AttributeKey.stringKey("key"), "value" + i))
+              .setStatus(StatusData.unset())
+              .build());
+    }
+    return spans;
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoublePointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableGaugeData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSumData;
+import io.opentelemetry.sdk.resources.Resource;
+import io.prometheus.metrics.config.EscapingScheme;
+import io.prometheus.metrics.expositionformats.PrometheusTextFormatWriter;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a scrape of 10,000 metrics with 10 points each by the Prometheus exporter, converting
+ * them to snapshots and serializing those as the library handler does, or writing them directly.
+ * The converter is reused across scrapes like in {@link PrometheusMetricReader}, so that its name
+ * caches are warm.
+ */
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScrapeBenchmark {
+
+  private static final int METRIC_COUNT = 10_000;
+  private static final int POINTS_PER_METRIC = 10;
+
+  @Param({"UNDERSCORE_ESCAPING_WITH_SUFFIXES", "UNDERSCORE_ESCAPING_WITHOUT_SUFFIXES"})
+  TranslationStrategy translationStrategy;
+
+  private List<MetricData> metrics;
+  private Otel2PrometheusConverter converter;
+  private Otel2PrometheusWriter writer;
+  private PrometheusTextFormatWriter textFormatWriter;
+  private ExpositionBuffer buffer;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Resource resource = Resource.getDefault();
+    List<InstrumentationScopeInfo> scopes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      scopes.add(InstrumentationScopeInfo.builder("io.opentelemetry.scope" + i).build());
+    }
+    metrics = new ArrayList<>(METRIC_COUNT);
+    for (int i = 0; i < METRIC_COUNT; i++) {
+      InstrumentationScopeInfo scope = scopes.get(i % scopes.size());
+      if (i % 2 == 0) {
+        List<LongPointData> points = new ArrayList<>(POINTS_PER_METRIC);
+        for (int j = 0; j < POINTS_PER_METRIC; j++) {
+          points.add(ImmutableLongPointData.create(1000, 2000, attributes(j), i * 31L + j));
+        }
+        metrics.add(
+            ImmutableMetricData.createLongSum(
+                resource,
+                scope,
+                "http.server.request.count." + i,
+                "Number of requests",
+                "{request}",
+                ImmutableSumData.create(
+                    /* isMonotonic= */ true, AggregationTemporality.CUMULATIVE, points)));
+      } else {
+        List<DoublePointData> points = new ArrayList<>(POINTS_PER_METRIC);
+        for (int j = 0; j < POINTS_PER_METRIC; j++) {
+          points.add(ImmutableDoublePointData.create(1000, 2000, attributes(j), i * 0.5 + j));
+        }
+        metrics.add(
+            ImmutableMetricData.createDoubleGauge(
+                resource,
+                scope,
+                "process.runtime.memory.usage." + i,
+                "Memory usage",
+                "By",
+                ImmutableGaugeData.create(points)));
+      }
+    }
+    metrics = Collections.unmodifiableList(metrics);
+    converter =
+        new Otel2PrometheusConverter(
+            /* otelScopeLabelsEnabled= */ true,
+            /* targetInfoMetricEnabled= */ true,
+            translationStrategy,
+            /* allowedResourceAttributesFilter= */ null);
+    writer = new Otel2PrometheusWriter(converter);
+    textFormatWriter = PrometheusTextFormatWriter.create();
+    buffer = new ExpositionBuffer(4096);
+  }
+
+  private static Attributes attributes(int point) {
+    return Attributes.builder()
+        .put("http.request.method", point % 2 == 0 ? "GET" : "POST")
+        .put("http.route", "/api/v1/items/" + point)
+        .put("server.address", "localhost")
+        .build();
+  }
+
+  @Benchmark
+  public MetricSnapshots convert() {
+    return converter.convert(metrics);
+  }
+
+  @Benchmark
+  public int convertAndWriteText() throws IOException {
+    buffer.reset();
+    textFormatWriter.write(buffer, converter.convert(metrics), EscapingScheme.UNDERSCORE_ESCAPING);
+    return buffer.size();
+  }
+
+  @Benchmark
+  public int writeText() {
+    buffer.reset();
+    writer.write(metrics, /* openMetrics= */ false, buffer);
+    return buffer.size();
+  }
+}
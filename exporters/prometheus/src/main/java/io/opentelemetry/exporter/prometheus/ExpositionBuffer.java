@@ -0,0 +1,180 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer which {@link Otel2PrometheusWriter} renders a scrape response into, and
+ * which the response is then sent from. Unlike the {@link ByteArrayOutputStream} methods, the write
+ * methods of this class are not synchronized and encode strings and numbers without allocating.
+ */
+final class ExpositionBuffer extends ByteArrayOutputStream {
+
+  private static final byte[] LONG_MIN_VALUE =
+      "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+
+  private final byte[] digits = new byte[19];
+
+  ExpositionBuffer(int initialCapacity) {
+    super(initialCapacity);
+  }
+
+  void writeByte(int b) {
+    ensureCapacity(count + 1);
+    buf[count++] = (byte) b;
+  }
+
+  /** Writes a string consisting only of ASCII characters, such as a sanitized metric name. */
+  void writeAscii(String value) {
+    int length = value.length();
+    ensureCapacity(count + length);
+    for (int i = 0; i < length; i++) {
+      buf[count++] = (byte) value.charAt(i);
+    }
+  }
+
+  /**
+   * Writes {@code value} encoded as UTF-8, escaping backslashes and line feeds, and double quotes
+   * if {@code escapeQuotes} is {@code true}.
+   */
+  void writeEscaped(String value, boolean escapeQuotes) {
+    int length = value.length();
+    // Escaped ASCII characters take two bytes, other characters at most three per UTF-16 unit.
+    ensureCapacity(count + 3 * length);
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c == '\\') {
+          buf[count++] = '\\';
+          buf[count++] = '\\';
+        } else if (c == '\n') {
+          buf[count++] = '\\';
+          buf[count++] = 'n';
+        } else if (c == '"' && escapeQuotes) {
+          buf[count++] = '\\';
+          buf[count++] = '"';
+        } else {
+          buf[count++] = (byte) c;
+        }
+      } else if (c < 0x800) {
+        buf[count++] = (byte) (0xc0 | (c >> 6));
+        buf[count++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          buf[count++] = (byte) (0xf0 | (codePoint >> 18));
+          buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+          buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+          buf[count++] = (byte) (0x80 | (codePoint & 0x3f));
+        } else {
+          // Unpaired surrogate, replaced like the UTF-8 encoder of an OutputStreamWriter does.
+          buf[count++] = '?';
+        }
+      } else {
+        buf[count++] = (byte) (0xe0 | (c >> 12));
+        buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buf[count++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+  }
+
+  void writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      write(LONG_MIN_VALUE, 0, LONG_MIN_VALUE.length);
+      return;
+    }
+    long remaining = value;
+    if (remaining < 0) {
+      writeByte('-');
+      remaining = -remaining;
+    }
+    int pos = digits.length;
+    do {
+      digits[--pos] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining > 0);
+    int length = digits.length - pos;
+    ensureCapacity(count + length);
+    System.arraycopy(digits, pos, buf, count, length);
+    count += length;
+  }
+
+  /**
+   * Writes {@code value} like {@link Double#toString(double)}, except for infinities which are
+   * written as {@code +Inf} and {@code -Inf}.
+   */
+  void writeDouble(double value) {
+    if (value == Double.POSITIVE_INFINITY) {
+      writeAscii("+Inf");
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      writeAscii("-Inf");
+    } else {
+      long longValue = (long) value;
+      // Double.toString writes integral values below 10^7 as the integer followed by ".0", which
+      // covers most counters without allocating. Negative zero is left to Double.toString.
+      if (longValue == value
+          && longValue > -10_000_000L
+          && longValue < 10_000_000L
+          && (longValue != 0 || Double.doubleToRawLongBits(value) == 0)) {
+        writeLong(longValue);
+        writeByte('.');
+        writeByte('0');
+      } else {
+        writeAscii(Double.toString(value));
+      }
+    }
+  }
+
+  /** Writes a timestamp in milliseconds as seconds with three decimals, as OpenMetrics does. */
+  void writeOpenMetricsTimestamp(long timestampMillis) {
+    writeLong(timestampMillis / 1000);
+    writeByte('.');
+    long millis = timestampMillis % 1000;
+    if (millis < 100) {
+      writeByte('0');
+    }
+    if (millis < 10) {
+      writeByte('0');
+    }
+    writeLong(millis);
+  }
+
+  /** Returns the number of bytes written, like {@link #size()} but without synchronizing. */
+  int length() {
+    return count;
+  }
+
+  /**
+   * Returns the array holding the {@link #length()} bytes written, without copying it. It is
+   * replaced by a larger one if more bytes are written.
+   */
+  byte[] array() {
+    return buf;
+  }
+
+  @Override
+  public void write(byte[] bytes, int offset, int length) {
+    ensureCapacity(count + length);
+    System.arraycopy(bytes, offset, buf, count, length);
+    count += length;
+  }
+
+  @Override
+  public void write(int b) {
+    writeByte(b);
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length << 1, minCapacity));
+    }
+  }
+}
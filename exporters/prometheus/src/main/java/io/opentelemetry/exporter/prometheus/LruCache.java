@@ -0,0 +1,61 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import io.opentelemetry.api.internal.GuardedBy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread-safe map holding at most a fixed number of entries, evicting the least recently used
+ * entry when full. Unlike clearing the cache once it is full, this keeps translating only the
+ * entries which are new when the number of distinct keys slightly exceeds the capacity.
+ */
+final class LruCache<K, V> {
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final LinkedHashMap<K, V> entries;
+
+  LruCache(int capacity) {
+    this.entries =
+        new LinkedHashMap<K, V>(16, 0.75f, /* accessOrder= */ true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Returns the value cached for {@code key}, computing and caching it with {@code function} if
+   * absent. The function runs outside the lock, so concurrent callers may compute the same value;
+   * exceptions it throws propagate and nothing is cached.
+   */
+  V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+    synchronized (lock) {
+      V value = entries.get(key);
+      if (value != null) {
+        return value;
+      }
+    }
+    V value = function.apply(key);
+    synchronized (lock) {
+      entries.put(key, value);
+    }
+    return value;
+  }
+
+  int size() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+}
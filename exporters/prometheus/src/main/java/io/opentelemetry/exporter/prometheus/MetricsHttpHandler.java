@@ -0,0 +1,204 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import io.opentelemetry.sdk.common.Clock;
+import io.prometheus.metrics.config.EscapingScheme;
+import io.prometheus.metrics.config.PrometheusProperties;
+import io.prometheus.metrics.exporter.httpserver.DefaultHandler;
+import io.prometheus.metrics.exporter.httpserver.HttpExchangeAdapter;
+import io.prometheus.metrics.exporter.httpserver.MetricsHandler;
+import io.prometheus.metrics.expositionformats.OpenMetricsTextFormatWriter;
+import io.prometheus.metrics.expositionformats.PrometheusTextFormatWriter;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+
+/**
+ * Serves the {@value #METRICS_PATH} endpoint of {@link PrometheusHttpServer} by writing the metrics
+ * of the {@link PrometheusMetricReader} directly in the requested text format, and the other paths
+ * with the default handler.
+ *
+ * <p>Requests which need more than the text formats, such as protobuf, the {@code name[]} and
+ * {@code debug} query parameters or a non-default escaping scheme, are delegated to the Prometheus
+ * {@link MetricsHandler}. The responses are otherwise identical, including compression and errors.
+ *
+ * <p>Concurrent scrapes of the same format share one collection, and its encoded response is
+ * served to the scrapes arriving within the minimum scrape interval, compressed at most once. The
+ * response is sent from the buffer it was encoded into, without copying it.
+ */
+final class MetricsHttpHandler implements HttpHandler {
+
+  static final String METRICS_PATH = "/metrics";
+
+  private static final String OPEN_METRICS_MEDIA_TYPE = "application/openmetrics-text";
+  private static final String PROTOBUF_MEDIA_TYPE = "application/vnd.google.protobuf";
+  private static final int INITIAL_BUFFER_SIZE = 4096;
+
+  private final PrometheusMetricReader prometheusMetricReader;
+  private final HttpHandler metricsHandler;
+  private final HttpHandler defaultHandler;
+  private final boolean preferUncompressedResponse;
+  private final ScrapeCoalescer<Response> textScrapes;
+  private final ScrapeCoalescer<Response> openMetricsScrapes;
+  // Size of the last response, so that the next scrape starts with enough capacity.
+  private volatile int lastResponseSize = INITIAL_BUFFER_SIZE;
+
+  MetricsHttpHandler(
+      PrometheusMetricReader prometheusMetricReader,
+      PrometheusRegistry prometheusRegistry,
+      PrometheusProperties prometheusProperties,
+      @Nullable HttpHandler defaultHandler,
+      long minScrapeIntervalNanos) {
+    this.prometheusMetricReader = prometheusMetricReader;
+    this.textScrapes =
+        new ScrapeCoalescer<>(
+            () -> scrape(/* openMetrics= */ false), minScrapeIntervalNanos, Clock.getDefault());
+    this.openMetricsScrapes =
+        new ScrapeCoalescer<>(
+            () -> scrape(/* openMetrics= */ true), minScrapeIntervalNanos, Clock.getDefault());
+    this.metricsHandler = new MetricsHandler(prometheusProperties, prometheusRegistry);
+    this.defaultHandler =
+        defaultHandler != null ? defaultHandler : new DefaultHandler(METRICS_PATH);
+    this.preferUncompressedResponse =
+        prometheusProperties.getExporterHttpServerProperties().isPreferUncompressedResponse();
+  }
+
+  /**
+   * Returns whether the responses of the Prometheus {@link MetricsHandler} configured with {@code
+   * prometheusProperties} are the ones this handler writes.
+   */
+  static boolean supports(PrometheusProperties prometheusProperties) {
+    return !prometheusProperties.getExporterProperties().getIncludeCreatedTimestamps()
+        && !prometheusProperties.getExporterProperties().getExemplarsOnAllMetricTypes()
+        && !prometheusProperties.getOpenMetrics2Properties().getEnabled()
+        && prometheusProperties.getExporterFilterProperties().getAllowedMetricNames() == null
+        && prometheusProperties.getExporterFilterProperties().getExcludedMetricNames() == null
+        && prometheusProperties.getExporterFilterProperties().getAllowedMetricNamePrefixes() == null
+        && prometheusProperties.getExporterFilterProperties().getExcludedMetricNamePrefixes()
+            == null;
+  }
+
+  @Override
+  public void handle(HttpExchange exchange) throws IOException {
+    // The server registers this handler for "/", paths below "/metrics/" still go to the
+    // MetricsHandler context registered for them. Others, such as "/metricsfoo", are not metrics.
+    if (!exchange.getRequestURI().getPath().equals(METRICS_PATH)) {
+      defaultHandler.handle(exchange);
+      return;
+    }
+    String acceptHeader = exchange.getRequestHeaders().getFirst("Accept");
+    if (exchange.getRequestURI().getRawQuery() != null
+        || (acceptHeader != null && acceptHeader.contains(PROTOBUF_MEDIA_TYPE))
+        || EscapingScheme.fromAcceptHeader(acceptHeader) != EscapingScheme.UNDERSCORE_ESCAPING) {
+      metricsHandler.handle(exchange);
+      return;
+    }
+    boolean openMetrics = acceptHeader != null && acceptHeader.contains(OPEN_METRICS_MEDIA_TYPE);
+    HttpExchangeAdapter adapter = new HttpExchangeAdapter(exchange);
+    try {
+      boolean gzip = shouldUseCompression(exchange);
+      ExpositionBuffer body = body(openMetrics ? openMetricsScrapes : textScrapes, gzip);
+      int length = body.length();
+      HttpExchangeAdapter.HttpResponse response = adapter.getResponse();
+      response.setHeader(
+          "Content-Type",
+          openMetrics
+              ? OpenMetricsTextFormatWriter.CONTENT_TYPE
+              : PrometheusTextFormatWriter.CONTENT_TYPE);
+      if (gzip) {
+        response.setHeader("Content-Encoding", "gzip");
+      }
+      if (length > 0) {
+        response.setHeader("Content-Length", String.valueOf(length));
+      }
+      if (exchange.getRequestMethod().equals("HEAD")) {
+        response.sendHeadersAndGetBody(200, -1);
+        return;
+      }
+      try (OutputStream outputStream = response.sendHeadersAndGetBody(200, length)) {
+        outputStream.write(body.array(), 0, length);
+      }
+    } catch (IOException e) {
+      adapter.handleException(e);
+    } catch (RuntimeException e) {
+      adapter.handleException(e);
+    } finally {
+      adapter.close();
+    }
+  }
+
+  /**
+   * Returns the bytes to send for the current scrape. Only they are referenced while a slow client
+   * reads them, not the uncompressed body of a compressed response.
+   */
+  private static ExpositionBuffer body(ScrapeCoalescer<Response> scrapes, boolean gzip)
+      throws IOException {
+    Response scrape = scrapes.get();
+    return gzip ? scrape.gzippedBody() : scrape.body;
+  }
+
+  private Response scrape(boolean openMetrics) {
+    // The buffer becomes the response, which may still be read by slow clients after the next
+    // scrape, so it is not reused. Leave some room for growth to avoid copying it.
+    int expectedSize = lastResponseSize;
+    ExpositionBuffer buffer = new ExpositionBuffer(expectedSize + expectedSize / 8);
+    prometheusMetricReader.writeMetrics(openMetrics, buffer);
+    lastResponseSize = Math.max(buffer.length(), INITIAL_BUFFER_SIZE);
+    return new Response(buffer);
+  }
+
+  private boolean shouldUseCompression(HttpExchange exchange) {
+    if (preferUncompressedResponse) {
+      return false;
+    }
+    List<String> encodingHeaders = exchange.getRequestHeaders().get("Accept-Encoding");
+    if (encodingHeaders == null) {
+      return false;
+    }
+    for (String encodingHeader : encodingHeaders) {
+      for (String encoding : encodingHeader.split(",")) {
+        if (encoding.trim().equalsIgnoreCase("gzip")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** The encoded metrics of a scrape, shared by the requests it serves. */
+  private static final class Response {
+    // Not written to anymore once the response is created.
+    private final ExpositionBuffer body;
+    @Nullable private volatile ExpositionBuffer gzippedBody;
+
+    private Response(ExpositionBuffer body) {
+      this.body = body;
+    }
+
+    private ExpositionBuffer gzippedBody() throws IOException {
+      ExpositionBuffer result = gzippedBody;
+      if (result == null) {
+        synchronized (this) {
+          result = gzippedBody;
+          if (result == null) {
+            result = new ExpositionBuffer(body.length() / 4 + 64);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(result)) {
+              gzipOutputStream.write(body.array(), 0, body.length());
+            }
+            gzippedBody = result;
+          }
+        }
+      }
+      return result;
+    }
+  }
+}
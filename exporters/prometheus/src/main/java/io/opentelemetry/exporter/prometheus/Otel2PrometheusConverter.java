@@ -13,6 +13,7 @@ import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.Value;
 import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.common.internal.DynamicPrimitiveLongList;
 import io.opentelemetry.sdk.common.internal.ThrottlingLogger;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
@@ -52,6 +53,7 @@ import io.prometheus.metrics.model.snapshots.SummarySnapshot;
 import io.prometheus.metrics.model.snapshots.SummarySnapshot.SummaryDataPointSnapshot;
 import io.prometheus.metrics.model.snapshots.Unit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -60,8 +62,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.logging.Level;
@@ -76,13 +78,14 @@ final class Otel2PrometheusConverter {
   private final ThrottlingLogger throttlingLogger = new ThrottlingLogger(LOGGER);
   // Prometheus limits the total UTF-8 character count across all exemplar label names and values
   // to 128. See https://github.com/open-telemetry/opentelemetry-java/issues/6770
-  private static final int EXEMPLAR_MAX_LABEL_SET_LENGTH = 128;
-  private static final String OTEL_SCOPE_NAME = "otel_scope_name";
-  private static final String OTEL_SCOPE_VERSION = "otel_scope_version";
-  private static final String OTEL_SCOPE_SCHEMA_URL = "otel_scope_schema_url";
-  private static final String OTEL_SCOPE_ATTRIBUTE_PREFIX = "otel_scope_";
-  private static final long NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+  static final int EXEMPLAR_MAX_LABEL_SET_LENGTH = 128;
+  static final String OTEL_SCOPE_NAME = "otel_scope_name";
+  static final String OTEL_SCOPE_VERSION = "otel_scope_version";
+  static final String OTEL_SCOPE_SCHEMA_URL = "otel_scope_schema_url";
+  static final String OTEL_SCOPE_ATTRIBUTE_PREFIX = "otel_scope_";
+  static final long NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
   static final int MAX_CACHE_SIZE = 10;
+  static final int MAX_NAME_CACHE_SIZE = 10_000;
 
   private final boolean otelScopeLabelsEnabled;
   private final boolean targetInfoMetricEnabled;
@@ -90,10 +93,18 @@ final class Otel2PrometheusConverter {
   @Nullable private final Predicate<String> allowedResourceAttributesFilter;
 
   /**
-   * Used only if addResourceAttributesAsLabels is true. Once the cache reaches {@link
-   * #MAX_CACHE_SIZE}, it is cleared to protect against unbounded conversion over time.
+   * Used only if addResourceAttributesAsLabels is true. Holds at most {@link #MAX_CACHE_SIZE}
+   * resources, evicting the least recently used, to protect against unbounded growth over time.
    */
-  private final Map<Attributes, List<AttributeKey<?>>> resourceAttributesToAllowedKeysCache;
+  private final LruCache<Attributes, List<AttributeKey<?>>> resourceAttributesToAllowedKeysCache =
+      new LruCache<>(MAX_CACHE_SIZE);
+
+  // Sanitizing names and converting units would otherwise be repeated for every metric and
+  // attribute key on each scrape.
+  private final LruCache<MetadataKey, MetricMetadata> metadataCache =
+      new LruCache<>(MAX_NAME_CACHE_SIZE);
+  private final LruCache<AttributeKey<?>, String> labelNameCache =
+      new LruCache<>(MAX_NAME_CACHE_SIZE);
 
   /**
    * Constructor with feature flag parameters.
@@ -113,10 +124,6 @@ final class Otel2PrometheusConverter {
     this.targetInfoMetricEnabled = targetInfoMetricEnabled;
     this.translationStrategy = translationStrategy;
     this.allowedResourceAttributesFilter = allowedResourceAttributesFilter;
-    this.resourceAttributesToAllowedKeysCache =
-        allowedResourceAttributesFilter != null
-            ? new ConcurrentHashMap<>()
-            : Collections.emptyMap();
   }
 
   boolean isOtelScopeLabelsEnabled() {
@@ -163,14 +170,18 @@ final class Otel2PrometheusConverter {
     try {
       return doConvert(metricData);
     } catch (IllegalArgumentException e) {
-      throttlingLogger.log(
-          Level.WARNING,
-          "Failed to convert metric " + metricData.getName() + ". Dropping metric.",
-          e);
+      logConversionFailure(metricData, e);
       return null;
     }
   }
 
+  void logConversionFailure(MetricData metricData, IllegalArgumentException e) {
+    throttlingLogger.log(
+        Level.WARNING,
+        "Failed to convert metric " + metricData.getName() + ". Dropping metric.",
+        e);
+  }
+
   @Nullable
   private MetricSnapshot doConvert(MetricData metricData) {
     // Note that AggregationTemporality.DELTA should never happen
@@ -232,7 +243,7 @@ final class Otel2PrometheusConverter {
     return null;
   }
 
-  private static boolean isMonotonicSum(MetricData metricData) {
+  static boolean isMonotonicSum(MetricData metricData) {
     switch (metricData.getType()) {
       case LONG_SUM:
         return metricData.getLongSumData().isMonotonic();
@@ -340,13 +351,7 @@ final class Otel2PrometheusConverter {
     for (ExponentialHistogramPointData histogramData : dataPoints) {
       int scale = histogramData.getScale();
       if (scale < -4) {
-        throttlingLogger.log(
-            Level.WARNING,
-            "Dropping histogram "
-                + metadata.getName()
-                + " with attributes "
-                + histogramData.getAttributes()
-                + " because it has scale < -4 which is unsupported in Prometheus");
+        logUnsupportedScale(metadata, histogramData.getAttributes());
         return null;
       }
       // Scale > 8 are not supported in Prometheus. Histograms with scale > 8 are scaled down to 8.
@@ -366,29 +371,53 @@ final class Otel2PrometheusConverter {
     return new HistogramSnapshot(metadata, data);
   }
 
+  void logUnsupportedScale(MetricMetadata metadata, Attributes attributes) {
+    throttlingLogger.log(
+        Level.WARNING,
+        "Dropping histogram "
+            + metadata.getName()
+            + " with attributes "
+            + attributes
+            + " because it has scale < -4 which is unsupported in Prometheus");
+  }
+
+  /**
+   * Converts the dense OpenTelemetry buckets to the sparse Prometheus native histogram buckets,
+   * leaving out the empty buckets which Prometheus does not need to be sent. The protobuf format
+   * encodes the gaps as bucket spans, so that histograms with few populated buckets stay small.
+   */
   private static NativeHistogramBuckets convertExponentialHistogramBuckets(
       ExponentialHistogramBuckets buckets, int scaleDown) {
-    if (buckets.getBucketCounts().isEmpty()) {
+    List<Long> otelCounts = buckets.getBucketCounts();
+    if (otelCounts.isEmpty()) {
       return NativeHistogramBuckets.EMPTY;
     }
-    List<Long> otelCounts = buckets.getBucketCounts();
-    List<Integer> indexes = new ArrayList<>(otelCounts.size());
-    List<Long> counts = new ArrayList<>(otelCounts.size());
-    int previousIndex = (buckets.getOffset() >> scaleDown) + 1;
-    long count = 0;
+    // The counts of the reusable data are primitive, read them without boxing.
+    @Nullable DynamicPrimitiveLongList primitiveCounts =
+        otelCounts instanceof DynamicPrimitiveLongList
+            ? (DynamicPrimitiveLongList) otelCounts
+            : null;
+    int[] indexes = new int[otelCounts.size()];
+    long[] counts = new long[otelCounts.size()];
+    int size = 0;
     for (int i = 0; i < otelCounts.size(); i++) {
+      long count = primitiveCounts != null ? primitiveCounts.getLong(i) : otelCounts.get(i);
+      if (count == 0) {
+        continue;
+      }
       int index = ((buckets.getOffset() + i) >> scaleDown) + 1;
-      if (index > previousIndex) {
-        indexes.add(previousIndex);
-        counts.add(count);
-        previousIndex = index;
-        count = 0;
+      if (size > 0 && indexes[size - 1] == index) {
+        counts[size - 1] += count;
+      } else {
+        indexes[size] = index;
+        counts[size] = count;
+        size++;
       }
-      count += otelCounts.get(i);
     }
-    indexes.add(previousIndex);
-    counts.add(count);
-    return NativeHistogramBuckets.of(indexes, counts);
+    if (size == 0) {
+      return NativeHistogramBuckets.EMPTY;
+    }
+    return NativeHistogramBuckets.of(Arrays.copyOf(indexes, size), Arrays.copyOf(counts, size));
   }
 
   private SummarySnapshot convertSummary(
@@ -463,11 +492,7 @@ final class Otel2PrometheusConverter {
       if (labelSetLength(labels) > EXEMPLAR_MAX_LABEL_SET_LENGTH) {
         // Drop filtered attributes to stay within Prometheus 128-char exemplar label limit,
         // keeping trace_id and span_id which are the most valuable for correlation.
-        throttlingLogger.log(
-            Level.WARNING,
-            "Exemplar attributes exceeded Prometheus limit of "
-                + EXEMPLAR_MAX_LABEL_SET_LENGTH
-                + " UTF-8 characters; dropping filtered attributes.");
+        logExemplarLabelSetTooLong();
         labels =
             convertAttributes(
                 null, // resource attributes are only copied for point's attributes
@@ -486,17 +511,21 @@ final class Otel2PrometheusConverter {
               null, // scope attributes are only needed for point's attributes
               exemplar.getFilteredAttributes());
       if (labelSetLength(labels) > EXEMPLAR_MAX_LABEL_SET_LENGTH) {
-        throttlingLogger.log(
-            Level.WARNING,
-            "Exemplar attributes exceeded Prometheus limit of "
-                + EXEMPLAR_MAX_LABEL_SET_LENGTH
-                + " UTF-8 characters; dropping filtered attributes.");
+        logExemplarLabelSetTooLong();
         labels = Labels.EMPTY;
       }
       return new Exemplar(value, labels, exemplar.getEpochNanos() / NANOS_PER_MILLISECOND);
     }
   }
 
+  void logExemplarLabelSetTooLong() {
+    throttlingLogger.log(
+        Level.WARNING,
+        "Exemplar attributes exceeded Prometheus limit of "
+            + EXEMPLAR_MAX_LABEL_SET_LENGTH
+            + " UTF-8 characters; dropping filtered attributes.");
+  }
+
   private static int labelSetLength(Labels labels) {
     int length = 0;
     for (int i = 0; i < labels.size(); i++) {
@@ -587,12 +616,12 @@ final class Otel2PrometheusConverter {
    * normalization maps two attribute keys to the same label name, their values are joined with ";"
    * in lexicographic order of the original key names.
    */
-  private Map<String, String> buildAttributeLabels(Attributes attributes) {
+  Map<String, String> buildAttributeLabels(Attributes attributes) {
     Map<String, String> labels = new LinkedHashMap<>();
     if (!shouldEscape(translationStrategy)) {
       attributes.forEach(
           (key, value) ->
-              labels.put(convertLabelName(key.getKey()), toLabelValue(key.getType(), value)));
+              labels.put(labelName(key), toLabelValue(key.getType(), value)));
       return labels;
     }
 
@@ -604,7 +633,7 @@ final class Otel2PrometheusConverter {
           if (hasCollision[0]) {
             return;
           }
-          String labelName = convertLabelName(key.getKey());
+          String labelName = labelName(key);
           if (labels.containsKey(labelName)) {
             hasCollision[0] = true;
           } else {
@@ -622,7 +651,7 @@ final class Otel2PrometheusConverter {
     attributes.forEach(
         (key, value) ->
             groups
-                .computeIfAbsent(convertLabelName(key.getKey()), ignored -> new ArrayList<>())
+                .computeIfAbsent(labelName(key), ignored -> new ArrayList<>())
                 .add(new OriginalLabelKeyValue(key.getKey(), toLabelValue(key.getType(), value))));
     groups.forEach((labelName, entries) -> labels.put(labelName, mergeValues(entries)));
     return labels;
@@ -633,7 +662,7 @@ final class Otel2PrometheusConverter {
    * precedence. When normalization maps two resource attribute keys to the same label name, their
    * values are joined with ";" in lexicographic order of the original key names.
    */
-  private void addResourceAttributeLabels(
+  void addResourceAttributeLabels(
       Map<String, String> dest,
       Attributes resourceAttributes,
       List<AttributeKey<?>> allowedAttributeKeys) {
@@ -646,7 +675,7 @@ final class Otel2PrometheusConverter {
         Object attributeValue = resourceAttributes.get(attributeKey);
         if (attributeValue != null) {
           dest.putIfAbsent(
-              convertLabelName(attributeKey.getKey()),
+              labelName(attributeKey),
               toLabelValue(attributeKey.getType(), attributeValue));
         }
       }
@@ -660,7 +689,7 @@ final class Otel2PrometheusConverter {
     for (AttributeKey<?> attributeKey : allowedAttributeKeys) {
       Object attributeValue = resourceAttributes.get(attributeKey);
       if (attributeValue != null) {
-        String labelName = convertLabelName(attributeKey.getKey());
+        String labelName = labelName(attributeKey);
         if (resourceLabels.containsKey(labelName)) {
           hasCollision = true;
           break;
@@ -680,7 +709,7 @@ final class Otel2PrometheusConverter {
       Object attributeValue = resourceAttributes.get(attributeKey);
       if (attributeValue != null) {
         groups
-            .computeIfAbsent(convertLabelName(attributeKey.getKey()), ignored -> new ArrayList<>())
+            .computeIfAbsent(labelName(attributeKey), ignored -> new ArrayList<>())
             .add(
                 new OriginalLabelKeyValue(
                     attributeKey.getKey(), toLabelValue(attributeKey.getType(), attributeValue)));
@@ -695,7 +724,7 @@ final class Otel2PrometheusConverter {
     return entries.stream().map(OriginalLabelKeyValue::value).collect(Collectors.joining(";"));
   }
 
-  private List<AttributeKey<?>> filterAllowedResourceAttributeKeys(@Nullable Resource resource) {
+  List<AttributeKey<?>> filterAllowedResourceAttributeKeys(@Nullable Resource resource) {
     requireNonNull(
         allowedResourceAttributesFilter,
         "This method should only be called when allowedResourceAttributesFilter is not null.");
@@ -703,25 +732,20 @@ final class Otel2PrometheusConverter {
       return Collections.emptyList();
     }
 
-    List<AttributeKey<?>> allowedAttributeKeys =
-        resourceAttributesToAllowedKeysCache.computeIfAbsent(
-            resource.getAttributes(),
-            resourceAttributes ->
-                resourceAttributes.asMap().keySet().stream()
-                    .filter(o -> allowedResourceAttributesFilter.test(o.getKey()))
-                    .collect(Collectors.toList()));
-
-    if (resourceAttributesToAllowedKeysCache.size() > MAX_CACHE_SIZE) {
-      resourceAttributesToAllowedKeysCache.clear();
-    }
-    return allowedAttributeKeys;
+    return resourceAttributesToAllowedKeysCache.computeIfAbsent(
+        resource.getAttributes(),
+        resourceAttributes ->
+            resourceAttributes.asMap().keySet().stream()
+                .filter(o -> allowedResourceAttributesFilter.test(o.getKey()))
+                .collect(Collectors.toList()));
   }
 
-  private String convertLabelName(String key) {
-    if (shouldEscape(translationStrategy)) {
-      return convertLegacyLabelName(key);
+  /** Returns the label name of {@code key}, caching it if names are escaped. */
+  String labelName(AttributeKey<?> key) {
+    if (!shouldEscape(translationStrategy)) {
+      return key.getKey();
     }
-    return key;
+    return labelNameCache.computeIfAbsent(key, k -> convertLegacyLabelName(k.getKey()));
   }
 
   /**
@@ -815,7 +839,15 @@ final class Otel2PrometheusConverter {
         || (codePoint >= '0' && codePoint <= '9' && index > 0);
   }
 
-  private MetricMetadata convertMetadata(MetricData metricData, boolean isCounter) {
+  /** Returns the metadata of {@code metricData}, cached per metric descriptor. */
+  MetricMetadata convertMetadata(MetricData metricData, boolean isCounter) {
+    MetadataKey key =
+        new MetadataKey(
+            metricData.getName(), metricData.getDescription(), metricData.getUnit(), isCounter);
+    return metadataCache.computeIfAbsent(key, k -> translateMetadata(metricData, isCounter));
+  }
+
+  private MetricMetadata translateMetadata(MetricData metricData, boolean isCounter) {
     switch (translationStrategy) {
       case UNDERSCORE_ESCAPING_WITH_SUFFIXES:
         return convertMetadataEscapedWithSuffixes(metricData);
@@ -961,23 +993,27 @@ final class Otel2PrometheusConverter {
       dataPoints.addAll(((InfoSnapshot) b).getDataPoints());
       return new InfoSnapshot(metadata, dataPoints);
     } else {
-      throttlingLogger.log(
-          Level.WARNING,
-          "Conflicting metric name "
-              + a.getMetadata().getPrometheusName()
-              + ": Found one metric with type "
-              + typeString(a)
-              + " and one of type "
-              + typeString(b)
-              + ". Dropping the one with type "
-              + typeString(b)
-              + ".");
+      logConflictingTypes(a.getMetadata(), typeString(a), typeString(b));
       return null;
     }
   }
 
+  void logConflictingTypes(MetricMetadata metadata, String type, String droppedType) {
+    throttlingLogger.log(
+        Level.WARNING,
+        "Conflicting metric name "
+            + metadata.getPrometheusName()
+            + ": Found one metric with type "
+            + type
+            + " and one of type "
+            + droppedType
+            + ". Dropping the one with type "
+            + droppedType
+            + ".");
+  }
+
   @Nullable
-  private MetricMetadata mergeMetadata(MetricMetadata a, MetricMetadata b) {
+  MetricMetadata mergeMetadata(MetricMetadata a, MetricMetadata b) {
     String name = a.getPrometheusName();
     if (a.getName().equals(b.getName())) {
       name = a.getName();
@@ -1005,7 +1041,7 @@ final class Otel2PrometheusConverter {
     return snapshot.getClass().getSimpleName().replace("Snapshot", "").toLowerCase(Locale.ENGLISH);
   }
 
-  private static String toLabelValue(AttributeType type, Object attributeValue) {
+  static String toLabelValue(AttributeType type, Object attributeValue) {
     switch (type) {
       case STRING:
       case BOOLEAN:
@@ -1097,4 +1133,42 @@ final class Otel2PrometheusConverter {
       return value;
     }
   }
+
+  /**
+   * The parts of a metric descriptor its metadata is translated from. {@link MetricData} is
+   * recreated on every collection, so metadata is cached by value rather than by identity.
+   */
+  private static final class MetadataKey {
+    private final String name;
+    private final String description;
+    private final String unit;
+    private final boolean isCounter;
+
+    private MetadataKey(String name, String description, String unit, boolean isCounter) {
+      this.name = name;
+      this.description = description;
+      this.unit = unit;
+      this.isCounter = isCounter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MetadataKey)) {
+        return false;
+      }
+      MetadataKey that = (MetadataKey) o;
+      return isCounter == that.isCounter
+          && name.equals(that.name)
+          && description.equals(that.description)
+          && unit.equals(that.unit);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, description, unit, isCounter);
+    }
+  }
 }
@@ -0,0 +1,1095 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.exporter.prometheus.Otel2PrometheusConverter.EXEMPLAR_MAX_LABEL_SET_LENGTH;
+import static io.opentelemetry.exporter.prometheus.Otel2PrometheusConverter.NANOS_PER_MILLISECOND;
+import static io.opentelemetry.exporter.prometheus.Otel2PrometheusConverter.OTEL_SCOPE_ATTRIBUTE_PREFIX;
+import static io.opentelemetry.exporter.prometheus.Otel2PrometheusConverter.OTEL_SCOPE_NAME;
+import static io.opentelemetry.exporter.prometheus.Otel2PrometheusConverter.OTEL_SCOPE_SCHEMA_URL;
+import static io.opentelemetry.exporter.prometheus.Otel2PrometheusConverter.OTEL_SCOPE_VERSION;
+import static java.util.Objects.requireNonNull;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExemplarData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongExemplarData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.data.SummaryPointData;
+import io.opentelemetry.sdk.metrics.data.ValueAtQuantile;
+import io.opentelemetry.sdk.resources.Resource;
+import io.prometheus.metrics.model.snapshots.DuplicateLabelsException;
+import io.prometheus.metrics.model.snapshots.Labels;
+import io.prometheus.metrics.model.snapshots.MetricMetadata;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import io.prometheus.metrics.model.snapshots.PrometheusNaming;
+import io.prometheus.metrics.model.snapshots.Unit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Writes OpenTelemetry {@link MetricData} in the Prometheus text and OpenMetrics text exposition
+ * formats, without building intermediate {@link MetricSnapshots}.
+ *
+ * <p>The output is the same as converting the metrics with {@link Otel2PrometheusConverter} and
+ * serializing the result with the Prometheus {@code PrometheusTextFormatWriter} or {@code
+ * OpenMetricsTextFormatWriter} using their default options and the {@code underscores} escaping
+ * scheme. Sanitized metric metadata and label names come from the caches of the converter, and
+ * the label arrays of each series are reused from one scrape to the next, so that a scrape
+ * allocates little more than the response itself.
+ *
+ * <p>Only the {@link TranslationStrategy#UNDERSCORE_ESCAPING_WITH_SUFFIXES} and {@link
+ * TranslationStrategy#UNDERSCORE_ESCAPING_WITHOUT_SUFFIXES} translation strategies are supported.
+ */
+final class Otel2PrometheusWriter {
+
+  private static final MetricMetadata TARGET_INFO_METADATA =
+      MetricMetadata.builder().name("target").build();
+  private static final Comparator<Row> ROW_ORDER = Otel2PrometheusWriter::compareRows;
+
+  private final Otel2PrometheusConverter converter;
+  private final AtomicReference<Scratch> scratchCache = new AtomicReference<>();
+
+  Otel2PrometheusWriter(Otel2PrometheusConverter converter) {
+    TranslationStrategy translationStrategy = converter.getTranslationStrategy();
+    if (translationStrategy != TranslationStrategy.UNDERSCORE_ESCAPING_WITH_SUFFIXES
+        && translationStrategy != TranslationStrategy.UNDERSCORE_ESCAPING_WITHOUT_SUFFIXES) {
+      throw new IllegalArgumentException(
+          "Unsupported translation strategy: " + translationStrategy);
+    }
+    this.converter = converter;
+  }
+
+  /**
+   * Writes {@code metrics} to {@code out} in the OpenMetrics text format if {@code openMetrics} is
+   * {@code true}, and in the Prometheus text format otherwise.
+   */
+  void write(@Nullable Collection<MetricData> metrics, boolean openMetrics, ExpositionBuffer out) {
+    Scratch scratch = scratchCache.getAndSet(null);
+    if (scratch == null) {
+      scratch = new Scratch();
+    }
+    try {
+      if (metrics != null) {
+        collect(scratch, metrics);
+      }
+      for (Family family : scratch.families.values()) {
+        if (family.rows.isEmpty()) {
+          continue;
+        }
+        sortFamily(family);
+        if (openMetrics) {
+          writeOpenMetricsFamily(family, out);
+        } else {
+          writeTextFamily(family, out);
+        }
+      }
+      if (openMetrics) {
+        out.writeAscii("# EOF\n");
+      }
+    } finally {
+      scratch.reset();
+      scratchCache.set(scratch);
+    }
+  }
+
+  // Mirrors Otel2PrometheusConverter.convert(Collection<MetricData>).
+  private void collect(Scratch scratch, Collection<MetricData> metrics) {
+    Resource resource = null;
+    for (MetricData metricData : metrics) {
+      int start = scratch.usedRows;
+      boolean converted;
+      try {
+        converted = collectMetric(scratch, metricData);
+      } catch (IllegalArgumentException e) {
+        converter.logConversionFailure(metricData, e);
+        converted = false;
+      }
+      if (!converted) {
+        scratch.releaseRows(start);
+        continue;
+      }
+      if (resource == null) {
+        resource = metricData.getResource();
+      }
+    }
+    if (resource != null && converter.isTargetInfoMetricEnabled()) {
+      int start = scratch.usedRows;
+      Row row = scratch.nextRow();
+      fillAttributeLabels(scratch, row, resource.getAttributes());
+      putOrMerge(scratch, TARGET_INFO_METADATA, Kind.INFO, start);
+    }
+  }
+
+  /**
+   * Adds the series of {@code metricData} to their family, and returns {@code false} if the
+   * converter would have dropped the metric without logging.
+   */
+  private boolean collectMetric(Scratch scratch, MetricData metricData) {
+    // Note that AggregationTemporality.DELTA should never happen
+    // because PrometheusMetricReader#getAggregationTemporality returns CUMULATIVE.
+    boolean isCounter = Otel2PrometheusConverter.isMonotonicSum(metricData);
+    MetricMetadata metadata = converter.convertMetadata(metricData, isCounter);
+    InstrumentationScopeInfo scope = metricData.getInstrumentationScopeInfo();
+    Resource resource = metricData.getResource();
+    int start = scratch.usedRows;
+    Kind kind;
+    switch (metricData.getType()) {
+      case LONG_GAUGE:
+        kind = Kind.GAUGE;
+        collectPoints(scratch, kind, metricData.getLongGaugeData().getPoints(), scope, resource);
+        break;
+      case DOUBLE_GAUGE:
+        kind = Kind.GAUGE;
+        collectPoints(scratch, kind, metricData.getDoubleGaugeData().getPoints(), scope, resource);
+        break;
+      case LONG_SUM:
+        if (metricData.getLongSumData().getAggregationTemporality()
+            == AggregationTemporality.DELTA) {
+          return false;
+        }
+        kind = isCounter ? Kind.COUNTER : Kind.GAUGE;
+        collectPoints(scratch, kind, metricData.getLongSumData().getPoints(), scope, resource);
+        break;
+      case DOUBLE_SUM:
+        if (metricData.getDoubleSumData().getAggregationTemporality()
+            == AggregationTemporality.DELTA) {
+          return false;
+        }
+        kind = isCounter ? Kind.COUNTER : Kind.GAUGE;
+        collectPoints(scratch, kind, metricData.getDoubleSumData().getPoints(), scope, resource);
+        break;
+      case HISTOGRAM:
+        if (metricData.getHistogramData().getAggregationTemporality()
+            == AggregationTemporality.DELTA) {
+          return false;
+        }
+        kind = Kind.HISTOGRAM;
+        collectPoints(scratch, kind, metricData.getHistogramData().getPoints(), scope, resource);
+        break;
+      case EXPONENTIAL_HISTOGRAM:
+        if (metricData.getExponentialHistogramData().getAggregationTemporality()
+            == AggregationTemporality.DELTA) {
+          return false;
+        }
+        kind = Kind.HISTOGRAM;
+        for (ExponentialHistogramPointData point :
+            metricData.getExponentialHistogramData().getPoints()) {
+          if (point.getScale() < -4) {
+            converter.logUnsupportedScale(metadata, point.getAttributes());
+            return false;
+          }
+          collectPoint(scratch, kind, point, scope, resource);
+        }
+        break;
+      case SUMMARY:
+        kind = Kind.SUMMARY;
+        collectPoints(scratch, kind, metricData.getSummaryData().getPoints(), scope, resource);
+        break;
+      default:
+        return false;
+    }
+    checkDuplicateSeries(scratch.rows.subList(start, scratch.usedRows), metadata);
+    putOrMerge(scratch, metadata, kind, start);
+    return true;
+  }
+
+  private void collectPoints(
+      Scratch scratch,
+      Kind kind,
+      Collection<? extends PointData> points,
+      InstrumentationScopeInfo scope,
+      Resource resource) {
+    for (PointData point : points) {
+      collectPoint(scratch, kind, point, scope, resource);
+    }
+  }
+
+  // Performs the same validation as the constructors of the Prometheus data point snapshots.
+  private void collectPoint(
+      Scratch scratch,
+      Kind kind,
+      PointData point,
+      InstrumentationScopeInfo scope,
+      Resource resource) {
+    Row row = scratch.nextRow();
+    row.point = point;
+    fillAttributeLabels(scratch, row, point.getAttributes());
+    addScopeAndResourceLabels(scratch, row, scope, resource);
+    if (kind == Kind.COUNTER) {
+      double value =
+          point instanceof LongPointData
+              ? (double) ((LongPointData) point).getValue()
+              : ((DoublePointData) point).getValue();
+      if (value < 0) {
+        throw new IllegalArgumentException(value + ": counters cannot have a negative value");
+      }
+    } else if (kind == Kind.HISTOGRAM) {
+      if (row.indexOf("le") >= 0) {
+        throw new IllegalArgumentException("le is a reserved label name for histograms");
+      }
+      if (point instanceof HistogramPointData) {
+        validateBuckets((HistogramPointData) point);
+      }
+    } else if (kind == Kind.SUMMARY) {
+      if (row.indexOf("quantile") >= 0) {
+        throw new IllegalArgumentException("quantile is a reserved label name for summaries");
+      }
+      row.quantiles = sortedQuantiles(((SummaryPointData) point).getValues());
+    }
+    if (kind != Kind.GAUGE && point.getStartEpochNanos() / NANOS_PER_MILLISECOND < 0) {
+      throw new IllegalArgumentException(
+          "Created timestamp cannot be negative. "
+              + "Use 0 if the metric doesn't have a created timestamp.");
+    }
+    // Exemplar attribute keys go through the same conversion as in the converter, which drops the
+    // metric if one of them cannot be converted to a label name.
+    for (ExemplarData exemplar : point.getExemplars()) {
+      exemplar.getFilteredAttributes().forEach(scratch.exemplarKeyValidator);
+    }
+  }
+
+  private static void validateBuckets(HistogramPointData point) {
+    List<Double> boundaries = point.getBoundaries();
+    List<Long> counts = point.getCounts();
+    if (counts.size() != boundaries.size() + 1) {
+      throw new IllegalArgumentException(
+          "upperBounds.length == "
+              + (boundaries.size() + 1)
+              + " but counts.length == "
+              + counts.size()
+              + ". Expected the same length.");
+    }
+    double previous = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < boundaries.size(); i++) {
+      double boundary = boundaries.get(i);
+      if (Double.isNaN(boundary) || boundary <= previous || boundary == Double.POSITIVE_INFINITY) {
+        throw new IllegalArgumentException("Invalid histogram bucket boundary " + boundary);
+      }
+      previous = boundary;
+    }
+    for (int i = 0; i < counts.size(); i++) {
+      if (counts.get(i) < 0) {
+        throw new IllegalArgumentException("Counts in ClassicHistogramBuckets cannot be negative.");
+      }
+    }
+  }
+
+  private static List<ValueAtQuantile> sortedQuantiles(List<ValueAtQuantile> values) {
+    List<ValueAtQuantile> sorted = new ArrayList<>(values);
+    sorted.sort(Comparator.comparingDouble(ValueAtQuantile::getQuantile));
+    for (int i = 0; i < sorted.size(); i++) {
+      double quantile = sorted.get(i).getQuantile();
+      if (quantile < 0.0 || quantile > 1.0) {
+        throw new IllegalArgumentException(
+            quantile + ": Illegal quantile. Expecting 0 <= quantile <= 1");
+      }
+      if (i > 0 && quantile == sorted.get(i - 1).getQuantile()) {
+        throw new IllegalArgumentException("Duplicate " + quantile + " quantile.");
+      }
+    }
+    return sorted;
+  }
+
+  private static void checkDuplicateSeries(List<Row> rows, MetricMetadata metadata) {
+    if (rows.size() < 2) {
+      return;
+    }
+    rows.sort(ROW_ORDER);
+    for (int i = 1; i < rows.size(); i++) {
+      if (compareRows(rows.get(i - 1), rows.get(i)) == 0) {
+        throw new DuplicateLabelsException(metadata, rows.get(i).toLabels());
+      }
+    }
+  }
+
+  private void putOrMerge(Scratch scratch, MetricMetadata metadata, Kind kind, int start) {
+    List<Row> rows = scratch.rows.subList(start, scratch.usedRows);
+    String name = metadata.getPrometheusName();
+    Family family = scratch.families.get(name);
+    if (family == null) {
+      family = new Family(kind, metadata);
+      family.rows.addAll(rows);
+      scratch.families.put(name, family);
+      return;
+    }
+    MetricMetadata mergedMetadata = converter.mergeMetadata(family.metadata, metadata);
+    if (mergedMetadata == null) {
+      scratch.releaseRows(start);
+      return;
+    }
+    if (family.kind != kind) {
+      converter.logConflictingTypes(family.metadata, family.kind.typeString, kind.typeString);
+      scratch.releaseRows(start);
+      return;
+    }
+    family.metadata = mergedMetadata;
+    family.merged = true;
+    family.rows.addAll(rows);
+  }
+
+  // The series of each metric are already sorted, merged families need sorting again.
+  private static void sortFamily(Family family) {
+    if (!family.merged) {
+      return;
+    }
+    family.rows.sort(ROW_ORDER);
+    for (int i = 1; i < family.rows.size(); i++) {
+      if (compareRows(family.rows.get(i - 1), family.rows.get(i)) == 0) {
+        throw new DuplicateLabelsException(family.metadata, family.rows.get(i).toLabels());
+      }
+    }
+  }
+
+  /**
+   * Fills {@code row} with the labels of {@code attributes}, like {@link
+   * Otel2PrometheusConverter#buildAttributeLabels(Attributes)}, and sorts them by name.
+   */
+  private void fillAttributeLabels(Scratch scratch, Row row, Attributes attributes) {
+    scratch.currentRow = row;
+    try {
+      attributes.forEach(scratch);
+    } finally {
+      scratch.currentRow = null;
+    }
+    row.sort();
+    for (int i = 1; i < row.size; i++) {
+      if (row.names[i - 1].equals(row.names[i])) {
+        // Several attribute keys normalize to the same label name, let the converter merge them.
+        row.clearLabels();
+        converter.buildAttributeLabels(attributes).forEach(row::add);
+        row.sort();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Adds the scope and resource labels to {@code row} unless they are already set by attributes,
+   * like {@code Otel2PrometheusConverter.convertAttributes}, and validates the resulting labels.
+   */
+  private void addScopeAndResourceLabels(
+      Scratch scratch, Row row, InstrumentationScopeInfo scope, Resource resource) {
+    Row extraLabels = scratch.extraLabels(scope, resource);
+    if (extraLabels.size == 0) {
+      return;
+    }
+    int attributeCount = row.size;
+    for (int i = 0; i < extraLabels.size; i++) {
+      String name = extraLabels.names[i];
+      if (Arrays.binarySearch(row.names, 0, attributeCount, name) >= 0) {
+        continue;
+      }
+      if (!PrometheusNaming.isValidLabelName(name)) {
+        throw new IllegalArgumentException("'" + name + "' is an illegal label name");
+      }
+      row.add(name, extraLabels.prometheusNames[i], extraLabels.values[i]);
+    }
+    if (row.size == attributeCount) {
+      return;
+    }
+    row.sort();
+    for (int i = 1; i < row.size; i++) {
+      if (row.prometheusNames[i - 1].equals(row.prometheusNames[i])) {
+        throw new IllegalArgumentException(row.names[i] + ": duplicate label name");
+      }
+    }
+  }
+
+  private Row computeExtraLabels(InstrumentationScopeInfo scope, Resource resource) {
+    Map<String, String> labels = new LinkedHashMap<>();
+    if (converter.isOtelScopeLabelsEnabled()) {
+      labels.put(OTEL_SCOPE_NAME, scope.getName());
+      String version = scope.getVersion();
+      if (version != null) {
+        labels.putIfAbsent(OTEL_SCOPE_VERSION, version);
+      }
+      String schemaUrl = scope.getSchemaUrl();
+      if (schemaUrl != null) {
+        labels.putIfAbsent(OTEL_SCOPE_SCHEMA_URL, schemaUrl);
+      }
+      scope
+          .getAttributes()
+          .forEach(
+              (key, value) ->
+                  labels.putIfAbsent(
+                      OTEL_SCOPE_ATTRIBUTE_PREFIX + key.getKey(),
+                      Otel2PrometheusConverter.toLabelValue(key.getType(), value)));
+    }
+    if (converter.getAllowedResourceAttributesFilter() != null) {
+      converter.addResourceAttributeLabels(
+          labels,
+          resource.getAttributes(),
+          converter.filterAllowedResourceAttributeKeys(resource));
+    }
+    Row row = new Row();
+    labels.forEach((name, value) -> row.add(name, PrometheusNaming.prometheusName(name), value));
+    return row;
+  }
+
+  private void writeTextFamily(Family family, ExpositionBuffer out) {
+    MetricMetadata metadata = family.metadata;
+    String name = metadata.getPrometheusName();
+    boolean quoted = !PrometheusNaming.isValidLegacyMetricName(name);
+    switch (family.kind) {
+      case COUNTER:
+        String counterName = resolveExpositionName(metadata, "_total");
+        writeTextMetadata(counterName, quoted, "counter", metadata, out);
+        for (Row row : family.rows) {
+          writeNameAndLabels(counterName, null, quoted, row, null, 0, out);
+          out.writeDouble(numberValue(requireNonNull(row.point)));
+          out.writeByte('\n');
+        }
+        return;
+      case GAUGE:
+        writeTextMetadata(name, quoted, "gauge", metadata, out);
+        for (Row row : family.rows) {
+          writeNameAndLabels(name, null, quoted, row, null, 0, out);
+          out.writeDouble(numberValue(requireNonNull(row.point)));
+          out.writeByte('\n');
+        }
+        return;
+      case HISTOGRAM:
+        writeTextMetadata(name, quoted, "histogram", metadata, out);
+        for (Row row : family.rows) {
+          PointData point = requireNonNull(row.point);
+          long count = writeBuckets(name, quoted, row, null, out);
+          if (count >= 0) {
+            writeNameAndLabels(name, "_count", quoted, row, null, 0, out);
+            out.writeLong(count);
+            out.writeByte('\n');
+          }
+          double sum = histogramSum(point);
+          if (!Double.isNaN(sum)) {
+            writeNameAndLabels(name, "_sum", quoted, row, null, 0, out);
+            out.writeDouble(sum);
+            out.writeByte('\n');
+          }
+        }
+        return;
+      case SUMMARY:
+        boolean metadataWritten = false;
+        for (Row row : family.rows) {
+          SummaryPointData point = (SummaryPointData) requireNonNull(row.point);
+          List<ValueAtQuantile> quantiles = requireNonNull(row.quantiles);
+          if (quantiles.isEmpty() && point.getCount() < 0 && Double.isNaN(point.getSum())) {
+            continue;
+          }
+          if (!metadataWritten) {
+            writeTextMetadata(name, quoted, "summary", metadata, out);
+            metadataWritten = true;
+          }
+          for (ValueAtQuantile quantile : quantiles) {
+            writeNameAndLabels(name, null, quoted, row, "quantile", quantile.getQuantile(), out);
+            out.writeDouble(quantile.getValue());
+            out.writeByte('\n');
+          }
+          if (point.getCount() >= 0) {
+            writeNameAndLabels(name, "_count", quoted, row, null, 0, out);
+            out.writeLong(point.getCount());
+            out.writeByte('\n');
+          }
+          if (!Double.isNaN(point.getSum())) {
+            writeNameAndLabels(name, "_sum", quoted, row, null, 0, out);
+            out.writeDouble(point.getSum());
+            out.writeByte('\n');
+          }
+        }
+        return;
+      case INFO:
+        String infoName = resolveExpositionName(metadata, "_info");
+        writeTextMetadata(infoName, quoted, "gauge", metadata, out);
+        for (Row row : family.rows) {
+          writeNameAndLabels(infoName, null, quoted, row, null, 0, out);
+          out.writeByte('1');
+          out.writeByte('\n');
+        }
+        return;
+    }
+  }
+
+  private void writeOpenMetricsFamily(Family family, ExpositionBuffer out) {
+    MetricMetadata metadata = family.metadata;
+    String name = metadata.getPrometheusName();
+    boolean quoted = !PrometheusNaming.isValidLegacyMetricName(name);
+    switch (family.kind) {
+      case COUNTER:
+        String counterName = resolveExpositionName(metadata, "_total");
+        writeOpenMetricsMetadata(
+            stripSuffix(counterName, "_total"), quoted, "counter", metadata, out);
+        for (Row row : family.rows) {
+          PointData point = requireNonNull(row.point);
+          writeNameAndLabels(counterName, null, quoted, row, null, 0, out);
+          out.writeDouble(numberValue(point));
+          List<? extends ExemplarData> exemplars = point.getExemplars();
+          if (!exemplars.isEmpty()) {
+            writeExemplar(exemplars.get(0), out);
+          }
+          out.writeByte('\n');
+        }
+        return;
+      case GAUGE:
+        writeOpenMetricsMetadata(name, quoted, "gauge", metadata, out);
+        for (Row row : family.rows) {
+          writeNameAndLabels(name, null, quoted, row, null, 0, out);
+          out.writeDouble(numberValue(requireNonNull(row.point)));
+          out.writeByte('\n');
+        }
+        return;
+      case HISTOGRAM:
+        writeOpenMetricsMetadata(name, quoted, "histogram", metadata, out);
+        for (Row row : family.rows) {
+          PointData point = requireNonNull(row.point);
+          long count = writeBuckets(name, quoted, row, point.getExemplars(), out);
+          double sum = histogramSum(point);
+          if (count >= 0 && !Double.isNaN(sum)) {
+            writeNameAndLabels(name, "_count", quoted, row, null, 0, out);
+            out.writeLong(count);
+            out.writeByte('\n');
+            writeNameAndLabels(name, "_sum", quoted, row, null, 0, out);
+            out.writeDouble(sum);
+            out.writeByte('\n');
+          }
+        }
+        return;
+      case SUMMARY:
+        boolean metadataWritten = false;
+        for (Row row : family.rows) {
+          SummaryPointData point = (SummaryPointData) requireNonNull(row.point);
+          List<ValueAtQuantile> quantiles = requireNonNull(row.quantiles);
+          if (quantiles.isEmpty() && point.getCount() < 0 && Double.isNaN(point.getSum())) {
+            continue;
+          }
+          if (!metadataWritten) {
+            writeOpenMetricsMetadata(name, quoted, "summary", metadata, out);
+            metadataWritten = true;
+          }
+          for (ValueAtQuantile quantile : quantiles) {
+            writeNameAndLabels(name, null, quoted, row, "quantile", quantile.getQuantile(), out);
+            out.writeDouble(quantile.getValue());
+            out.writeByte('\n');
+          }
+          if (point.getCount() >= 0) {
+            writeNameAndLabels(name, "_count", quoted, row, null, 0, out);
+            out.writeLong(point.getCount());
+            out.writeByte('\n');
+          }
+          if (!Double.isNaN(point.getSum())) {
+            writeNameAndLabels(name, "_sum", quoted, row, null, 0, out);
+            out.writeDouble(point.getSum());
+            out.writeByte('\n');
+          }
+        }
+        return;
+      case INFO:
+        String infoName = resolveExpositionName(metadata, "_info");
+        writeOpenMetricsMetadata(stripSuffix(infoName, "_info"), quoted, "info", metadata, out);
+        for (Row row : family.rows) {
+          writeNameAndLabels(infoName, null, quoted, row, null, 0, out);
+          out.writeByte('1');
+          out.writeByte('\n');
+        }
+        return;
+    }
+  }
+
+  /**
+   * Writes the cumulative {@code _bucket} series of a histogram point, with exemplars if {@code
+   * exemplars} is not {@code null}, and returns the observation count.
+   */
+  private long writeBuckets(
+      String name,
+      boolean quoted,
+      Row row,
+      @Nullable List<? extends ExemplarData> exemplars,
+      ExpositionBuffer out) {
+    PointData point = requireNonNull(row.point);
+    if (point instanceof HistogramPointData) {
+      HistogramPointData histogram = (HistogramPointData) point;
+      List<Double> boundaries = histogram.getBoundaries();
+      List<Long> counts = histogram.getCounts();
+      long cumulativeCount = 0;
+      double lowerBound = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < counts.size(); i++) {
+        double upperBound = i < boundaries.size() ? boundaries.get(i) : Double.POSITIVE_INFINITY;
+        cumulativeCount += counts.get(i);
+        writeBucket(name, quoted, row, upperBound, cumulativeCount, out);
+        if (exemplars != null) {
+          writeBucketExemplar(exemplars, lowerBound, upperBound, out);
+        }
+        out.writeByte('\n');
+        lowerBound = upperBound;
+      }
+      return cumulativeCount;
+    }
+    // Exponential histograms are written with their count as a single +Inf bucket, since the
+    // text formats have no native histogram representation.
+    ExponentialHistogramPointData histogram = (ExponentialHistogramPointData) point;
+    long count =
+        histogram.getZeroCount()
+            + sum(histogram.getPositiveBuckets().getBucketCounts())
+            + sum(histogram.getNegativeBuckets().getBucketCounts());
+    writeBucket(name, quoted, row, Double.POSITIVE_INFINITY, count, out);
+    if (exemplars != null) {
+      writeBucketExemplar(exemplars, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, out);
+    }
+    out.writeByte('\n');
+    return count;
+  }
+
+  private static void writeBucket(
+      String name,
+      boolean quoted,
+      Row row,
+      double upperBound,
+      long cumulativeCount,
+      ExpositionBuffer out) {
+    writeNameAndLabels(name, "_bucket", quoted, row, "le", upperBound, out);
+    out.writeLong(cumulativeCount);
+  }
+
+  // Selects the exemplar like io.prometheus.metrics.model.snapshots.Exemplars#get(double, double).
+  private void writeBucketExemplar(
+      List<? extends ExemplarData> exemplars,
+      double lowerBound,
+      double upperBound,
+      ExpositionBuffer out) {
+    ExemplarData result = null;
+    for (ExemplarData exemplar : exemplars) {
+      double value = exemplarValue(exemplar);
+      if (!(value > lowerBound) || !(value <= upperBound)) {
+        continue;
+      }
+      if (result == null) {
+        result = exemplar;
+        continue;
+      }
+      long timestamp = exemplar.getEpochNanos() / NANOS_PER_MILLISECOND;
+      long resultTimestamp = result.getEpochNanos() / NANOS_PER_MILLISECOND;
+      if (resultTimestamp != 0 && timestamp != 0 && timestamp > resultTimestamp) {
+        result = exemplar;
+      }
+    }
+    if (result != null) {
+      writeExemplar(result, out);
+    }
+  }
+
+  // Mirrors Otel2PrometheusConverter.convertExemplar.
+  private void writeExemplar(ExemplarData exemplar, ExpositionBuffer out) {
+    SpanContext spanContext = exemplar.getSpanContext();
+    Map<String, String> labels = converter.buildAttributeLabels(exemplar.getFilteredAttributes());
+    if (spanContext.isValid()) {
+      labels.putIfAbsent("trace_id", spanContext.getTraceId());
+      labels.putIfAbsent("span_id", spanContext.getSpanId());
+    }
+    int length = 0;
+    for (Map.Entry<String, String> label : labels.entrySet()) {
+      length +=
+          label.getKey().codePointCount(0, label.getKey().length())
+              + label.getValue().codePointCount(0, label.getValue().length());
+    }
+    if (length > EXEMPLAR_MAX_LABEL_SET_LENGTH) {
+      // Drop filtered attributes to stay within Prometheus 128-char exemplar label limit,
+      // keeping trace_id and span_id which are the most valuable for correlation.
+      converter.logExemplarLabelSetTooLong();
+      labels.clear();
+      if (spanContext.isValid()) {
+        labels.put("span_id", spanContext.getSpanId());
+        labels.put("trace_id", spanContext.getTraceId());
+      }
+    }
+    Row row = new Row();
+    labels.forEach(row::add);
+    row.sort();
+
+    out.writeAscii(" # ");
+    out.writeByte('{');
+    writeLabels(row, out);
+    out.writeByte('}');
+    out.writeByte(' ');
+    out.writeDouble(exemplarValue(exemplar));
+    long timestampMillis = exemplar.getEpochNanos() / NANOS_PER_MILLISECOND;
+    if (timestampMillis != 0) {
+      out.writeByte(' ');
+      out.writeOpenMetricsTimestamp(timestampMillis);
+    }
+  }
+
+  private static void writeTextMetadata(
+      String name, boolean quoted, String type, MetricMetadata metadata, ExpositionBuffer out) {
+    String help = metadata.getHelp();
+    if (help != null && !help.isEmpty()) {
+      out.writeAscii("# HELP ");
+      writeMetricName(name, null, quoted, out);
+      out.writeByte(' ');
+      out.writeEscaped(help, /* escapeQuotes= */ false);
+      out.writeByte('\n');
+    }
+    out.writeAscii("# TYPE ");
+    writeMetricName(name, null, quoted, out);
+    out.writeByte(' ');
+    out.writeAscii(type);
+    out.writeByte('\n');
+  }
+
+  private static void writeOpenMetricsMetadata(
+      String name, boolean quoted, String type, MetricMetadata metadata, ExpositionBuffer out) {
+    out.writeAscii("# TYPE ");
+    writeMetricName(name, null, quoted, out);
+    out.writeByte(' ');
+    out.writeAscii(type);
+    out.writeByte('\n');
+    Unit unit = metadata.getUnit();
+    if (unit != null) {
+      out.writeAscii("# UNIT ");
+      writeMetricName(name, null, quoted, out);
+      out.writeByte(' ');
+      out.writeEscaped(unit.toString(), /* escapeQuotes= */ true);
+      out.writeByte('\n');
+    }
+    String help = metadata.getHelp();
+    if (help != null && !help.isEmpty()) {
+      out.writeAscii("# HELP ");
+      writeMetricName(name, null, quoted, out);
+      out.writeByte(' ');
+      out.writeEscaped(help, /* escapeQuotes= */ true);
+      out.writeByte('\n');
+    }
+  }
+
+  /**
+   * Writes the name and labels of a sample followed by a space, adding the {@code le} or {@code
+   * quantile} label if {@code additionalLabelName} is not {@code null}.
+   */
+  private static void writeNameAndLabels(
+      String name,
+      @Nullable String suffix,
+      boolean quoted,
+      Row row,
+      @Nullable String additionalLabelName,
+      double additionalLabelValue,
+      ExpositionBuffer out) {
+    if (quoted) {
+      out.writeByte('{');
+    }
+    writeMetricName(name, suffix, quoted, out);
+    if (row.size > 0 || additionalLabelName != null) {
+      if (!quoted) {
+        out.writeByte('{');
+      }
+      boolean first = !quoted;
+      if (row.size > 0) {
+        if (!first) {
+          out.writeByte(',');
+        }
+        writeLabels(row, out);
+        first = false;
+      }
+      if (additionalLabelName != null) {
+        if (!first) {
+          out.writeByte(',');
+        }
+        out.writeAscii(additionalLabelName);
+        out.writeAscii("=\"");
+        out.writeDouble(additionalLabelValue);
+        out.writeByte('"');
+      }
+      out.writeByte('}');
+    } else if (quoted) {
+      out.writeByte('}');
+    }
+    out.writeByte(' ');
+  }
+
+  private static void writeMetricName(
+      String name, @Nullable String suffix, boolean quoted, ExpositionBuffer out) {
+    if (quoted) {
+      out.writeByte('"');
+      out.writeEscaped(name, /* escapeQuotes= */ true);
+      if (suffix != null) {
+        out.writeAscii(suffix);
+      }
+      out.writeByte('"');
+    } else {
+      out.writeAscii(name);
+      if (suffix != null) {
+        out.writeAscii(suffix);
+      }
+    }
+  }
+
+  private static void writeLabels(Row row, ExpositionBuffer out) {
+    for (int i = 0; i < row.size; i++) {
+      if (i > 0) {
+        out.writeByte(',');
+      }
+      String name = row.prometheusNames[i];
+      if (isValidLegacyLabelName(name)) {
+        out.writeAscii(name);
+      } else {
+        out.writeByte('"');
+        out.writeEscaped(name, /* escapeQuotes= */ true);
+        out.writeByte('"');
+      }
+      out.writeAscii("=\"");
+      out.writeEscaped(row.values[i], /* escapeQuotes= */ true);
+      out.writeByte('"');
+    }
+  }
+
+  // Same as PrometheusNaming.isValidLegacyLabelName, inlined as it runs for every label written.
+  private static boolean isValidLegacyLabelName(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!((c >= 'a' && c <= 'z')
+          || (c >= 'A' && c <= 'Z')
+          || c == '_'
+          || (c >= '0' && c <= '9' && i > 0))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String resolveExpositionName(MetricMetadata metadata, String suffix) {
+    String expositionBaseName = metadata.getExpositionBasePrometheusName();
+    if (expositionBaseName.endsWith(suffix)) {
+      return expositionBaseName;
+    }
+    return metadata.getPrometheusName() + suffix;
+  }
+
+  private static String stripSuffix(String name, String suffix) {
+    return name.endsWith(suffix) ? name.substring(0, name.length() - suffix.length()) : name;
+  }
+
+  private static double numberValue(PointData point) {
+    return point instanceof LongPointData
+        ? (double) ((LongPointData) point).getValue()
+        : ((DoublePointData) point).getValue();
+  }
+
+  private static double histogramSum(PointData point) {
+    return point instanceof HistogramPointData
+        ? ((HistogramPointData) point).getSum()
+        : ((ExponentialHistogramPointData) point).getSum();
+  }
+
+  private static double exemplarValue(ExemplarData exemplar) {
+    return exemplar instanceof LongExemplarData
+        ? (double) ((LongExemplarData) exemplar).getValue()
+        : ((DoubleExemplarData) exemplar).getValue();
+  }
+
+  private static long sum(List<Long> values) {
+    long sum = 0;
+    for (int i = 0; i < values.size(); i++) {
+      sum += values.get(i);
+    }
+    return sum;
+  }
+
+  // Same order as io.prometheus.metrics.model.snapshots.Labels#compareTo.
+  private static int compareRows(Row a, Row b) {
+    int result = compare(a.prometheusNames, a.size, b.prometheusNames, b.size);
+    if (result != 0) {
+      return result;
+    }
+    return compare(a.values, a.size, b.values, b.size);
+  }
+
+  private static int compare(String[] a, int aSize, String[] b, int bSize) {
+    for (int i = 0; i < aSize; i++) {
+      if (bSize <= i) {
+        return 1;
+      }
+      int result = a[i].compareTo(b[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return bSize > aSize ? -1 : 0;
+  }
+
+  /** The type of a metric family, named like the OpenMetrics type of the family. */
+  private enum Kind {
+    COUNTER("counter"),
+    GAUGE("gauge"),
+    HISTOGRAM("histogram"),
+    SUMMARY("summary"),
+    INFO("info");
+
+    private final String typeString;
+
+    Kind(String typeString) {
+      this.typeString = typeString;
+    }
+  }
+
+  /** The metrics of a scrape sharing a Prometheus name. */
+  private static final class Family {
+    private final Kind kind;
+    private MetricMetadata metadata;
+    private final List<Row> rows = new ArrayList<>();
+    private boolean merged;
+
+    private Family(Kind kind, MetricMetadata metadata) {
+      this.kind = kind;
+      this.metadata = metadata;
+    }
+  }
+
+  /** A series: a point and its labels, sorted by Prometheus label name. */
+  private static final class Row {
+    @Nullable private PointData point;
+    @Nullable private List<ValueAtQuantile> quantiles;
+    private String[] names = new String[8];
+    private String[] prometheusNames = new String[8];
+    private String[] values = new String[8];
+    private int size;
+
+    private void add(String name, String value) {
+      // Names converted from attribute keys are valid legacy label names.
+      add(name, name, value);
+    }
+
+    private void add(String name, String prometheusName, String value) {
+      if (size == names.length) {
+        names = Arrays.copyOf(names, size * 2);
+        prometheusNames = Arrays.copyOf(prometheusNames, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      names[size] = name;
+      prometheusNames[size] = prometheusName;
+      values[size] = value;
+      size++;
+    }
+
+    private int indexOf(String prometheusName) {
+      for (int i = 0; i < size; i++) {
+        if (prometheusNames[i].equals(prometheusName)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    // Insertion sort by Prometheus name, as series rarely have more than a handful of labels.
+    private void sort() {
+      for (int i = 1; i < size; i++) {
+        String name = names[i];
+        String prometheusName = prometheusNames[i];
+        String value = values[i];
+        int j = i - 1;
+        while (j >= 0 && prometheusNames[j].compareTo(prometheusName) > 0) {
+          names[j + 1] = names[j];
+          prometheusNames[j + 1] = prometheusNames[j];
+          values[j + 1] = values[j];
+          j--;
+        }
+        names[j + 1] = name;
+        prometheusNames[j + 1] = prometheusName;
+        values[j + 1] = value;
+      }
+    }
+
+    private Labels toLabels() {
+      return Labels.of(Arrays.copyOf(names, size), Arrays.copyOf(values, size));
+    }
+
+    private void clearLabels() {
+      Arrays.fill(names, 0, size, null);
+      Arrays.fill(prometheusNames, 0, size, null);
+      Arrays.fill(values, 0, size, null);
+      size = 0;
+    }
+
+    private void clear() {
+      point = null;
+      quantiles = null;
+      clearLabels();
+    }
+  }
+
+  /** State of a single scrape, reused by the next one. */
+  private final class Scratch implements BiConsumer<AttributeKey<?>, Object> {
+    private final List<Row> rows = new ArrayList<>();
+    private int usedRows;
+    private final Map<String, Family> families = new TreeMap<>();
+    @Nullable private Row currentRow;
+
+    private final BiConsumer<AttributeKey<?>, Object> exemplarKeyValidator =
+        (key, value) -> converter.labelName(key);
+
+    // Scope and resource labels of the last scope and resource seen, compared by identity as the
+    // metrics of a scope share the same instances.
+    @Nullable private InstrumentationScopeInfo extraLabelsScope;
+    @Nullable private Resource extraLabelsResource;
+    private Row extraLabels = new Row();
+
+    private Row nextRow() {
+      if (usedRows == rows.size()) {
+        rows.add(new Row());
+      }
+      return rows.get(usedRows++);
+    }
+
+    private void releaseRows(int start) {
+      for (int i = start; i < usedRows; i++) {
+        rows.get(i).clear();
+      }
+      usedRows = start;
+    }
+
+    private Row extraLabels(InstrumentationScopeInfo scope, Resource resource) {
+      if (scope != extraLabelsScope || resource != extraLabelsResource) {
+        extraLabels = computeExtraLabels(scope, resource);
+        extraLabelsScope = scope;
+        extraLabelsResource = resource;
+      }
+      return extraLabels;
+    }
+
+    @Override
+    public void accept(AttributeKey<?> key, Object value) {
+      requireNonNull(currentRow)
+          .add(
+              converter.labelName(key),
+              Otel2PrometheusConverter.toLabelValue(key.getType(), value));
+    }
+
+    private void reset() {
+      releaseRows(0);
+      families.clear();
+      currentRow = null;
+      extraLabelsScope = null;
+      extraLabelsResource = null;
+      extraLabels = new Row();
+    }
+  }
+}
@@ -29,7 +29,9 @@ import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
 import java.util.StringJoiner;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
@@ -37,6 +39,9 @@ import javax.annotation.Nullable;
 /**
  * A {@link MetricReader} that starts an HTTP server that will collect metrics and serialize to
  * Prometheus text format on request.
+ *
+ * <p>Exponential histograms are exposed as Prometheus native histograms to scrapers requesting the
+ * protobuf format, and only with their count and sum in the text formats.
  */
 public final class PrometheusHttpServer implements MetricReader {
 
@@ -69,11 +74,14 @@ public final class PrometheusHttpServer implements MetricReader {
       String host,
       int port,
       @Nullable ExecutorService executor,
+      boolean virtualThreadsEnabled,
       PrometheusRegistry prometheusRegistry,
+      boolean prometheusRegistryShared,
       MemoryMode memoryMode,
       @Nullable HttpHandler defaultHandler,
       DefaultAggregationSelector defaultAggregationSelector,
       @Nullable Authenticator authenticator,
+      long minScrapeIntervalNanos,
       TranslationStrategy translationStrategy,
       PrometheusMetricReader prometheusMetricReader) {
     this.host = host;
@@ -83,11 +91,13 @@ public final class PrometheusHttpServer implements MetricReader {
     this.builder = builder;
     this.prometheusMetricReader = prometheusMetricReader;
     this.prometheusRegistry = prometheusRegistry;
-    prometheusRegistry.register(prometheusMetricReader);
     // When memory mode is REUSABLE_DATA, concurrent reads lead to data corruption. To prevent this,
     // we configure prometheus with a single thread executor such that requests are handled
-    // sequentially.
-    if (memoryMode == MemoryMode.REUSABLE_DATA) {
+    // sequentially. Virtual threads rely on the reader serializing the collections instead, so that
+    // a slow client does not hold up the others.
+    if (virtualThreadsEnabled) {
+      executor = newVirtualThreadPerTaskExecutor();
+    } else if (memoryMode == MemoryMode.REUSABLE_DATA) {
       executor =
           new ThreadPoolExecutor(
               1,
@@ -97,13 +107,28 @@ public final class PrometheusHttpServer implements MetricReader {
               new LinkedBlockingQueue<>(),
               new DaemonThreadFactory("prometheus-http-server"));
     }
-    HTTPServer.Builder httpServerBuilder = HTTPServer.builder();
+    prometheusRegistry.register(prometheusMetricReader);
+    PrometheusProperties prometheusProperties = PrometheusProperties.get();
     if (translationStrategy != TranslationStrategy.UNDERSCORE_ESCAPING_WITH_SUFFIXES) {
       // Intentionally enable OM2 without content negotiation so OpenMetrics responses keep the
       // legacy OM1 content type while using OM2 name-preservation semantics.
-      PrometheusProperties prometheusProperties =
-          PrometheusProperties.builder().enableOpenMetrics2(om2 -> {}).build();
-      httpServerBuilder = HTTPServer.builder(prometheusProperties);
+      prometheusProperties = PrometheusProperties.builder().enableOpenMetrics2(om2 -> {}).build();
+    }
+    HTTPServer.Builder httpServerBuilder = HTTPServer.builder(prometheusProperties);
+    // Unless the registry has other collectors or the configuration changes the output, metrics are
+    // written straight from the metric data. The MetricsHandler moves to "/metrics/" so that the
+    // "/" handler gets the "/metrics" requests, and delegates those it cannot serve.
+    if (!prometheusRegistryShared
+        && translationStrategy == TranslationStrategy.UNDERSCORE_ESCAPING_WITH_SUFFIXES
+        && MetricsHttpHandler.supports(prometheusProperties)) {
+      defaultHandler =
+          new MetricsHttpHandler(
+              prometheusMetricReader,
+              prometheusRegistry,
+              prometheusProperties,
+              defaultHandler,
+              minScrapeIntervalNanos);
+      httpServerBuilder.metricsHandlerPath(MetricsHttpHandler.METRICS_PATH + "/");
     }
     try {
       this.httpServer =
@@ -189,6 +214,29 @@ public final class PrometheusHttpServer implements MetricReader {
     return new PrometheusHttpServerBuilder(builder);
   }
 
+  /**
+   * Returns an executor running each task on a new virtual thread named {@code
+   * prometheus-http-server-<n>}, created reflectively since this module targets Java 8.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Class<?> threadBuilderClass = Class.forName("java.lang.Thread$Builder");
+      Object threadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+      threadBuilder =
+          threadBuilderClass
+              .getMethod("name", String.class, long.class)
+              .invoke(threadBuilder, "prometheus-http-server-", 0L);
+      ThreadFactory threadFactory =
+          (ThreadFactory) threadBuilderClass.getMethod("factory").invoke(threadBuilder);
+      return (ExecutorService)
+          Executors.class
+              .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+              .invoke(null, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+    }
+  }
+
   // Visible for testing.
   InetSocketAddress getAddress() {
     return new InetSocketAddress(host, httpServer.getPort());
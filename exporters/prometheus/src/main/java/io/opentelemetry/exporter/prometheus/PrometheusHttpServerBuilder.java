@@ -15,6 +15,7 @@ import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.export.DefaultAggregationSelector;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Predicate;
@@ -32,13 +33,17 @@ public final class PrometheusHttpServerBuilder {
   @Nullable private String host;
   private int port = DEFAULT_PORT;
   private PrometheusRegistry prometheusRegistry = new PrometheusRegistry();
+  // Whether the registry may contain collectors other than the metric reader of the server.
+  private boolean prometheusRegistryShared;
   private PrometheusMetricReaderBuilder metricReaderBuilder = PrometheusMetricReader.builder();
   @Nullable private ExecutorService executor;
+  private boolean virtualThreadsEnabled;
   private MemoryMode memoryMode = DEFAULT_MEMORY_MODE;
   @Nullable private HttpHandler defaultHandler;
   private DefaultAggregationSelector defaultAggregationSelector =
       DefaultAggregationSelector.getDefault();
   @Nullable private Authenticator authenticator;
+  private Duration minScrapeInterval = Duration.ZERO;
 
   PrometheusHttpServerBuilder() {}
 
@@ -46,12 +51,15 @@ public final class PrometheusHttpServerBuilder {
     this.host = builder.host;
     this.port = builder.port;
     this.prometheusRegistry = builder.prometheusRegistry;
+    this.prometheusRegistryShared = builder.prometheusRegistryShared;
     this.metricReaderBuilder = new PrometheusMetricReaderBuilder(builder.metricReaderBuilder);
     this.executor = builder.executor;
+    this.virtualThreadsEnabled = builder.virtualThreadsEnabled;
     this.memoryMode = builder.memoryMode;
     this.defaultHandler = builder.defaultHandler;
     this.defaultAggregationSelector = builder.defaultAggregationSelector;
     this.authenticator = builder.authenticator;
+    this.minScrapeInterval = builder.minScrapeInterval;
   }
 
   /**
@@ -81,10 +89,24 @@ public final class PrometheusHttpServerBuilder {
     return this;
   }
 
+  /**
+   * Sets whether requests are handled on virtual threads, one per request, instead of a pool of
+   * platform threads. Requires Java 21 or later. Default is {@code false}.
+   *
+   * <p>A scraper slow to read its response then only holds a virtual thread, and does not delay
+   * the scrapes of other clients, also with {@link MemoryMode#REUSABLE_DATA} where only the
+   * collections are serialized. Cannot be combined with {@link #setExecutor(ExecutorService)}.
+   */
+  public PrometheusHttpServerBuilder setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+    return this;
+  }
+
   /** Sets the {@link PrometheusRegistry} to be used for {@link PrometheusHttpServer}. */
   public PrometheusHttpServerBuilder setPrometheusRegistry(PrometheusRegistry prometheusRegistry) {
     requireNonNull(prometheusRegistry, "prometheusRegistry");
     this.prometheusRegistry = prometheusRegistry;
+    this.prometheusRegistryShared = true;
     return this;
   }
 
@@ -136,7 +158,8 @@ public final class PrometheusHttpServerBuilder {
    *
    * <p>If set to {@link MemoryMode#REUSABLE_DATA}, requests are served sequentially which is
    * accomplished by overriding {@link #setExecutor(ExecutorService)} to {@link
-   * Executors#newSingleThreadExecutor()}.
+   * Executors#newSingleThreadExecutor()}, unless {@link #setVirtualThreadsEnabled(boolean) virtual
+   * threads} are enabled.
    */
   public PrometheusHttpServerBuilder setMemoryMode(MemoryMode memoryMode) {
     requireNonNull(memoryMode, "memoryMode");
@@ -185,6 +208,23 @@ public final class PrometheusHttpServerBuilder {
     return this;
   }
 
+  /**
+   * Sets the minimum interval between two collections of the metrics served on {@code /metrics}.
+   * Scrapes arriving within this interval of the previous collection are served its response, so
+   * that several Prometheus servers scraping the same endpoint trigger a single collection. Scrapes
+   * arriving while a collection is in progress always share its result.
+   *
+   * <p>If unset, defaults to {@link Duration#ZERO}, which only shares in-progress collections. Has
+   * no effect on scrapes served by the Prometheus library, for instance when a {@link
+   * PrometheusRegistry} is set or protobuf is requested.
+   */
+  public PrometheusHttpServerBuilder setMinScrapeInterval(Duration minScrapeInterval) {
+    requireNonNull(minScrapeInterval, "minScrapeInterval");
+    checkArgument(!minScrapeInterval.isNegative(), "minScrapeInterval must be non-negative");
+    this.minScrapeInterval = minScrapeInterval;
+    return this;
+  }
+
   /**
    * Returns a new {@link PrometheusHttpServer} with the configuration of this builder which can be
    * registered with a {@link io.opentelemetry.sdk.metrics.SdkMeterProvider}.
@@ -195,6 +235,9 @@ public final class PrometheusHttpServerBuilder {
           "MemoryMode REUSEABLE_DATA cannot be used with custom executor, "
               + "since data may be corrupted if reading metrics concurrently");
     }
+    if (virtualThreadsEnabled && executor != null) {
+      throw new IllegalArgumentException("Virtual threads cannot be used with custom executor");
+    }
     String resolvedHost = host;
     if (resolvedHost == null) {
       resolvedHost = DEFAULT_HOST;
@@ -204,11 +247,14 @@ public final class PrometheusHttpServerBuilder {
         resolvedHost,
         port,
         executor,
+        virtualThreadsEnabled,
         prometheusRegistry,
+        prometheusRegistryShared,
         memoryMode,
         defaultHandler,
         defaultAggregationSelector,
         authenticator,
+        minScrapeInterval.toNanos(),
         metricReaderBuilder.getTranslationStrategy(),
         metricReaderBuilder.build());
   }
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.exporter.prometheus;
 
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
@@ -28,6 +29,11 @@ public class PrometheusMetricReader implements MetricReader, MultiCollector {
 
   private volatile CollectionRegistration collectionRegistration = CollectionRegistration.noop();
   private final Otel2PrometheusConverter converter;
+  @Nullable private final Otel2PrometheusWriter writer;
+  private final ScrapeCoalescer<MetricSnapshots> collections;
+  // Collections are serialized since MemoryMode.REUSABLE_DATA reuses the collected data, which
+  // must not change while it is converted or written.
+  private final Object collectionLock = new Object();
 
   /** Returns a new {@link PrometheusMetricReader} with default configuration. */
   public static PrometheusMetricReader create() {
@@ -51,6 +57,21 @@ public class PrometheusMetricReader implements MetricReader, MultiCollector {
             targetInfoMetricEnabled,
             translationStrategy,
             allowedResourceAttributesFilter);
+    this.writer =
+        translationStrategy == TranslationStrategy.UNDERSCORE_ESCAPING_WITH_SUFFIXES
+                || translationStrategy == TranslationStrategy.UNDERSCORE_ESCAPING_WITHOUT_SUFFIXES
+            ? new Otel2PrometheusWriter(converter)
+            : null;
+    // Concurrent scrapes, for instance by several Prometheus servers, share one collection.
+    this.collections =
+        new ScrapeCoalescer<>(
+            () -> {
+              synchronized (collectionLock) {
+                return converter.convert(collectionRegistration.collectAllMetrics());
+              }
+            },
+            /* minIntervalNanos= */ 0,
+            Clock.getDefault());
   }
 
   @Override
@@ -75,7 +96,25 @@ public class PrometheusMetricReader implements MetricReader, MultiCollector {
 
   @Override
   public MetricSnapshots collect() {
-    return converter.convert(collectionRegistration.collectAllMetrics());
+    return collections.get();
+  }
+
+  /**
+   * Collects the metrics and writes them to {@code out} in the OpenMetrics text format if {@code
+   * openMetrics} is {@code true}, and in the Prometheus text format otherwise. The output is the
+   * same as writing the result of {@link #collect()} with the {@code underscores} escaping scheme.
+   *
+   * @throws IllegalStateException if the translation strategy does not use underscore escaping
+   */
+  void writeMetrics(boolean openMetrics, ExpositionBuffer out) {
+    if (writer == null) {
+      throw new IllegalStateException(
+          "Writing metrics directly is not supported with translation strategy "
+              + converter.getTranslationStrategy());
+    }
+    synchronized (collectionLock) {
+      writer.write(collectionRegistration.collectAllMetrics(), openMetrics, out);
+    }
   }
 
   @Override
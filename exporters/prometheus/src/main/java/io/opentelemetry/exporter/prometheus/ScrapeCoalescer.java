@@ -0,0 +1,122 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import io.opentelemetry.api.internal.GuardedBy;
+import io.opentelemetry.sdk.common.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Runs a scrape for the callers of {@link #get()}, sharing its result with the callers arriving
+ * while it is in progress rather than scraping once per caller. The result can additionally be
+ * served to the callers arriving within a minimum interval after the scrape started, so that
+ * several scrapers polling the same endpoint trigger a single collection.
+ *
+ * <p>Callers sharing a scrape which fails all get its exception.
+ */
+final class ScrapeCoalescer<T> {
+
+  private final Supplier<T> scrape;
+  private final long minIntervalNanos;
+  private final Clock clock;
+
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  @Nullable
+  private CompletableFuture<T> inFlight;
+
+  @GuardedBy("lock")
+  @Nullable
+  private T cached;
+
+  @GuardedBy("lock")
+  private long cachedAtNanos;
+
+  /**
+   * Creates a coalescer running {@code scrape}, which serves a result to the callers arriving up to
+   * {@code minIntervalNanos} after the scrape producing it started, or only to the callers arriving
+   * while it runs if {@code 0}.
+   */
+  ScrapeCoalescer(Supplier<T> scrape, long minIntervalNanos, Clock clock) {
+    this.scrape = scrape;
+    this.minIntervalNanos = minIntervalNanos;
+    this.clock = clock;
+  }
+
+  /** Returns the result of the in-flight or cached scrape, or of a new scrape if there is none. */
+  T get() {
+    CompletableFuture<T> future;
+    boolean owner = false;
+    long startNanos = 0;
+    synchronized (lock) {
+      T result = cached;
+      if (result != null && clock.nanoTime() - cachedAtNanos < minIntervalNanos) {
+        return result;
+      }
+      future = inFlight;
+      if (future == null) {
+        future = new CompletableFuture<>();
+        inFlight = future;
+        owner = true;
+        startNanos = clock.nanoTime();
+        cached = null;
+      }
+    }
+    if (!owner) {
+      return await(future);
+    }
+    T result;
+    try {
+      result = scrape.get();
+    } catch (RuntimeException | Error e) {
+      synchronized (lock) {
+        inFlight = null;
+      }
+      future.completeExceptionally(e);
+      throw e;
+    }
+    synchronized (lock) {
+      inFlight = null;
+      if (minIntervalNanos > 0) {
+        cached = result;
+        cachedAtNanos = startNanos;
+      }
+    }
+    future.complete(result);
+    return result;
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return future.get();
+        } catch (InterruptedException e) {
+          // The scrape runs on another request's thread, which completes the future regardless.
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new IllegalStateException(cause);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
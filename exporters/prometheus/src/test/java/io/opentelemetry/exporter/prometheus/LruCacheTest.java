@@ -0,0 +1,66 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+  private final AtomicInteger computations = new AtomicInteger();
+  private final Function<String, String> upperCase =
+      key -> {
+        computations.incrementAndGet();
+        return key.toUpperCase(Locale.ROOT);
+      };
+
+  @Test
+  void computesOnce() {
+    LruCache<String, String> cache = new LruCache<>(2);
+
+    assertThat(cache.computeIfAbsent("a", upperCase)).isEqualTo("A");
+    assertThat(cache.computeIfAbsent("a", upperCase)).isEqualTo("A");
+    assertThat(computations).hasValue(1);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    LruCache<String, String> cache = new LruCache<>(2);
+    cache.computeIfAbsent("a", upperCase);
+    cache.computeIfAbsent("b", upperCase);
+    // Using "a" makes "b" the least recently used entry.
+    cache.computeIfAbsent("a", upperCase);
+    cache.computeIfAbsent("c", upperCase);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(computations).hasValue(3);
+
+    cache.computeIfAbsent("a", upperCase);
+    assertThat(computations).hasValue(3);
+    cache.computeIfAbsent("b", upperCase);
+    assertThat(computations).hasValue(4);
+  }
+
+  @Test
+  void failedComputationNotCached() {
+    LruCache<String, String> cache = new LruCache<>(2);
+
+    assertThatThrownBy(
+            () ->
+                cache.computeIfAbsent(
+                    "a",
+                    key -> {
+                      throw new IllegalArgumentException("invalid");
+                    }))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.computeIfAbsent("a", upperCase)).isEqualTo("A");
+  }
+}
@@ -28,6 +28,7 @@ import io.opentelemetry.api.trace.TraceFlags;
 import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.internal.testing.slf4j.SuppressLogger;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.common.internal.DynamicPrimitiveLongList;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
 import io.opentelemetry.sdk.metrics.data.MetricData;
@@ -1217,7 +1218,7 @@ class Otel2PrometheusConverterTest {
     metricDataList.clear();
 
     // Create 20 different metric data objects with 20 different resource attributes;
-    // This should cause the cache to be full, and then subsequently cleared
+    // This should cause the cache to be full, and then evict the first resources
     for (int i = 0; i < Otel2PrometheusConverter.MAX_CACHE_SIZE; i++) {
       Attributes attributes = Attributes.of(stringKey("foo" + i), "bar" + i);
       Resource resource = Resource.builder().put("cluster", "different-cluster" + i).build();
@@ -1237,8 +1238,8 @@ class Otel2PrometheusConverterTest {
     otel2PrometheusConverter.convert(metricDataList);
 
     // If the cache was unbounded, the predicate should be 0, since it's all in the cache,
-    // but if the cache was cleared, it used the predicate for each resource, since it as if
-    // it never saw those resources before.
+    // but as those resources were evicted, it used the predicate for each resource, since it as
+    // if it never saw those resources before.
     assertThat(predicateCalledCount.get()).isEqualTo(2);
   }
 
@@ -1322,6 +1323,45 @@ class Otel2PrometheusConverterTest {
     assertThat(buckets).isSameAs(NativeHistogramBuckets.EMPTY);
   }
 
+  @Test
+  void convertExponentialHistogramBucketsSkipsEmptyBuckets() throws Exception {
+    NativeHistogramBuckets buckets =
+        (NativeHistogramBuckets)
+            invokePrivate(
+                "convertExponentialHistogramBuckets",
+                new Class<?>[] {ExponentialHistogramBuckets.class, int.class},
+                ImmutableExponentialHistogramBuckets.create(
+                    0, 3, DynamicPrimitiveLongList.of(2, 0, 0, 0, 5, 1)),
+                0);
+
+    assertThat(buckets.size()).isEqualTo(3);
+    assertThat(buckets.getBucketIndex(0)).isEqualTo(4);
+    assertThat(buckets.getCount(0)).isEqualTo(2);
+    assertThat(buckets.getBucketIndex(1)).isEqualTo(8);
+    assertThat(buckets.getCount(1)).isEqualTo(5);
+    assertThat(buckets.getBucketIndex(2)).isEqualTo(9);
+    assertThat(buckets.getCount(2)).isEqualTo(1);
+  }
+
+  @Test
+  void convertExponentialHistogramBucketsMergesScaledDownBuckets() throws Exception {
+    NativeHistogramBuckets buckets =
+        (NativeHistogramBuckets)
+            invokePrivate(
+                "convertExponentialHistogramBuckets",
+                new Class<?>[] {ExponentialHistogramBuckets.class, int.class},
+                ImmutableExponentialHistogramBuckets.create(
+                    2, 3, Arrays.asList(2L, 0L, 0L, 0L, 0L, 3L, 0L)),
+                1);
+
+    // Indexes 3 to 9 map to 1, 2, 2, 3, 3, 4, 4 at the lower scale, plus one for Prometheus.
+    assertThat(buckets.size()).isEqualTo(2);
+    assertThat(buckets.getBucketIndex(0)).isEqualTo(2);
+    assertThat(buckets.getCount(0)).isEqualTo(2);
+    assertThat(buckets.getBucketIndex(1)).isEqualTo(5);
+    assertThat(buckets.getCount(1)).isEqualTo(3);
+  }
+
   @Test
   void typeStringUsesLowerCaseClassName() throws Exception {
     assertThat(
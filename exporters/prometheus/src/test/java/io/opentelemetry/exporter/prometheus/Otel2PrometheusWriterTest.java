@@ -0,0 +1,530 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.internal.testing.slf4j.SuppressLogger;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoubleExemplarData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoublePointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableGaugeData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongExemplarData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSumData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableValueAtQuantile;
+import io.opentelemetry.sdk.resources.Resource;
+import io.prometheus.metrics.config.EscapingScheme;
+import io.prometheus.metrics.expositionformats.ExpositionFormats;
+import io.prometheus.metrics.model.snapshots.DuplicateLabelsException;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the output of {@link Otel2PrometheusWriter} with the output of the Prometheus exposition
+ * format writers for the snapshots produced by {@link Otel2PrometheusConverter}.
+ */
+@SuppressLogger(Otel2PrometheusConverter.class)
+class Otel2PrometheusWriterTest {
+
+  private static final Resource RESOURCE =
+      Resource.create(
+          Attributes.builder()
+              .put("service.name", "my-service")
+              .put("host.name", "localhost")
+              .put("team", "a \"quoted\"\nvalue\\")
+              .build());
+  private static final InstrumentationScopeInfo SCOPE =
+      InstrumentationScopeInfo.builder("scope")
+          .setVersion("1.0")
+          .setSchemaUrl("schemaUrl")
+          .setAttributes(Attributes.of(stringKey("foo"), "bar"))
+          .build();
+  private static final InstrumentationScopeInfo OTHER_SCOPE =
+      InstrumentationScopeInfo.create("other");
+  private static final SpanContext SPAN_CONTEXT =
+      SpanContext.create(
+          "0123456789abcdef0123456789abcdef",
+          "0123456789abcdef",
+          TraceFlags.getSampled(),
+          TraceState.getDefault());
+
+  @Test
+  void counters() throws IOException {
+    assertSameOutput(
+        Arrays.asList(
+            longSum(
+                "requests",
+                "1",
+                true,
+                ImmutableLongPointData.create(
+                    1_000_000L,
+                    2_000_000L,
+                    Attributes.of(stringKey("method"), "GET", stringKey("status"), "200"),
+                    42,
+                    Collections.singletonList(
+                        ImmutableLongExemplarData.create(
+                            Attributes.of(stringKey("user"), "u1"),
+                            1_500_123_456L,
+                            SPAN_CONTEXT,
+                            7))),
+                ImmutableLongPointData.create(
+                    1_000_000L, 2_000_000L, Attributes.of(stringKey("method"), "POST"), 3)),
+            doubleSum(
+                "bytes.sent.total",
+                "By",
+                true,
+                ImmutableDoublePointData.create(0, 1, Attributes.empty(), 1234.5)),
+            doubleSum(
+                "queue.size",
+                "{items}",
+                false,
+                ImmutableDoublePointData.create(0, 1, Attributes.empty(), -3.0))));
+  }
+
+  @Test
+  void gauges() throws IOException {
+    assertSameOutput(
+        Arrays.asList(
+            ImmutableMetricData.createDoubleGauge(
+                RESOURCE,
+                SCOPE,
+                "temperature",
+                "Temperature with \\ and\nnew line",
+                "Cel",
+                ImmutableGaugeData.create(
+                    Arrays.asList(
+                        ImmutableDoublePointData.create(
+                            0, 1, Attributes.of(stringKey("room"), "b"), 21.5),
+                        ImmutableDoublePointData.create(
+                            0, 1, Attributes.of(stringKey("room"), "a"), Double.NaN),
+                        ImmutableDoublePointData.create(
+                            0, 1, Attributes.of(stringKey("room"), "c"), 1e-9),
+                        ImmutableDoublePointData.create(
+                            0, 1, Attributes.of(stringKey("room"), "d"), 123456789.0),
+                        ImmutableDoublePointData.create(
+                            0, 1, Attributes.of(stringKey("room"), "e"), -0.0),
+                        ImmutableDoublePointData.create(
+                            0,
+                            1,
+                            Attributes.of(stringKey("room"), "f"),
+                            Double.NEGATIVE_INFINITY)))),
+            ImmutableMetricData.createLongGauge(
+                RESOURCE,
+                SCOPE,
+                "memory.used",
+                "",
+                "",
+                ImmutableGaugeData.create(
+                    Collections.singletonList(
+                        ImmutableLongPointData.create(
+                            0,
+                            1,
+                            Attributes.of(stringKey("héllo wörld"), "ünïcode 😀"),
+                            Long.MIN_VALUE))))));
+  }
+
+  @Test
+  void histograms() throws IOException {
+    List<DoubleExemplarData> exemplars =
+        Arrays.asList(
+            ImmutableDoubleExemplarData.create(
+                Attributes.empty(), 1_000_000_000L, SpanContext.getInvalid(), 0.5),
+            ImmutableDoubleExemplarData.create(
+                Attributes.of(stringKey("a"), "b"), 2_000_000_000L, SPAN_CONTEXT, 0.7),
+            ImmutableDoubleExemplarData.create(
+                Attributes.empty(), 3_000_000_000L, SPAN_CONTEXT, 100));
+    assertSameOutput(
+        Arrays.asList(
+            ImmutableMetricData.createDoubleHistogram(
+                RESOURCE,
+                SCOPE,
+                "http.server.duration",
+                "Duration",
+                "s",
+                ImmutableHistogramData.create(
+                    AggregationTemporality.CUMULATIVE,
+                    Arrays.asList(
+                        ImmutableHistogramPointData.create(
+                            1_000_000,
+                            2_000_000,
+                            Attributes.of(stringKey("route"), "/a"),
+                            12.5,
+                            false,
+                            0,
+                            false,
+                            0,
+                            Arrays.asList(0.5, 1.0, 10.0),
+                            Arrays.asList(1L, 2L, 0L, 1L),
+                            exemplars),
+                        ImmutableHistogramPointData.create(
+                            1_000_000,
+                            2_000_000,
+                            Attributes.empty(),
+                            0,
+                            false,
+                            0,
+                            false,
+                            0,
+                            Collections.emptyList(),
+                            Collections.singletonList(0L))))),
+            ImmutableMetricData.createExponentialHistogram(
+                RESOURCE,
+                SCOPE,
+                "exponential",
+                "",
+                "ms",
+                ImmutableExponentialHistogramData.create(
+                    AggregationTemporality.CUMULATIVE,
+                    Collections.singletonList(
+                        ImmutableExponentialHistogramPointData.create(
+                            10,
+                            42.0,
+                            3,
+                            false,
+                            0,
+                            false,
+                            0,
+                            ImmutableExponentialHistogramBuckets.create(
+                                10, 5, Arrays.asList(1L, 2L, 3L)),
+                            ImmutableExponentialHistogramBuckets.create(
+                                10, -2, Arrays.asList(4L, 5L)),
+                            0,
+                            1,
+                            Attributes.empty(),
+                            exemplars))))));
+  }
+
+  @Test
+  void summaries() throws IOException {
+    assertSameOutput(
+        Collections.singletonList(
+            ImmutableMetricData.createDoubleSummary(
+                RESOURCE,
+                SCOPE,
+                "latency",
+                "Latency",
+                "ms",
+                ImmutableSummaryData.create(
+                    Arrays.asList(
+                        ImmutableSummaryPointData.create(
+                            0,
+                            1,
+                            Attributes.of(stringKey("op"), "read"),
+                            5,
+                            12.0,
+                            Arrays.asList(
+                                ImmutableValueAtQuantile.create(0.99, 9.0),
+                                ImmutableValueAtQuantile.create(0.5, 2.0))),
+                        ImmutableSummaryPointData.create(
+                            0,
+                            1,
+                            Attributes.of(stringKey("op"), "write"),
+                            0,
+                            0,
+                            Collections.emptyList()))))));
+  }
+
+  @Test
+  void mergedAndConflictingMetrics() throws IOException {
+    assertSameOutput(
+        Arrays.asList(
+            // Same Prometheus name from two scopes, merged into one family.
+            ImmutableMetricData.createLongGauge(
+                RESOURCE,
+                SCOPE,
+                "connections",
+                "Connections",
+                "",
+                ImmutableGaugeData.create(
+                    Collections.singletonList(
+                        ImmutableLongPointData.create(0, 1, Attributes.empty(), 1)))),
+            ImmutableMetricData.createLongGauge(
+                RESOURCE,
+                OTHER_SCOPE,
+                "connections",
+                "Connections",
+                "",
+                ImmutableGaugeData.create(
+                    Collections.singletonList(
+                        ImmutableLongPointData.create(0, 1, Attributes.empty(), 2)))),
+            // Same Prometheus name with a different type, dropped.
+            longSum(
+                "connections",
+                "",
+                true,
+                ImmutableLongPointData.create(0, 1, Attributes.empty(), 3)),
+            // Same Prometheus name with a different unit, dropped.
+            ImmutableMetricData.createLongGauge(
+                RESOURCE,
+                OTHER_SCOPE,
+                "connections",
+                "Connections",
+                "By",
+                ImmutableGaugeData.create(
+                    Collections.singletonList(
+                        ImmutableLongPointData.create(0, 1, Attributes.empty(), 4)))),
+            // Delta sums are dropped.
+            ImmutableMetricData.createLongSum(
+                RESOURCE,
+                SCOPE,
+                "delta",
+                "",
+                "",
+                ImmutableSumData.create(
+                    true,
+                    AggregationTemporality.DELTA,
+                    Collections.singletonList(
+                        ImmutableLongPointData.create(0, 1, Attributes.empty(), 1)))),
+            // Negative counters fail conversion, and are dropped.
+            longSum(
+                "negative",
+                "",
+                true,
+                ImmutableLongPointData.create(0, 1, Attributes.empty(), -1)),
+            // Attributes normalizing to the same label name are merged.
+            longSum(
+                "collisions",
+                "",
+                true,
+                ImmutableLongPointData.create(
+                    0, 1, Attributes.of(stringKey("a.b"), "1", stringKey("a_b"), "2"), 1)),
+            // Attributes take precedence over scope labels.
+            longSum(
+                "scope.override",
+                "",
+                true,
+                ImmutableLongPointData.create(
+                    0, 1, Attributes.of(stringKey("otel_scope_name"), "mine"), 1))));
+  }
+
+  @Test
+  void resourceAttributes() throws IOException {
+    MetricData metricData =
+        longSum(
+            "requests",
+            "",
+            true,
+            ImmutableLongPointData.create(0, 1, Attributes.of(stringKey("team"), "override"), 1),
+            ImmutableLongPointData.create(0, 1, Attributes.empty(), 2));
+    List<MetricData> metrics = Collections.singletonList(metricData);
+    for (boolean otelScopeLabelsEnabled : new boolean[] {true, false}) {
+      for (boolean targetInfoMetricEnabled : new boolean[] {true, false}) {
+        assertSameOutput(
+            new Otel2PrometheusConverter(
+                otelScopeLabelsEnabled,
+                targetInfoMetricEnabled,
+                TranslationStrategy.UNDERSCORE_ESCAPING_WITH_SUFFIXES,
+                name -> !name.equals("host.name")),
+            metrics);
+      }
+    }
+    assertSameOutput(
+        new Otel2PrometheusConverter(
+            true, true, TranslationStrategy.UNDERSCORE_ESCAPING_WITHOUT_SUFFIXES, null),
+        metrics);
+  }
+
+  @Test
+  void exemplarLabelSetTooLong() throws IOException {
+    char[] longValue = new char[200];
+    Arrays.fill(longValue, 'x');
+    Attributes attributes = Attributes.of(stringKey("long"), new String(longValue));
+    assertSameOutput(
+        Arrays.asList(
+            longSum(
+                "with.span",
+                "",
+                true,
+                ImmutableLongPointData.create(
+                    0,
+                    1,
+                    Attributes.empty(),
+                    1,
+                    Collections.singletonList(
+                        ImmutableLongExemplarData.create(attributes, 0, SPAN_CONTEXT, 1)))),
+            longSum(
+                "without.span",
+                "",
+                true,
+                ImmutableLongPointData.create(
+                    0,
+                    1,
+                    Attributes.empty(),
+                    1,
+                    Collections.singletonList(
+                        ImmutableLongExemplarData.create(
+                            attributes, 0, SpanContext.getInvalid(), 1))))));
+  }
+
+  @Test
+  void duplicateSeries() {
+    List<MetricData> metrics =
+        Arrays.asList(
+            longSum(
+                "requests",
+                "",
+                true,
+                ImmutableLongPointData.create(0, 1, Attributes.empty(), 1)),
+            ImmutableMetricData.createLongSum(
+                RESOURCE,
+                SCOPE,
+                "requests",
+                "description",
+                "",
+                ImmutableSumData.create(
+                    true,
+                    AggregationTemporality.CUMULATIVE,
+                    Collections.singletonList(
+                        ImmutableLongPointData.create(0, 1, Attributes.empty(), 2)))));
+    Otel2PrometheusConverter converter = newConverter();
+    assertThatThrownBy(() -> converter.convert(metrics))
+        .isInstanceOf(DuplicateLabelsException.class);
+    assertThatThrownBy(
+            () ->
+                new Otel2PrometheusWriter(converter)
+                    .write(metrics, /* openMetrics= */ false, new ExpositionBuffer(64)))
+        .isInstanceOf(DuplicateLabelsException.class);
+  }
+
+  @Test
+  void reusedAcrossScrapes() throws IOException {
+    Otel2PrometheusConverter converter = newConverter();
+    Otel2PrometheusWriter writer = new Otel2PrometheusWriter(converter);
+    ExpositionBuffer buffer = new ExpositionBuffer(16);
+    List<MetricData> first =
+        Collections.singletonList(
+            longSum(
+                "requests",
+                "",
+                true,
+                ImmutableLongPointData.create(
+                    0, 1, Attributes.of(stringKey("a"), "1", stringKey("b"), "2"), 1)));
+    List<MetricData> second =
+        Collections.singletonList(
+            longSum(
+                "requests",
+                "",
+                true,
+                ImmutableLongPointData.create(0, 1, Attributes.of(stringKey("c"), "3"), 2)));
+    writer.write(first, /* openMetrics= */ false, buffer);
+    buffer.reset();
+    writer.write(second, /* openMetrics= */ false, buffer);
+    assertThat(buffer.toString(StandardCharsets.UTF_8.name()))
+        .isEqualTo(expected(converter, second, /* openMetrics= */ false));
+
+    buffer.reset();
+    writer.write(Collections.emptyList(), /* openMetrics= */ true, buffer);
+    assertThat(buffer.toString(StandardCharsets.UTF_8.name())).isEqualTo("# EOF\n");
+  }
+
+  @Test
+  void unsupportedTranslationStrategy() {
+    assertThatThrownBy(
+            () ->
+                new Otel2PrometheusWriter(
+                    new Otel2PrometheusConverter(
+                        true, true, TranslationStrategy.NO_TRANSLATION, null)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static void assertSameOutput(List<MetricData> metrics) throws IOException {
+    assertSameOutput(newConverter(), metrics);
+  }
+
+  private static void assertSameOutput(
+      Otel2PrometheusConverter converter, List<MetricData> metrics) throws IOException {
+    Otel2PrometheusWriter writer = new Otel2PrometheusWriter(converter);
+    for (boolean openMetrics : new boolean[] {false, true}) {
+      ExpositionBuffer buffer = new ExpositionBuffer(16);
+      writer.write(metrics, openMetrics, buffer);
+      assertThat(buffer.toString(StandardCharsets.UTF_8.name()))
+          .isEqualTo(expected(converter, metrics, openMetrics));
+    }
+  }
+
+  private static String expected(
+      Otel2PrometheusConverter converter, Collection<MetricData> metrics, boolean openMetrics)
+      throws IOException {
+    MetricSnapshots snapshots = converter.convert(metrics);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ExpositionFormats formats = ExpositionFormats.init();
+    if (openMetrics) {
+      formats
+          .getOpenMetricsTextFormatWriter()
+          .write(out, snapshots, EscapingScheme.UNDERSCORE_ESCAPING);
+    } else {
+      formats
+          .getPrometheusTextFormatWriter()
+          .write(out, snapshots, EscapingScheme.UNDERSCORE_ESCAPING);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static Otel2PrometheusConverter newConverter() {
+    return new Otel2PrometheusConverter(
+        /* otelScopeLabelsEnabled= */ true,
+        /* targetInfoMetricEnabled= */ true,
+        TranslationStrategy.UNDERSCORE_ESCAPING_WITH_SUFFIXES,
+        /* allowedResourceAttributesFilter= */ null);
+  }
+
+  private static MetricData longSum(
+      String name,
+      String unit,
+      boolean monotonic,
+      LongPointData... points) {
+    return ImmutableMetricData.createLongSum(
+        RESOURCE,
+        SCOPE,
+        name,
+        "",
+        unit,
+        ImmutableSumData.create(
+            monotonic, AggregationTemporality.CUMULATIVE, Arrays.asList(points)));
+  }
+
+  private static MetricData doubleSum(
+      String name,
+      String unit,
+      boolean monotonic,
+      DoublePointData... points) {
+    return ImmutableMetricData.createDoubleSum(
+        RESOURCE,
+        SCOPE,
+        name,
+        "",
+        unit,
+        ImmutableSumData.create(
+            monotonic, AggregationTemporality.CUMULATIVE, Arrays.asList(points)));
+  }
+}
@@ -9,6 +9,7 @@ import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.ByteStreams;
@@ -72,10 +73,13 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 class PrometheusHttpServerTest {
   private static final AtomicReference<List<MetricData>> metricData = new AtomicReference<>();
@@ -132,6 +136,15 @@ class PrometheusHttpServerTest {
     assertThatThrownBy(() -> PrometheusHttpServer.builder().setDefaultAggregationSelector(null))
         .isInstanceOf(NullPointerException.class)
         .hasMessage("defaultAggregationSelector");
+    assertThatThrownBy(
+            () ->
+                PrometheusHttpServer.builder()
+                    .setMemoryMode(MemoryMode.IMMUTABLE_DATA)
+                    .setExecutor(Executors.newSingleThreadExecutor())
+                    .setVirtualThreadsEnabled(true)
+                    .build())
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Virtual threads cannot be used with custom executor");
   }
 
   @Test
@@ -152,13 +165,16 @@ class PrometheusHttpServerTest {
                 + "target_info{kr=\"vr\"} 1\n");
   }
 
-  @Test
-  void fetch_ReusableMemoryMode() throws InterruptedException {
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void fetch_ReusableMemoryMode(boolean virtualThreadsEnabled) throws InterruptedException {
+    assumeTrue(!virtualThreadsEnabled || JRE.currentVersion().compareTo(JRE.JAVA_21) >= 0);
     try (PrometheusHttpServer prometheusServer =
         PrometheusHttpServer.builder()
             .setHost("localhost")
             .setPort(0)
             .setMemoryMode(MemoryMode.REUSABLE_DATA)
+            .setVirtualThreadsEnabled(virtualThreadsEnabled)
             .build()) {
       AtomicBoolean collectInProgress = new AtomicBoolean();
       AtomicBoolean concurrentRead = new AtomicBoolean();
@@ -518,6 +534,88 @@ class PrometheusHttpServerTest {
     assertThat(response.content().isEmpty()).isTrue();
   }
 
+  @SuppressWarnings("resource")
+  @Test
+  void fetchFilteredCompressed() throws IOException {
+    WebClient client =
+        WebClient.builder("http://localhost:" + prometheusServer.getAddress().getPort())
+            .decorator(RetryingClient.newDecorator(RetryRule.failsafe()))
+            .addHeader(HttpHeaderNames.ACCEPT_ENCODING, "gzip")
+            .build();
+    AggregatedHttpResponse response = client.get("/metrics?name[]=target_info").aggregate().join();
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.headers().get(HttpHeaderNames.CONTENT_TYPE))
+        .isEqualTo("text/plain; version=0.0.4; charset=utf-8");
+    assertThat(response.headers().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+    GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(response.content().array()));
+    String content = new String(ByteStreams.toByteArray(gis), StandardCharsets.UTF_8);
+    assertThat(content)
+        .isEqualTo("# TYPE target_info gauge\n" + "target_info{kr=\"vr\"} 1\n");
+  }
+
+  @Test
+  void fetchFilteredHead() {
+    AggregatedHttpResponse response = client.head("/metrics?name[]=target_info").aggregate().join();
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.headers().get(HttpHeaderNames.CONTENT_TYPE))
+        .isEqualTo("text/plain; version=0.0.4; charset=utf-8");
+    assertThat(response.content().isEmpty()).isTrue();
+  }
+
+  @Test
+  void fetchDebug() {
+    AggregatedHttpResponse response = client.get("/metrics?debug=text").aggregate().join();
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.headers().get(HttpHeaderNames.CONTENT_TYPE))
+        .isEqualTo("text/plain; charset=utf-8");
+    assertThat(response.contentUtf8())
+        .isEqualTo(client.get("/metrics").aggregate().join().contentUtf8());
+  }
+
+  @Test
+  void fetchOpenMetricsEscapingValues() {
+    AggregatedHttpResponse response =
+        client
+            .execute(
+                RequestHeaders.of(
+                    HttpMethod.GET,
+                    "/metrics",
+                    HttpHeaderNames.ACCEPT,
+                    "application/openmetrics-text;version=1.0.0;escaping=values"))
+            .aggregate()
+            .join();
+    AggregatedHttpResponse defaultEscapingResponse =
+        client
+            .execute(
+                RequestHeaders.of(
+                    HttpMethod.GET,
+                    "/metrics",
+                    HttpHeaderNames.ACCEPT,
+                    "application/openmetrics-text"))
+            .aggregate()
+            .join();
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.headers().get(HttpHeaderNames.CONTENT_TYPE))
+        .isEqualTo("application/openmetrics-text; version=1.0.0; charset=utf-8");
+    // The metric names are valid without escaping, so both schemes give the same response.
+    assertThat(response.contentUtf8()).isEqualTo(defaultEscapingResponse.contentUtf8());
+  }
+
+  @Test
+  void fetchMetricsPaths() {
+    AggregatedHttpResponse response = client.get("/metrics/").aggregate().join();
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.contentUtf8())
+        .isEqualTo(client.get("/metrics").aggregate().join().contentUtf8());
+
+    // Not a metrics path, served by the default handler.
+    response = client.get("/metricsfoo").aggregate().join();
+    assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    assertThat(response.headers().get(HttpHeaderNames.CONTENT_TYPE))
+        .isEqualTo("text/html; charset=utf-8");
+    assertThat(response.contentUtf8()).contains("<h1>Prometheus Java Client</h1>");
+  }
+
   @Test
   void fetchHealth() {
     AggregatedHttpResponse response = client.get("/-/healthy").aggregate().join();
@@ -607,6 +705,29 @@ class PrometheusHttpServerTest {
         .satisfies(executor -> assertThat(executor.getCorePoolSize()).isEqualTo(1));
   }
 
+  @Test
+  @EnabledForJreRange(min = JRE.JAVA_21)
+  void virtualThreadsExecutor() {
+    try (PrometheusHttpServer server =
+        PrometheusHttpServer.builder()
+            .setHost("localhost")
+            .setPort(0)
+            .setVirtualThreadsEnabled(true)
+            .build()) {
+      assertThat(server)
+          .extracting("httpServer", as(InstanceOfAssertFactories.type(HTTPServer.class)))
+          .extracting("executorService")
+          .isNotInstanceOf(ThreadPoolExecutor.class);
+
+      WebClient client =
+          WebClient.builder("http://localhost:" + server.getAddress().getPort())
+              .decorator(RetryingClient.newDecorator(RetryRule.failsafe()))
+              .build();
+      AggregatedHttpResponse response = client.get("/metrics").aggregate().join();
+      assertThat(response.status()).isEqualTo(HttpStatus.OK);
+    }
+  }
+
   @Test
   void customExecutor() throws IOException {
     ScheduledExecutorService scheduledExecutor = Executors.newScheduledThreadPool(10);
@@ -0,0 +1,118 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.prometheus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.sdk.testing.time.TestClock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ScrapeCoalescerTest {
+
+  private final TestClock clock = TestClock.create();
+
+  @Test
+  void sequentialScrapes_notCachedByDefault() {
+    AtomicInteger scrapes = new AtomicInteger();
+    ScrapeCoalescer<Integer> coalescer =
+        new ScrapeCoalescer<>(scrapes::incrementAndGet, 0, clock);
+
+    assertThat(coalescer.get()).isEqualTo(1);
+    assertThat(coalescer.get()).isEqualTo(2);
+  }
+
+  @Test
+  void concurrentScrapes_shareInFlightScrape() throws Exception {
+    AtomicInteger scrapes = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ScrapeCoalescer<Integer> coalescer =
+        new ScrapeCoalescer<>(
+            () -> {
+              started.countDown();
+              await(release);
+              return scrapes.incrementAndGet();
+            },
+            0,
+            clock);
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      Future<Integer> first = executor.submit(coalescer::get);
+      assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+      Future<Integer> second = executor.submit(coalescer::get);
+      Future<Integer> third = executor.submit(coalescer::get);
+      // Give the other scrapes time to join the in-flight one.
+      Thread.sleep(100);
+      release.countDown();
+
+      assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(third.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(scrapes).hasValue(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void minInterval_servesCachedResult() {
+    AtomicInteger scrapes = new AtomicInteger();
+    ScrapeCoalescer<Integer> coalescer =
+        new ScrapeCoalescer<>(
+            () -> {
+              clock.advance(Duration.ofMillis(100));
+              return scrapes.incrementAndGet();
+            },
+            Duration.ofSeconds(1).toNanos(),
+            clock);
+
+    assertThat(coalescer.get()).isEqualTo(1);
+    clock.advance(Duration.ofMillis(800));
+    assertThat(coalescer.get()).isEqualTo(1);
+    // The interval counts from the start of the scrape.
+    clock.advance(Duration.ofMillis(100));
+    assertThat(coalescer.get()).isEqualTo(2);
+  }
+
+  @Test
+  void failedScrape_notCached() {
+    AtomicInteger scrapes = new AtomicInteger();
+    ScrapeCoalescer<Integer> coalescer =
+        new ScrapeCoalescer<>(
+            () -> {
+              if (scrapes.incrementAndGet() == 1) {
+                throw new IllegalStateException("failed");
+              }
+              return scrapes.get();
+            },
+            Duration.ofSeconds(1).toNanos(),
+            clock);
+
+    assertThatThrownBy(coalescer::get)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("failed");
+    assertThat(coalescer.get()).isEqualTo(2);
+    assertThat(coalescer.get()).isEqualTo(2);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -3,6 +3,8 @@ import org.gradle.api.JavaVersion
 plugins {
   id("otel.java-conventions")
   id("otel.publish-conventions")
+
+  id("otel.jmh-conventions")
 }
 
 description = "OpenTelemetry JDK HttpSender"
@@ -15,4 +17,6 @@ dependencies {
 
   implementation(project(":exporters:common"))
   implementation(project(":sdk:common"))
+
+  jmhImplementation("com.linecorp.armeria:armeria")
 }
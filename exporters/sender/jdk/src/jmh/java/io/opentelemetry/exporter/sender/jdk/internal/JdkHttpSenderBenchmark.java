@@ -0,0 +1,144 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.sender.jdk.internal;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.server.Server;
+import io.opentelemetry.sdk.common.export.MessageWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the export throughput of {@link JdkHttpSender} against a local server which delays each
+ * response by {@link #rttMillis} to simulate the round trip time to a remote collector.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JdkHttpSenderBenchmark {
+
+  private static final int REQUESTS_PER_INVOCATION = 64;
+  private static final byte[] PAYLOAD = new byte[16 * 1024];
+
+  @Param({"0", "5", "25"})
+  int rttMillis;
+
+  @Param({"http/1.1", "http/2"})
+  String httpVersion;
+
+  @Param({"1", "8", "64"})
+  int maxConcurrentRequests;
+
+  private Server server;
+  private JdkHttpSender sender;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Duration rtt = Duration.ofMillis(rttMillis);
+    // Plaintext Armeria ports accept HTTP/1.1 as well as h2c, both with prior knowledge and via
+    // upgrade.
+    server =
+        Server.builder()
+            .service(
+                "/v1/traces",
+                (ctx, req) -> HttpResponse.of(req.aggregate().thenApply(unused -> respond(rtt))))
+            .http(0)
+            .build();
+    server.start().join();
+
+    sender =
+        new JdkHttpSender(
+            URI.create("http://localhost:" + server.activeLocalPort() + "/v1/traces"),
+            "application/x-protobuf",
+            null,
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(10),
+            Collections::emptyMap,
+            null,
+            null,
+            null,
+            null,
+            Long.MAX_VALUE,
+            "http/2".equals(httpVersion) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1,
+            maxConcurrentRequests,
+            false);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    sender.shutdown().join(10, TimeUnit.SECONDS);
+    server.stop().join();
+  }
+
+  private static HttpResponse respond(Duration rtt) {
+    HttpResponse response = HttpResponse.of(HttpStatus.OK);
+    return rtt.isZero() ? response : HttpResponse.delayed(response, rtt);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(REQUESTS_PER_INVOCATION)
+  public int export() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(REQUESTS_PER_INVOCATION);
+    AtomicInteger failures = new AtomicInteger();
+    for (int i = 0; i < REQUESTS_PER_INVOCATION; i++) {
+      sender.send(
+          PayloadWriter.INSTANCE,
+          response -> {
+            if (response.getStatusCode() != 200) {
+              failures.incrementAndGet();
+            }
+            latch.countDown();
+          },
+          error -> {
+            failures.incrementAndGet();
+            latch.countDown();
+          });
+    }
+    if (!latch.await(30, TimeUnit.SECONDS) || failures.get() > 0) {
+      throw new AssertionError();
+    }
+    return failures.get();
+  }
+
+  private enum PayloadWriter implements MessageWriter {
+    INSTANCE;
+
+    @Override
+    public void writeMessage(OutputStream output) throws IOException {
+      output.write(PAYLOAD);
+    }
+
+    @Override
+    public int getContentLength() {
+      return PAYLOAD.length;
+    }
+  }
+}
@@ -9,24 +9,68 @@ import java.net.http.HttpRequest;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 final class BodyPublisher implements HttpRequest.BodyPublisher {
 
+  // Same size as the pooled buffers that byte array content is copied to.
+  private static final int SLICE_SIZE = 16 * 1024;
+
   private final int length;
-  private final byte[] content;
-  private final Supplier<ByteBuffer> bufSupplier;
+  private final Supplier<List<ByteBuffer>> buffers;
+  // Slices of the content published without copying, which the client is done with once it read
+  // them to their end.
+  private final Queue<ByteBuffer> publishedSlices = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger incompleteSubscriptions = new AtomicInteger();
 
+  /** Publishes {@code length} bytes of {@code content}, copied to buffers from a pool. */
   BodyPublisher(byte[] content, int length, Supplier<ByteBuffer> bufSupplier) {
-    this.content = content;
     this.length = length;
-    this.bufSupplier = bufSupplier;
+    this.buffers = () -> copyToBuffers(content, length, bufSupplier);
+  }
+
+  /** Publishes the remaining bytes of {@code content}, heap or direct, without copying them. */
+  BodyPublisher(ByteBuffer content) {
+    this.length = content.remaining();
+    this.buffers = () -> slice(content);
+  }
+
+  private List<ByteBuffer> slice(ByteBuffer content) {
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int position = content.position(); position < content.limit(); position += SLICE_SIZE) {
+      ByteBuffer slice = content.duplicate();
+      slice.position(position).limit(Math.min(position + SLICE_SIZE, content.limit()));
+      buffers.add(slice.slice());
+    }
+    publishedSlices.addAll(buffers);
+    return buffers;
+  }
+
+  /**
+   * Returns whether every subscription completed and the client read each published slice of the
+   * content to its end, after which content published without copying can be reused. This is not
+   * the case when the server responded before receiving the whole request, for example with a 413,
+   * as the client may still be reading the content after returning the response.
+   */
+  boolean isConsumed() {
+    if (incompleteSubscriptions.get() != 0) {
+      return false;
+    }
+    for (ByteBuffer slice : publishedSlices) {
+      if (slice.hasRemaining()) {
+        return false;
+      }
+    }
+    return true;
   }
 
-  private List<ByteBuffer> copyToBuffers() {
+  private static List<ByteBuffer> copyToBuffers(
+      byte[] content, int length, Supplier<ByteBuffer> bufSupplier) {
     int offset = 0;
-    int length = this.length;
 
     List<ByteBuffer> buffers = new ArrayList<>();
     while (length > 0) {
@@ -49,7 +93,9 @@ final class BodyPublisher implements HttpRequest.BodyPublisher {
 
   @Override
   public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
-    Subscription subscription = new Subscription(copyToBuffers(), subscriber);
+    incompleteSubscriptions.incrementAndGet();
+    Subscription subscription =
+        new Subscription(buffers.get(), subscriber, incompleteSubscriptions::decrementAndGet);
     subscriber.onSubscribe(subscription);
   }
 
@@ -58,12 +104,17 @@ final class BodyPublisher implements HttpRequest.BodyPublisher {
     private volatile boolean isCompleted;
     private final List<ByteBuffer> buffers;
     private final Flow.Subscriber<? super ByteBuffer> subscriber;
+    private final Runnable onComplete;
 
     private int offset = 0;
 
-    private Subscription(List<ByteBuffer> buffers, Flow.Subscriber<? super ByteBuffer> subscriber) {
+    private Subscription(
+        List<ByteBuffer> buffers,
+        Flow.Subscriber<? super ByteBuffer> subscriber,
+        Runnable onComplete) {
       this.buffers = buffers;
       this.subscriber = subscriber;
+      this.onComplete = onComplete;
     }
 
     @Override
@@ -100,8 +151,11 @@ final class BodyPublisher implements HttpRequest.BodyPublisher {
         subscriber.onNext(next);
         count++;
       }
-      if (offset >= buffers.size()) {
+      // onNext may have requested and received the remaining buffers already, completing this
+      // subscription in a nested call.
+      if (offset >= buffers.size() && !isCompleted) {
         isCompleted = true;
+        onComplete.run();
         subscriber.onComplete();
       }
     }
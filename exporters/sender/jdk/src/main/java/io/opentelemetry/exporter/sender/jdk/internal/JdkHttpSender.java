@@ -6,6 +6,7 @@
 package io.opentelemetry.exporter.sender.jdk.internal;
 
 import io.opentelemetry.exporter.internal.RetryUtil;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.export.Compressor;
 import io.opentelemetry.sdk.common.export.HttpResponse;
@@ -25,15 +26,20 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -51,6 +57,11 @@ import javax.net.ssl.SSLException;
 /**
  * {@link HttpSender} which is backed by JDK {@link HttpClient}.
  *
+ * <p>Requests may be limited to a number in flight at once, in which case requests beyond the limit
+ * are queued and sent in order as earlier ones complete. At most {@value #MAX_PENDING_REQUESTS}
+ * requests are queued, and the ones sent while the queue is full fail immediately. With HTTP/2,
+ * the requests in flight are multiplexed over a single connection.
+ *
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
  */
@@ -62,11 +73,21 @@ public final class JdkHttpSender implements HttpSender {
       ThreadLocal.withInitial(NoCopyByteArrayOutputStream::new);
   private static final ThreadLocal<ByteBufferPool> threadLocalByteBufPool =
       ThreadLocal.withInitial(ByteBufferPool::new);
+  private static final ThreadLocal<ByteBuffer> threadLocalDirectBuffer = new ThreadLocal<>();
+  // Larger requests are serialized into a heap buffer which is not kept, to bound the direct memory
+  // held by each thread.
+  private static final int MAX_DIRECT_BUFFER_SIZE = 4 * 1024 * 1024;
+  // The max number of requests waiting for one in flight to complete. Each holds on to its message,
+  // so further requests fail right away rather than piling up while the endpoint is slow.
+  // Visible for testing
+  static final int MAX_PENDING_REQUESTS = 1024;
 
   private static final Logger logger = Logger.getLogger(JdkHttpSender.class.getName());
 
   private final boolean managedExecutor;
   private final ExecutorService executorService;
+  // Whether the client is shared with other senders
+  private final boolean sharedTransport;
   private final HttpClient client;
   private final URI endpoint;
   private final String contentType;
@@ -76,6 +97,10 @@ public final class JdkHttpSender implements HttpSender {
   @Nullable private final RetryPolicy retryPolicy;
   private final Predicate<IOException> retryExceptionPredicate;
   private final long maxResponseBodySize;
+  // Null if the number of concurrent requests is only limited by the executor
+  @Nullable private final Semaphore requestPermits;
+  private final Queue<PendingRequest> pendingRequests =
+      new LinkedBlockingQueue<>(MAX_PENDING_REQUESTS);
 
   // Visible for testing
   JdkHttpSender(
@@ -88,6 +113,33 @@ public final class JdkHttpSender implements HttpSender {
       @Nullable RetryPolicy retryPolicy,
       @Nullable ExecutorService executorService,
       long maxResponseBodySize) {
+    this(
+        client,
+        endpoint,
+        contentType,
+        compressor,
+        timeout,
+        headerSupplier,
+        retryPolicy,
+        executorService,
+        maxResponseBodySize,
+        0,
+        false);
+  }
+
+  // Visible for testing
+  JdkHttpSender(
+      HttpClient client,
+      URI endpoint,
+      String contentType,
+      @Nullable Compressor compressor,
+      Duration timeout,
+      Supplier<Map<String, List<String>>> headerSupplier,
+      @Nullable RetryPolicy retryPolicy,
+      @Nullable ExecutorService executorService,
+      long maxResponseBodySize,
+      int maxConcurrentRequests,
+      boolean sharedTransport) {
     this.client = client;
     this.endpoint = endpoint;
     this.contentType = contentType;
@@ -99,14 +151,20 @@ public final class JdkHttpSender implements HttpSender {
         Optional.ofNullable(retryPolicy)
             .map(RetryPolicy::getRetryExceptionPredicate)
             .orElse(JdkHttpSender::isRetryableException);
+    this.sharedTransport = sharedTransport;
     if (executorService == null) {
-      this.executorService = newExecutor();
+      this.executorService =
+          newExecutor(
+              maxConcurrentRequests > 0
+                  ? maxConcurrentRequests
+                  : Math.max(Runtime.getRuntime().availableProcessors(), 5));
       this.managedExecutor = true;
     } else {
       this.executorService = executorService;
       this.managedExecutor = false;
     }
     this.maxResponseBodySize = maxResponseBodySize;
+    this.requestPermits = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests) : null;
   }
 
   JdkHttpSender(
@@ -122,7 +180,52 @@ public final class JdkHttpSender implements HttpSender {
       @Nullable ExecutorService executorService,
       long maxResponseBodySize) {
     this(
-        configureClient(sslContext, connectTimeout, proxyOptions),
+        endpoint,
+        contentType,
+        compressor,
+        timeout,
+        connectTimeout,
+        headerSupplier,
+        retryPolicy,
+        proxyOptions,
+        sslContext,
+        executorService,
+        maxResponseBodySize,
+        null,
+        0,
+        false);
+  }
+
+  /**
+   * Creates a sender using {@code httpVersion}, or the {@link HttpClient} default if {@code null},
+   * with at most {@code maxConcurrentRequests} requests in flight, or no limit beyond the
+   * executor's if not positive. With {@code sharedTransport}, {@code executorService} has been
+   * acquired as a {@link SharedTransport}, and the sender uses the client attached to it.
+   *
+   * <p>{@link HttpClient} has no prior knowledge mode for cleartext HTTP/2: with {@link
+   * HttpClient.Version#HTTP_2}, the first request to an {@code http} endpoint is sent as HTTP/1.1
+   * offering an {@code h2c} upgrade, and later requests are multiplexed over the upgraded
+   * connection if the server accepts it.
+   */
+  JdkHttpSender(
+      URI endpoint,
+      String contentType,
+      @Nullable Compressor compressor,
+      Duration timeout,
+      Duration connectTimeout,
+      Supplier<Map<String, List<String>>> headerSupplier,
+      @Nullable RetryPolicy retryPolicy,
+      @Nullable ProxyOptions proxyOptions,
+      @Nullable SSLContext sslContext,
+      @Nullable ExecutorService executorService,
+      long maxResponseBodySize,
+      @Nullable HttpClient.Version httpVersion,
+      int maxConcurrentRequests,
+      boolean sharedTransport) {
+    this(
+        sharedTransport && executorService != null
+            ? sharedClient(executorService, sslContext, connectTimeout, proxyOptions, httpVersion)
+            : configureClient(sslContext, connectTimeout, proxyOptions, httpVersion),
         endpoint,
         contentType,
         compressor,
@@ -130,36 +233,132 @@ public final class JdkHttpSender implements HttpSender {
         headerSupplier,
         retryPolicy,
         executorService,
-        maxResponseBodySize);
+        maxResponseBodySize,
+        maxConcurrentRequests,
+        sharedTransport && executorService != null);
   }
 
-  private static ExecutorService newExecutor() {
+  private static ExecutorService newExecutor(int maxThreads) {
     return new ThreadPoolExecutor(
         0,
-        Math.max(Runtime.getRuntime().availableProcessors(), 5),
+        maxThreads,
         60,
         TimeUnit.SECONDS,
         new SynchronousQueue<>(),
         new DaemonThreadFactory("jdkhttp-executor"));
   }
 
+  /**
+   * Returns the client shared by the senders using the {@link SharedTransport} {@code
+   * executorService} with the same connection settings, which also runs its asynchronous tasks on
+   * that executor.
+   */
+  private static HttpClient sharedClient(
+      ExecutorService executorService,
+      @Nullable SSLContext sslContext,
+      Duration connectTimeout,
+      @Nullable ProxyOptions proxyOptions,
+      @Nullable HttpClient.Version httpVersion) {
+    return SharedTransport.getOrCreateResource(
+        executorService,
+        Arrays.asList(
+            HttpClient.class,
+            sslContext,
+            connectTimeout,
+            proxyOptions == null ? null : proxyOptions.getProxySelector(),
+            httpVersion),
+        () ->
+            newClientBuilder(sslContext, connectTimeout, proxyOptions, httpVersion)
+                .executor(executorService)
+                .build(),
+        JdkHttpSender::closeClient);
+  }
+
   private static HttpClient configureClient(
       @Nullable SSLContext sslContext,
       Duration connectTimeout,
-      @Nullable ProxyOptions proxyOptions) {
+      @Nullable ProxyOptions proxyOptions,
+      @Nullable HttpClient.Version httpVersion) {
+    return newClientBuilder(sslContext, connectTimeout, proxyOptions, httpVersion).build();
+  }
+
+  private static HttpClient.Builder newClientBuilder(
+      @Nullable SSLContext sslContext,
+      Duration connectTimeout,
+      @Nullable ProxyOptions proxyOptions,
+      @Nullable HttpClient.Version httpVersion) {
     HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(connectTimeout);
+    if (httpVersion != null) {
+      builder.version(httpVersion);
+    }
     if (sslContext != null) {
       builder.sslContext(sslContext);
     }
     if (proxyOptions != null) {
       builder.proxy(proxyOptions.getProxySelector());
     }
-    return builder.build();
+    return builder;
   }
 
   @Override
   public void send(
       MessageWriter messageWriter, Consumer<HttpResponse> onResponse, Consumer<Throwable> onError) {
+    Semaphore permits = requestPermits;
+    if (permits == null) {
+      sendAsync(messageWriter, onResponse, onError);
+      return;
+    }
+    if (!pendingRequests.offer(new PendingRequest(messageWriter, onResponse, onError))) {
+      onError.accept(new RejectedExecutionException("Too many pending requests"));
+      return;
+    }
+    // Each permit is held by a task sending pending requests one after the other until none are
+    // left, so at most as many requests as there are permits are in flight.
+    if (!permits.tryAcquire()) {
+      return;
+    }
+    try {
+      executorService.execute(this::sendPendingRequests);
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      PendingRequest request = pendingRequests.poll();
+      if (request != null) {
+        request.onError.accept(e);
+      }
+    }
+  }
+
+  private void sendPendingRequests() {
+    Semaphore permits = Objects.requireNonNull(requestPermits);
+    while (true) {
+      PendingRequest request = pendingRequests.poll();
+      if (request == null) {
+        permits.release();
+        // A request queued after the poll above may have found no permit to take, in which case
+        // it is left to this task.
+        if (pendingRequests.isEmpty() || !permits.tryAcquire()) {
+          return;
+        }
+        continue;
+      }
+      try {
+        HttpResponse httpResponse;
+        try {
+          httpResponse = sendInternal(request.messageWriter);
+        } catch (IOException | RuntimeException e) {
+          request.onError.accept(e);
+          continue;
+        }
+        request.onResponse.accept(httpResponse);
+      } catch (RuntimeException e) {
+        // Keep sending, otherwise the permit held by this task would never be released.
+        logger.log(Level.WARNING, "Exception thrown by request callback", e);
+      }
+    }
+  }
+
+  private void sendAsync(
+      MessageWriter messageWriter, Consumer<HttpResponse> onResponse, Consumer<Throwable> onError) {
     try {
       CompletableFuture<HttpResponse> unused =
           CompletableFuture.supplyAsync(
@@ -196,22 +395,46 @@ public final class JdkHttpSender implements HttpSender {
     // Advertise gzip and identity response encoding support.
     requestBuilder.header("Accept-Encoding", "gzip, identity");
 
-    NoCopyByteArrayOutputStream os = threadLocalBaos.get();
-    os.reset();
-    if (compressor != null) {
-      requestBuilder.header("Content-Encoding", compressor.getEncoding());
-      try (OutputStream compressed = compressor.compress(os)) {
-        requestBodyWriter.writeMessage(compressed);
-      } catch (IOException e) {
-        throw new IllegalStateException(e);
+    ByteBufferPool byteBufferPool = threadLocalByteBufPool.get();
+    int contentLength = requestBodyWriter.getContentLength();
+    if (compressor == null && contentLength >= 0) {
+      // Serialize straight into a direct buffer which is published without copying, so that the
+      // socket can be written from it directly.
+      ByteBuffer buffer = checkOutRequestBuffer(contentLength);
+      requestBodyWriter.writeMessage(buffer);
+      buffer.flip();
+      BodyPublisher bodyPublisher = new BodyPublisher(buffer);
+      requestBuilder.POST(bodyPublisher);
+      try {
+        return send(requestBuilder, byteBufferPool, startTimeNanos);
+      } finally {
+        // Otherwise the client may still be reading the buffer, which is left to be garbage
+        // collected instead of being reused.
+        if (bodyPublisher.isConsumed()) {
+          checkInRequestBuffer(buffer);
+        }
       }
     } else {
-      requestBodyWriter.writeMessage(os);
+      NoCopyByteArrayOutputStream os = threadLocalBaos.get();
+      os.reset();
+      if (compressor != null) {
+        requestBuilder.header("Content-Encoding", compressor.getEncoding());
+        try (OutputStream compressed = compressor.compress(os)) {
+          requestBodyWriter.writeMessage(compressed);
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      } else {
+        requestBodyWriter.writeMessage(os);
+      }
+      requestBuilder.POST(new BodyPublisher(os.buf(), os.size(), byteBufferPool::getBuffer));
     }
+    return send(requestBuilder, byteBufferPool, startTimeNanos);
+  }
 
-    ByteBufferPool byteBufferPool = threadLocalByteBufPool.get();
-    requestBuilder.POST(new BodyPublisher(os.buf(), os.size(), byteBufferPool::getBuffer));
-
+  private HttpResponse send(
+      HttpRequest.Builder requestBuilder, ByteBufferPool byteBufferPool, long startTimeNanos)
+      throws IOException {
     // If no retry policy, short circuit
     if (retryPolicy == null) {
       return toHttpResponse(sendRequest(requestBuilder, byteBufferPool));
@@ -297,6 +520,43 @@ public final class JdkHttpSender implements HttpSender {
     throw exception;
   }
 
+  private static final class PendingRequest {
+    private final MessageWriter messageWriter;
+    private final Consumer<HttpResponse> onResponse;
+    private final Consumer<Throwable> onError;
+
+    private PendingRequest(
+        MessageWriter messageWriter,
+        Consumer<HttpResponse> onResponse,
+        Consumer<Throwable> onError) {
+      this.messageWriter = messageWriter;
+      this.onResponse = onResponse;
+      this.onError = onError;
+    }
+  }
+
+  // The buffer is taken from the thread until checked in, once the client is done reading it.
+  private static ByteBuffer checkOutRequestBuffer(int size) {
+    if (size > MAX_DIRECT_BUFFER_SIZE) {
+      return ByteBuffer.allocate(size);
+    }
+    ByteBuffer buffer = threadLocalDirectBuffer.get();
+    threadLocalDirectBuffer.remove();
+    if (buffer == null || buffer.capacity() < size) {
+      int capacity = buffer == null ? size : Math.max(size, 2 * buffer.capacity());
+      buffer = ByteBuffer.allocateDirect(Math.min(capacity, MAX_DIRECT_BUFFER_SIZE));
+    }
+    buffer.clear();
+    buffer.limit(size);
+    return buffer;
+  }
+
+  private static void checkInRequestBuffer(ByteBuffer buffer) {
+    if (buffer.isDirect()) {
+      threadLocalDirectBuffer.set(buffer);
+    }
+  }
+
   private static String responseStringRepresentation(HttpResponse response) {
     return "HttpResponse{code=" + response.getStatusCode() + "}";
   }
@@ -470,13 +730,26 @@ public final class JdkHttpSender implements HttpSender {
   }
 
   private CompletableResultCode closeClient() {
+    if (sharedTransport) {
+      // The shared client is closed once the last sender using it is shut down.
+      return CompletableResultCode.ofSuccess();
+    }
+    try {
+      closeClient(client);
+    } catch (RuntimeException e) {
+      return CompletableResultCode.ofExceptionalFailure(e);
+    }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  // HttpClient is AutoCloseable since Java 21, closing it waits for in-flight requests.
+  private static void closeClient(HttpClient client) {
     if (AutoCloseable.class.isInstance(client)) {
       try {
         AutoCloseable.class.cast(client).close();
       } catch (Exception e) {
-        return CompletableResultCode.ofExceptionalFailure(e);
+        throw new IllegalStateException("Failed to close HttpClient", e);
       }
     }
-    return CompletableResultCode.ofSuccess();
   }
 }
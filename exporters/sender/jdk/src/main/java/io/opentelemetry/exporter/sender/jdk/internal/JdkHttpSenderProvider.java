@@ -5,18 +5,39 @@
 
 package io.opentelemetry.exporter.sender.jdk.internal;
 
+import io.opentelemetry.api.internal.ConfigUtil;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.sdk.common.export.HttpSender;
 import io.opentelemetry.sdk.common.export.HttpSenderConfig;
 import io.opentelemetry.sdk.common.export.HttpSenderProvider;
+import java.net.http.HttpClient;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * {@link HttpSender} SPI implementation for {@link JdkHttpSender}.
  *
+ * <p>The HTTP version and the max number of concurrent requests can be configured with the
+ * experimental {@code otel.java.experimental.exporter.jdk.http.version} ({@code http/1.1} or
+ * {@code http/2}) and {@code otel.java.experimental.exporter.jdk.http.max-concurrent-requests}
+ * properties, or the equivalent environment variables. {@code http/2} is the {@link HttpClient}
+ * default, which already negotiates HTTP/2 with {@code https} endpoints and offers an upgrade to
+ * {@code http} ones, falling back to HTTP/1.1 if the server does not support it. Only {@code
+ * http/1.1} changes the behavior, by never attempting HTTP/2.
+ *
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
  */
 public final class JdkHttpSenderProvider implements HttpSenderProvider {
 
+  private static final Logger logger = Logger.getLogger(JdkHttpSenderProvider.class.getName());
+
+  private static final String HTTP_VERSION_PROPERTY =
+      "otel.java.experimental.exporter.jdk.http.version";
+  private static final String MAX_CONCURRENT_REQUESTS_PROPERTY =
+      "otel.java.experimental.exporter.jdk.http.max-concurrent-requests";
+
   @Override
   public HttpSender createSender(HttpSenderConfig httpSenderConfig) {
     return new JdkHttpSender(
@@ -30,6 +51,47 @@ public final class JdkHttpSenderProvider implements HttpSenderProvider {
         httpSenderConfig.getProxyOptions(),
         httpSenderConfig.getSslContext(),
         httpSenderConfig.getExecutorService(),
-        httpSenderConfig.getMaxResponseBodySize());
+        httpSenderConfig.getMaxResponseBodySize(),
+        httpVersion(ConfigUtil.getString(HTTP_VERSION_PROPERTY, "")),
+        maxConcurrentRequests(ConfigUtil.getString(MAX_CONCURRENT_REQUESTS_PROPERTY, "")),
+        SharedTransport.isShared(httpSenderConfig));
+  }
+
+  // Visible for testing
+  @Nullable
+  static HttpClient.Version httpVersion(String value) {
+    switch (value) {
+      case "":
+        return null;
+      case "http/1.1":
+        return HttpClient.Version.HTTP_1_1;
+      case "http/2":
+        // The default, so that the sender shares its client with those not configuring a version.
+        return null;
+      default:
+        logger.log(
+            Level.WARNING,
+            "Unsupported " + HTTP_VERSION_PROPERTY + " \"" + value + "\", using the default.");
+        return null;
+    }
+  }
+
+  // Visible for testing
+  static int maxConcurrentRequests(String value) {
+    if (value.isEmpty()) {
+      return 0;
+    }
+    try {
+      int maxConcurrentRequests = Integer.parseInt(value);
+      if (maxConcurrentRequests > 0) {
+        return maxConcurrentRequests;
+      }
+    } catch (NumberFormatException e) {
+      // Fall through
+    }
+    logger.log(
+        Level.WARNING,
+        "Invalid " + MAX_CONCURRENT_REQUESTS_PROPERTY + " \"" + value + "\", using no limit.");
+    return 0;
   }
 }
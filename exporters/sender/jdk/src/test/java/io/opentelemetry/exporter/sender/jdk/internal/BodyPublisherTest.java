@@ -0,0 +1,95 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.sender.jdk.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class BodyPublisherTest {
+
+  @Test
+  void consumedOnceReadToTheEnd() {
+    BodyPublisher publisher = new BodyPublisher(ByteBuffer.allocateDirect(40 * 1024));
+    RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(subscriber);
+
+    assertThat(subscriber.completions).hasValue(1);
+    assertThat(subscriber.received).hasSize(3);
+    // Completed, but the client did not write the content out yet.
+    assertThat(publisher.isConsumed()).isFalse();
+
+    subscriber.received.forEach(buffer -> buffer.position(buffer.limit()));
+    assertThat(publisher.isConsumed()).isTrue();
+  }
+
+  @Test
+  void notConsumedWhenSubscriptionIncomplete() {
+    // Like a client that got a response before sending the whole request.
+    BodyPublisher publisher = new BodyPublisher(ByteBuffer.allocateDirect(40 * 1024));
+    RecordingSubscriber subscriber = new RecordingSubscriber(1);
+    publisher.subscribe(subscriber);
+    subscriber.received.forEach(buffer -> buffer.position(buffer.limit()));
+
+    assertThat(subscriber.completions).hasValue(0);
+    assertThat(publisher.isConsumed()).isFalse();
+  }
+
+  @Test
+  void completesOnceWhenRequestingFromOnNext() {
+    BodyPublisher publisher = new BodyPublisher(ByteBuffer.allocateDirect(40 * 1024));
+    RecordingSubscriber subscriber =
+        new RecordingSubscriber(1) {
+          @Override
+          public void onNext(ByteBuffer item) {
+            super.onNext(item);
+            subscription.request(1);
+          }
+        };
+    publisher.subscribe(subscriber);
+    subscriber.received.forEach(buffer -> buffer.position(buffer.limit()));
+
+    assertThat(subscriber.received).hasSize(3);
+    assertThat(subscriber.completions).hasValue(1);
+    assertThat(publisher.isConsumed()).isTrue();
+  }
+
+  private static class RecordingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+    private final long initialRequest;
+    final List<ByteBuffer> received = new ArrayList<>();
+    final AtomicInteger completions = new AtomicInteger();
+    Flow.Subscription subscription;
+
+    private RecordingSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+      received.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {}
+
+    @Override
+    public void onComplete() {
+      completions.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.exporter.sender.jdk.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpClient;
+import org.junit.jupiter.api.Test;
+
+class JdkHttpSenderProviderTest {
+
+  @Test
+  void httpVersion() {
+    assertThat(JdkHttpSenderProvider.httpVersion("")).isNull();
+    assertThat(JdkHttpSenderProvider.httpVersion("http/1.1"))
+        .isEqualTo(HttpClient.Version.HTTP_1_1);
+    // The default
+    assertThat(JdkHttpSenderProvider.httpVersion("http/2")).isNull();
+    assertThat(JdkHttpSenderProvider.httpVersion("h2c")).isNull();
+  }
+
+  @Test
+  void maxConcurrentRequests() {
+    assertThat(JdkHttpSenderProvider.maxConcurrentRequests("")).isEqualTo(0);
+    assertThat(JdkHttpSenderProvider.maxConcurrentRequests("8")).isEqualTo(8);
+    assertThat(JdkHttpSenderProvider.maxConcurrentRequests("0")).isEqualTo(0);
+    assertThat(JdkHttpSenderProvider.maxConcurrentRequests("many")).isEqualTo(0);
+  }
+}
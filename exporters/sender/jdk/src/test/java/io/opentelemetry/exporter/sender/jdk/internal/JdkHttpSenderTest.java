@@ -40,6 +40,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.net.ssl.SSLException;
 import org.assertj.core.api.InstanceOfAssertFactories;
@@ -389,6 +390,199 @@ class JdkHttpSenderTest {
     assertThat(responseRef.get()).isNull();
   }
 
+  @Test
+  void httpVersion() {
+    JdkHttpSender http1Sender =
+        new JdkHttpSender(
+            URI.create("http://localhost"),
+            "text/plain",
+            null,
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(10),
+            Collections::emptyMap,
+            null,
+            null,
+            null,
+            null,
+            Long.MAX_VALUE,
+            HttpClient.Version.HTTP_1_1,
+            0,
+            false);
+
+    try {
+      assertThat(http1Sender)
+          .extracting("client", as(InstanceOfAssertFactories.type(HttpClient.class)))
+          .satisfies(
+              httpClient ->
+                  assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_1_1));
+    } finally {
+      http1Sender.shutdown();
+    }
+  }
+
+  @Test
+  void maxConcurrentRequests_boundsDefaultExecutor() {
+    JdkHttpSender limitedSender =
+        new JdkHttpSender(
+            URI.create("http://localhost"),
+            "text/plain",
+            null,
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(10),
+            Collections::emptyMap,
+            null,
+            null,
+            null,
+            null,
+            Long.MAX_VALUE,
+            HttpClient.Version.HTTP_2,
+            2,
+            false);
+
+    try {
+      assertThat(limitedSender)
+          .extracting(
+              "executorService", as(InstanceOfAssertFactories.type(ThreadPoolExecutor.class)))
+          .satisfies(executor -> assertThat(executor.getMaximumPoolSize()).isEqualTo(2));
+    } finally {
+      limitedSender.shutdown();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void send_maxConcurrentRequests_queuesExcessRequests() throws Exception {
+    java.net.http.HttpResponse<InputStream> mockJdkResponse =
+        mock(java.net.http.HttpResponse.class);
+    when(mockJdkResponse.statusCode()).thenReturn(200);
+    when(mockJdkResponse.body()).thenAnswer(unused -> new ByteArrayInputStream(new byte[0]));
+    when(mockJdkResponse.headers())
+        .thenReturn(HttpHeaders.of(Collections.emptyMap(), (a, b) -> true));
+    CountDownLatch inFlightLatch = new CountDownLatch(2);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    when(mockHttpClient.send(any(), any()))
+        .thenAnswer(
+            unused -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              inFlightLatch.countDown();
+              try {
+                releaseLatch.await(5, TimeUnit.SECONDS);
+              } finally {
+                inFlight.decrementAndGet();
+              }
+              return mockJdkResponse;
+            });
+
+    ExecutorService executor = Executors.newCachedThreadPool();
+    JdkHttpSender testSender =
+        new JdkHttpSender(
+            mockHttpClient,
+            URI.create("http://localhost"),
+            "text/plain",
+            null,
+            Duration.ofSeconds(10),
+            Collections::emptyMap,
+            null,
+            executor,
+            Long.MAX_VALUE,
+            2,
+            false);
+
+    try {
+      int requests = 10;
+      CountDownLatch responseLatch = new CountDownLatch(requests);
+      AtomicInteger responses = new AtomicInteger();
+      for (int i = 0; i < requests; i++) {
+        testSender.send(
+            new NoOpRequestBodyWriter(),
+            response -> {
+              responses.incrementAndGet();
+              responseLatch.countDown();
+            },
+            error -> responseLatch.countDown());
+      }
+
+      assertThat(inFlightLatch.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(inFlight.get()).isEqualTo(2);
+      releaseLatch.countDown();
+
+      assertThat(responseLatch.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(responses.get()).isEqualTo(requests);
+      assertThat(maxInFlight.get()).isEqualTo(2);
+      verify(mockHttpClient, times(requests)).send(any(), any());
+    } finally {
+      testSender.shutdown();
+      executor.shutdownNow();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void send_maxConcurrentRequests_failsWhenTooManyPending() throws Exception {
+    java.net.http.HttpResponse<InputStream> mockJdkResponse =
+        mock(java.net.http.HttpResponse.class);
+    when(mockJdkResponse.statusCode()).thenReturn(200);
+    when(mockJdkResponse.body()).thenAnswer(unused -> new ByteArrayInputStream(new byte[0]));
+    when(mockJdkResponse.headers())
+        .thenReturn(HttpHeaders.of(Collections.emptyMap(), (a, b) -> true));
+    CountDownLatch inFlightLatch = new CountDownLatch(1);
+    CountDownLatch releaseLatch = new CountDownLatch(1);
+    when(mockHttpClient.send(any(), any()))
+        .thenAnswer(
+            unused -> {
+              inFlightLatch.countDown();
+              releaseLatch.await(5, TimeUnit.SECONDS);
+              return mockJdkResponse;
+            });
+
+    ExecutorService executor = Executors.newCachedThreadPool();
+    JdkHttpSender testSender =
+        new JdkHttpSender(
+            mockHttpClient,
+            URI.create("http://localhost"),
+            "text/plain",
+            null,
+            Duration.ofSeconds(10),
+            Collections::emptyMap,
+            null,
+            executor,
+            Long.MAX_VALUE,
+            1,
+            false);
+
+    try {
+      int requests = 1 + JdkHttpSender.MAX_PENDING_REQUESTS;
+      CountDownLatch responseLatch = new CountDownLatch(requests);
+      AtomicInteger errors = new AtomicInteger();
+      testSender.send(
+          new NoOpRequestBodyWriter(),
+          response -> responseLatch.countDown(),
+          error -> errors.incrementAndGet());
+      assertThat(inFlightLatch.await(5, TimeUnit.SECONDS)).isTrue();
+      for (int i = 1; i < requests; i++) {
+        testSender.send(
+            new NoOpRequestBodyWriter(),
+            response -> responseLatch.countDown(),
+            error -> errors.incrementAndGet());
+      }
+
+      AtomicReference<Throwable> errorRef = new AtomicReference<>();
+      testSender.send(new NoOpRequestBodyWriter(), unused -> {}, errorRef::set);
+      assertThat(errorRef.get())
+          .isInstanceOf(RejectedExecutionException.class)
+          .hasMessage("Too many pending requests");
+
+      releaseLatch.countDown();
+      assertThat(responseLatch.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(errors.get()).isEqualTo(0);
+    } finally {
+      testSender.shutdown();
+      executor.shutdownNow();
+    }
+  }
+
   private static class NoOpRequestBodyWriter implements MessageWriter {
     @Override
     public void writeMessage(OutputStream output) {}
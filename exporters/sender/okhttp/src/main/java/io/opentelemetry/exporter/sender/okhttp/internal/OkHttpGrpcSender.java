@@ -25,6 +25,7 @@ package io.opentelemetry.exporter.sender.okhttp.internal;
 
 import io.opentelemetry.api.impl.InstrumentationUtil;
 import io.opentelemetry.exporter.internal.RetryUtil;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.export.Compressor;
 import io.opentelemetry.sdk.common.export.GrpcResponse;
@@ -79,6 +80,8 @@ public final class OkHttpGrpcSender implements GrpcSender {
   private static final String GRPC_MESSAGE = "grpc-message";
 
   private final boolean managedExecutor;
+  // Whether the dispatcher and connection pool are shared with other senders
+  private final boolean sharedTransport;
   private final OkHttpClient client;
   private final HttpUrl url;
   @Nullable private final Compressor compressor;
@@ -98,23 +101,57 @@ public final class OkHttpGrpcSender implements GrpcSender {
       @Nullable X509TrustManager trustManager,
       @Nullable ExecutorService executorService,
       long maxResponseBodySize) {
+    this(
+        endpoint,
+        compressor,
+        timeout,
+        connectTimeout,
+        headersSupplier,
+        retryPolicy,
+        sslContext,
+        trustManager,
+        executorService,
+        false,
+        maxResponseBodySize);
+  }
+
+  /**
+   * Creates a new {@link OkHttpGrpcSender}, which uses the dispatcher and connection pool attached
+   * to {@code executorService} if {@code sharedTransport}, in which case {@code executorService}
+   * must have been acquired as a {@link SharedTransport}.
+   */
+  @SuppressWarnings("TooManyParameters")
+  public OkHttpGrpcSender(
+      String endpoint,
+      @Nullable Compressor compressor,
+      Duration timeout,
+      Duration connectTimeout,
+      Supplier<Map<String, List<String>>> headersSupplier,
+      @Nullable RetryPolicy retryPolicy,
+      @Nullable SSLContext sslContext,
+      @Nullable X509TrustManager trustManager,
+      @Nullable ExecutorService executorService,
+      boolean sharedTransport,
+      long maxResponseBodySize) {
     int callTimeoutMillis = (int) Math.min(timeout.toMillis(), Integer.MAX_VALUE);
     int connectTimeoutMillis = (int) Math.min(connectTimeout.toMillis(), Integer.MAX_VALUE);
 
-    Dispatcher dispatcher;
+    this.sharedTransport = sharedTransport && executorService != null;
+    OkHttpClient.Builder clientBuilder;
     if (executorService == null) {
-      dispatcher = OkHttpUtil.newDispatcher();
+      clientBuilder = new OkHttpClient.Builder().dispatcher(OkHttpUtil.newDispatcher());
       this.managedExecutor = true;
+    } else if (sharedTransport) {
+      clientBuilder = OkHttpUtil.sharedClientBuilder(executorService);
+      this.managedExecutor = false;
     } else {
-      dispatcher = new Dispatcher(executorService);
+      clientBuilder = new OkHttpClient.Builder().dispatcher(new Dispatcher(executorService));
       this.managedExecutor = false;
     }
 
-    OkHttpClient.Builder clientBuilder =
-        new OkHttpClient.Builder()
-            .dispatcher(dispatcher)
-            .callTimeout(Duration.ofMillis(callTimeoutMillis))
-            .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+    clientBuilder
+        .callTimeout(Duration.ofMillis(callTimeoutMillis))
+        .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
     if (retryPolicy != null) {
       clientBuilder.addInterceptor(
           new RetryInterceptor(
@@ -142,7 +179,7 @@ public final class OkHttpGrpcSender implements GrpcSender {
   @Override
   public void send(
       MessageWriter messageWriter, Consumer<GrpcResponse> onResponse, Consumer<Throwable> onError) {
-    Request.Builder requestBuilder = new Request.Builder().url(url);
+    Request.Builder requestBuilder = new Request.Builder().url(url).tag(this);
 
     Map<String, List<String>> headers = headersSupplier.get();
     if (headers != null) {
@@ -306,6 +343,11 @@ public final class OkHttpGrpcSender implements GrpcSender {
 
   @Override
   public CompletableResultCode shutdown() {
+    if (sharedTransport) {
+      // The shared connection pool is evicted once the last sender using it is shut down.
+      OkHttpUtil.cancelCalls(client.dispatcher(), this);
+      return CompletableResultCode.ofSuccess();
+    }
     client.dispatcher().cancelAll();
     client.connectionPool().evictAll();
 
@@ -351,7 +393,8 @@ public final class OkHttpGrpcSender implements GrpcSender {
     if (grpcStatus == null) {
       return false;
     }
-    return RetryUtil.retryableGrpcStatusCodes().contains(grpcStatus);
+    return RetryUtil.retryableGrpcStatusCodes().contains(grpcStatus)
+        && !RetryUtil.isGrpcMessageTooLarge(grpcStatus, response.header(GRPC_MESSAGE));
   }
 
   // From grpc-java
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.exporter.sender.okhttp.internal;
 
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.sdk.common.export.GrpcSender;
 import io.opentelemetry.sdk.common.export.GrpcSenderConfig;
 import io.opentelemetry.sdk.common.export.GrpcSenderProvider;
@@ -32,6 +33,7 @@ public class OkHttpGrpcSenderProvider implements GrpcSenderProvider {
         grpcSenderConfig.getSslContext(),
         grpcSenderConfig.getTrustManager(),
         grpcSenderConfig.getExecutorService(),
+        SharedTransport.isShared(grpcSenderConfig),
         grpcSenderConfig.getMaxResponseBodySize());
   }
 }
@@ -7,6 +7,7 @@ package io.opentelemetry.exporter.sender.okhttp.internal;
 
 import io.opentelemetry.api.impl.InstrumentationUtil;
 import io.opentelemetry.exporter.internal.RetryUtil;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.exporter.internal.TlsUtil;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.common.export.Compressor;
@@ -61,6 +62,8 @@ public final class OkHttpHttpSender implements HttpSender {
   private static final Logger logger = Logger.getLogger(OkHttpHttpSender.class.getName());
 
   private final boolean managedExecutor;
+  // Whether the dispatcher and connection pool are shared with other senders
+  private final boolean sharedTransport;
   private final OkHttpClient client;
   private final HttpUrl url;
   private final Supplier<Map<String, List<String>>> headerSupplier;
@@ -83,23 +86,61 @@ public final class OkHttpHttpSender implements HttpSender {
       @Nullable X509TrustManager trustManager,
       @Nullable ExecutorService executorService,
       long maxResponseBodySize) {
+    this(
+        endpoint,
+        contentType,
+        compressor,
+        timeout,
+        connectTimeout,
+        headerSupplier,
+        proxyOptions,
+        retryPolicy,
+        sslContext,
+        trustManager,
+        executorService,
+        false,
+        maxResponseBodySize);
+  }
+
+  /**
+   * Create a sender, which uses the dispatcher and connection pool attached to {@code
+   * executorService} if {@code sharedTransport}, in which case {@code executorService} must have
+   * been acquired as a {@link SharedTransport}.
+   */
+  @SuppressWarnings("TooManyParameters")
+  public OkHttpHttpSender(
+      URI endpoint,
+      String contentType,
+      @Nullable Compressor compressor,
+      Duration timeout,
+      Duration connectTimeout,
+      Supplier<Map<String, List<String>>> headerSupplier,
+      @Nullable ProxyOptions proxyOptions,
+      @Nullable RetryPolicy retryPolicy,
+      @Nullable SSLContext sslContext,
+      @Nullable X509TrustManager trustManager,
+      @Nullable ExecutorService executorService,
+      boolean sharedTransport,
+      long maxResponseBodySize) {
     int callTimeoutMillis = (int) Math.min(timeout.toMillis(), Integer.MAX_VALUE);
     int connectTimeoutMillis = (int) Math.min(connectTimeout.toMillis(), Integer.MAX_VALUE);
 
-    Dispatcher dispatcher;
+    this.sharedTransport = sharedTransport && executorService != null;
+    OkHttpClient.Builder builder;
     if (executorService == null) {
-      dispatcher = OkHttpUtil.newDispatcher();
+      builder = new OkHttpClient.Builder().dispatcher(OkHttpUtil.newDispatcher());
       this.managedExecutor = true;
+    } else if (sharedTransport) {
+      builder = OkHttpUtil.sharedClientBuilder(executorService);
+      this.managedExecutor = false;
     } else {
-      dispatcher = new Dispatcher(executorService);
+      builder = new OkHttpClient.Builder().dispatcher(new Dispatcher(executorService));
       this.managedExecutor = false;
     }
 
-    OkHttpClient.Builder builder =
-        new OkHttpClient.Builder()
-            .dispatcher(dispatcher)
-            .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
-            .callTimeout(Duration.ofMillis(callTimeoutMillis));
+    builder
+        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+        .callTimeout(Duration.ofMillis(callTimeoutMillis));
 
     if (proxyOptions != null) {
       builder.proxySelector(proxyOptions.getProxySelector());
@@ -142,7 +183,7 @@ public final class OkHttpHttpSender implements HttpSender {
   @Override
   public void send(
       MessageWriter messageWriter, Consumer<HttpResponse> onResponse, Consumer<Throwable> onError) {
-    Request.Builder requestBuilder = new Request.Builder().url(url);
+    Request.Builder requestBuilder = new Request.Builder().url(url).tag(this);
 
     Map<String, List<String>> headers = headerSupplier.get();
     if (headers != null) {
@@ -227,6 +268,11 @@ public final class OkHttpHttpSender implements HttpSender {
 
   @Override
   public CompletableResultCode shutdown() {
+    if (sharedTransport) {
+      // The shared connection pool is evicted once the last sender using it is shut down.
+      OkHttpUtil.cancelCalls(client.dispatcher(), this);
+      return CompletableResultCode.ofSuccess();
+    }
     client.dispatcher().cancelAll();
     client.connectionPool().evictAll();
 
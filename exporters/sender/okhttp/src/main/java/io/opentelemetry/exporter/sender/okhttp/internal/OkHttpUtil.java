@@ -6,12 +6,16 @@
 package io.opentelemetry.exporter.sender.okhttp.internal;
 
 import io.opentelemetry.context.Context;
+import io.opentelemetry.exporter.internal.SharedTransport;
 import io.opentelemetry.sdk.common.internal.DaemonThreadFactory;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
 import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 
 /**
  * Utilities for OkHttp.
@@ -47,6 +51,34 @@ public final class OkHttpUtil {
     return dispatcher;
   }
 
+  /**
+   * Returns a builder for a client sharing its dispatcher and connection pool with the other
+   * senders using the {@link SharedTransport} {@code executorService}.
+   */
+  static OkHttpClient.Builder sharedClientBuilder(ExecutorService executorService) {
+    OkHttpClient sharedClient =
+        SharedTransport.getOrCreateResource(
+            executorService,
+            OkHttpClient.class,
+            () -> new OkHttpClient.Builder().dispatcher(new Dispatcher(executorService)).build(),
+            client -> client.connectionPool().evictAll());
+    return sharedClient.newBuilder();
+  }
+
+  /** Cancels the calls of {@code dispatcher} whose request is tagged with {@code tag}. */
+  static void cancelCalls(Dispatcher dispatcher, Object tag) {
+    for (Call call : dispatcher.queuedCalls()) {
+      if (call.request().tag() == tag) {
+        call.cancel();
+      }
+    }
+    for (Call call : dispatcher.runningCalls()) {
+      if (call.request().tag() == tag) {
+        call.cancel();
+      }
+    }
+  }
+
   private static DaemonThreadFactory createThreadFactory(String namePrefix) {
     if (propagateContextForTestingInDispatcher) {
       return new DaemonThreadFactory(
@@ -62,6 +62,16 @@ class OkHttpGrpcSenderTest {
     assertFalse(isRetryable);
   }
 
+  @Test
+  void isRetryable_MessageTooLarge() {
+    Response response =
+        createResponse(200, String.valueOf(GrpcStatusCode.RESOURCE_EXHAUSTED.getValue()), "OK")
+            .newBuilder()
+            .header("grpc-message", "grpc: received message larger than max (5 vs. 4)")
+            .build();
+    assertFalse(OkHttpGrpcSender.isRetryable(response));
+  }
+
   @Test
   void send_rejectedExecution_callsOnError() {
     ThreadPoolExecutor executor =
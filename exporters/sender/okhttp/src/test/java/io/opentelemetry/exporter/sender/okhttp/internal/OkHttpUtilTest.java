@@ -8,8 +8,11 @@ package io.opentelemetry.exporter.sender.okhttp.internal;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
 
+import io.opentelemetry.exporter.internal.SharedTransport;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.Test;
 
 class OkHttpUtilTest {
@@ -35,4 +38,23 @@ class OkHttpUtilTest {
       dispatcher.executorService().shutdownNow();
     }
   }
+
+  @Test
+  void sharedClientBuilder_sharesDispatcherAndConnectionPool() {
+    ExecutorService executor = SharedTransport.acquire(null);
+    SharedTransport.acquire(executor);
+    try {
+      OkHttpClient first = OkHttpUtil.sharedClientBuilder(executor).build();
+      OkHttpClient second = OkHttpUtil.sharedClientBuilder(executor).build();
+
+      assertThat(first).isNotSameAs(second);
+      assertThat(first.dispatcher()).isSameAs(second.dispatcher());
+      assertThat(first.dispatcher().executorService()).isSameAs(executor);
+      assertThat(first.connectionPool()).isSameAs(second.connectionPool());
+    } finally {
+      SharedTransport.release(executor);
+      SharedTransport.release(executor);
+    }
+    assertThat(executor.isShutdown()).isTrue();
+  }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.extension.trace.propagation;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.internal.BulkTextMapGetter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for extracting with a composite of tracecontext, baggage, b3 and jaeger propagators
+ * from a carrier where each lookup is a case insensitive scan of the headers, like a servlet
+ * request.
+ */
+@State(Scope.Thread)
+@SuppressWarnings("deprecation") // JaegerPropagator is deprecated
+public class MultiPropagatorContextExtractBenchmark {
+
+  private static final TextMapPropagator propagator =
+      TextMapPropagator.composite(
+          W3CTraceContextPropagator.getInstance(),
+          W3CBaggagePropagator.getInstance(),
+          B3Propagator.injectingMultiHeaders(),
+          JaegerPropagator.getInstance());
+
+  private static final List<String[]> headers = new ArrayList<>();
+
+  static {
+    headers.add(new String[] {"Host", "localhost:8080"});
+    headers.add(new String[] {"User-Agent", "Mozilla/5.0 (X11; Linux x86_64)"});
+    headers.add(new String[] {"Accept", "application/json"});
+    headers.add(new String[] {"Accept-Encoding", "gzip, deflate"});
+    headers.add(new String[] {"Accept-Language", "en-US,en;q=0.9"});
+    headers.add(new String[] {"Connection", "keep-alive"});
+    headers.add(new String[] {"Content-Type", "application/json"});
+    headers.add(new String[] {"Content-Length", "128"});
+    headers.add(
+        new String[] {"Traceparent", "00-905734c59b913b4a905734c59b913b4a-9909983295041501-01"});
+    headers.add(new String[] {"Baggage", "user=alice,tenant=acme"});
+  }
+
+  /** Looks up each header on its own, as getters relying on {@code getHeader} do. */
+  private static final TextMapGetter<List<String[]>> getter =
+      new TextMapGetter<List<String[]>>() {
+        @Override
+        public Iterable<String> keys(List<String[]> carrier) {
+          List<String> keys = new ArrayList<>(carrier.size());
+          for (String[] header : carrier) {
+            keys.add(header[0]);
+          }
+          return keys;
+        }
+
+        @Override
+        @Nullable
+        public String get(@Nullable List<String[]> carrier, String key) {
+          if (carrier == null) {
+            return null;
+          }
+          for (String[] header : carrier) {
+            if (header[0].equalsIgnoreCase(key)) {
+              return header[1];
+            }
+          }
+          return null;
+        }
+      };
+
+  /** Reads all the requested headers in a single scan of the carrier. */
+  private static final TextMapGetter<List<String[]>> singlePassGetter =
+      new BulkTextMapGetter<List<String[]>>() {
+        @Override
+        public Iterable<String> keys(List<String[]> carrier) {
+          return getter.keys(carrier);
+        }
+
+        @Override
+        @Nullable
+        public String get(@Nullable List<String[]> carrier, String key) {
+          return getter.get(carrier, key);
+        }
+
+        @Override
+        public void getAll(
+            @Nullable List<String[]> carrier,
+            Collection<String> keys,
+            BiConsumer<String, CharSequence> consumer) {
+          if (carrier == null) {
+            return;
+          }
+          for (String[] header : carrier) {
+            for (String key : keys) {
+              if (header[0].equalsIgnoreCase(key)) {
+                consumer.accept(key, header[1]);
+              }
+            }
+          }
+        }
+      };
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Context extract_perPropagator() {
+    return propagator.extract(Context.root(), headers, getter);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @Fork(1)
+  @Measurement(iterations = 15, time = 1)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 5, time = 1)
+  public Context extract_singlePass() {
+    return propagator.extract(Context.root(), headers, singlePassGetter);
+  }
+}
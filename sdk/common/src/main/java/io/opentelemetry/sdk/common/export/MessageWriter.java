@@ -7,6 +7,7 @@ package io.opentelemetry.sdk.common.export;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Responsible for writing messages to an output stream.
@@ -18,6 +19,31 @@ public interface MessageWriter {
   /** Write the message to the {@link OutputStream}. */
   void writeMessage(OutputStream output) throws IOException;
 
+  /**
+   * Write the message to the {@link ByteBuffer}, starting at its position, which is advanced past
+   * the message. Only called when {@link #getContentLength()} is not -1, with a buffer, possibly
+   * direct, with at least that many bytes remaining.
+   *
+   * <p>The default implementation writes the message with {@link #writeMessage(OutputStream)}.
+   * Implementations able to serialize straight into a {@link ByteBuffer} should override it.
+   *
+   * @since 1.66.0
+   */
+  default void writeMessage(ByteBuffer output) throws IOException {
+    writeMessage(
+        new OutputStream() {
+          @Override
+          public void write(int b) {
+            output.put((byte) b);
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) {
+            output.put(b, off, len);
+          }
+        });
+  }
+
   /** Return the message length in bytes, or -1 if the length is unknown. */
   int getContentLength();
 }
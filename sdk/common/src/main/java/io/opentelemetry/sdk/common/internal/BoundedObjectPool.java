@@ -0,0 +1,58 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.common.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe pool of objects reused across operations, such as the native state and buffers of
+ * compressors. It keeps at most as many objects as there are available processors, which is
+ * enough for each core to use one concurrently. Objects offered to a full pool are not kept.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class BoundedObjectPool<T> {
+
+  private final int maxSize;
+  private final Queue<T> pool = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  public BoundedObjectPool() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  // Visible for testing
+  BoundedObjectPool(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /** Returns a pooled object, or {@code null} if the pool is empty. */
+  @Nullable
+  public T poll() {
+    T object = pool.poll();
+    if (object != null) {
+      size.decrementAndGet();
+    }
+    return object;
+  }
+
+  /**
+   * Returns {@code object} to the pool. Returns {@code false} if the pool is full, in which case
+   * the caller should release any resources {@code object} holds.
+   */
+  public boolean offer(T object) {
+    if (size.incrementAndGet() > maxSize) {
+      size.decrementAndGet();
+      return false;
+    }
+    pool.offer(object);
+    return true;
+  }
+}
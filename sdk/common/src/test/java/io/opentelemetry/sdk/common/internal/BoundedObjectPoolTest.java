@@ -0,0 +1,29 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.sdk.common.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedObjectPoolTest {
+
+  @Test
+  void reusesUpToMaxSize() {
+    BoundedObjectPool<Object> pool = new BoundedObjectPool<>(2);
+    assertThat(pool.poll()).isNull();
+
+    Object first = new Object();
+    Object second = new Object();
+    assertThat(pool.offer(first)).isTrue();
+    assertThat(pool.offer(second)).isTrue();
+    assertThat(pool.offer(new Object())).isFalse();
+
+    assertThat(pool.poll()).isSameAs(first);
+    assertThat(pool.offer(new Object())).isTrue();
+    assertThat(pool.poll()).isSameAs(second);
+  }
+}
@@ -37,6 +37,7 @@ include(":extensions:kotlin")
 include(":extensions:trace-propagators")
 include(":exporters:common")
 include(":exporters:common:compile-stub")
+include(":exporters:compressor:snappy")
 include(":exporters:sender:grpc-managed-channel")
 include(":exporters:sender:jdk")
 include(":exporters:sender:okhttp")